@@ -47,6 +47,11 @@ import com.sri.ai.util.cache.CacheMap;
 
 /**
  * Configuration information for the classes in the expresso package.
+ * <p>
+ * Setters are synchronized, so that flushing the global symbol tables and setting the new value
+ * happen together with respect to other setters;
+ * symbol tables are rebuilt completely before being published (see {@link DefaultSymbol#flushGlobalSymbolTable()}),
+ * so expressions can be created from other threads meanwhile.
  * 
  * @author oreilly
  *
@@ -86,7 +91,7 @@ public class ExpressoConfiguration extends Configuration {
 		return result;
 	}
 
-	public static boolean setDisplayNumericsExactlyForSymbols(boolean newValue) {
+	public static synchronized boolean setDisplayNumericsExactlyForSymbols(boolean newValue) {
 		boolean result = isDisplayNumericsExactlyForSymbols();
 		SyntaxTrees.flushGlobalSymbolTable();
 		DefaultSymbol.flushGlobalSymbolTable();
@@ -102,7 +107,7 @@ public class ExpressoConfiguration extends Configuration {
 		return result;
 	}
 
-	public static int setDisplayNumericsMostDecimalPlacesInExactRepresentationOfNumericalSymbols(int newValue) {
+	public static synchronized int setDisplayNumericsMostDecimalPlacesInExactRepresentationOfNumericalSymbols(int newValue) {
 		int result = getDisplayNumericsMostDecimalPlacesInExactRepresentationOfNumericalSymbols();
 		SyntaxTrees.flushGlobalSymbolTable();
 		DefaultSymbol.flushGlobalSymbolTable();
@@ -119,7 +124,7 @@ public class ExpressoConfiguration extends Configuration {
 		return result;
 	}
 	
-	public static int setDisplayNumericsMostDecimalPlacesInApproximateRepresentationOfNumericalSymbols(int newValue) {
+	public static synchronized int setDisplayNumericsMostDecimalPlacesInApproximateRepresentationOfNumericalSymbols(int newValue) {
 		int result = getDisplayNumericsMostDecimalPlacesInApproximateRepresentationOfNumericalSymbols();
 		SyntaxTrees.flushGlobalSymbolTable();
 		DefaultSymbol.flushGlobalSymbolTable();
@@ -132,7 +137,7 @@ public class ExpressoConfiguration extends Configuration {
 		return result;
 	}
 	
-	public static int setDisplayNumericsMostIntegerPlacesBeforeSwitchingToScientificNotation(int newValue) {
+	public static synchronized int setDisplayNumericsMostIntegerPlacesBeforeSwitchingToScientificNotation(int newValue) {
 		int result = getDisplayNumericsMostIntegerPlacesBeforeSwitchingToScientificNotation();
 		SyntaxTrees.flushGlobalSymbolTable();
 		DefaultSymbol.flushGlobalSymbolTable();
@@ -145,7 +150,7 @@ public class ExpressoConfiguration extends Configuration {
 		return result;
 	}
 	
-	public static int setDisplayNumericsGreatestInitialNonZeroDecimalPlacePositionBeforeSwitchingToScientificNotation(int newValue) {
+	public static synchronized int setDisplayNumericsGreatestInitialNonZeroDecimalPlacePositionBeforeSwitchingToScientificNotation(int newValue) {
 		int result = getDisplayNumericsGreatestInitialNonZeroDecimalPlacePositionBeforeSwitchingToScientificNotation();
 		SyntaxTrees.flushGlobalSymbolTable();
 		DefaultSymbol.flushGlobalSymbolTable();
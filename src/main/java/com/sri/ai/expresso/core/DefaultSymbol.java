@@ -199,7 +199,7 @@ public class DefaultSymbol extends AbstractNonQuantifiedExpression implements Sy
 		syntaxLeaf = DefaultSyntaxLeaf.createSyntaxLeaf(value, isStringLiteral);
 	}
 
-	public static void flushGlobalSymbolTable() {
+	public static synchronized void flushGlobalSymbolTable() {
 		if (AICUtilConfiguration.isRecordCacheStatistics()) {
 			System.out.println("Global Symbol Table Cache Stats="+globalSymbolTable.stats());
 			System.out.println("Global String Literal Table Cache Stats="+globalStringLiteralTable.stats());
@@ -208,55 +208,61 @@ public class DefaultSymbol extends AbstractNonQuantifiedExpression implements Sy
 		useGlobalSymbolTable = ExpressoConfiguration.isUseGlobalSymbolTable();
 		cacheNumericSymbols  = ExpressoConfiguration.isGlobalSymbolTableToCacheNumerics();
 		
-		if (globalSymbolTable != null) {
-			globalSymbolTable.invalidateAll();
-		}
-		if (globalStringLiteralTable != null) {
-			globalStringLiteralTable.invalidateAll();
-		}
-		globalSymbolTable        = newSymbolTable();
-		globalStringLiteralTable = newSymbolTable();
+		// the new table is filled before being published, so that other threads never see it incomplete
+		Cache<Object, Symbol> symbolTable = newSymbolTable();
 		// Add well known symbols to the table
 		// The Booleans.
-		globalSymbolTable.put(true,          SYMBOL_TRUE);
-		globalSymbolTable.put(Boolean.TRUE,  SYMBOL_TRUE);
-		globalSymbolTable.put("true",        SYMBOL_TRUE);
-		globalSymbolTable.put(false,         SYMBOL_FALSE);
-		globalSymbolTable.put(Boolean.FALSE, SYMBOL_FALSE);
-		globalSymbolTable.put("false",       SYMBOL_FALSE);
+		symbolTable.put(true,          SYMBOL_TRUE);
+		symbolTable.put(Boolean.TRUE,  SYMBOL_TRUE);
+		symbolTable.put("true",        SYMBOL_TRUE);
+		symbolTable.put(false,         SYMBOL_FALSE);
+		symbolTable.put(Boolean.FALSE, SYMBOL_FALSE);
+		symbolTable.put("false",       SYMBOL_FALSE);
 		// Common Numbers
-		globalSymbolTable.put("0",             SYMBOL_0);
-		globalSymbolTable.put(new Integer(0),  SYMBOL_0);
-		globalSymbolTable.put(new Rational(0), SYMBOL_0);
-		globalSymbolTable.put("1",             SYMBOL_1);
-		globalSymbolTable.put(new Integer(1),  SYMBOL_1);
-		globalSymbolTable.put(new Rational(1), SYMBOL_1);
-		globalSymbolTable.put("2",             SYMBOL_2);
-		globalSymbolTable.put(new Integer(2),  SYMBOL_2);
-		globalSymbolTable.put(new Rational(2), SYMBOL_2);
-		globalSymbolTable.put("3",             SYMBOL_3);
-		globalSymbolTable.put(new Integer(3),  SYMBOL_3);
-		globalSymbolTable.put(new Rational(3), SYMBOL_3);
-		globalSymbolTable.put("4",             SYMBOL_4);
-		globalSymbolTable.put(new Integer(4),  SYMBOL_4);
-		globalSymbolTable.put(new Rational(4), SYMBOL_4);
-		globalSymbolTable.put("5",             SYMBOL_5);
-		globalSymbolTable.put(new Integer(5),  SYMBOL_5);
-		globalSymbolTable.put(new Rational(5), SYMBOL_5);
-		globalSymbolTable.put("6",             SYMBOL_6);
-		globalSymbolTable.put(new Integer(6),  SYMBOL_6);
-		globalSymbolTable.put(new Rational(6), SYMBOL_6);
-		globalSymbolTable.put("7",             SYMBOL_7);
-		globalSymbolTable.put(new Integer(7),  SYMBOL_7);
-		globalSymbolTable.put(new Rational(7), SYMBOL_7);
-		globalSymbolTable.put("8",             SYMBOL_8);
-		globalSymbolTable.put(new Integer(8),  SYMBOL_8);
-		globalSymbolTable.put(new Rational(8), SYMBOL_8);
-		globalSymbolTable.put("9",             SYMBOL_9);
-		globalSymbolTable.put(new Integer(9),  SYMBOL_9);
-		globalSymbolTable.put(new Rational(9), SYMBOL_9);
+		symbolTable.put("0",             SYMBOL_0);
+		symbolTable.put(new Integer(0),  SYMBOL_0);
+		symbolTable.put(new Rational(0), SYMBOL_0);
+		symbolTable.put("1",             SYMBOL_1);
+		symbolTable.put(new Integer(1),  SYMBOL_1);
+		symbolTable.put(new Rational(1), SYMBOL_1);
+		symbolTable.put("2",             SYMBOL_2);
+		symbolTable.put(new Integer(2),  SYMBOL_2);
+		symbolTable.put(new Rational(2), SYMBOL_2);
+		symbolTable.put("3",             SYMBOL_3);
+		symbolTable.put(new Integer(3),  SYMBOL_3);
+		symbolTable.put(new Rational(3), SYMBOL_3);
+		symbolTable.put("4",             SYMBOL_4);
+		symbolTable.put(new Integer(4),  SYMBOL_4);
+		symbolTable.put(new Rational(4), SYMBOL_4);
+		symbolTable.put("5",             SYMBOL_5);
+		symbolTable.put(new Integer(5),  SYMBOL_5);
+		symbolTable.put(new Rational(5), SYMBOL_5);
+		symbolTable.put("6",             SYMBOL_6);
+		symbolTable.put(new Integer(6),  SYMBOL_6);
+		symbolTable.put(new Rational(6), SYMBOL_6);
+		symbolTable.put("7",             SYMBOL_7);
+		symbolTable.put(new Integer(7),  SYMBOL_7);
+		symbolTable.put(new Rational(7), SYMBOL_7);
+		symbolTable.put("8",             SYMBOL_8);
+		symbolTable.put(new Integer(8),  SYMBOL_8);
+		symbolTable.put(new Rational(8), SYMBOL_8);
+		symbolTable.put("9",             SYMBOL_9);
+		symbolTable.put(new Integer(9),  SYMBOL_9);
+		symbolTable.put(new Rational(9), SYMBOL_9);
+		
+		Cache<Object, Symbol> oldSymbolTable        = globalSymbolTable;
+		Cache<Object, Symbol> oldStringLiteralTable = globalStringLiteralTable;
+		globalSymbolTable        = symbolTable;
+		globalStringLiteralTable = newSymbolTable();
+		if (oldSymbolTable != null) {
+			oldSymbolTable.invalidateAll();
+		}
+		if (oldStringLiteralTable != null) {
+			oldStringLiteralTable.invalidateAll();
+		}
 	}
 
+
 	private static Cache<Object, Symbol> newSymbolTable() {
 		CacheBuilder<Object, Object> cb = CacheBuilder.newBuilder();
 		
@@ -304,12 +310,12 @@ public class DefaultSymbol extends AbstractNonQuantifiedExpression implements Sy
 	private static final Symbol SYMBOL_9     = Expressions.makeSymbol(new Rational(9));
 
 	//
-	private static boolean                      useGlobalSymbolTable = ExpressoConfiguration.isUseGlobalSymbolTable();
+	private static volatile boolean                      useGlobalSymbolTable = ExpressoConfiguration.isUseGlobalSymbolTable();
 
-	private static boolean                      cacheNumericSymbols  = ExpressoConfiguration.isGlobalSymbolTableToCacheNumerics();
+	private static volatile boolean                      cacheNumericSymbols  = ExpressoConfiguration.isGlobalSymbolTableToCacheNumerics();
 
-	private static Cache<Object, Symbol>        globalSymbolTable         = newSymbolTable();
-	private static Cache<Object, Symbol>        globalStringLiteralTable  = newSymbolTable();
+	private static volatile Cache<Object, Symbol>        globalSymbolTable         = newSymbolTable();
+	private static volatile Cache<Object, Symbol>        globalStringLiteralTable  = newSymbolTable();
 	
 	static {
 		flushGlobalSymbolTable();
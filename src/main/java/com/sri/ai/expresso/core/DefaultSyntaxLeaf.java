@@ -124,7 +124,7 @@ public class DefaultSyntaxLeaf extends AbstractSyntaxTree implements SyntaxLeaf
 		_specialFunctorSymbols.add(FunctorConstants.GREATER_THAN_OR_EQUAL_TO);
 		_specialFunctorSymbols.add(FunctorConstants.FUNCTION_TYPE);
 	}
-	private static int     maximumNumberOfDecimalPlacesBeforeResortingToScientificNotation   = getDisplayNumericsGreatestInitialNonZeroDecimalPlacePositionBeforeSwitchingToScientificNotation();
+	private static volatile int maximumNumberOfDecimalPlacesBeforeResortingToScientificNotation = getDisplayNumericsGreatestInitialNonZeroDecimalPlacePositionBeforeSwitchingToScientificNotation();
 	
 	public static final CharSequenceTranslator UNESCAPE_STRING_VALUE = 
 		        new AggregateTranslator(
@@ -585,7 +585,7 @@ public class DefaultSyntaxLeaf extends AbstractSyntaxTree implements SyntaxLeaf
 		return new DefaultSyntaxLeaf(getValue(), isStringLiteral());
 	}
 
-	private static boolean dontAcceptSymbolValueToBeExpression = true;
+	private static volatile boolean dontAcceptSymbolValueToBeExpression = true;
 	public static boolean setDontAcceptSymbolValueToBeExpression(boolean newValue) {
 		boolean oldValue = dontAcceptSymbolValueToBeExpression;
 		dontAcceptSymbolValueToBeExpression = newValue;
@@ -641,7 +641,7 @@ public class DefaultSyntaxLeaf extends AbstractSyntaxTree implements SyntaxLeaf
 		return result;
 	}
 	
-	public static void flushGlobalSymbolTable() {
+	public static synchronized void flushGlobalSymbolTable() {
 		if (AICUtilConfiguration.isRecordCacheStatistics()) {
 			System.out.println("Global Symbol Table Cache Stats="+_globalSymbolTable.stats());
 		}
@@ -649,56 +649,62 @@ public class DefaultSyntaxLeaf extends AbstractSyntaxTree implements SyntaxLeaf
 		_useGlobalSymbolTable = ExpressoConfiguration.isUseGlobalSymbolTable();
 		_cacheNumericSymbols  = ExpressoConfiguration.isGlobalSymbolTableToCacheNumerics();
 		
-		if (_globalSymbolTable != null) {
-			_globalSymbolTable.invalidateAll();
-		}
-		if (_globalStringLiteralTable != null) {
-			_globalStringLiteralTable.invalidateAll();
-		}
 		
-		_globalSymbolTable        = newSymbolTable();
-		_globalStringLiteralTable = newSymbolTable();
+		// the new table is filled before being published, so that other threads never see it incomplete
+		Cache<Object, SyntaxLeaf> symbolTable = newSymbolTable();
 		// Add well known symbols to the table
 		// The Booleans.
-		_globalSymbolTable.put(true,          SYMBOL_TRUE);
-		_globalSymbolTable.put(Boolean.TRUE,  SYMBOL_TRUE);
-		_globalSymbolTable.put("true",        SYMBOL_TRUE);
-		_globalSymbolTable.put(false,         SYMBOL_FALSE);
-		_globalSymbolTable.put(Boolean.FALSE, SYMBOL_FALSE);
-		_globalSymbolTable.put("false",       SYMBOL_FALSE);
+		symbolTable.put(true,          SYMBOL_TRUE);
+		symbolTable.put(Boolean.TRUE,  SYMBOL_TRUE);
+		symbolTable.put("true",        SYMBOL_TRUE);
+		symbolTable.put(false,         SYMBOL_FALSE);
+		symbolTable.put(Boolean.FALSE, SYMBOL_FALSE);
+		symbolTable.put("false",       SYMBOL_FALSE);
 		// Common Numbers
-		_globalSymbolTable.put("0",             SYMBOL_0);
-		_globalSymbolTable.put(new Integer(0),  SYMBOL_0);
-		_globalSymbolTable.put(new Rational(0), SYMBOL_0);
-		_globalSymbolTable.put("1",             SYMBOL_1);
-		_globalSymbolTable.put(new Integer(1),  SYMBOL_1);
-		_globalSymbolTable.put(new Rational(1), SYMBOL_1);
-		_globalSymbolTable.put("2",             SYMBOL_2);
-		_globalSymbolTable.put(new Integer(2),  SYMBOL_2);
-		_globalSymbolTable.put(new Rational(2), SYMBOL_2);
-		_globalSymbolTable.put("3",             SYMBOL_3);
-		_globalSymbolTable.put(new Integer(3),  SYMBOL_3);
-		_globalSymbolTable.put(new Rational(3), SYMBOL_3);
-		_globalSymbolTable.put("4",             SYMBOL_4);
-		_globalSymbolTable.put(new Integer(4),  SYMBOL_4);
-		_globalSymbolTable.put(new Rational(4), SYMBOL_4);
-		_globalSymbolTable.put("5",             SYMBOL_5);
-		_globalSymbolTable.put(new Integer(5),  SYMBOL_5);
-		_globalSymbolTable.put(new Rational(5), SYMBOL_5);
-		_globalSymbolTable.put("6",             SYMBOL_6);
-		_globalSymbolTable.put(new Integer(6),  SYMBOL_6);
-		_globalSymbolTable.put(new Rational(6), SYMBOL_6);
-		_globalSymbolTable.put("7",             SYMBOL_7);
-		_globalSymbolTable.put(new Integer(7),  SYMBOL_7);
-		_globalSymbolTable.put(new Rational(7), SYMBOL_7);
-		_globalSymbolTable.put("8",             SYMBOL_8);
-		_globalSymbolTable.put(new Integer(8),  SYMBOL_8);
-		_globalSymbolTable.put(new Rational(8), SYMBOL_8);
-		_globalSymbolTable.put("9",             SYMBOL_9);
-		_globalSymbolTable.put(new Integer(9),  SYMBOL_9);
-		_globalSymbolTable.put(new Rational(9), SYMBOL_9);
+		symbolTable.put("0",             SYMBOL_0);
+		symbolTable.put(new Integer(0),  SYMBOL_0);
+		symbolTable.put(new Rational(0), SYMBOL_0);
+		symbolTable.put("1",             SYMBOL_1);
+		symbolTable.put(new Integer(1),  SYMBOL_1);
+		symbolTable.put(new Rational(1), SYMBOL_1);
+		symbolTable.put("2",             SYMBOL_2);
+		symbolTable.put(new Integer(2),  SYMBOL_2);
+		symbolTable.put(new Rational(2), SYMBOL_2);
+		symbolTable.put("3",             SYMBOL_3);
+		symbolTable.put(new Integer(3),  SYMBOL_3);
+		symbolTable.put(new Rational(3), SYMBOL_3);
+		symbolTable.put("4",             SYMBOL_4);
+		symbolTable.put(new Integer(4),  SYMBOL_4);
+		symbolTable.put(new Rational(4), SYMBOL_4);
+		symbolTable.put("5",             SYMBOL_5);
+		symbolTable.put(new Integer(5),  SYMBOL_5);
+		symbolTable.put(new Rational(5), SYMBOL_5);
+		symbolTable.put("6",             SYMBOL_6);
+		symbolTable.put(new Integer(6),  SYMBOL_6);
+		symbolTable.put(new Rational(6), SYMBOL_6);
+		symbolTable.put("7",             SYMBOL_7);
+		symbolTable.put(new Integer(7),  SYMBOL_7);
+		symbolTable.put(new Rational(7), SYMBOL_7);
+		symbolTable.put("8",             SYMBOL_8);
+		symbolTable.put(new Integer(8),  SYMBOL_8);
+		symbolTable.put(new Rational(8), SYMBOL_8);
+		symbolTable.put("9",             SYMBOL_9);
+		symbolTable.put(new Integer(9),  SYMBOL_9);
+		symbolTable.put(new Rational(9), SYMBOL_9);
+		
+		Cache<Object, SyntaxLeaf> oldSymbolTable        = _globalSymbolTable;
+		Cache<Object, SyntaxLeaf> oldStringLiteralTable = _globalStringLiteralTable;
+		_globalSymbolTable        = symbolTable;
+		_globalStringLiteralTable = newSymbolTable();
+		if (oldSymbolTable != null) {
+			oldSymbolTable.invalidateAll();
+		}
+		if (oldStringLiteralTable != null) {
+			oldStringLiteralTable.invalidateAll();
+		}
 	}
 
+
 	private static Cache<Object, SyntaxLeaf> newSymbolTable() {
 		CacheBuilder<Object, Object> cb = CacheBuilder.newBuilder();
 		
@@ -734,10 +740,10 @@ public class DefaultSyntaxLeaf extends AbstractSyntaxTree implements SyntaxLeaf
 	private static final SyntaxLeaf SYMBOL_8     = SyntaxTrees.makeSyntaxLeaf(new Rational(8));
 	private static final SyntaxLeaf SYMBOL_9     = SyntaxTrees.makeSyntaxLeaf(new Rational(9));
 	//
-	private static boolean                      _useGlobalSymbolTable     = ExpressoConfiguration.isUseGlobalSymbolTable();
-	private static boolean                      _cacheNumericSymbols      = ExpressoConfiguration.isGlobalSymbolTableToCacheNumerics();
-	private static Cache<Object, SyntaxLeaf>    _globalSymbolTable        = newSymbolTable();
-	private static Cache<Object, SyntaxLeaf>    _globalStringLiteralTable = newSymbolTable();
+	private static volatile boolean                      _useGlobalSymbolTable     = ExpressoConfiguration.isUseGlobalSymbolTable();
+	private static volatile boolean                      _cacheNumericSymbols      = ExpressoConfiguration.isGlobalSymbolTableToCacheNumerics();
+	private static volatile Cache<Object, SyntaxLeaf>    _globalSymbolTable        = newSymbolTable();
+	private static volatile Cache<Object, SyntaxLeaf>    _globalStringLiteralTable = newSymbolTable();
 
 	static {
 		flushGlobalSymbolTable();
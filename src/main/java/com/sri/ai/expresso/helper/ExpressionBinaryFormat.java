@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2013, SRI International
+ * All rights reserved.
+ * Licensed under the The BSD 3-Clause License;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * 
+ * http://opensource.org/licenses/BSD-3-Clause
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the aic-expresso nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) 
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, 
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.sri.ai.expresso.helper;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * Constants of the binary format shared by {@link ExpressionBinaryWriter} and {@link ExpressionBinaryReader}.
+ * <p>
+ * A stream starts with {@link #MAGIC} and {@link #VERSION}, followed by any number of expression records.
+ * Each syntax tree node is encoded as a one-byte tag followed by a tag-specific payload:
+ * <ul>
+ * <li> {@link #NULL}: no payload (for <code>null</code> sub-trees);
+ * <li> {@link #REFERENCE}: an unsigned varint identifying a node previously written in the same stream;
+ * <li> {@link #COMPOUND}: the label node, an unsigned varint with the number of sub-trees, and the sub-tree nodes;
+ * <li> {@link #SYMBOL} and {@link #STRING_LITERAL}: a length-prefixed UTF-8 string;
+ * <li> {@link #TRUE} and {@link #FALSE}: no payload;
+ * <li> {@link #INTEGER}: a zig-zag varint;
+ * <li> {@link #RATIONAL}: numerator and denominator as length-prefixed decimal strings;
+ * <li> {@link #QUOTED}: the node of the expression used as a symbol value.
+ * </ul>
+ * Every node other than {@link #NULL} and {@link #REFERENCE} receives the next identifier
+ * (starting from 0, and counting across all records of the stream)
+ * after it has been completely written, so symbols form a dictionary and
+ * repeated sub-trees are written only once (DAG encoding).
+ * 
+ * @author braz
+ *
+ */
+@Beta
+final class ExpressionBinaryFormat {
+	
+	public static final int MAGIC = 0x45585052; // "EXPR"
+	public static final byte VERSION = 1;
+
+	public static final byte NULL           = 0;
+	public static final byte REFERENCE      = 1;
+	public static final byte COMPOUND       = 2;
+	public static final byte SYMBOL         = 3;
+	public static final byte STRING_LITERAL = 4;
+	public static final byte TRUE           = 5;
+	public static final byte FALSE          = 6;
+	public static final byte INTEGER        = 7;
+	public static final byte RATIONAL       = 8;
+	public static final byte QUOTED         = 9;
+	
+	/**
+	 * Integers whose decimal representation has at most this many characters fit in a <code>long</code>.
+	 */
+	public static final int MAXIMUM_INTEGER_DIGITS = 18;
+	
+	private ExpressionBinaryFormat() {
+	}
+}
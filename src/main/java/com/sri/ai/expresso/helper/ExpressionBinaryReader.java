@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) 2013, SRI International
+ * All rights reserved.
+ * Licensed under the The BSD 3-Clause License;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * 
+ * http://opensource.org/licenses/BSD-3-Clause
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the aic-expresso nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) 
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, 
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.sri.ai.expresso.helper;
+
+import static com.sri.ai.expresso.helper.ExpressionBinaryFormat.COMPOUND;
+import static com.sri.ai.expresso.helper.ExpressionBinaryFormat.FALSE;
+import static com.sri.ai.expresso.helper.ExpressionBinaryFormat.INTEGER;
+import static com.sri.ai.expresso.helper.ExpressionBinaryFormat.MAGIC;
+import static com.sri.ai.expresso.helper.ExpressionBinaryFormat.NULL;
+import static com.sri.ai.expresso.helper.ExpressionBinaryFormat.QUOTED;
+import static com.sri.ai.expresso.helper.ExpressionBinaryFormat.RATIONAL;
+import static com.sri.ai.expresso.helper.ExpressionBinaryFormat.REFERENCE;
+import static com.sri.ai.expresso.helper.ExpressionBinaryFormat.STRING_LITERAL;
+import static com.sri.ai.expresso.helper.ExpressionBinaryFormat.SYMBOL;
+import static com.sri.ai.expresso.helper.ExpressionBinaryFormat.TRUE;
+import static com.sri.ai.expresso.helper.ExpressionBinaryFormat.VERSION;
+import static com.sri.ai.expresso.helper.Expressions.makeExpressionOnSyntaxTreeWithLabelAndSubTrees;
+import static com.sri.ai.expresso.helper.Expressions.makeStringLiteral;
+import static com.sri.ai.expresso.helper.Expressions.makeSymbol;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.annotations.Beta;
+import com.sri.ai.expresso.api.Expression;
+import com.sri.ai.util.math.Rational;
+
+/**
+ * A streaming reader of {@link Expression}s written by {@link ExpressionBinaryWriter}.
+ * <p>
+ * Expressions can be read directly from a {@link ByteBuffer} (starting at its current position and
+ * leaving it positioned right after the last expression read), without copying its contents,
+ * or from an {@link InputStream}, buffered internally.
+ * 
+ * @author braz
+ *
+ */
+@Beta
+public class ExpressionBinaryReader implements Closeable {
+
+	private static final int DEFAULT_BUFFER_SIZE = 1 << 13;
+
+	private ByteBuffer buffer;
+	private InputStream in;
+	private List<Expression> nodes = new ArrayList<>();
+
+	/**
+	 * Makes a reader on a given buffer.
+	 */
+	public ExpressionBinaryReader(ByteBuffer buffer) throws IOException {
+		this.buffer = buffer;
+		readHeader();
+	}
+
+	/**
+	 * Makes a reader on a given input stream.
+	 */
+	public ExpressionBinaryReader(InputStream in) throws IOException {
+		this.buffer = ByteBuffer.allocate(DEFAULT_BUFFER_SIZE);
+		this.buffer.flip();
+		this.in = in;
+		readHeader();
+	}
+
+	/**
+	 * Convenience method decoding the first expression in a buffer.
+	 */
+	public static Expression decode(ByteBuffer buffer) {
+		try {
+			return new ExpressionBinaryReader(buffer).read();
+		}
+		catch (IOException exception) {
+			throw new Error("Malformed binary expression", exception);
+		}
+	}
+
+	private void readHeader() throws IOException {
+		ensureAvailable(5);
+		int magic = buffer.getInt();
+		byte version = buffer.get();
+		if (magic != MAGIC || version != VERSION) {
+			throw new IOException("Not a binary expression stream of version " + VERSION);
+		}
+	}
+
+	/**
+	 * Indicates whether there is more data to be read.
+	 */
+	public boolean hasNext() throws IOException {
+		return available(1);
+	}
+
+	/**
+	 * Reads the next expression (which may be <code>null</code>).
+	 */
+	public Expression read() throws IOException {
+		byte tag = readByte();
+		Expression result;
+		switch (tag) {
+		case NULL:
+			return null;
+		case REFERENCE:
+			int identifier = readVarInt();
+			if (identifier >= nodes.size()) {
+				throw new IOException("Reference to unknown node " + identifier);
+			}
+			return nodes.get(identifier);
+		case COMPOUND:
+			Expression label = read();
+			int numberOfSubTrees = readVarInt();
+			Object[] subTrees = new Object[numberOfSubTrees];
+			for (int i = 0; i != numberOfSubTrees; i++) {
+				subTrees[i] = read();
+			}
+			result = makeExpressionOnSyntaxTreeWithLabelAndSubTrees(label, subTrees);
+			break;
+		case SYMBOL:
+			result = makeSymbol(readString());
+			break;
+		case STRING_LITERAL:
+			result = makeStringLiteral(readString());
+			break;
+		case TRUE:
+			result = Expressions.TRUE;
+			break;
+		case FALSE:
+			result = Expressions.FALSE;
+			break;
+		case INTEGER:
+			result = makeSymbol(new Rational(unZigZag(readVarLong())));
+			break;
+		case RATIONAL:
+			Rational numerator = new Rational(readString());
+			Rational denominator = new Rational(readString());
+			result = makeSymbol(numerator.divide(denominator));
+			break;
+		case QUOTED:
+			result = makeSymbol(read());
+			break;
+		default:
+			throw new IOException("Unknown tag " + tag);
+		}
+		nodes.add(result);
+		return result;
+	}
+
+	private static long unZigZag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	//////////// PRIMITIVES (public for formats built on top of this one)
+
+	public byte readByte() throws IOException {
+		ensureAvailable(1);
+		return buffer.get();
+	}
+
+	/**
+	 * Reads an int written by {@link ExpressionBinaryWriter#writeVarInt(int)}.
+	 */
+	public int readVarInt() throws IOException {
+		return (int) readVarLong();
+	}
+
+	/**
+	 * Reads an int written by {@link ExpressionBinaryWriter#writeSignedVarInt(int)}.
+	 */
+	public int readSignedVarInt() throws IOException {
+		return (int) unZigZag(readVarLong());
+	}
+
+	private long readVarLong() throws IOException {
+		long result = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			byte b = readByte();
+			result |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return result;
+			}
+		}
+		throw new IOException("Malformed varint");
+	}
+
+	/**
+	 * Reads a string written by {@link ExpressionBinaryWriter#writeString(String)}.
+	 */
+	public String readString() throws IOException {
+		int length = readVarInt();
+		ensureAvailable(length);
+		String result;
+		if (buffer.hasArray()) {
+			result = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+			buffer.position(buffer.position() + length);
+		}
+		else {
+			byte[] bytes = new byte[length];
+			buffer.get(bytes);
+			result = new String(bytes, StandardCharsets.UTF_8);
+		}
+		return result;
+	}
+
+	private void ensureAvailable(int numberOfBytes) throws IOException {
+		if ( ! available(numberOfBytes)) {
+			throw new EOFException();
+		}
+	}
+
+	/**
+	 * Makes sure the given number of bytes are in the buffer if possible, returning whether it was.
+	 */
+	private boolean available(int numberOfBytes) throws IOException {
+		if (buffer.remaining() >= numberOfBytes) {
+			return true;
+		}
+		if (in == null) {
+			return false;
+		}
+		buffer.compact();
+		if (buffer.capacity() < numberOfBytes) {
+			ByteBuffer newBuffer = ByteBuffer.allocate(Math.max(2*buffer.capacity(), numberOfBytes));
+			buffer.flip();
+			newBuffer.put(buffer);
+			buffer = newBuffer;
+		}
+		while (buffer.position() < numberOfBytes) {
+			int read = in.read(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+			if (read == -1) {
+				break;
+			}
+			buffer.position(buffer.position() + read);
+		}
+		buffer.flip();
+		return buffer.remaining() >= numberOfBytes;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (in != null) {
+			in.close();
+		}
+	}
+}
@@ -0,0 +1,358 @@
+/*
+ * Copyright (c) 2013, SRI International
+ * All rights reserved.
+ * Licensed under the The BSD 3-Clause License;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * 
+ * http://opensource.org/licenses/BSD-3-Clause
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the aic-expresso nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) 
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, 
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.sri.ai.expresso.helper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import com.google.common.annotations.Beta;
+import com.sri.ai.expresso.api.Expression;
+
+/**
+ * A persistent map from binary keys to {@link Expression}s, kept in an append-only file
+ * that is memory-mapped for reading.
+ * <p>
+ * The file starts with a header and is followed by records, each consisting of
+ * the payload length, the CRC32 checksum of the payload, and the payload itself
+ * (the key length as a varint, the key bytes, and the value encoded by {@link ExpressionBinaryWriter}).
+ * When the store is opened, the file is scanned, each record's checksum is verified,
+ * and an in-memory index from keys to record positions is built;
+ * a record failing the check (typically a write torn by a crash) is truncated away together with everything after it.
+ * <p>
+ * The file size is bounded: when an append takes it above the given maximum,
+ * the file is compacted into a new one keeping only the most recently used entries
+ * filling up to half the maximum, so compaction cost is amortized over many appends.
+ * <p>
+ * Instances are thread-safe, but a file must not be opened by more than one store at a time.
+ * 
+ * @author braz
+ *
+ */
+@Beta
+public class PersistentExpressionStore implements Closeable {
+
+	private static final int MAGIC = 0x45585053; // "EXPS"
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 8;
+	private static final int RECORD_HEADER_SIZE = 8;
+
+	private static class Entry {
+		final long position; // of the payload
+		final int length; // of the payload
+		Entry(long position, int length) {
+			this.position = position;
+			this.length = length;
+		}
+	}
+
+	private Path path;
+	private long maximumSize;
+	private FileChannel channel;
+	private long size;
+	private MappedByteBuffer mapped;
+	private LinkedHashMap<ByteBuffer, Entry> index = new LinkedHashMap<>(16, 0.75f, true); // access order for eviction
+
+	private int numberOfHits = 0;
+	private int numberOfMisses = 0;
+
+	/**
+	 * Opens (or creates) a store in the given file, with a maximum file size in bytes
+	 * (which must be less than 2GB, since the file is mapped as a single buffer).
+	 */
+	public PersistentExpressionStore(Path path, long maximumSize) throws IOException {
+		if (maximumSize <= HEADER_SIZE || maximumSize >= Integer.MAX_VALUE) {
+			throw new Error("Maximum size of persistent expression store must be between " + HEADER_SIZE + " and 2GB, but was " + maximumSize);
+		}
+		this.path = path;
+		this.maximumSize = maximumSize;
+		open();
+	}
+
+	private void open() throws IOException {
+		channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		size = channel.size();
+		mapped = null;
+		index.clear();
+		if (size < HEADER_SIZE || ! hasValidHeader()) {
+			channel.truncate(0);
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			header.putInt(MAGIC).putInt(VERSION).flip();
+			writeFully(header, 0);
+			size = HEADER_SIZE;
+		}
+		else {
+			checkIntegrityAndBuildIndex();
+		}
+	}
+
+	private boolean hasValidHeader() throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		channel.read(header, 0);
+		header.flip();
+		return header.remaining() == HEADER_SIZE && header.getInt() == MAGIC && header.getInt() == VERSION;
+	}
+
+	private void checkIntegrityAndBuildIndex() throws IOException {
+		ByteBuffer view = map();
+		long position = HEADER_SIZE;
+		CRC32 crc = new CRC32();
+		while (position + RECORD_HEADER_SIZE <= size) {
+			int length = view.getInt((int) position);
+			int checksum = view.getInt((int) position + 4);
+			long payloadPosition = position + RECORD_HEADER_SIZE;
+			if (length <= 0 || payloadPosition + length > size) {
+				break;
+			}
+			ByteBuffer payload = slice(view, payloadPosition, length);
+			crc.reset();
+			crc.update(payload.duplicate());
+			if ((int) crc.getValue() != checksum) {
+				break;
+			}
+			ByteBuffer key = readKey(payload);
+			if (key == null) {
+				break;
+			}
+			index.put(copy(key), new Entry(payloadPosition, length));
+			position = payloadPosition + length;
+		}
+		if (position != size) {
+			channel.truncate(position);
+			size = position;
+			mapped = null;
+		}
+	}
+
+	/**
+	 * Returns the expression stored under the given key, or <code>null</code> if there is none.
+	 */
+	public synchronized Expression get(ByteBuffer key) {
+		Entry entry = index.get(key);
+		if (entry == null) {
+			numberOfMisses++;
+			return null;
+		}
+		numberOfHits++;
+		try {
+			ByteBuffer payload = slice(map(), entry.position, entry.length);
+			readKey(payload);
+			return new ExpressionBinaryReader(payload).read();
+		}
+		catch (IOException exception) {
+			throw new Error("Could not read entry from persistent expression store " + path, exception);
+		}
+	}
+
+	/**
+	 * Stores an expression under a given key, unless the key is already present.
+	 */
+	public synchronized void put(ByteBuffer key, Expression value) {
+		if (index.containsKey(key)) {
+			return;
+		}
+		try {
+			key = copy(key);
+			ByteBuffer payload = makePayload(key, ExpressionBinaryWriter.encode(value));
+			append(key, payload);
+			if (size > maximumSize) {
+				compact();
+			}
+		}
+		catch (IOException exception) {
+			throw new Error("Could not write to persistent expression store " + path, exception);
+		}
+	}
+
+	private static ByteBuffer makePayload(ByteBuffer key, ByteBuffer encodedValue) {
+		ByteBuffer result = ByteBuffer.allocate(5 + key.remaining() + encodedValue.remaining());
+		int keyLength = key.remaining();
+		while ((keyLength & ~0x7F) != 0) {
+			result.put((byte) ((keyLength & 0x7F) | 0x80));
+			keyLength >>>= 7;
+		}
+		result.put((byte) keyLength);
+		result.put(key.duplicate()).put(encodedValue.duplicate());
+		result.flip();
+		return result;
+	}
+
+	private void append(ByteBuffer key, ByteBuffer payload) throws IOException {
+		CRC32 crc = new CRC32();
+		crc.update(payload.duplicate());
+		ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.remaining());
+		record.putInt(payload.remaining()).putInt((int) crc.getValue()).put(payload.duplicate());
+		record.flip();
+		writeFully(record, size);
+		index.put(key, new Entry(size + RECORD_HEADER_SIZE, payload.remaining()));
+		size += record.limit();
+	}
+
+	/**
+	 * Rewrites the file keeping only the most recently used entries filling up to half the maximum size.
+	 */
+	private void compact() throws IOException {
+		List<Map.Entry<ByteBuffer, Entry>> kept = new ArrayList<>();
+		long keptSize = HEADER_SIZE;
+		List<Map.Entry<ByteBuffer, Entry>> fromMostRecent = new ArrayList<>(index.entrySet());
+		for (int i = fromMostRecent.size() - 1; i >= 0; i--) {
+			Map.Entry<ByteBuffer, Entry> entry = fromMostRecent.get(i);
+			long recordSize = RECORD_HEADER_SIZE + entry.getValue().length;
+			if (keptSize + recordSize > maximumSize/2) {
+				break;
+			}
+			kept.add(entry);
+			keptSize += recordSize;
+		}
+
+		Path compacted = path.resolveSibling(path.getFileName() + ".compacting");
+		ByteBuffer view = map();
+		try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			header.putInt(MAGIC).putInt(VERSION).flip();
+			out.write(header);
+			for (int i = kept.size() - 1; i >= 0; i--) { // least recent first, so reopening restores recency order
+				Entry entry = kept.get(i).getValue();
+				ByteBuffer record = slice(view, entry.position - RECORD_HEADER_SIZE, RECORD_HEADER_SIZE + entry.length);
+				while (record.hasRemaining()) {
+					out.write(record);
+				}
+			}
+			out.force(true);
+		}
+		channel.close();
+		mapped = null;
+		Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		open();
+	}
+
+	private static ByteBuffer readKey(ByteBuffer payload) {
+		int keyLength = 0;
+		int shift = 0;
+		byte b;
+		do {
+			if ( ! payload.hasRemaining() || shift > 28) {
+				return null;
+			}
+			b = payload.get();
+			keyLength |= (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+		if (keyLength < 0 || keyLength > payload.remaining()) {
+			return null;
+		}
+		ByteBuffer result = payload.slice();
+		result.limit(keyLength);
+		payload.position(payload.position() + keyLength);
+		return result;
+	}
+
+	private ByteBuffer map() throws IOException {
+		if (mapped == null || mapped.capacity() < size) {
+			mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+		}
+		return mapped;
+	}
+
+	private static ByteBuffer slice(ByteBuffer buffer, long position, int length) {
+		ByteBuffer result = buffer.duplicate();
+		result.position((int) position);
+		result.limit((int) position + length);
+		return result.slice();
+	}
+
+	private static ByteBuffer copy(ByteBuffer buffer) {
+		ByteBuffer result = ByteBuffer.allocate(buffer.remaining());
+		result.put(buffer.duplicate());
+		result.flip();
+		return result;
+	}
+
+	private void writeFully(ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			position += channel.write(buffer, position);
+		}
+	}
+
+	/**
+	 * The number of entries currently in the store.
+	 */
+	public synchronized int size() {
+		return index.size();
+	}
+
+	/**
+	 * The current size of the underlying file in bytes.
+	 */
+	public synchronized long getFileSize() {
+		return size;
+	}
+
+	public synchronized int getNumberOfHits() {
+		return numberOfHits;
+	}
+
+	public synchronized int getNumberOfMisses() {
+		return numberOfMisses;
+	}
+
+	/**
+	 * Forces appended records to the storage device.
+	 */
+	public synchronized void force() throws IOException {
+		channel.force(false);
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		channel.force(false);
+		channel.close();
+		mapped = null;
+	}
+}
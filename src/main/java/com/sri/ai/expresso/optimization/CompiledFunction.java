@@ -0,0 +1,264 @@
+package com.sri.ai.expresso.optimization;
+
+import static com.sri.ai.expresso.helper.Expressions.isNumber;
+import static com.sri.ai.grinder.library.FunctorConstants.DIVISION;
+import static com.sri.ai.grinder.library.FunctorConstants.EXPONENTIAL;
+import static com.sri.ai.grinder.library.FunctorConstants.EXPONENTIATION;
+import static com.sri.ai.grinder.library.FunctorConstants.LOG;
+import static com.sri.ai.grinder.library.FunctorConstants.MINUS;
+import static com.sri.ai.grinder.library.FunctorConstants.PLUS;
+import static com.sri.ai.grinder.library.FunctorConstants.TIMES;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.annotations.Beta;
+import com.sri.ai.expresso.api.Expression;
+
+/**
+ * An arithmetic {@link Expression} compiled once into a tape of operations over <code>double</code> slots,
+ * so that it can be evaluated without substitution and symbolic simplification,
+ * and its whole gradient computed in a single backward pass (reverse-mode automatic differentiation).
+ * <p>
+ * Supported expressions are numeric constants, the given variables, and applications of
+ * <code>+</code>, <code>-</code> (unary and binary), <code>*</code>, <code>/</code>, <code>^</code>,
+ * <code>exp</code> and <code>log</code>.
+ * Repeated sub-expressions are compiled into a single slot.
+ * <p>
+ * Instances are thread-safe: each thread evaluates the tape on its own value and adjoint buffers,
+ * allocated on its first use of the instance and reused afterwards.
+ *
+ * @author braz
+ *
+ */
+@Beta
+public class CompiledFunction {
+
+	private static final byte CONSTANT = 0;
+	private static final byte VARIABLE = 1;
+	private static final byte ADD = 2;
+	private static final byte SUBTRACT = 3;
+	private static final byte MULTIPLY = 4;
+	private static final byte DIVIDE = 5;
+	private static final byte NEGATE = 6;
+	private static final byte POWER = 7;
+	private static final byte EXP = 8;
+	private static final byte LOGARITHM = 9;
+
+	private static class NotCompilableException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+	}
+
+	private int numberOfVariables;
+	private int size;
+	private int resultSlot;
+	private byte[] operations;
+	private int[] first;  // first operand slot, or variable index
+	private int[] second; // second operand slot
+	private double[] constants;
+	private ThreadLocal<double[][]> valuesAndAdjoints; // per-thread scratch buffers
+
+	/**
+	 * Compiles an expression on the given variables (whose order determines the order of the arguments and gradient),
+	 * or returns <code>null</code> if the expression uses unsupported operations or other symbols.
+	 */
+	public static CompiledFunction compileOrNull(Expression expression, List<? extends Expression> variables) {
+		CompiledFunction result = new CompiledFunction(variables.size());
+		Map<Expression, Integer> slotsOfVariables = new HashMap<>();
+		for (int i = 0; i != variables.size(); i++) {
+			slotsOfVariables.put(variables.get(i), result.add(VARIABLE, i, -1, 0));
+		}
+		try {
+			result.resultSlot = result.compile(expression, slotsOfVariables, new HashMap<>());
+		}
+		catch (NotCompilableException exception) {
+			return null;
+		}
+		int size = result.size;
+		result.valuesAndAdjoints = ThreadLocal.withInitial(() -> new double[][] { new double[size], new double[size] });
+		return result;
+	}
+
+	private CompiledFunction(int numberOfVariables) {
+		this.numberOfVariables = numberOfVariables;
+		this.operations = new byte[16];
+		this.first = new int[16];
+		this.second = new int[16];
+		this.constants = new double[16];
+	}
+
+	private int compile(Expression expression, Map<Expression, Integer> slotsOfVariables, Map<Expression, Integer> slots) {
+		Integer slot = slotsOfVariables.get(expression);
+		if (slot == null) {
+			slot = slots.get(expression);
+		}
+		if (slot == null) {
+			slot = compileNew(expression, slotsOfVariables, slots);
+			slots.put(expression, slot);
+		}
+		return slot;
+	}
+
+	private int compileNew(Expression expression, Map<Expression, Integer> slotsOfVariables, Map<Expression, Integer> slots) {
+		if (isNumber(expression)) {
+			return add(CONSTANT, -1, -1, expression.doubleValue());
+		}
+		Expression functor = expression.getFunctor();
+		if (functor == null) {
+			throw new NotCompilableException();
+		}
+		int n = expression.numberOfArguments();
+		String name = functor.toString();
+		int result;
+		if (name.equals(PLUS) || name.equals(TIMES)) {
+			boolean isPlus = name.equals(PLUS);
+			if (n == 0) {
+				result = add(CONSTANT, -1, -1, isPlus? 0 : 1);
+			}
+			else {
+				result = compile(expression.get(0), slotsOfVariables, slots);
+				for (int i = 1; i != n; i++) {
+					result = add(isPlus? ADD : MULTIPLY, result, compile(expression.get(i), slotsOfVariables, slots), 0);
+				}
+			}
+		}
+		else if (name.equals(MINUS) && n == 1) {
+			result = add(NEGATE, compile(expression.get(0), slotsOfVariables, slots), -1, 0);
+		}
+		else if (name.equals(MINUS) && n == 2) {
+			result = binary(SUBTRACT, expression, slotsOfVariables, slots);
+		}
+		else if (name.equals(DIVISION) && n == 2) {
+			result = binary(DIVIDE, expression, slotsOfVariables, slots);
+		}
+		else if (name.equals(EXPONENTIATION) && n == 2) {
+			result = binary(POWER, expression, slotsOfVariables, slots);
+		}
+		else if (name.equals(EXPONENTIAL) && n == 1) {
+			result = add(EXP, compile(expression.get(0), slotsOfVariables, slots), -1, 0);
+		}
+		else if (name.equals(LOG) && n == 1) {
+			result = add(LOGARITHM, compile(expression.get(0), slotsOfVariables, slots), -1, 0);
+		}
+		else {
+			throw new NotCompilableException();
+		}
+		return result;
+	}
+
+	private int binary(byte operation, Expression expression, Map<Expression, Integer> slotsOfVariables, Map<Expression, Integer> slots) {
+		int a = compile(expression.get(0), slotsOfVariables, slots);
+		int b = compile(expression.get(1), slotsOfVariables, slots);
+		return add(operation, a, b, 0);
+	}
+
+	private int add(byte operation, int a, int b, double constant) {
+		if (size == operations.length) {
+			int newLength = 2*size;
+			operations = Arrays.copyOf(operations, newLength);
+			first = Arrays.copyOf(first, newLength);
+			second = Arrays.copyOf(second, newLength);
+			constants = Arrays.copyOf(constants, newLength);
+		}
+		operations[size] = operation;
+		first[size] = a;
+		second[size] = b;
+		constants[size] = constant;
+		return size++;
+	}
+
+	public int getNumberOfVariables() {
+		return numberOfVariables;
+	}
+
+	/**
+	 * The number of slots in the tape.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Evaluates the function at a point.
+	 */
+	public double value(double[] point) {
+		double[] values = valuesAndAdjoints.get()[0];
+		forward(point, values);
+		return values[resultSlot];
+	}
+
+	/**
+	 * Returns the gradient at a point.
+	 */
+	public double[] gradient(double[] point) {
+		double[] result = new double[numberOfVariables];
+		valueAndGradient(point, result);
+		return result;
+	}
+
+	/**
+	 * Evaluates the function at a point and stores its gradient into a given array,
+	 * with one forward and one backward pass over the tape.
+	 */
+	public double valueAndGradient(double[] point, double[] gradient) {
+		double[][] buffers = valuesAndAdjoints.get();
+		double[] values = buffers[0];
+		forward(point, values);
+		backward(gradient, values, buffers[1]);
+		return values[resultSlot];
+	}
+
+	private void forward(double[] point, double[] v) {
+		for (int i = 0; i != size; i++) {
+			switch (operations[i]) {
+			case CONSTANT:  v[i] = constants[i]; break;
+			case VARIABLE:  v[i] = point[first[i]]; break;
+			case ADD:       v[i] = v[first[i]] + v[second[i]]; break;
+			case SUBTRACT:  v[i] = v[first[i]] - v[second[i]]; break;
+			case MULTIPLY:  v[i] = v[first[i]] * v[second[i]]; break;
+			case DIVIDE:    v[i] = v[first[i]] / v[second[i]]; break;
+			case NEGATE:    v[i] = - v[first[i]]; break;
+			case POWER:     v[i] = Math.pow(v[first[i]], v[second[i]]); break;
+			case EXP:       v[i] = Math.exp(v[first[i]]); break;
+			case LOGARITHM: v[i] = Math.log(v[first[i]]); break;
+			default: throw new Error("Unknown operation " + operations[i]);
+			}
+		}
+	}
+
+	private void backward(double[] gradient, double[] v, double[] d) {
+		Arrays.fill(d, 0);
+		d[resultSlot] = 1;
+		for (int i = size - 1; i >= 0; i--) {
+			double g = d[i];
+			if (g == 0) {
+				continue;
+			}
+			int a = first[i];
+			int b = second[i];
+			switch (operations[i]) {
+			case CONSTANT:  break;
+			case VARIABLE:  break;
+			case ADD:       d[a] += g; d[b] += g; break;
+			case SUBTRACT:  d[a] += g; d[b] -= g; break;
+			case MULTIPLY:  d[a] += g*v[b]; d[b] += g*v[a]; break;
+			case DIVIDE:    d[a] += g/v[b]; d[b] -= g*v[a]/(v[b]*v[b]); break;
+			case NEGATE:    d[a] -= g; break;
+			case POWER:
+				d[a] += g*v[b]*Math.pow(v[a], v[b] - 1);
+				if (operations[b] != CONSTANT && v[a] > 0) {
+					d[b] += g*v[i]*Math.log(v[a]);
+				}
+				break;
+			case EXP:       d[a] += g*v[i]; break;
+			case LOGARITHM: d[a] += g/v[a]; break;
+			default: throw new Error("Unknown operation " + operations[i]);
+			}
+		}
+		for (int i = 0; i != numberOfVariables; i++) {
+			gradient[i] = d[i]; // variables occupy the first slots
+		}
+	}
+}
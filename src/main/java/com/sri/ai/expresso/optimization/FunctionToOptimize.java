@@ -1,5 +1,6 @@
 package com.sri.ai.expresso.optimization;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -30,6 +31,9 @@ public class FunctionToOptimize implements MultivariateFunction {
 	public Context context;
 	public AutomaticDifferentiation autoDifferentiator;
 	
+	/** The expression compiled to a tape of double operations, or null if it could not be compiled. */
+	public CompiledFunction compiledFunction;
+	
 	public FunctionToOptimize(Expression expression) {
 		this.expression = expression;
 		
@@ -39,6 +43,8 @@ public class FunctionToOptimize implements MultivariateFunction {
     	this.variablesInExpression = Expressions.freeVariables(expression, context);
 		
 		autoDifferentiator = new AutomaticDifferentiation(e -> context.evaluate(e));
+		
+		compiledFunction = CompiledFunction.compileOrNull(expression, new ArrayList<Expression>(variablesInExpression));
 	}
 	
 	/**
@@ -47,6 +53,10 @@ public class FunctionToOptimize implements MultivariateFunction {
 	 */
     public double value(double[] variables) {
     	
+    	if (compiledFunction != null) {
+    		return compiledFunction.value(variables);
+    	}
+    	
     	Map<Expression, Double> map = createMap(variables);
     	
     	Expression evaluatedExpression = makeEvaluatedAndSimplifiedExpression(map, variablesInExpression);
@@ -1,5 +1,6 @@
 package com.sri.ai.expresso.optimization;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -31,11 +32,16 @@ public class FunctionToOptimizeGradient implements MultivariateVectorFunction {
 	public Context context;
 	public AutomaticDifferentiation autoDifferentiator;
 	
+	/** The expression compiled to a tape of double operations, or null if it could not be compiled. */
+	public CompiledFunction compiledFunction;
+	
 	public FunctionToOptimizeGradient(Expression expression) {
 		this.expression = expression;
 		this.theory = new CommonTheory();
 		this.context = new TrueContext(theory);
 		autoDifferentiator = new AutomaticDifferentiation(e -> context.evaluate(e));
+		Set<Expression> variablesInExpression = Expressions.freeVariables(expression, context);
+		compiledFunction = CompiledFunction.compileOrNull(expression, new ArrayList<Expression>(variablesInExpression));
 	}
 	
 	/**
@@ -58,6 +64,10 @@ public class FunctionToOptimizeGradient implements MultivariateVectorFunction {
 	 */
     public double[] value(double[] variables) {
 
+    	if (compiledFunction != null) {
+    		return compiledFunction.gradient(variables); // a single backward pass instead of symbolic differentiation
+    	}
+    	
 		Set<Expression> variablesInExpression = Expressions.freeVariables(expression, context);
 		Map<Expression, Double> map = createMap(variables, variablesInExpression);
     	
@@ -38,39 +38,55 @@
 package com.sri.ai.expresso.type;
 
 import static com.sri.ai.expresso.helper.Expressions.makeSymbol;
-import static com.sri.ai.util.Util.arrayListFrom;
 import static com.sri.ai.util.Util.myAssert;
-import static com.sri.ai.util.collect.FunctionIterator.functionIterator;
 
+import java.io.Serializable;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.RandomAccess;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import com.google.common.annotations.Beta;
 import com.sri.ai.expresso.api.Expression;
+import com.sri.ai.expresso.api.Symbol;
 import com.sri.ai.expresso.api.Type;
 import com.sri.ai.expresso.helper.Expressions;
 import com.sri.ai.util.collect.FunctionIterator;
 import com.sri.ai.util.collect.IntegerIterator;
-import com.sri.ai.util.collect.NestedIterator;
 
 /**
  * Represents categorical types.
+ * <p>
+ * Constants are indexed (see {@link IndexedDomain}): the known constants have ordinals <code>0, ..., k - 1</code>
+ * in the order they were given, and unknown constant <code>&lt;name&gt;i</code> has ordinal <code>i - 1</code>.
  * 
  * @author braz
  */
 @Beta
-public class Categorical extends AbstractType {
+public class Categorical extends AbstractType implements IndexedDomain {
 	private static final long serialVersionUID = 1L;
 	
+	/** Maximum number of constants kept in {@link #constantsByOrdinal}. */
+	private static final int MAXIMUM_NUMBER_OF_CACHED_CONSTANTS = 1 << 16;
+	
 	private String name;
 	private String lowerCaseName;
 	private int cardinality;
 	private Expression cardinalityExpression;
-	private ArrayList<Expression> knownConstants;
+	private List<Expression> knownConstants;
+	private String knownConstantPrefix; // null if known constants were given explicitly
+	
+	// lazily built caches; types are shared by concurrently solving threads, so they are published through volatile fields
+	private transient volatile Map<Expression, Integer> ordinalsOfExplicitKnownConstants;
+	private transient volatile AtomicReferenceArray<Expression> constantsByOrdinal;
 	
 	/**
 	 * Creates a categorical type of given name, cardinality and known constants;
@@ -81,6 +97,29 @@ public class Categorical extends AbstractType {
 	 * @param knownConstants
 	 */
 	public Categorical(String name, int cardinality, ArrayList<Expression> knownConstants) {
+		this(name, cardinality, knownConstants, null);
+	}
+
+	public Categorical(String name, int cardinality, Expression... knownConstants) {
+		this(name, cardinality, new ArrayList<Expression>((Arrays.asList(knownConstants))));
+	}
+	
+	/**
+	 * Similar to {@link #Categorical(String, int, ArrayList)},
+	 * but known constants are specified how many there are as well as a prefix for their name;
+	 * for example, if the prefix is "a" and the number of known constants is specified as 100,
+	 * then the known constants of this categorical type will be <code>a1,...,a100</code>.
+	 * The known constants are represented by a virtual list and are not created explicitly.
+	 * @param name
+	 * @param cardinality
+	 * @param knownConstantPrefix
+	 * @param numberOfKnownConstants
+	 */
+	public Categorical(String name, int cardinality, String knownConstantPrefix, int numberOfKnownConstants) {
+		this(name, cardinality, new PrefixedConstants(knownConstantPrefix, numberOfKnownConstants), knownConstantPrefix);
+	}
+	
+	private Categorical(String name, int cardinality, List<Expression> knownConstants, String knownConstantPrefix) {
 		myAssert(
 				() -> cardinality == -1 || cardinality == -2 || knownConstants.size() <= cardinality,
 				() -> "Cardinality of " + name + " is declared to be less than number of known uniquely named constants");
@@ -97,73 +136,155 @@ public class Categorical extends AbstractType {
 			this.cardinalityExpression = makeSymbol(cardinality);
 		}
 		this.knownConstants = knownConstants;
-	}
-
-	public Categorical(String name, int cardinality, Expression... knownConstants) {
-		this(name, cardinality, new ArrayList<Expression>((Arrays.asList(knownConstants))));
+		this.knownConstantPrefix = knownConstantPrefix;
 	}
 	
 	/**
-	 * Similar to {@link #Categorical(String, int, ArrayList)},
-	 * but known constants are specified how many there are as well as a prefix for their name;
-	 * for example, if the prefix is "a" and the number of known constants is specified as 100,
-	 * then the known constants of this categorical type will be <code>a1,...,a100</code>.
-	 * Currently, this simply creates all known constants explicitly in an array list;
-	 * in the future, that may be replaced by some sort of virtual Collection implementation.
-	 * @param name
-	 * @param cardinality
-	 * @param knownConstantPrefix
-	 * @param numberOfKnownConstants
+	 * The virtual list <code>prefix1, ..., prefixn</code>.
 	 */
-	public Categorical(String name, int cardinality, String knownConstantPrefix, int numberOfKnownConstants) {
-		this(
-				name,
-				cardinality,
-				arrayListFrom(
-						functionIterator(
-								new IntegerIterator(1, numberOfKnownConstants + 1),
-								i -> makeSymbol(knownConstantPrefix + i))));
-		// TODO: OPTIMIZATION: use some sort of "virtual" Collection implementation to represent this array of expressions.
+	private static class PrefixedConstants extends AbstractList<Expression> implements RandomAccess, Serializable {
+		private static final long serialVersionUID = 1L;
+		private final String prefix;
+		private final int size;
+		public PrefixedConstants(String prefix, int size) {
+			this.prefix = prefix;
+			this.size = size;
+		}
+		@Override
+		public Expression get(int index) {
+			if (index < 0 || index >= size) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+			}
+			return makeSymbol(prefix + (index + 1));
+		}
+		@Override
+		public int size() {
+			return size;
+		}
 	}
 	
 	@Override
 	public Iterator<Expression> iterator() {
-		return new NestedIterator<>(knownConstants, unknownConstantsIterator());
+		Iterator<Expression> result;
+		if (isIndexed()) {
+			result = FunctionIterator.make(new IntegerIterator(0, cardinality), this::get);
+		}
+		else {
+			result = knownConstants.iterator(); // there are no unknown constants if cardinality is not known
+		}
+		return result;
 	}
 
-	private Iterator<Expression> unknownConstantsIterator() {
-		return FunctionIterator.make(
-				new IntegerIterator(knownConstants.size() + 1, cardinality + 1),
-				i -> makeSymbol(lowerCaseName + i));
+	@Override
+	public boolean contains(Expression constant) {
+		boolean result = indexOf(constant) != -1;
+		return result;
 	}
 
 	@Override
-	public boolean contains(Expression constant) {
-		boolean result = knownConstants.contains(constant) || isUnknownConstant(constant);
+	public boolean isIndexed() {
+		return cardinality >= 0;
+	}
+
+	@Override
+	public int size() {
+		return cardinality;
+	}
+
+	@Override
+	public int indexOf(Expression constant) {
+		int result = indexOfKnownConstant(constant);
+		if (result == -1) {
+			int number = numberAfterPrefixOrMinusOne(constant, lowerCaseName);
+			if (number > knownConstants.size() && number < cardinality + 1) {
+				result = number - 1;
+			}
+		}
 		return result;
 	}
 
-	private boolean isUnknownConstant(Expression constant) {
-		boolean result;
-		try {
-			int unknownConstantIndex = -1;
-			result = constant.getValue() instanceof String &&
-				((String) constant.getValue()).startsWith(lowerCaseName) &&
-				(unknownConstantIndex = indexOfUniquelyNamedConstant(constant)) > knownConstants.size() &&
-				unknownConstantIndex < cardinality + 1;
+	private int indexOfKnownConstant(Expression constant) {
+		int result;
+		if (knownConstantPrefix != null) {
+			int number = numberAfterPrefixOrMinusOne(constant, knownConstantPrefix);
+			result = number >= 1 && number <= knownConstants.size()? number - 1 : -1;
+		}
+		else {
+			Map<Expression, Integer> ordinals = ordinalsOfExplicitKnownConstants;
+			if (ordinals == null) {
+				ordinals = new HashMap<>(2*knownConstants.size());
+				for (int i = knownConstants.size() - 1; i >= 0; i--) { // so first occurrence wins
+					ordinals.put(knownConstants.get(i), i);
+				}
+				ordinalsOfExplicitKnownConstants = ordinals;
+			}
+			Integer ordinal = ordinals.get(constant);
+			result = ordinal == null? -1 : ordinal.intValue();
 		}
-		catch (NumberFormatException e) { result = false; }
-				
 		return result;
 	}
 
 	/**
-	 * Returns the index of a given unknown constant, or throws a {@link NumberFormatException}.
+	 * If constant is a symbol named by the given prefix followed by the decimal representation of a positive int
+	 * (with no leading zeros), returns that int; otherwise, returns -1.
+	 */
+	private static int numberAfterPrefixOrMinusOne(Expression constant, String prefix) {
+		if ( ! (constant instanceof Symbol) || constant.isStringLiteral() || ! (constant.getValue() instanceof String)) {
+			return -1;
+		}
+		String string = (String) constant.getValue();
+		int length = string.length();
+		int start = prefix.length();
+		if (length == start || length - start > 10 || ! string.startsWith(prefix) || string.charAt(start) == '0') {
+			return -1;
+		}
+		long result = 0;
+		for (int i = start; i != length; i++) {
+			char c = string.charAt(i);
+			if (c < '0' || c > '9') {
+				return -1;
+			}
+			result = 10*result + (c - '0');
+		}
+		return result > Integer.MAX_VALUE? -1 : (int) result;
+	}
+
+	/**
+	 * Returns the index of a given unknown constant (its number after the type name), or throws a {@link NumberFormatException}.
 	 * @param constant
 	 * @return
 	 */
 	protected int indexOfUniquelyNamedConstant(Expression constant) {
-		int result = Integer.valueOf(((String) constant.getValue()).substring(lowerCaseName.length())).intValue();
+		int result = numberAfterPrefixOrMinusOne(constant, lowerCaseName);
+		if (result == -1) {
+			throw new NumberFormatException(constant + " is not an unknown constant of " + name);
+		}
+		return result;
+	}
+
+	@Override
+	public Expression get(int ordinal) {
+		Expression result;
+		if (ordinal < knownConstants.size()) {
+			result = knownConstants.get(ordinal);
+		}
+		else {
+			if (ordinal < 0 || ordinal >= cardinality) {
+				throw new IndexOutOfBoundsException("Ordinal " + ordinal + " out of bounds for " + name + " with cardinality " + cardinality);
+			}
+			AtomicReferenceArray<Expression> cache = constantsByOrdinal;
+			if (cache == null && cardinality <= MAXIMUM_NUMBER_OF_CACHED_CONSTANTS) {
+				cache = new AtomicReferenceArray<>(cardinality);
+				constantsByOrdinal = cache;
+			}
+			result = cache == null? null : cache.get(ordinal);
+			if (result == null) {
+				result = makeSymbol(lowerCaseName + (ordinal + 1));
+				if (cache != null) {
+					cache.lazySet(ordinal, result);
+				}
+			}
+		}
 		return result;
 	}
 	
@@ -177,14 +298,7 @@ public class Categorical extends AbstractType {
 		myAssert(this::isSampleUniquelyNamedConstantSupported,
 				() -> "Sampling of constant not implemented for " + Categorical.class + " with unknown or infinity cardinality");
 		
-		Expression result;
-		int index = random.nextInt(cardinality().intValue()) + 1;
-		if (index <= knownConstants.size()) {
-			result = knownConstants.get(index - 1);
-		}
-		else {
-			result = makeSymbol(lowerCaseName + index);
-		}
+		Expression result = get(random.nextInt(cardinality));
 		return result;
 	}
 
@@ -193,6 +307,20 @@ public class Categorical extends AbstractType {
 		return cardinalityExpression;
 	}
 	
+	/**
+	 * The cardinality as an int, -1 if unknown and -2 if infinite.
+	 */
+	public int getCardinality() {
+		return cardinality;
+	}
+
+	/**
+	 * The uniquely named constants explicitly provided at construction.
+	 */
+	public List<Expression> getKnownConstants() {
+		return Collections.unmodifiableList(knownConstants);
+	}
+	
 	@Override
 	public boolean isDiscrete() {
 		return true;
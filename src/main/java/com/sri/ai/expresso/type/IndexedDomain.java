@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2013, SRI International
+ * All rights reserved.
+ * Licensed under the The BSD 3-Clause License;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * 
+ * http://opensource.org/licenses/BSD-3-Clause
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the aic-expresso nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) 
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, 
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.sri.ai.expresso.type;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import com.google.common.annotations.Beta;
+import com.sri.ai.expresso.api.Expression;
+import com.sri.ai.expresso.api.Type;
+
+/**
+ * A {@link Type} whose uniquely named constants are in a one-to-one correspondence
+ * with ordinals <code>0, ..., size() - 1</code> that can be computed in constant time in both directions,
+ * allowing compiled evaluators and enumerators to work on <code>int</code>s instead of {@link Expression}s.
+ * <p>
+ * The ordinal of a constant is its position in the type's {@link #iterator()}.
+ * 
+ * @author braz
+ *
+ */
+@Beta
+public interface IndexedDomain extends Type {
+
+	/**
+	 * Indicates whether all constants in the type have ordinals,
+	 * which requires the type to be finite and of known size.
+	 */
+	boolean isIndexed();
+
+	/**
+	 * The number of constants in the type, if {@link #isIndexed()}.
+	 */
+	int size();
+
+	/**
+	 * Returns the ordinal of a constant, or -1 if it does not belong to the type or does not have an ordinal.
+	 */
+	int indexOf(Expression constant);
+
+	/**
+	 * Returns the constant with a given ordinal.
+	 */
+	Expression get(int ordinal);
+
+	/**
+	 * Returns a virtual, unmodifiable list view of the type's constants (which must be {@link #isIndexed()}).
+	 */
+	default List<Expression> asList() {
+		class ListView extends AbstractList<Expression> implements RandomAccess {
+			@Override
+			public Expression get(int ordinal) {
+				return IndexedDomain.this.get(ordinal);
+			}
+			@Override
+			public int size() {
+				return IndexedDomain.this.size();
+			}
+			@Override
+			public int indexOf(Object object) {
+				return object instanceof Expression? IndexedDomain.this.indexOf((Expression) object) : -1;
+			}
+			@Override
+			public boolean contains(Object object) {
+				return indexOf(object) != -1;
+			}
+		}
+		return new ListView();
+	}
+}
@@ -56,7 +56,6 @@ import java.util.Set;
 
 import com.google.common.annotations.Beta;
 import com.sri.ai.expresso.api.Expression;
-import com.sri.ai.expresso.api.Symbol;
 import com.sri.ai.expresso.api.Type;
 import com.sri.ai.grinder.library.number.UnaryMinus;
 import com.sri.ai.util.collect.BreadthFirstIterator;
@@ -65,11 +64,14 @@ import com.sri.ai.util.math.Rational;
 
 /**
  * Represents an Integer interval.
+ * <p>
+ * Intervals with numeric bounds are indexed (see {@link IndexedDomain}), the ordinal of <code>i</code> being
+ * <code>i</code> minus the lower bound.
  * 
  * @author braz
  */
 @Beta
-public class IntegerInterval extends AbstractType {
+public class IntegerInterval extends AbstractType implements IndexedDomain {
 	private static final long serialVersionUID = 1L;
 
 	private String cachedString;
@@ -77,6 +79,12 @@ public class IntegerInterval extends AbstractType {
 	private Expression nonStrictLowerBound;
 	private Expression nonStrictUpperBound;
 	
+	// the following are derived from the bounds on construction, since they are used in every call to contains
+	private boolean noLowerBound;
+	private boolean noUpperBound;
+	private boolean boundsAreConstants;
+	private int size = -1; // if indexed
+	
 	@Override
 	public String getName() {
 		return toString();
@@ -95,11 +103,47 @@ public class IntegerInterval extends AbstractType {
 		else {
 			throw new Error(this.getClass() + " created with invalid name " + name + ". Must be either 'Integer' or 'nonStrictLowerBound..nonStrictUpperBound'");
 		}
+		initializeDerivedFields();
 	}
 	
 	public IntegerInterval(Expression nonStrictLowerBound, Expression nonStrictUpperBound) {
 		this.nonStrictLowerBound = nonStrictLowerBound;
 		this.nonStrictUpperBound = nonStrictUpperBound;
+		initializeDerivedFields();
+	}
+	
+	private void initializeDerivedFields() {
+		noLowerBound = nonStrictLowerBound.equals(apply(MINUS, INFINITY));
+		noUpperBound = nonStrictUpperBound.equals(INFINITY);
+		boundsAreConstants = isNumber(nonStrictLowerBound) && isNumber(nonStrictUpperBound);
+		if (boundsAreConstants) {
+			size = sizeIfIndexableOrMinusOne();
+		}
+	}
+	
+	/**
+	 * The interval is indexed only if its bounds and its number of elements fit in an int
+	 * (which also makes ordinals and element values computable with int arithmetic).
+	 */
+	private int sizeIfIndexableOrMinusOne() {
+		int result = -1;
+		Rational lowerBound = nonStrictLowerBound.rationalValue();
+		Rational upperBound = nonStrictUpperBound.rationalValue();
+		if (isIntegerFittingInAnInt(lowerBound) && isIntegerFittingInAnInt(upperBound)) {
+			long numberOfElements = Math.max(0, (long) upperBound.intValue() - lowerBound.intValue() + 1);
+			if (numberOfElements <= Integer.MAX_VALUE) {
+				result = (int) numberOfElements;
+			}
+		}
+		return result;
+	}
+	
+	private static final Rational MINIMUM_INT = new Rational(Integer.MIN_VALUE);
+	private static final Rational MAXIMUM_INT = new Rational(Integer.MAX_VALUE);
+	
+	private static boolean isIntegerFittingInAnInt(Rational value) {
+		boolean result = value.isInteger() && value.compareTo(MINIMUM_INT) >= 0 && value.compareTo(MAXIMUM_INT) <= 0;
+		return result;
 	}
 
 	/**
@@ -169,6 +213,36 @@ public class IntegerInterval extends AbstractType {
 		return result;
 	}
 	
+	@Override
+	public boolean isIndexed() {
+		return size != -1;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public int indexOf(Expression constant) {
+		int result = -1;
+		if (size != -1 && constant.getValue() instanceof Rational) {
+			Rational value = (Rational) constant.getValue();
+			if (value.isInteger() && contains(constant)) {
+				result = value.intValue() - nonStrictLowerBound.intValue();
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public Expression get(int ordinal) {
+		if (ordinal < 0 || ordinal >= size) {
+			throw new IndexOutOfBoundsException("Ordinal " + ordinal + " out of bounds for " + this);
+		}
+		return makeSymbol(nonStrictLowerBound.intValue() + ordinal);
+	}
+	
 	public boolean isSuperset(Expression lowerBound, Expression upperBound) {
 		boolean result = true;
 		if (lowerBound.equals(MINUS_INFINITY)) {
@@ -207,7 +281,18 @@ public class IntegerInterval extends AbstractType {
 	@Override
 	public Expression sampleUniquelyNamedConstant(Random random) {
 		myAssert( () -> boundsAreConstants(), () -> "Cannot sample uniquely named constant from integer interval that is infinite and/or defined by variables: " + getName());
-		Symbol result = makeSymbol(new Rational(nonStrictLowerBound.intValue() + random.nextInt(nonStrictUpperBound.intValue() - nonStrictLowerBound.intValue() + 1)));
+		Expression result;
+		if (isIndexed()) {
+			result = get(random.nextInt(size));
+		}
+		else {
+			// too large to be indexed, so we compute in Rational and long to avoid int overflow
+			Rational lowerBound = nonStrictLowerBound.rationalValue();
+			Rational numberOfElements = nonStrictUpperBound.rationalValue().subtract(lowerBound).add(1);
+			myAssert( () -> numberOfElements.compareTo(new Rational(Long.MAX_VALUE)) <= 0, () -> "Cannot sample uniquely named constant from integer interval with more than " + Long.MAX_VALUE + " elements: " + getName());
+			long offset = Math.min((long) (random.nextDouble() * numberOfElements.longValue()), numberOfElements.longValue() - 1);
+			result = makeSymbol(lowerBound.add(new Rational(offset)));
+		}
 		return result;
 	}
 
@@ -220,15 +305,15 @@ public class IntegerInterval extends AbstractType {
 			}
 			else if (isNumber(nonStrictLowerBound)) {
 				if (isNumber(nonStrictUpperBound)) {
-					cachedCardinality = makeSymbol(new Rational(nonStrictUpperBound.intValue() - nonStrictLowerBound.intValue() + 1));			
+					cachedCardinality = makeSymbol(nonStrictUpperBound.rationalValue().subtract(nonStrictLowerBound.rationalValue()).add(1));			
 				}
 				else {
-					cachedCardinality = apply(MINUS, nonStrictUpperBound, makeSymbol(new Rational(nonStrictLowerBound.intValue() - 1)));
+					cachedCardinality = apply(MINUS, nonStrictUpperBound, makeSymbol(nonStrictLowerBound.rationalValue().subtract(Rational.ONE)));
 				}
 			}
 			else {
 				if (isNumber(nonStrictUpperBound)) {
-					cachedCardinality = apply(MINUS, makeSymbol(new Rational(nonStrictUpperBound.intValue() + 1)), nonStrictLowerBound);
+					cachedCardinality = apply(MINUS, makeSymbol(nonStrictUpperBound.rationalValue().add(1)), nonStrictLowerBound);
 				}
 				else {
 					cachedCardinality = apply(PLUS, apply(MINUS, nonStrictUpperBound, nonStrictLowerBound), 1);
@@ -249,15 +334,15 @@ public class IntegerInterval extends AbstractType {
 	}
 
 	public boolean noLowerBound() {
-		return nonStrictLowerBound.equals(apply(MINUS, INFINITY));
+		return noLowerBound;
 	}
 
 	public boolean noUpperBound() {
-		return nonStrictUpperBound.equals(INFINITY);
+		return noUpperBound;
 	}
 
 	public boolean boundsAreConstants() {
-		return isNumber(nonStrictLowerBound) && isNumber(nonStrictUpperBound);
+		return boundsAreConstants;
 	}
 	
 	@Override
@@ -11,8 +11,10 @@ import static com.sri.ai.util.explanation.logging.api.ThreadExplanationLogger.ex
 import static com.sri.ai.util.explanation.logging.api.ThreadExplanationLogger.explanationBlock;
 
 import java.util.List;
+import java.util.Map;
 
 import com.sri.ai.expresso.api.Expression;
+import com.sri.ai.grinder.core.constraint.ConstraintSplitting;
 import com.sri.ai.grinder.tester.SGDPLLTTester;
 
 /**
@@ -119,6 +121,16 @@ public interface Constraint extends Expression {
 		return (formula instanceof Constraint && ((Constraint)formula).isContradiction()) || formula.equals(FALSE);
 	}
 
+	/**
+	 * Returns a map, kept by this constraint, from literals to what is memoized of splittings of this constraint by them
+	 * (see {@link ConstraintSplitting#make(Expression, Constraint, Context)}),
+	 * or null if splittings of this constraint are not to be memoized.
+	 * @return
+	 */
+	default Map<Expression, ConstraintSplitting.Memo> getMemoizedSplittings() {
+		return null;
+	}
+
 	/**
 	 * @param formula
 	 * @param context
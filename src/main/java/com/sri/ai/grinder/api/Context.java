@@ -52,19 +52,17 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import com.google.common.annotations.Beta;
 import com.google.common.base.Predicate;
 import com.sri.ai.expresso.api.Expression;
 import com.sri.ai.expresso.api.IndexExpressionsSet;
 import com.sri.ai.expresso.api.Type;
-import com.sri.ai.expresso.core.DefaultTuple;
 import com.sri.ai.expresso.core.ExtensionalIndexExpressionsSet;
-import com.sri.ai.expresso.helper.Expressions;
+import com.sri.ai.grinder.core.FreshSymbolGenerator;
+import com.sri.ai.grinder.core.constraint.ImpliedLiterals;
 import com.sri.ai.grinder.library.FunctorConstants;
 import com.sri.ai.util.Util;
-import com.sri.ai.util.base.PairOf;
 import com.sri.ai.util.base.Triple;
 
 /**
@@ -118,6 +116,13 @@ public interface Context extends Registry, Constraint {
 	@Override
 	Context makeContradiction();
 	
+	/**
+	 * The cache of literals known to be implied by this context,
+	 * which includes those implied by the contexts this one was conjoined from.
+	 * @return
+	 */
+	ImpliedLiterals getImpliedLiterals();
+	
 	/**
 	 * Convenience for <code>this.getTheory().isLiteral(expression, this)</code>.
 	 * @param expression
@@ -181,23 +186,21 @@ public interface Context extends Registry, Constraint {
 			ArrayList<Expression> newIndexExpressionsList = new ArrayList<>(indexExpressions.getList());
 			Expression newExpressionInScope = expressionInScope;
 			
-			// Collects all existing symbols to be able to create unique symbols
-			Set<Expression> alreadyDefined = Util.set();
-			alreadyDefined.addAll(this.getSymbols());
-			alreadyDefined.addAll(Expressions.freeSymbols(new DefaultTuple(newIndexExpressionsList), this));
-			alreadyDefined.addAll(Expressions.freeSymbols(expressionInScope, this));
-			Predicate<Expression> isAlreadyDefined = e -> alreadyDefined.contains(e);
+			// Fresh symbols are unique without collecting the symbols already in use
+			FreshSymbolGenerator freshSymbolGenerator = getFreshSymbolGenerator();
 			
 			for (int i = 0; i != newIndexExpressionsList.size(); i++) {
 				Expression indexExpression = newIndexExpressionsList.get(i);
 				Expression index = indexExpression.get(0);
 				Expression type = indexExpression.get(1);
-				PairOf<Expression> newIndexAndNewExpressionInScope = Expressions.standardizeApart(index, isAlreadyDefined, newExpressionInScope);
-				Expression newIndex  = newIndexAndNewExpressionInScope.first;
-				newExpressionInScope = newIndexAndNewExpressionInScope.second;
+				if ( ! containsSymbol(index)) {
+					continue; // no collision for this index
+				}
+				// generated names can still be written by users as quoted symbols, so we skip any in use
+				Expression newIndex = freshSymbolGenerator.newSymbol(index, s -> containsSymbol(s) || getIndices(indexExpressions).contains(s));
+				newExpressionInScope = newExpressionInScope.replaceSymbol(index, newIndex, null);
 				Expression newIndexExpression = apply(IN, newIndex, type); // type should not contain the index
 				newIndexExpressionsList.set(i, newIndexExpression);
-				alreadyDefined.add(newIndex);
 				for (int j = i + 1; j != newIndexExpressionsList.size(); j++) {
 					Expression anotherIndexExpression = newIndexExpressionsList.get(j);
 					myAssert(anotherIndexExpression.hasFunctor(FunctorConstants.IN), () -> "Expected index expression 'SYMBOL in TYPE' but got instead " + anotherIndexExpression);
@@ -48,6 +48,8 @@ import java.util.List;
 
 import com.sri.ai.expresso.api.Expression;
 import com.sri.ai.expresso.core.ExtensionalIndexExpressionsSet;
+import com.sri.ai.grinder.core.solver.BudgetedSolution;
+import com.sri.ai.grinder.core.solver.DeadlineAwareSolver;
 import com.sri.ai.grinder.group.AssociativeCommutativeGroup;
 import com.sri.ai.grinder.library.indexexpression.IndexExpressions;
 import com.sri.ai.util.base.Triple;
@@ -102,6 +104,16 @@ public interface MultiQuantifierEliminator {
 	 */
 	Expression solve(MultiQuantifierEliminationProblem problem, Context context);
 	
+	/**
+	 * Returns the given problem's answer if it can be computed within a time budget,
+	 * or otherwise the best available approximation, as described in {@link DeadlineAwareSolver}.
+	 * The given context must register the types of the indices.
+	 */
+	default BudgetedSolution solve(MultiQuantifierEliminationProblem problem, Context context, long budgetInMilliseconds) {
+		BudgetedSolution result = new DeadlineAwareSolver(this).solve(problem, context, budgetInMilliseconds);
+		return result;
+	}
+	
 	void interrupt();
 	
 	boolean getDebug();
@@ -55,6 +55,8 @@ import com.sri.ai.expresso.api.Expression;
 import com.sri.ai.expresso.api.IndexExpressionsSet;
 import com.sri.ai.expresso.api.Type;
 import com.sri.ai.expresso.core.ExtensionalIndexExpressionsSet;
+import com.sri.ai.grinder.core.FreshSymbolGenerator;
+import com.sri.ai.grinder.core.InplaceGlobalObjects;
 import com.sri.ai.grinder.library.indexexpression.IndexExpressions;
 import com.sri.ai.util.Util;
 import com.sri.ai.util.base.NullaryFunction;
@@ -156,9 +158,22 @@ public interface Registry extends Cloneable {
 	Registry putGlobalObject(Object key, Object value);
 	
 	/**
-	 * Puts a global object in this object.
+	 * Gets the <b>inplace</b> global objects, organized in layers mirroring the layers of global objects:
+	 * registries sharing the same global objects share the same layer,
+	 * and {@link #putGlobalObject(Object, Object)} and {@link #putAllGlobalObjects(Map)} give the new registry a new layer on top of this one's.
+	 * Inplace global objects should only be accessed through
+	 * {@link #updateInplaceGlobalObject(Object, NullaryFunction, Function)}, {@link #getInplaceGlobalObject(Object)}
+	 * and {@link #putInplaceGlobalObject(Object, Object)}.
 	 */
-	void putInplaceGlobalObject(Object key, Object value);
+	InplaceGlobalObjects getInplaceGlobalObjects();
+	
+	/**
+	 * Puts an <b>inplace</b> global object in the top layer of inplace global objects,
+	 * hiding any previous one under the same key in lower layers.
+	 */
+	default void putInplaceGlobalObject(Object key, Object value) {
+		getInplaceGlobalObjects().put(key, value);
+	}
 	
 	/**
 	 * Indicates whether map of global objects contains key.
@@ -248,7 +263,10 @@ public interface Registry extends Cloneable {
 	/**
 	 * Updates an <b>inplace</b> global object under given key,
 	 * using default maker function to make a default value if absent, and updating it using given update function.
-	 * Objects manipulated this way are shared across contexts.
+	 * Objects manipulated this way are shared across contexts (see {@link #getInplaceGlobalObjects()}):
+	 * an object found in any layer is updated in place, and a default value is put in the top layer.
+	 * Creation of the default value and updates are atomic with respect to other inplace accesses to the same key
+	 * from any registry sharing the inplace global objects, so it can be used by contexts used from several threads.
 	 * @param key
 	 * @param defaultMaker
 	 * @param update
@@ -256,25 +274,35 @@ public interface Registry extends Cloneable {
 	 */
 	default <T> T updateInplaceGlobalObject(Object key, NullaryFunction<T> defaultMaker, Function<T, T> update) {
 		@SuppressWarnings("unchecked")
-		Wrapper<T> wrapper = (Wrapper<T>) getGlobalObject(key);
-		if (wrapper == null) {
-			wrapper = new Wrapper<T>(defaultMaker.apply());
-			putInplaceGlobalObject(key, wrapper);
+		Wrapper<T> wrapper = (Wrapper<T>) (Wrapper<?>) getInplaceGlobalObjects().getOrMakeWrapper(key, defaultMaker);
+		synchronized (wrapper) {
+			wrapper.value = update.apply(wrapper.value);
+			return wrapper.value;
 		}
-		wrapper.value = update.apply(wrapper.value);
-		return wrapper.value;
 	}
 	
 	default Object getInplaceGlobalObject(Object key) {
-		Wrapper wrapper = (Wrapper) getGlobalObject(key);
+		Wrapper<Object> wrapper = getInplaceGlobalObjects().getWrapper(key);
 		if (wrapper != null) {
-			return wrapper.value;
+			synchronized (wrapper) {
+				return wrapper.value;
+			}
 		}
 		else {
 			return null;
 		}
 	}
 
+	/**
+	 * Returns the {@link FreshSymbolGenerator} in the inplace global objects of this registry.
+	 * The generator is created in the bottom layer of inplace global objects of the root registry,
+	 * so extensions of a context share it unless a generator is put in a higher layer.
+	 */
+	default FreshSymbolGenerator getFreshSymbolGenerator() {
+		FreshSymbolGenerator result = (FreshSymbolGenerator) getInplaceGlobalObject(FreshSymbolGenerator.class);
+		return result;
+	}
+
 	default IndexExpressionsSet getIndexExpressions(List<? extends Expression> indices) {
 		ExtensionalIndexExpressionsSet result = getIndexExpressionsForIndicesInListAndTypesInRegistry(indices, this);
 		return result;		
@@ -64,6 +64,7 @@ import com.sri.ai.expresso.api.QuantifiedExpression;
 import com.sri.ai.expresso.api.Type;
 import com.sri.ai.expresso.helper.SubExpressionsDepthFirstIterator;
 import com.sri.ai.grinder.helper.GrinderUtil;
+import com.sri.ai.grinder.helper.metrics.SolverEvents;
 import com.sri.ai.grinder.library.FormulaUtil;
 import com.sri.ai.grinder.rewriter.api.TopRewriter;
 import com.sri.ai.grinder.theory.help.TheoryWrapper;
@@ -158,21 +159,27 @@ public interface Theory extends Cloneable {
 	ExpressionLiteralSplitterStepSolver makeEvaluatorStepSolver(Expression expression);
 	
 	default Expression evaluate(Expression expression, Context context) {
-		return explanationBlock("Theory.evaluate ", expression, " under ", context, code( () -> {
-			
-			ExpressionLiteralSplitterStepSolver evaluatorStepSolver = 
-					explanationBlock("Making evaluator step solver ", code( () -> 
-						makeEvaluatorStepSolver(expression)
-					), "Step solver is ", RESULT);
-			
-			Expression result = 
-					explanationBlock("Solving step solver ", code( () -> 
-						staticSolve(evaluatorStepSolver, context)
-					), "Result is ", RESULT);
-			
-			return result;
-			
-		}), "Result is ", RESULT);
+		Object event = SolverEvents.beginTheoryEvaluation();
+		try {
+			return explanationBlock("Theory.evaluate ", expression, " under ", context, code( () -> {
+
+				ExpressionLiteralSplitterStepSolver evaluatorStepSolver = 
+						explanationBlock("Making evaluator step solver ", code( () -> 
+							makeEvaluatorStepSolver(expression)
+						), "Step solver is ", RESULT);
+
+				Expression result = 
+						explanationBlock("Solving step solver ", code( () -> 
+							staticSolve(evaluatorStepSolver, context)
+						), "Result is ", RESULT);
+
+				return result;
+
+			}), "Result is ", RESULT);
+		}
+		finally {
+			SolverEvents.endTheoryEvaluation(event, this);
+		}
 	}
 
 	boolean isSuitableFor(Type type);
@@ -204,6 +211,18 @@ public interface Theory extends Cloneable {
 	 */
 	boolean isAtom(Expression expression, Context context);
 	
+	/**
+	 * A cheap, syntactic necessary condition for {@link #isAtom(Expression, Context)},
+	 * returning <code>false</code> only for expressions that cannot be atoms in this theory
+	 * (for example, because they are not applications of one of its atom functors).
+	 * By default, it returns <code>true</code> for all expressions.
+	 * @param expression
+	 * @return
+	 */
+	default boolean mayBeAtom(Expression expression) {
+		return true;
+	}
+	
 	/**
 	 * Indicates whether an expression is a literal in this theory.
 	 * This is defined as its being either an atom, or a negated atom,
@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2013, SRI International
+ * All rights reserved.
+ * Licensed under the The BSD 3-Clause License;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * 
+ * http://opensource.org/licenses/BSD-3-Clause
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the aic-expresso nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) 
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, 
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.sri.ai.grinder.application;
+
+import static com.sri.ai.expresso.helper.Expressions.parse;
+import static com.sri.ai.util.Util.map;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+import joptsimple.OptionParser;
+import joptsimple.OptionSet;
+import joptsimple.OptionSpec;
+
+import com.google.common.annotations.Beta;
+import com.sri.ai.expresso.api.Expression;
+import com.sri.ai.expresso.type.Categorical;
+import com.sri.ai.grinder.api.Context;
+
+/**
+ * A headless, long-running counterpart of {@link SymbolicShell}, evaluating newline-delimited requests
+ * read from standard input or from connections to a local socket, on a bounded pool of worker threads.
+ * <p>
+ * Each request is a line of tab-separated fields in a fixed layout:
+ * <pre>
+ * &lt;id&gt; TAB &lt;expression&gt; [TAB &lt;declaration&gt;]*
+ * </pre>
+ * where declarations are either <code>var(&lt;symbol&gt;, &lt;type&gt;)</code>
+ * or <code>type(&lt;name&gt;, &lt;cardinality&gt;, &lt;known constants&gt;...)</code> for categorical types.
+ * The id field is always present, but may be empty, in which case the line number is used
+ * (so a request without an id starts with a tab).
+ * A line with a single field is answered with an error, rather than guessing whether it is an id or an expression.
+ * Each response is written, in order of completion, as the line
+ * <pre>
+ * &lt;id&gt; TAB (OK|ERROR) TAB &lt;result or error message&gt; TAB &lt;milliseconds&gt;
+ * </pre>
+ * Requests are evaluated on an extension of a base context (by default, the {@link SymbolicShell}'s),
+ * so theory construction and top rewriter merging are paid once per worker rather than once per request.
+ * Each worker thread owns its base context, since theories keep internal state that is not meant to be shared across threads.
+ * <p>
+ * The number of requests read but not yet answered is bounded, so that a fast producer does not exhaust memory.
+ * 
+ * @author braz
+ *
+ */
+@Beta
+public class SolverService implements Closeable {
+
+	private static final String SEPARATOR = "\t";
+	private static final int ID_FIELD = 0;
+	private static final int EXPRESSION_FIELD = 1;
+
+	private ExecutorService workers;
+	private ThreadLocal<Context> baseContext;
+	private Semaphore pendingRequests;
+
+	/**
+	 * Makes a service with the given number of worker threads and maximum number of pending requests,
+	 * each worker using a base context made (once) by the given supplier.
+	 */
+	public SolverService(int numberOfWorkers, int maximumNumberOfPendingRequests, Supplier<Context> baseContextMaker) {
+		this.workers = Executors.newFixedThreadPool(numberOfWorkers, runnable -> {
+			Thread thread = new Thread(runnable, "solver-service-worker");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.baseContext = ThreadLocal.withInitial(baseContextMaker);
+		this.pendingRequests = new Semaphore(maximumNumberOfPendingRequests);
+	}
+
+	/**
+	 * Makes a service with the given number of worker threads using the {@link SymbolicShell}'s context.
+	 */
+	public SolverService(int numberOfWorkers) {
+		this(numberOfWorkers, 16*numberOfWorkers, () -> SymbolicShell.makeContext(SymbolicShell.makeTheory()));
+	}
+
+	/**
+	 * Reads requests until the end of the input, writing responses as they are completed,
+	 * and returns once all of them have been answered.
+	 */
+	public void serve(BufferedReader in, PrintWriter out) throws IOException, InterruptedException {
+		Phaser outstanding = new Phaser(1);
+		String line;
+		int lineNumber = 0;
+		while ((line = in.readLine()) != null) {
+			lineNumber++;
+			if (line.trim().isEmpty()) {
+				continue;
+			}
+			String request = line;
+			String defaultId = Integer.toString(lineNumber);
+			pendingRequests.acquire();
+			outstanding.register();
+			workers.execute(() -> {
+				try {
+					String response = process(request, defaultId);
+					synchronized (out) {
+						out.println(response);
+						out.flush();
+					}
+				}
+				finally {
+					pendingRequests.release();
+					outstanding.arriveAndDeregister();
+				}
+			});
+		}
+		outstanding.arriveAndAwaitAdvance();
+	}
+
+	/**
+	 * Processes a request line in the current thread and returns the response line.
+	 */
+	public String process(String request, String defaultId) {
+		long start = System.nanoTime();
+		String id = defaultId;
+		String status;
+		String answer;
+		try {
+			String[] fields = request.split(SEPARATOR);
+			if (fields.length <= EXPRESSION_FIELD) {
+				throw new Error("Request must be <id> TAB <expression> [TAB <declaration>]*, with a possibly empty id, but was: " + request);
+			}
+			if ( ! fields[ID_FIELD].isEmpty()) {
+				id = fields[ID_FIELD];
+			}
+			Context context = baseContext.get();
+			for (int i = EXPRESSION_FIELD + 1; i < fields.length; i++) {
+				context = declare(parseOrThrow(fields[i]), context);
+			}
+			Expression expression = parseOrThrow(fields[EXPRESSION_FIELD]);
+			Expression result = context.getTheory().evaluate(expression, context);
+			status = "OK";
+			answer = result.toString();
+		}
+		catch (Throwable throwable) {
+			status = "ERROR";
+			answer = throwable.getMessage() == null? throwable.getClass().getSimpleName() : throwable.getMessage();
+		}
+		long milliseconds = (System.nanoTime() - start)/1000000;
+		String result = id + SEPARATOR + status + SEPARATOR + oneLine(answer) + SEPARATOR + milliseconds;
+		return result;
+	}
+
+	private static Expression parseOrThrow(String string) {
+		return parse(string, (errorMessage) -> {throw new Error("Syntax error: " + errorMessage);});
+	}
+
+	private static Context declare(Expression declaration, Context context) {
+		if (declaration.hasFunctor("var") && declaration.numberOfArguments() == 2) {
+			context = context.makeCloneWithAdditionalRegisteredSymbolsAndTypes(map(declaration.get(0), declaration.get(1)));
+		}
+		else if (declaration.hasFunctor("type") && declaration.numberOfArguments() >= 2) {
+			List<Expression> knownConstants = new ArrayList<>(declaration.getArguments().subList(2, declaration.numberOfArguments()));
+			Categorical type = new Categorical(declaration.get(0).toString(), declaration.get(1).intValue(), knownConstants.toArray(new Expression[0]));
+			context = context.makeNewContextWithAddedType(type);
+		}
+		else {
+			throw new Error("Invalid declaration " + declaration + "; must be var(<symbol>, <type>) or type(<name>, <cardinality>, <known constants>...)");
+		}
+		return context;
+	}
+
+	private static String oneLine(String string) {
+		return string.replace('\n', ' ').replace('\r', ' ').replace('\t', ' ');
+	}
+
+	/**
+	 * Accepts connections on a loopback port, serving each connection in its own thread
+	 * (all connections share the worker pool), until the thread is interrupted.
+	 */
+	public void serve(int port) throws IOException {
+		try (ServerSocket serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+			while ( ! Thread.currentThread().isInterrupted()) {
+				Socket socket = serverSocket.accept();
+				Thread connectionThread = new Thread(() -> serveConnection(socket), "solver-service-connection");
+				connectionThread.setDaemon(true);
+				connectionThread.start();
+			}
+		}
+	}
+
+	private void serveConnection(Socket socket) {
+		try (Socket autoClosed = socket;
+				BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+				PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+			serve(in, out);
+		}
+		catch (IOException | InterruptedException exception) {
+			// connection is dropped; other connections are not affected
+		}
+	}
+
+	@Override
+	public void close() {
+		workers.shutdownNow();
+	}
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		OptionParser parser = new OptionParser();
+		OptionSpec<Integer> threads = parser.accepts("threads", "Number of worker threads").withRequiredArg().ofType(Integer.class).defaultsTo(Runtime.getRuntime().availableProcessors());
+		OptionSpec<Integer> pending = parser.accepts("pending", "Maximum number of requests read but not yet answered").withRequiredArg().ofType(Integer.class);
+		OptionSpec<Integer> port = parser.accepts("port", "Serve connections on this loopback port instead of standard input").withRequiredArg().ofType(Integer.class);
+		OptionSet options = parser.parse(args);
+
+		int numberOfWorkers = options.valueOf(threads);
+		int maximumNumberOfPendingRequests = options.has(pending)? options.valueOf(pending) : 16*numberOfWorkers;
+		try (SolverService service = new SolverService(numberOfWorkers, maximumNumberOfPendingRequests, () -> SymbolicShell.makeContext(SymbolicShell.makeTheory()))) {
+			if (options.has(port)) {
+				service.serve(options.valueOf(port));
+			}
+			else {
+				BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+				PrintWriter out = new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+				service.serve(in, out);
+			}
+		}
+	}
+}
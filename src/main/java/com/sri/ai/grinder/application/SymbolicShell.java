@@ -148,14 +148,17 @@ public class SymbolicShell {
 		consoleIterator.getOutputWriter().println("\nGoodbye.");	
 	}
 
-	private static Context makeContext(Theory theory) {
+	/**
+	 * Makes the context with the shell's pre-defined types and variables (also used by {@link SolverService}).
+	 */
+	static Context makeContext(Theory theory) {
 		Context context = new TrueContext(theory);
 		context = declareTypes(context);
 		context = declareVariables(context);
 		return context;
 	}
 
-	private static Theory makeTheory() {
+	static Theory makeTheory() {
 		Theory theory = new CommonTheory();
 		return theory;
 	}
@@ -41,6 +41,7 @@ import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.google.common.annotations.Beta;
 import com.google.common.base.Predicate;
@@ -50,6 +51,8 @@ import com.sri.ai.expresso.helper.AbstractExpressionWrapper;
 import com.sri.ai.grinder.api.Context;
 import com.sri.ai.grinder.api.Registry;
 import com.sri.ai.grinder.api.Theory;
+import com.sri.ai.grinder.core.constraint.ConstraintSplitting;
+import com.sri.ai.grinder.core.constraint.ImpliedLiterals;
 import com.sri.ai.grinder.library.IsVariable;
 
 /**
@@ -71,6 +74,10 @@ public abstract class AbstractTrivialContext extends AbstractExpressionWrapper i
 
 	private Registry registry;
 	
+	private transient volatile ImpliedLiterals impliedLiterals;
+	
+	private transient volatile Map<Expression, ConstraintSplitting.Memo> memoizedSplittings;
+	
 	//
 	// START - Constructors
 
@@ -108,16 +115,12 @@ public abstract class AbstractTrivialContext extends AbstractExpressionWrapper i
 	 * Creates a {@link AbstractTrivialContext} containing the basic information
 	 * from another context.
 	 * The basic information are the theory, symbols and types, is unique constant predicate,
-	 * and global objects.
-	 * Uses {@link #TrueContext(Theory, Map, Predicate, Map)}.
+	 * and global objects (along with their inplace global objects).
 	 * @param another
 	 */
 	public AbstractTrivialContext(Context another) {
-		this(
-				another.getTheory(), 
-				another.getSymbolsAndTypes(), 
-				another.getIsUniquelyNamedConstantPredicate(), 
-				another.getGlobalObjects());
+		this.theory = another.getTheory();
+		this.registry = new DefaultRegistry(another);
 	}
 
 	// END-Constructors
@@ -133,12 +136,42 @@ public abstract class AbstractTrivialContext extends AbstractExpressionWrapper i
 		AbstractTrivialContext result = null;
 		try {
 			result = (AbstractTrivialContext) super.clone();
+			result.impliedLiterals = null; // clones may have a different uniquely named constant predicate
+			result.memoizedSplittings = null;
 		} catch (CloneNotSupportedException e) {
 			e.printStackTrace();
 		}
 		return result;
 	}
 
+	@Override
+	public ImpliedLiterals getImpliedLiterals() {
+		ImpliedLiterals result = impliedLiterals;
+		if (result == null) {
+			synchronized (this) {
+				if (impliedLiterals == null) {
+					impliedLiterals = new ImpliedLiterals();
+				}
+				result = impliedLiterals;
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public Map<Expression, ConstraintSplitting.Memo> getMemoizedSplittings() {
+		Map<Expression, ConstraintSplitting.Memo> result = memoizedSplittings;
+		if (result == null) {
+			synchronized (this) {
+				if (memoizedSplittings == null) {
+					memoizedSplittings = new ConcurrentHashMap<>();
+				}
+				result = memoizedSplittings;
+			}
+		}
+		return result;
+	}
+
 	// END-TrueContext
 	//
 
@@ -219,8 +252,8 @@ public abstract class AbstractTrivialContext extends AbstractExpressionWrapper i
 	}
 
 	@Override
-	public void putInplaceGlobalObject(Object key, Object value) {
-		registry.putInplaceGlobalObject(key, value);
+	public InplaceGlobalObjects getInplaceGlobalObjects() {
+		return registry.getInplaceGlobalObjects();
 	}
 
 	@Override
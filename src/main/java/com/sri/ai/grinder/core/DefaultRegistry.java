@@ -82,6 +82,8 @@ public class DefaultRegistry implements Registry, Serializable {
 
 	private Map<Object, Object> globalObjects = null;
 	
+	private InplaceGlobalObjects inplaceGlobalObjects;
+	
 	//
 	// START - Constructors
 
@@ -104,19 +106,35 @@ public class DefaultRegistry implements Registry, Serializable {
 			Predicate<Expression> isUniquelyNamedConstantPredicate,
 			Map<Object, Object> globalObjects) {
 
+		this(symbolsAndTypes, isUniquelyNamedConstantPredicate, globalObjects, makeRootInplaceGlobalObjects());
+	}
+
+	public DefaultRegistry(
+			Map<Expression, Expression> symbolsAndTypes,
+			Predicate<Expression> isUniquelyNamedConstantPredicate,
+			Map<Object, Object> globalObjects,
+			InplaceGlobalObjects inplaceGlobalObjects) {
+
 		this.symbolsAndTypes = symbolsAndTypes;
 		this.isUniquelyNamedConstantPredicate = isUniquelyNamedConstantPredicate;
 		//
 		this.globalObjects = globalObjects;
+		this.inplaceGlobalObjects = inplaceGlobalObjects;
 		//
 		this.fromTypeExpressionToType = map();
 	}
 	
+	private static InplaceGlobalObjects makeRootInplaceGlobalObjects() {
+		InplaceGlobalObjects result = new InplaceGlobalObjects();
+		result.put(FreshSymbolGenerator.class, new FreshSymbolGenerator());
+		return result;
+	}
+	
 	/**
 	 * Creates a {@link DefaultRegistry} containing the basic information
 	 * from another context.
 	 * The basic information are the theory, symbols and types, is unique constant predicate,
-	 * and global objects.
+	 * and global objects (along with their inplace global objects).
 	 * Uses {@link #TrueContext(Theory, Map, Predicate, Map)}.
 	 * @param another
 	 */
@@ -124,7 +142,8 @@ public class DefaultRegistry implements Registry, Serializable {
 		this(
 				another.getSymbolsAndTypes(), 
 				another.getIsUniquelyNamedConstantPredicate(), 
-				another.getGlobalObjects());
+				another.getGlobalObjects(),
+				another.getInplaceGlobalObjects());
 	}
 
 	// END-Constructors
@@ -216,6 +235,7 @@ public class DefaultRegistry implements Registry, Serializable {
 	public DefaultRegistry putAllGlobalObjects(Map<Object, Object> objects) {
 		DefaultRegistry result = clone();
 		result.globalObjects = new StackedHashMap<>(objects, result.getGlobalObjects());
+		result.inplaceGlobalObjects = inplaceGlobalObjects.makeLayerOnTop();
 		return result;
 	}
 
@@ -225,8 +245,8 @@ public class DefaultRegistry implements Registry, Serializable {
 	}
 
 	@Override
-	public void putInplaceGlobalObject(Object key, Object value) {
-		globalObjects.put(key, value);
+	public InplaceGlobalObjects getInplaceGlobalObjects() {
+		return inplaceGlobalObjects;
 	}
 
 	@Override
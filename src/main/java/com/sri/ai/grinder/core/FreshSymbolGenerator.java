@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2013, SRI International
+ * All rights reserved.
+ * Licensed under the The BSD 3-Clause License;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * 
+ * http://opensource.org/licenses/BSD-3-Clause
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the aic-expresso nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) 
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, 
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.sri.ai.grinder.core;
+
+import static com.sri.ai.expresso.helper.Expressions.makeSymbol;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Predicate;
+import com.sri.ai.expresso.api.Expression;
+import com.sri.ai.grinder.api.Registry;
+
+/**
+ * Generates symbols that are distinct from the symbols previously generated by the same generator,
+ * in constant time and without inspecting any expressions or registries.
+ * <p>
+ * Generated symbols live in a separate name space: they are formed as <code>base#n</code>,
+ * where <code>n</code> is a counter kept for each base name,
+ * and <code>#</code> cannot occur in unquoted identifiers
+ * (see {@link com.sri.ai.expresso.core.DefaultSyntaxLeaf#UNQUOTED_SYMBOLIC_NAME}).
+ * Users can still write such names as quoted symbols (for example <code>'X#1'</code>),
+ * so callers that must avoid symbols in use pass a predicate to {@link #newSymbol(Expression, Predicate)},
+ * which keeps generating until it finds a symbol not taken; this almost always takes a single attempt.
+ * Since the base name keeps the capitalization of the symbol it comes from,
+ * fresh versions of variables are variables as well.
+ * <p>
+ * A generator is scoped to a context: the root registry creates it along with its inplace global objects,
+ * which are shared by all extensions of a context (see {@link Registry#getFreshSymbolGenerator()}),
+ * and each top-level solve gets a generator of its own, so the symbols it generates are the same every time it runs
+ * (see {@link com.sri.ai.grinder.core.solver.ContextDependentExpressionProblemSolver}).
+ * Generators are thread-safe.
+ * 
+ * @author braz
+ *
+ */
+@Beta
+public class FreshSymbolGenerator {
+	
+	public static final char SEPARATOR = '#';
+	
+	private ConcurrentHashMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
+	
+	/**
+	 * Returns a new symbol based on the given name (stripped of any previous generated suffix).
+	 */
+	public Expression newSymbol(String base) {
+		String strippedBase = stripGeneratedSuffix(base);
+		long number = counters.computeIfAbsent(strippedBase, b -> new AtomicLong()).incrementAndGet();
+		Expression result = makeSymbol(strippedBase + SEPARATOR + number);
+		return result;
+	}
+	
+	/**
+	 * Returns a new symbol based on given symbol's name.
+	 */
+	public Expression newSymbol(Expression symbol) {
+		return newSymbol(String.valueOf(symbol.getValue())); // not toString(), which quotes generated names
+	}
+	
+	/**
+	 * Returns a new symbol based on given symbol's name that is not taken according to a given predicate.
+	 */
+	public Expression newSymbol(Expression symbol, Predicate<Expression> isTaken) {
+		Expression result;
+		do {
+			result = newSymbol(symbol);
+		} while (isTaken.apply(result));
+		return result;
+	}
+	
+	/**
+	 * Returns the proposed symbol if it is not taken according to a given predicate,
+	 * or a new symbol based on it that is not taken otherwise.
+	 */
+	public Expression proposedOrNewSymbol(Expression proposed, Predicate<Expression> isTaken) {
+		Expression result = isTaken.apply(proposed)? newSymbol(proposed, isTaken) : proposed;
+		return result;
+	}
+	
+	/**
+	 * Indicates whether a symbol was produced by a fresh symbol generator.
+	 */
+	public static boolean isGenerated(Expression symbol) {
+		boolean result = symbol.getValue() instanceof String && ((String) symbol.getValue()).indexOf(SEPARATOR) > 0;
+		return result;
+	}
+	
+	private static String stripGeneratedSuffix(String base) {
+		int separatorIndex = base.indexOf(SEPARATOR);
+		String result = separatorIndex > 0? base.substring(0, separatorIndex) : base;
+		return result;
+	}
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2013, SRI International
+ * All rights reserved.
+ * Licensed under the The BSD 3-Clause License;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * 
+ * http://opensource.org/licenses/BSD-3-Clause
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the aic-expresso nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) 
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, 
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.sri.ai.grinder.core;
+
+import java.io.Serializable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.annotations.Beta;
+import com.sri.ai.grinder.api.Registry;
+import com.sri.ai.util.base.NullaryFunction;
+import com.sri.ai.util.base.Wrapper;
+
+/**
+ * The <b>inplace</b> global objects of a {@link Registry},
+ * organized in layers that mirror the layers of its global objects.
+ * Registries sharing the same global objects (such as clones, or extensions with new symbols) share the same layer,
+ * while putting global objects in a registry gives the new registry a new layer on top of the previous one.
+ * Objects are looked up from the top layer down, and new objects are put in the top layer,
+ * so they are visible to registries above that layer, but not to registries below it or in sibling layers.
+ * <p>
+ * Each layer is a concurrent map from keys to {@link Wrapper}s,
+ * and updates of an object are serialized by the lock of its wrapper
+ * (see {@link Registry#updateInplaceGlobalObject(Object, NullaryFunction, com.google.common.base.Function)}).
+ * 
+ * @author braz
+ *
+ */
+@Beta
+public class InplaceGlobalObjects implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final ConcurrentMap<Object, Wrapper<Object>> objects = new ConcurrentHashMap<>();
+	private final InplaceGlobalObjects below;
+	
+	/**
+	 * Makes a bottom layer.
+	 */
+	public InplaceGlobalObjects() {
+		this(null);
+	}
+	
+	private InplaceGlobalObjects(InplaceGlobalObjects below) {
+		this.below = below;
+	}
+	
+	/**
+	 * Makes a new, empty layer on top of this one.
+	 */
+	public InplaceGlobalObjects makeLayerOnTop() {
+		return new InplaceGlobalObjects(this);
+	}
+	
+	/**
+	 * Returns the wrapper of the object under a key in the topmost layer containing it, or <code>null</code> if there is none.
+	 */
+	public Wrapper<Object> getWrapper(Object key) {
+		for (InplaceGlobalObjects layer = this; layer != null; layer = layer.below) {
+			Wrapper<Object> result = layer.objects.get(key);
+			if (result != null) {
+				return result;
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Returns the wrapper of the object under a key in the topmost layer containing it,
+	 * or, if there is none, puts a wrapper of a default value in this layer and returns it.
+	 */
+	public Wrapper<Object> getOrMakeWrapper(Object key, NullaryFunction<?> defaultMaker) {
+		Wrapper<Object> result = getWrapper(key);
+		if (result == null) {
+			result = objects.computeIfAbsent(key, k -> new Wrapper<Object>(defaultMaker.apply()));
+		}
+		return result;
+	}
+	
+	/**
+	 * Puts an object in this layer, hiding any object under the same key in layers below.
+	 */
+	public void put(Object key, Object value) {
+		objects.put(key, new Wrapper<Object>(value));
+	}
+}
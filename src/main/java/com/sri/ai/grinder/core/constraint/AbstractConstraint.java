@@ -39,6 +39,9 @@ package com.sri.ai.grinder.core.constraint;
 
 import static com.sri.ai.expresso.helper.Expressions.FALSE;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import com.google.common.annotations.Beta;
 import com.sri.ai.expresso.api.Expression;
 import com.sri.ai.expresso.helper.AbstractExpressionWrapper;
@@ -58,6 +61,7 @@ public abstract class AbstractConstraint extends AbstractExpressionWrapper imple
 	
 	private Theory theory;
 	protected boolean isContradiction = false;
+	private transient volatile Map<Expression, ConstraintSplitting.Memo> memoizedSplittings;
 	
 	public AbstractConstraint(Theory theory) {
 		this.theory = theory;
@@ -75,6 +79,7 @@ public abstract class AbstractConstraint extends AbstractExpressionWrapper imple
 			result = (AbstractConstraint) super.clone();
 			// TODO - remove need to deep copy theory, currently done to support distributed computation prototype.
 			result.theory = result.theory.clone();
+			result.memoizedSplittings = null; // clones may be modified into different constraints
 		} catch (CloneNotSupportedException e) {
 			e.printStackTrace();
 		}
@@ -86,6 +91,20 @@ public abstract class AbstractConstraint extends AbstractExpressionWrapper imple
 		return isContradiction;
 	}
 
+	@Override
+	public Map<Expression, ConstraintSplitting.Memo> getMemoizedSplittings() {
+		Map<Expression, ConstraintSplitting.Memo> result = memoizedSplittings;
+		if (result == null) {
+			synchronized (this) {
+				if (memoizedSplittings == null) {
+					memoizedSplittings = new ConcurrentHashMap<>();
+				}
+				result = memoizedSplittings;
+			}
+		}
+		return result;
+	}
+
 	@Override
 	public Constraint makeContradiction() {
 		AbstractConstraint result = clone();
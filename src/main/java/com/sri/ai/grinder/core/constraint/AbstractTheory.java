@@ -67,9 +67,10 @@ import com.sri.ai.grinder.rewriter.help.CompleteRewriter;
  */
 abstract public class AbstractTheory implements Theory {
 
-	private TopRewriter topRewriter;
-	private Rewriter rewriter;
-	private CompleteRewriter completeRewriter;
+	// volatile so that theories can be shared by threads; concurrent lazy initializations make equivalent rewriters
+	private volatile TopRewriter topRewriter;
+	private volatile Rewriter rewriter;
+	private volatile CompleteRewriter completeRewriter;
 	
 	public AbstractTheory() {
 		super();
@@ -156,7 +156,7 @@ abstract public class AbstractTheoryTestingSupport implements TheoryTestingSuppo
 	 * Returns the type used for the default testing variables.
 	 * @return
 	 */
-	static public Categorical getDefaultTestingType() {
+	static synchronized public Categorical getDefaultTestingType() {
 		if (_someType == null) {
 			ArrayList<Expression> knownConstants = mapIntoArrayList(list("a", "b", "c", "d"), s -> makeSymbol(s));
 			_someType = new Categorical("SomeType", 5, knownConstants);
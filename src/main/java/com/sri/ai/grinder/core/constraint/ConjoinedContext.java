@@ -59,7 +59,10 @@ import com.sri.ai.grinder.api.Context;
 import com.sri.ai.grinder.api.ExpressionLiteralSplitterStepSolver;
 import com.sri.ai.grinder.api.SingleVariableConstraint;
 import com.sri.ai.grinder.api.Theory;
+import com.sri.ai.grinder.core.InplaceGlobalObjects;
 import com.sri.ai.grinder.core.TrueContext;
+import com.sri.ai.grinder.helper.metrics.SolverEvents;
+import com.sri.ai.grinder.helper.metrics.SolverMetrics;
 import com.sri.ai.grinder.library.boole.And;
 import com.sri.ai.util.base.BinaryFunction;
 import com.sri.ai.util.base.Pair;
@@ -96,6 +99,8 @@ public class ConjoinedContext extends AbstractConstraint implements Context {
 	
 	private boolean checked;
 	
+	private transient volatile ImpliedLiterals impliedLiterals;
+	
 	/**
 	 * Makes a {@link Context} from a literal and a given {@link TrueContext}.
 	 * @param literal
@@ -189,12 +194,18 @@ public class ConjoinedContext extends AbstractConstraint implements Context {
 
 		return explanationBlock("Making new MultiVariableContextWithCheckedProperty and checking property", code( () -> {
 
-			Context result;
-			if (head.isContradiction() || tail.isContradiction()) {
-				result = tail.makeContradiction();
+			Context result = null;
+			Object event = SolverEvents.beginContextCheck();
+			try {
+				if (head.isContradiction() || tail.isContradiction()) {
+					result = tail.makeContradiction();
+				}
+				else {
+					result = makeAndCheckOutOfConsistentHeadAndTail(head, tail, contextDependentProblemStepSolverMaker, context);
+				}
 			}
-			else {
-				result = makeAndCheckOutOfConsistentHeadAndTail(head, tail, contextDependentProblemStepSolverMaker, context);
+			finally {
+				SolverEvents.endContextCheck(event, head, result == null || result.isContradiction());
 			}
 
 			return result;
@@ -240,6 +251,7 @@ public class ConjoinedContext extends AbstractConstraint implements Context {
 	public Context conjoin(Expression formula, Context context) {
 		Context result;
 		
+		SolverMetrics.increment(SolverMetrics.CONJOIN_CALLS);
 		Context specializedResult = conjoinSpecializedForConstraintsIfApplicable(formula, context);
 		
 		if (specializedResult != null) {
@@ -249,6 +261,11 @@ public class ConjoinedContext extends AbstractConstraint implements Context {
 			result = Context.super.conjoin(formula, context);
 		}
 		
+		if (result != this && ! result.isContradiction()) {
+			ImpliedLiterals parentImpliedLiterals = getImpliedLiterals(); // obtained first so that it is older than a new result's
+			result.getImpliedLiterals().inheritFrom(parentImpliedLiterals);
+		}
+		
 		return result;
 	}
 
@@ -447,9 +464,13 @@ public class ConjoinedContext extends AbstractConstraint implements Context {
 		return explanationBlock("Performing check to ", this, code( () -> {
 
 			ConjoinedContext result;
+			SolverMetrics.increment(SolverMetrics.CONTRADICTION_CHECKS);
+			long startTime = SolverMetrics.startTimer();
 			ExpressionLiteralSplitterStepSolver problem = propertyCheckerStepSolverMaker.apply(head, context);
 			Expression solution = problem.solve(tail);
+			SolverMetrics.stopTimer(SolverMetrics.CONTRADICTION_CHECKS, startTime);
 			if (solution.equals(FALSE)) { // the head constraint does not exhibit the property in all contexts, so the total constraint does not either.
+				SolverMetrics.increment(SolverMetrics.CONTRADICTIONS);
 				result = makeContradiction();
 			}
 			else {
@@ -481,7 +502,23 @@ public class ConjoinedContext extends AbstractConstraint implements Context {
 
 	@Override
 	public ConjoinedContext clone() {
-		return (ConjoinedContext) super.clone();
+		ConjoinedContext result = (ConjoinedContext) super.clone();
+		result.impliedLiterals = null; // clones may be modified into different contexts
+		return result;
+	}
+
+	@Override
+	public ImpliedLiterals getImpliedLiterals() {
+		ImpliedLiterals result = impliedLiterals;
+		if (result == null) {
+			synchronized (this) {
+				if (impliedLiterals == null) {
+					impliedLiterals = new ImpliedLiterals();
+				}
+				result = impliedLiterals;
+			}
+		}
+		return result;
 	}
 
 	/////////// Context methods
@@ -566,8 +603,8 @@ public class ConjoinedContext extends AbstractConstraint implements Context {
 	}
 
 	@Override
-	public void putInplaceGlobalObject(Object key, Object value) {
-		tail.putInplaceGlobalObject(key, value);
+	public InplaceGlobalObjects getInplaceGlobalObjects() {
+		return tail.getInplaceGlobalObjects();
 	}
 
 	@Override
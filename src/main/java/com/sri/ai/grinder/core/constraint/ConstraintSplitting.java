@@ -8,6 +8,12 @@ import static com.sri.ai.util.explanation.logging.api.ThreadExplanationLogger.RE
 import static com.sri.ai.util.explanation.logging.api.ThreadExplanationLogger.code;
 import static com.sri.ai.util.explanation.logging.api.ThreadExplanationLogger.explanationBlock;
 
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
 import com.google.common.annotations.Beta;
 import com.sri.ai.expresso.api.Expression;
 import com.sri.ai.grinder.api.Constraint;
@@ -32,6 +38,16 @@ import com.sri.ai.grinder.api.Context;
  * <li> {@link Result#CONSTRAINT_IS_CONTRADICTORY}: both conjoining the literal and conjoining the literal negation with constraint generate contradictions,
  * and therefore the constraint is contradictory itself. 
  * </ul>
+ * <p>
+ * The result and the two conjunctions are computed on first request only,
+ * and {@link #make(Expression, Constraint, Context)} reuses the result of previous splittings of the same constraint and literal under the same context,
+ * as well as their conjunctions while they are still in use elsewhere,
+ * since conjoining is the most expensive operation in splitting.
+ * These are kept by the constraint itself (see {@link Constraint#getMemoizedSplittings()}) in a {@link Memo},
+ * which refers to the conjunctions and the context weakly,
+ * so that memoization does not keep alive the contexts explored under a long-lived one.
+ * When splitting a {@link Context}, the result is recorded in its {@link ImpliedLiterals},
+ * and the literal's value is recorded in those of the two conjunctions.
  * 
  * @author braz
  *
@@ -54,62 +70,140 @@ public class ConstraintSplitting {
 	private Result     result;
 	private Constraint constraint;
 	private Expression literal;
+	private Context    context;
 	private Constraint constraintAndLiteral;
 	private Constraint constraintAndLiteralNegation;
+	private Memo       memo;
 
 	
 	////////////////////////////////////////////////////////////////////////////////////////////////////
 	// FOR TESTING PURPOSES ////////////////////////////////////////////////////////////////////////////
 	////////////////////////////////////////////////////////////////////////////////////////////////////
-	private static long totalConstraintSplittingTime = 0;
-	private static boolean alreadyTimingConstraintSplitting = false;
+	// counters are shared by all solving threads; the flag avoiding double-timing of nested splittings is per thread
+	private static final AtomicLong totalConstraintSplittingTime = new AtomicLong();
+	private static final ThreadLocal<boolean[]> alreadyTimingConstraintSplitting = ThreadLocal.withInitial(() -> new boolean[1]);
 	
 	public static long getTotalConstraintSplittingTime() {
-		return totalConstraintSplittingTime;
+		return totalConstraintSplittingTime.get();
 	}
 	
 	public static void resetTotalConstraintSplittingTime() {
-		totalConstraintSplittingTime = 0;
+		totalConstraintSplittingTime.set(0);
 	}
 	// // // // // // // // // // // // // // // // // // // // // // // // // // // // // // // // //
-	private static int totalNumberOfConstraintSplittings = 0;
+	private static final AtomicInteger totalNumberOfConstraintSplittings = new AtomicInteger();
 	
 	public static void resetCounter() { 
-		totalNumberOfConstraintSplittings = 0; 
+		totalNumberOfConstraintSplittings.set(0); 
+	}
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	// MEMOIZATION /////////////////////////////////////////////////////////////////////////////////////
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * The maximum number of splittings memoized for each constraint.
+	 */
+	public static final int MAXIMUM_NUMBER_OF_MEMOIZED_SPLITTINGS_PER_CONSTRAINT = 1000;
+	
+	/**
+	 * What is memoized of a splitting: its result, and weak references to its context and conjunctions,
+	 * which are therefore reused only while still reachable from elsewhere.
+	 */
+	public static class Memo {
+		private final Class<? extends ConstraintSplitting> splittingClass;
+		private final WeakReference<Context> context;
+		private volatile Result result;
+		private volatile WeakReference<Constraint> constraintAndLiteral;
+		private volatile WeakReference<Constraint> constraintAndLiteralNegation;
+		
+		private Memo(Class<? extends ConstraintSplitting> splittingClass, Context context) {
+			this.splittingClass = splittingClass;
+			this.context = new WeakReference<>(context);
+		}
+		
+		private boolean isFor(Class<? extends ConstraintSplitting> splittingClass, Context context) {
+			return this.splittingClass == splittingClass && this.context.get() == context;
+		}
+		
+		/** The memoized result, or <code>null</code> if not computed yet. */
+		public Result getResult() {
+			return result;
+		}
+		
+		private static Constraint get(WeakReference<Constraint> reference) {
+			return reference == null? null : reference.get();
+		}
+	}
+	
+	/**
+	 * Returns the splitting of a constraint by a literal under a context,
+	 * reusing what has been memoized of a previous splitting of the same constraint and literal under the same context, if there is one.
+	 */
+	public static ConstraintSplitting make(Expression literal, Constraint constraint, Context context) {
+		return getOrMake(literal, constraint, context, ConstraintSplitting.class, () -> new ConstraintSplitting(literal, constraint, context));
+	}
+	
+	static <T extends ConstraintSplitting> T getOrMake(Expression literal, Constraint constraint, Context context, Class<T> splittingClass, Supplier<T> maker) {
+		T result = maker.get();
+		Map<Expression, Memo> memosOfConstraint = constraint.getMemoizedSplittings();
+		if (memosOfConstraint != null) {
+			Memo memo = memosOfConstraint.get(literal);
+			if (memo == null || ! memo.isFor(splittingClass, context)) {
+				memo = new Memo(splittingClass, context);
+				if (memosOfConstraint.size() < MAXIMUM_NUMBER_OF_MEMOIZED_SPLITTINGS_PER_CONSTRAINT || memosOfConstraint.containsKey(literal)) {
+					memosOfConstraint.put(literal, memo);
+				}
+			}
+			ConstraintSplitting splitting = result;
+			splitting.memo = memo;
+			splitting.result = memo.result;
+			splitting.constraintAndLiteral = Memo.get(memo.constraintAndLiteral);
+			splitting.constraintAndLiteralNegation = Memo.get(memo.constraintAndLiteralNegation);
+		}
+		return result;
 	}
 	////////////////////////////////////////////////////////////////////////////////////////////////////
 	
 	
 	/**
-	 * Splits given constraint by given literal and stores the result and other information (see methods).
+	 * Prepares the splitting of given constraint by given literal;
+	 * the result and each of the conjunctions are only computed when first requested (see methods).
+	 * Use {@link #make(Expression, Constraint, Context)} to reuse previous splittings.
 	 * @param literal
 	 * @param constraint
 	 * @param context
 	 */
 	public ConstraintSplitting(Expression literal, Constraint constraint, Context context) {
-		explanationBlock("Constraint splitting number ", ++totalNumberOfConstraintSplittings, " literal: ", literal, ", constraint ", constraint, code( () -> {
-			
-			boolean addTheTimeFromThisSplitting;
-			long startTime = 0;
-			if(alreadyTimingConstraintSplitting) {
-				addTheTimeFromThisSplitting = false;
+		this.constraint = constraint;
+		this.literal = literal;
+		this.context = context;
+	}
+	
+	/** The result of the splitting, which is one of the value of type {@link Result}. */
+	public synchronized Result getResult() {
+		if (result == null) {
+			result = computeResult();
+			if (constraint == context) {
+				context.getImpliedLiterals().record(literal, result);
 			}
-			else {
-				addTheTimeFromThisSplitting = true;
-				startTime = System.nanoTime();
-				alreadyTimingConstraintSplitting = true;
+			if (memo != null) {
+				memo.result = result;
 			}
+		}
+		return result;
+	}
 
+	private Result computeResult() {
+		return explanationBlock("Constraint splitting number ", totalNumberOfConstraintSplittings.incrementAndGet(), " literal: ", literal, ", constraint ", constraint, code( () -> {
 			
-			
-			this.constraint = constraint;
-			this.literal = literal;
-			Expression literalNegation   = constraint.getTheory().getLiteralNegation(literal, context);
-			constraintAndLiteral         = constraint.conjoin(        literal, context);
-			constraintAndLiteralNegation = constraint.conjoin(literalNegation, context);
-
-			if ( ! constraintAndLiteral.isContradiction()) {
-				if ( ! constraintAndLiteralNegation.isContradiction()) {
+			Result result;
+			if (constraint.isContradiction()) {
+				result = CONSTRAINT_IS_CONTRADICTORY;
+			}
+			else if ( ! getConstraintAndLiteral().isContradiction()) {
+				if ( ! getConstraintAndLiteralNegation().isContradiction()) {
 					result = LITERAL_IS_UNDEFINED;
 				}
 				else {
@@ -117,7 +211,7 @@ public class ConstraintSplitting {
 				}
 			}
 			else {
-				if ( ! constraintAndLiteralNegation.isContradiction()) {
+				if ( ! getConstraintAndLiteralNegation().isContradiction()) {
 					result = LITERAL_IS_FALSE;
 				}
 				else {
@@ -125,20 +219,29 @@ public class ConstraintSplitting {
 				}
 			}
 			
-			
-			
-			if(addTheTimeFromThisSplitting) {
-				long constraintSplittingTime = System.nanoTime() - startTime;
-				totalConstraintSplittingTime += constraintSplittingTime;
-				alreadyTimingConstraintSplitting = false;
-			}
-
 			return result; }), "Result is ", RESULT);
 	}
 	
-	/** The result of the splitting, which is one of the value of type {@link Result}. */
-	public Result getResult() {
-		return result;
+	private Constraint timedConjoin(Expression formula) {
+		boolean[] alreadyTiming = alreadyTimingConstraintSplitting.get();
+		if (alreadyTiming[0]) {
+			return constraint.conjoin(formula, context);
+		}
+		long startTime = System.nanoTime();
+		alreadyTiming[0] = true;
+		try {
+			return constraint.conjoin(formula, context);
+		}
+		finally {
+			totalConstraintSplittingTime.addAndGet(System.nanoTime() - startTime);
+			alreadyTiming[0] = false;
+		}
+	}
+	
+	private void recordInBranch(Constraint branch, boolean literalValue) {
+		if (branch instanceof Context && ! branch.isContradiction()) {
+			((Context) branch).getImpliedLiterals().recordValue(literal, literalValue);
+		}
 	}
 	
 	/**
@@ -163,9 +266,17 @@ public class ConstraintSplitting {
 	 * Return conjunction of constraint and literal
 	 * (context is not conjoined; it is only used to decide whether
 	 * conjunction of constraint and literal is satisfiable).
+	 * It is computed on the first request.
 	 * @return
 	 */
-	public Constraint getConstraintAndLiteral() {
+	public synchronized Constraint getConstraintAndLiteral() {
+		if (constraintAndLiteral == null) {
+			constraintAndLiteral = timedConjoin(literal);
+			recordInBranch(constraintAndLiteral, true);
+			if (memo != null) {
+				memo.constraintAndLiteral = new WeakReference<>(constraintAndLiteral);
+			}
+		}
 		return constraintAndLiteral;
 	}
 	
@@ -173,9 +284,18 @@ public class ConstraintSplitting {
 	 * Return conjunction of constraint and literal negation
 	 * (context is not conjoined; it is only used to decide whether
 	 * conjunction of constraint and literal is satisfiable).
+	 * It is computed on the first request.
 	 * @return
 	 */
-	public Constraint getConstraintAndLiteralNegation() {
+	public synchronized Constraint getConstraintAndLiteralNegation() {
+		if (constraintAndLiteralNegation == null) {
+			Expression literalNegation = constraint.getTheory().getLiteralNegation(literal, context);
+			constraintAndLiteralNegation = timedConjoin(literalNegation);
+			recordInBranch(constraintAndLiteralNegation, false);
+			if (memo != null) {
+				memo.constraintAndLiteralNegation = new WeakReference<>(constraintAndLiteralNegation);
+			}
+		}
 		return constraintAndLiteralNegation;
 	}
 	
@@ -184,10 +304,10 @@ public class ConstraintSplitting {
 	 */
 	public Constraint getConstraintAndLiteralEqualTo(boolean splitterValue) {
 		if (splitterValue) {
-			return constraintAndLiteral;
+			return getConstraintAndLiteral();
 		}
 		else {
-			return constraintAndLiteralNegation;
+			return getConstraintAndLiteralNegation();
 		}
 	}
-}
\ No newline at end of file
+}
@@ -3,6 +3,7 @@ package com.sri.ai.grinder.core.constraint;
 import com.google.common.annotations.Beta;
 import com.sri.ai.expresso.api.Expression;
 import com.sri.ai.grinder.api.Context;
+import com.sri.ai.grinder.helper.metrics.SolverMetrics;
 
 /**
  * A specialization of {@link ConstraintSplitting} for {@link Context}.
@@ -14,7 +15,16 @@ import com.sri.ai.grinder.api.Context;
 public class ContextSplitting extends ConstraintSplitting {
 
 	/**
-	 * Splits given constraint by given literal and stores the result and other information (see methods).
+	 * Returns the splitting of a context by a literal,
+	 * reusing a previous splitting of the same context and literal if there is one.
+	 */
+	public static ContextSplitting make(Expression literal, Context context) {
+		return getOrMake(literal, context, context, ContextSplitting.class, () -> new ContextSplitting(literal, context));
+	}
+
+	/**
+	 * Prepares the splitting of given context by given literal (see {@link ConstraintSplitting}).
+	 * Use {@link #make(Expression, Context)} to reuse previous splittings.
 	 * @param literal
 	 * @param context
 	 */
@@ -24,6 +34,7 @@ public class ContextSplitting extends ConstraintSplitting {
 		// Because we need a Context for that to happen (because of type information, etc),
 		// we use the context itself.
 		// The constraint information inside the second context will be redudant.
+		SolverMetrics.increment(SolverMetrics.CONTEXT_SPLITS);
 	}
 	
 	@Override
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2013, SRI International
+ * All rights reserved.
+ * Licensed under the The BSD 3-Clause License;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * 
+ * http://opensource.org/licenses/BSD-3-Clause
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the aic-expresso nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) 
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, 
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.sri.ai.grinder.core.constraint;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.google.common.annotations.Beta;
+import com.sri.ai.expresso.api.Expression;
+import com.sri.ai.grinder.api.Context;
+
+/**
+ * A cache, attached to a {@link Context}, of literals already known to be implied true or false by it.
+ * <p>
+ * Since a literal implied by a context is also implied by its extensions,
+ * the implied literals of a context's extensions include those of the context (their <i>parent</i>).
+ * Values found in an ancestor are copied into the cache they were looked up from,
+ * so later lookups of the same literal do not walk the ancestors again.
+ * Literals are recorded as given (that is, not normalized), so a literal is only found if it is given in the same form.
+ * <p>
+ * Instances are thread-safe and lock-free.
+ * A cache can only inherit from an older cache (one created before it), and only once,
+ * so the ancestors of a cache never form a cycle, even when equivalent contexts are conjoined from each other concurrently.
+ * 
+ * @author braz
+ *
+ */
+@Beta
+public class ImpliedLiterals {
+	
+	private static final AtomicLong numberOfCreatedCaches = new AtomicLong();
+	
+	private final long creationNumber;
+	private final AtomicReference<ImpliedLiterals> parent;
+	private final Map<Expression, Boolean> implied;
+	
+	public ImpliedLiterals() {
+		this.creationNumber = numberOfCreatedCaches.incrementAndGet();
+		this.parent = new AtomicReference<>();
+		this.implied = new ConcurrentHashMap<>();
+	}
+	
+	/**
+	 * Makes the implied literals of another context's cache, which must be implied by this cache's context, available through this one.
+	 * This is ignored if a parent has already been set, or if the given cache is not older than this one.
+	 */
+	public void inheritFrom(ImpliedLiterals parent) {
+		if (parent.creationNumber < creationNumber) {
+			this.parent.compareAndSet(null, parent);
+		}
+	}
+	
+	/**
+	 * Returns the known value of a literal (<code>true</code> or <code>false</code>), or <code>null</code> if not known.
+	 */
+	public Boolean getValue(Expression literal) {
+		Boolean result = implied.get(literal);
+		if (result == null) {
+			for (ImpliedLiterals ancestor = parent.get(); result == null && ancestor != null; ancestor = ancestor.parent.get()) {
+				result = ancestor.implied.get(literal);
+			}
+			if (result != null) {
+				implied.put(literal, result);
+			}
+		}
+		return result;
+	}
+	
+	public void recordValue(Expression literal, boolean value) {
+		implied.put(literal, value);
+	}
+	
+	/**
+	 * Convenience for obtaining the known value of a literal in a context
+	 * (<code>null</code> if not known or if the context is a contradiction).
+	 */
+	public static Boolean getKnownValue(Expression literal, Context context) {
+		return context.isContradiction()? null : context.getImpliedLiterals().getValue(literal);
+	}
+	
+	/**
+	 * Records the result of a splitting of a context by a literal
+	 * (nothing is recorded for contradictory contexts or undefined literals).
+	 */
+	public void record(Expression literal, ConstraintSplitting.Result result) {
+		switch (result) {
+		case LITERAL_IS_TRUE:
+			recordValue(literal, true);
+			break;
+		case LITERAL_IS_FALSE:
+			recordValue(literal, false);
+			break;
+		default:
+			break;
+		}
+	}
+}
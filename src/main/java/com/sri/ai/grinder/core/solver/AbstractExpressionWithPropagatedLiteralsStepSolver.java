@@ -54,6 +54,7 @@ import com.sri.ai.grinder.api.Constraint;
 import com.sri.ai.grinder.api.Context;
 import com.sri.ai.grinder.api.ExpressionLiteralSplitterStepSolver;
 import com.sri.ai.grinder.core.constraint.ContextSplitting;
+import com.sri.ai.grinder.core.constraint.ImpliedLiterals;
 import com.sri.ai.util.collect.FunctionIterator;
 import com.sri.ai.util.collect.NestedIterator;
 
@@ -279,7 +280,15 @@ public abstract class AbstractExpressionWithPropagatedLiteralsStepSolver impleme
 			boolean clauseIsSatisfied = false;
 			for ( /* literalIndex already initialized at this point */ ; literalIndex != clause.size(); literalIndex++) {
 				Expression literal = clause.get(literalIndex);
-				ContextSplitting split = new ContextSplitting(literal, context);
+				Boolean knownValue = ImpliedLiterals.getKnownValue(literal, context);
+				if (knownValue != null) {
+					if (knownValue) {
+						clauseIsSatisfied = true;
+						break; // no need to examine remaining literals in clause
+					}
+					continue; // context already implies literal is false
+				}
+				ContextSplitting split = ContextSplitting.make(literal, context);
 				
 				switch (split.getResult()) {
 				case LITERAL_IS_UNDEFINED:
@@ -326,7 +335,11 @@ public abstract class AbstractExpressionWithPropagatedLiteralsStepSolver impleme
 	 */
 	protected Step conjunctiveClauseIsDefined(Iterable<Expression> conjunctiveClause, Context context) {
 		for (Expression literal : conjunctiveClause) {
-			ContextSplitting split = new ContextSplitting(literal, context);
+			Boolean knownValue = ImpliedLiterals.getKnownValue(literal, context);
+			if (knownValue != null && knownValue) {
+				continue; // context already implies literal
+			}
+			ContextSplitting split = ContextSplitting.make(literal, context);
 
 			switch (split.getResult()) {
 			case LITERAL_IS_UNDEFINED:
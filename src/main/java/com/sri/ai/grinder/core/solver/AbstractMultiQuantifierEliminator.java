@@ -61,13 +61,15 @@ public abstract class AbstractMultiQuantifierEliminator implements MultiQuantifi
 	}
 	
 	/**
-	 * Extensions must periodically invoke this method, so algorithm stops if so ordered by user.
+	 * Extensions must periodically invoke this method, so algorithm stops if so ordered by user
+	 * or if the current thread's {@link Deadline} has passed (in which case a {@link DeadlineExceededException} is thrown).
 	 * @return 
 	 */
 	public void checkInterrupted() {
 		if (interrupted) {
 			throw new RuntimeException("Solver Interrupted");
 		}
+		Deadline.checkCurrent();
 	}
 	
 	@Override
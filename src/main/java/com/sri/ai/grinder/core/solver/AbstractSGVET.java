@@ -69,6 +69,7 @@ import com.sri.ai.grinder.api.MultiQuantifierEliminationProblem;
 import com.sri.ai.grinder.api.MultiQuantifierEliminator;
 import com.sri.ai.grinder.group.AssociativeCommutativeGroup;
 import com.sri.ai.grinder.group.AssociativeCommutativeSemiRing;
+import com.sri.ai.grinder.helper.metrics.SolverMetrics;
 import com.sri.ai.grinder.library.controlflow.IfThenElse;
 import com.sri.ai.util.base.PairOf;
 
@@ -160,6 +161,9 @@ public class AbstractSGVET extends AbstractMultiQuantifierEliminator {
 				System.out.println("From       : " + indexSubProblemExpression);	
 				System.out.println("Width      : " + width(indexSubProblemExpression, context) + " out of " + indices.size() + " indices");	
 			}
+			if (SolverMetrics.isEnabled()) {
+				SolverMetrics.record(SolverMetrics.SGVET_WIDTH, width(indexSubProblemExpression, context));
+			}
 
 			// We now invoke the subsolver for summing the index out of the factors it is in.
 			// Ideally, we would reuse the current constraint, but the set of index has changed and the current constraint may
@@ -65,6 +65,8 @@ import com.sri.ai.grinder.core.constraint.ConstraintSplitting;
 import com.sri.ai.grinder.core.constraint.ContextSplitting;
 import com.sri.ai.grinder.group.AssociativeCommutativeGroup;
 import com.sri.ai.grinder.helper.AssignmentMapsIterator;
+import com.sri.ai.grinder.helper.metrics.SolverEvents;
+import com.sri.ai.grinder.helper.metrics.SolverMetrics;
 import com.sri.ai.grinder.interpreter.Assignment;
 import com.sri.ai.grinder.interpreter.BruteForceCommonInterpreter;
 import com.sri.ai.grinder.rewriter.core.Recursive;
@@ -148,15 +150,21 @@ public abstract class AbstractSingleQuantifierEliminationStepSolver implements S
 	public Step step(Context context) {
 		return explanationBlock("Taking step in solving ", problem, " with ", this.getClass().getSimpleName(), code(() -> {
 
-			Step step;
+			Step step = null;
 
-			Context contextForBody = getContextForBody(context);  
+			Object event = SolverEvents.beginStep();
+			try {
+				Context contextForBody = getContextForBody(context);  
 
-			if (contextForBody.isContradiction()) {
-				step = stepWhenContextForBodyIsNotConsistent();
+				if (contextForBody.isContradiction()) {
+					step = stepWhenContextForBodyIsNotConsistent();
+				}
+				else {
+					step = stepWhenContextForBodyIsConsistent(contextForBody, context);
+				}
 			}
-			else {
-				step = stepWhenContextForBodyIsConsistent(contextForBody, context);
+			finally {
+				SolverEvents.endStep(event, this, step != null && step.itDepends()? step.getSplitter() : null);
 			}
 
 			bruteForceCheckingOfNonConditionalProblemsIfRequested(step, context);
@@ -331,7 +339,7 @@ public abstract class AbstractSingleQuantifierEliminationStepSolver implements S
 		// TODO: We current don't have a Constraint-generic way to extract it, but expect to do it in the future.
 		// For now, we split the index constraint separately
 		Expression literal = bodyStep.getSplitterLiteral();
-		ConstraintSplitting indexConstraintSplitting = new ConstraintSplitting(literal, getIndexConstraint(), context);
+		ConstraintSplitting indexConstraintSplitting = ConstraintSplitting.make(literal, getIndexConstraint(), context);
 		return indexConstraintSplitting;
 	}
 	
@@ -453,7 +461,7 @@ public abstract class AbstractSingleQuantifierEliminationStepSolver implements S
 			// we calculate the splittings here.
 			// TODO: In the future, we expect it to be possible to efficiently extract the contextForBody component relative
 			// to the original context only, excluding the index.
-			ContextSplitting split = new ContextSplitting(bodyStep.getSplitterLiteral(), context);
+			ContextSplitting split = ContextSplitting.make(bodyStep.getSplitterLiteral(), context);
 			return split;
 
 		}), "Splitting on original context is ", RESULT);
@@ -465,17 +473,17 @@ public abstract class AbstractSingleQuantifierEliminationStepSolver implements S
 			Expression literalFreeBody = bodyStep.getValue();
 			Step result = eliminateQuantifierForLiteralFreeBody(literalFreeBody, context);
 
-			registerGroupIntegration(literalFreeBody, result, context);
+			registerGroupIntegration(result);
 
 			return result;
 			
 		}), "Solution is ", RESULT);
 	}
 
-	private void registerGroupIntegration(Expression literalFreeBody, Step result, Context context) {
+	private void registerGroupIntegration(Step result) {
 		boolean solutionToQuantifiedLiteralFreeBodyIsNotConditionalItself = !result.itDepends(); 
 		if (solutionToQuantifiedLiteralFreeBodyIsNotConditionalItself) {
-			IntegrationRecording.registerGroupIntegration(problem, literalFreeBody, result, context);
+			SolverMetrics.incrementPerKey(SolverMetrics.INTEGRATIONS, problem.getGroup().getClass().getSimpleName());
 		}
 	}
 
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2013, SRI International
+ * All rights reserved.
+ * Licensed under the The BSD 3-Clause License;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * 
+ * http://opensource.org/licenses/BSD-3-Clause
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the aic-expresso nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) 
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, 
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.sri.ai.grinder.core.solver;
+
+import com.google.common.annotations.Beta;
+import com.sri.ai.expresso.api.Expression;
+
+/**
+ * The answer of a solver given a time budget, which is the exact value if it could be computed in time,
+ * a sampling estimate, or an interval known to contain the exact value.
+ * 
+ * @author braz
+ *
+ */
+@Beta
+public class BudgetedSolution {
+	
+	public static enum Kind {
+		/** the exact value */
+		EXACT,
+		/** an estimate obtained by sampling; bounds are a confidence interval if available */
+		ESTIMATE,
+		/** no value, only bounds on the exact value */
+		BOUNDS
+	}
+	
+	private final Kind kind;
+	private final Expression value;
+	private final Expression lowerBound;
+	private final Expression upperBound;
+	private final int numberOfSamples;
+	
+	private BudgetedSolution(Kind kind, Expression value, Expression lowerBound, Expression upperBound, int numberOfSamples) {
+		this.kind = kind;
+		this.value = value;
+		this.lowerBound = lowerBound;
+		this.upperBound = upperBound;
+		this.numberOfSamples = numberOfSamples;
+	}
+	
+	public static BudgetedSolution exact(Expression value) {
+		return new BudgetedSolution(Kind.EXACT, value, value, value, 0);
+	}
+	
+	/**
+	 * An estimate; bounds may be <code>null</code> if no confidence interval is available.
+	 */
+	public static BudgetedSolution estimate(Expression value, Expression lowerBound, Expression upperBound, int numberOfSamples) {
+		return new BudgetedSolution(Kind.ESTIMATE, value, lowerBound, upperBound, numberOfSamples);
+	}
+	
+	public static BudgetedSolution bounds(Expression lowerBound, Expression upperBound) {
+		return new BudgetedSolution(Kind.BOUNDS, null, lowerBound, upperBound, 0);
+	}
+	
+	public Kind getKind() {
+		return kind;
+	}
+	
+	public boolean isExact() {
+		return kind == Kind.EXACT;
+	}
+	
+	/**
+	 * The exact value or estimate, or <code>null</code> if only bounds are available.
+	 */
+	public Expression getValue() {
+		return value;
+	}
+	
+	public Expression getLowerBound() {
+		return lowerBound;
+	}
+	
+	public Expression getUpperBound() {
+		return upperBound;
+	}
+	
+	public int getNumberOfSamples() {
+		return numberOfSamples;
+	}
+	
+	@Override
+	public String toString() {
+		String result;
+		switch (kind) {
+		case EXACT:
+			result = value.toString();
+			break;
+		case ESTIMATE:
+			result = "~" + value + (lowerBound == null? "" : " in [" + lowerBound + ", " + upperBound + "]") + " (" + numberOfSamples + " samples)";
+			break;
+		default:
+			result = "in [" + lowerBound + ", " + upperBound + "]";
+		}
+		return result;
+	}
+}
@@ -47,7 +47,9 @@ import com.google.common.annotations.Beta;
 import com.sri.ai.expresso.api.Expression;
 import com.sri.ai.grinder.api.Context;
 import com.sri.ai.grinder.api.ExpressionLiteralSplitterStepSolver;
+import com.sri.ai.grinder.core.FreshSymbolGenerator;
 import com.sri.ai.grinder.core.constraint.ContextSplitting;
+import com.sri.ai.grinder.helper.metrics.SolverMetrics;
 import com.sri.ai.grinder.library.controlflow.IfThenElse;
 
 /**
@@ -60,6 +62,13 @@ import com.sri.ai.grinder.library.controlflow.IfThenElse;
  * and at the level of {@link ExpressionLiteralSplitterStepSolver}
  * there is not necessarily a quantifier involved.
  * This is currently done at the level of {@link SingleQuantifierEliminationStepSolver}.
+ * <p>
+ * Before each step, the solver checks the current thread's {@link Deadline}, if any.
+ * <p>
+ * {@link #staticSolve(ExpressionLiteralSplitterStepSolver, Context)} gives each top-level solve
+ * (that is, one not running under another one) its own {@link FreshSymbolGenerator},
+ * so the symbols it generates do not depend on previous solves in the same context
+ * and repeating a solve produces the same expression.
  * 
  * @author braz
  *
@@ -67,6 +76,11 @@ import com.sri.ai.grinder.library.controlflow.IfThenElse;
 @Beta
 public class ContextDependentExpressionProblemSolver {
 
+	/**
+	 * The key of the global object marking contexts under a top-level solve.
+	 */
+	private static final String SOLVE_SCOPE_KEY = "Solve scope";
+
 	private boolean interrupted = false;
 	
 	public void interrupt() {
@@ -86,8 +100,10 @@ public class ContextDependentExpressionProblemSolver {
 			if (interrupted) {
 				throw new Error("Solver interrupted.");
 			}
+			Deadline.checkCurrent();
 
 			Expression result;
+			SolverMetrics.incrementPerKey(SolverMetrics.STEPS, stepSolver.getClass().getName());
 			ExpressionLiteralSplitterStepSolver.Step step = stepSolver.step(context);
 			if (step.itDepends()) {
 				result = solveSplittedProblem(step);
@@ -120,7 +136,24 @@ public class ContextDependentExpressionProblemSolver {
 
 	public static Expression staticSolve(ExpressionLiteralSplitterStepSolver stepSolver, Context context) {
 		ContextDependentExpressionProblemSolver solver = new ContextDependentExpressionProblemSolver();
-		Expression result = solver.solve(stepSolver, context);
+		Expression result = solver.solve(stepSolver, makeSolveScopeIfNeeded(context));
+		return result;
+	}
+
+	/**
+	 * If context is not under a top-level solve yet, returns an extension of it marked as such,
+	 * with a new {@link FreshSymbolGenerator} in a new layer of inplace global objects;
+	 * otherwise, returns context itself.
+	 */
+	private static Context makeSolveScopeIfNeeded(Context context) {
+		Context result;
+		if (context.containsGlobalObjectKey(SOLVE_SCOPE_KEY)) {
+			result = context;
+		}
+		else {
+			result = context.putGlobalObject(SOLVE_SCOPE_KEY, true);
+			result.putInplaceGlobalObject(FreshSymbolGenerator.class, new FreshSymbolGenerator());
+		}
 		return result;
 	}
 }
\ No newline at end of file
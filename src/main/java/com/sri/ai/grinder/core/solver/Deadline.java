@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2013, SRI International
+ * All rights reserved.
+ * Licensed under the The BSD 3-Clause License;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * 
+ * http://opensource.org/licenses/BSD-3-Clause
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the aic-expresso nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) 
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, 
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.sri.ai.grinder.core.solver;
+
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.annotations.Beta;
+import com.sri.ai.util.base.NullaryFunction;
+
+/**
+ * A point in time by which a computation should finish.
+ * <p>
+ * Solvers cooperate with deadlines at step boundaries:
+ * {@link ContextDependentExpressionProblemSolver} before each step
+ * and {@link AbstractMultiQuantifierEliminator#checkInterrupted()}
+ * invoke {@link #checkCurrent()}, which throws a {@link DeadlineExceededException}
+ * if the deadline set for the current thread by {@link #runUnder(Deadline, NullaryFunction)} has passed.
+ * 
+ * @author braz
+ *
+ */
+@Beta
+public class Deadline {
+	
+	private static final ThreadLocal<Deadline> current = new ThreadLocal<>();
+	
+	private final long nanoTime; // in the scale of System.nanoTime()
+	
+	private Deadline(long nanoTime) {
+		this.nanoTime = nanoTime;
+	}
+	
+	public static Deadline afterMilliseconds(long milliseconds) {
+		return afterNanoseconds(TimeUnit.MILLISECONDS.toNanos(milliseconds));
+	}
+	
+	public static Deadline afterNanoseconds(long nanoseconds) {
+		return new Deadline(System.nanoTime() + nanoseconds);
+	}
+	
+	public boolean hasPassed() {
+		return System.nanoTime() - nanoTime >= 0;
+	}
+	
+	public long getRemainingNanoseconds() {
+		return Math.max(0, nanoTime - System.nanoTime());
+	}
+	
+	/**
+	 * Throws a {@link DeadlineExceededException} if this deadline has passed.
+	 */
+	public void check() {
+		if (hasPassed()) {
+			throw new DeadlineExceededException();
+		}
+	}
+	
+	/**
+	 * Returns the earliest of this and another deadline (this one if the other is <code>null</code>).
+	 */
+	public Deadline earliest(Deadline another) {
+		return another == null || nanoTime - another.nanoTime <= 0? this : another;
+	}
+	
+	/**
+	 * The deadline of computations in the current thread, or <code>null</code> if there is none.
+	 */
+	public static Deadline getCurrent() {
+		return current.get();
+	}
+	
+	/**
+	 * Throws a {@link DeadlineExceededException} if the current thread's deadline has passed.
+	 */
+	public static void checkCurrent() {
+		Deadline deadline = current.get();
+		if (deadline != null) {
+			deadline.check();
+		}
+	}
+	
+	/**
+	 * Runs a computation in the current thread under a deadline
+	 * (or under the enclosing deadline, if that is earlier).
+	 */
+	public static <T> T runUnder(Deadline deadline, NullaryFunction<T> computation) {
+		Deadline previous = current.get();
+		current.set(deadline.earliest(previous));
+		try {
+			return computation.apply();
+		}
+		finally {
+			if (previous == null) {
+				current.remove();
+			}
+			else {
+				current.set(previous);
+			}
+		}
+	}
+}
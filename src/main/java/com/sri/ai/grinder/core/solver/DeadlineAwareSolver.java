@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2013, SRI International
+ * All rights reserved.
+ * Licensed under the The BSD 3-Clause License;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * 
+ * http://opensource.org/licenses/BSD-3-Clause
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the aic-expresso nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) 
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, 
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.sri.ai.grinder.core.solver;
+
+import static com.sri.ai.expresso.helper.Expressions.FALSE;
+import static com.sri.ai.expresso.helper.Expressions.INFINITY;
+import static com.sri.ai.expresso.helper.Expressions.MINUS_INFINITY;
+import static com.sri.ai.expresso.helper.Expressions.TRUE;
+import static com.sri.ai.expresso.helper.Expressions.isNumber;
+import static com.sri.ai.expresso.helper.Expressions.makeSymbol;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.annotations.Beta;
+import com.sri.ai.expresso.api.Expression;
+import com.sri.ai.expresso.api.Type;
+import com.sri.ai.grinder.api.Context;
+import com.sri.ai.grinder.api.MultiQuantifierEliminationProblem;
+import com.sri.ai.grinder.api.MultiQuantifierEliminator;
+import com.sri.ai.grinder.group.AssociativeCommutativeGroup;
+import com.sri.ai.grinder.group.Conjunction;
+import com.sri.ai.grinder.group.Disjunction;
+import com.sri.ai.grinder.group.Max;
+import com.sri.ai.grinder.group.Sum;
+import com.sri.ai.grinder.helper.GrinderUtil;
+import com.sri.ai.grinder.interpreter.AdaptiveSamplingSingleQuantifierEliminator;
+import com.sri.ai.grinder.interpreter.TopRewriterUsingContextAssignmentsReceivingBaseTopRewriterAtConstruction;
+import com.sri.ai.grinder.library.commonrewriters.CommonSimplifier;
+import com.sri.ai.grinder.library.controlflow.IfThenElse;
+import com.sri.ai.util.math.Rational;
+
+/**
+ * Solves a {@link MultiQuantifierEliminationProblem} within a time budget, degrading gracefully:
+ * <ol>
+ * <li> the given eliminator is run under a {@link Deadline} for a fraction of the budget (by default, half),
+ *      and its exact result returned if it finishes in time;
+ * <li> otherwise, for single-index problems, {@link AdaptiveSamplingSingleQuantifierEliminator} draws samples
+ *      until the estimate is precise enough or the budget runs out, and the estimate is returned
+ *      (with a confidence interval for sums of numeric values);
+ * <li> otherwise, or if the problem cannot be sampled, bounds are returned,
+ *      obtained without solving from the numeric leaves of the body and the size of the index domains
+ *      (for sums and maximizations), or from the Boolean domain (for conjunctions and disjunctions).
+ * </ol>
+ * Cancellation is cooperative, so the solver returns at the first step boundary after the deadline
+ * rather than at the deadline itself.
+ * 
+ * @author braz
+ *
+ */
+@Beta
+public class DeadlineAwareSolver {
+	
+	public static final double DEFAULT_EXACT_FRACTION_OF_BUDGET = 0.5;
+	public static final double DEFAULT_RELATIVE_ERROR_TOLERANCE = 0.01;
+	
+	private MultiQuantifierEliminator eliminator;
+	private double exactFractionOfBudget;
+	private double relativeErrorTolerance;
+	private Random random;
+	
+	public DeadlineAwareSolver(MultiQuantifierEliminator eliminator) {
+		this(eliminator, DEFAULT_EXACT_FRACTION_OF_BUDGET, DEFAULT_RELATIVE_ERROR_TOLERANCE, new Random());
+	}
+	
+	/**
+	 * @param eliminator the exact eliminator
+	 * @param exactFractionOfBudget the fraction of the budget given to the exact eliminator before falling back to sampling
+	 * @param relativeErrorTolerance the relative precision at which sampling may stop before the budget runs out
+	 * @param random the source of randomness for sampling
+	 */
+	public DeadlineAwareSolver(MultiQuantifierEliminator eliminator, double exactFractionOfBudget, double relativeErrorTolerance, Random random) {
+		this.eliminator = eliminator;
+		this.exactFractionOfBudget = exactFractionOfBudget;
+		this.relativeErrorTolerance = relativeErrorTolerance;
+		this.random = random;
+	}
+	
+	public BudgetedSolution solve(MultiQuantifierEliminationProblem problem, Context context, long budgetInMilliseconds) {
+		Deadline deadline = Deadline.afterMilliseconds(budgetInMilliseconds);
+		Deadline exactDeadline = Deadline.afterNanoseconds((long) (exactFractionOfBudget*budgetInMilliseconds*1000000));
+		
+		BudgetedSolution result;
+		try {
+			Expression value = Deadline.runUnder(exactDeadline, () -> eliminator.solve(problem, context));
+			result = BudgetedSolution.exact(value);
+		}
+		catch (DeadlineExceededException exception) {
+			result = null;
+		}
+		
+		if (result == null && problem.getIndices().size() == 1 && ! deadline.hasPassed()) {
+			result = estimate(problem, context, deadline);
+		}
+		
+		if (result == null) {
+			result = bounds(problem, context);
+		}
+		
+		return result;
+	}
+
+	private BudgetedSolution estimate(MultiQuantifierEliminationProblem problem, Context context, Deadline deadline) {
+		BudgetedSolution result;
+		AdaptiveSamplingSingleQuantifierEliminator sampler = 
+				new AdaptiveSamplingSingleQuantifierEliminator(
+						new TopRewriterUsingContextAssignmentsReceivingBaseTopRewriterAtConstruction(new CommonSimplifier()),
+						2, Integer.MAX_VALUE, relativeErrorTolerance, random);
+		sampler.setDeadline(deadline);
+		try {
+			Expression value = sampler.solve(problem, context);
+			double errorBound = sampler.getLastErrorBound();
+			if (isNumber(value) && ! Double.isNaN(errorBound)) {
+				double estimate = value.doubleValue();
+				result = BudgetedSolution.estimate(value, makeSymbol(estimate - errorBound), makeSymbol(estimate + errorBound), sampler.getLastNumberOfSamples());
+			}
+			else {
+				result = BudgetedSolution.estimate(value, null, null, sampler.getLastNumberOfSamples());
+			}
+		}
+		catch (IllegalArgumentException | UnsupportedOperationException exception) {
+			result = null; // index cannot be sampled
+		}
+		return result;
+	}
+
+	/**
+	 * Returns bounds on the value of a problem computed without solving it.
+	 */
+	public static BudgetedSolution bounds(MultiQuantifierEliminationProblem problem, Context context) {
+		AssociativeCommutativeGroup group = problem.getGroup();
+		Expression lowerBound = MINUS_INFINITY;
+		Expression upperBound = INFINITY;
+		if (group instanceof Conjunction || group instanceof Disjunction) {
+			lowerBound = FALSE;
+			upperBound = TRUE;
+		}
+		else if (group instanceof Sum || group instanceof Max) {
+			List<Rational> leaves = new ArrayList<>();
+			if (collectNumericLeaves(problem.getBody(), leaves)) {
+				Rational minimum = leaves.stream().min(Rational::compareTo).get();
+				Rational maximum = leaves.stream().max(Rational::compareTo).get();
+				Rational numberOfAssignments = getNumberOfAssignmentsOrNull(problem, context);
+				if (group instanceof Sum) {
+					// a sum of at most n values in [minimum, maximum] is in [n*min(minimum, 0), n*max(maximum, 0)]
+					lowerBound = ! minimum.isNegative()? makeSymbol(0) : numberOfAssignments == null? MINUS_INFINITY : makeSymbol(numberOfAssignments.multiply(minimum));
+					upperBound = ! maximum.isPositive()? makeSymbol(0) : numberOfAssignments == null? INFINITY : makeSymbol(numberOfAssignments.multiply(maximum));
+				}
+				else {
+					// the maximum of an empty set is minus infinity, which can only be ruled out if there are assignments and no constraint
+					boolean nonEmpty = problem.getConstraint().equals(TRUE) && numberOfAssignments != null && numberOfAssignments.isPositive();
+					lowerBound = nonEmpty? makeSymbol(minimum) : MINUS_INFINITY;
+					upperBound = makeSymbol(maximum);
+				}
+			}
+		}
+		return BudgetedSolution.bounds(lowerBound, upperBound);
+	}
+
+	private static boolean collectNumericLeaves(Expression expression, List<Rational> leaves) {
+		boolean result;
+		if (IfThenElse.isIfThenElse(expression)) {
+			result = 
+					collectNumericLeaves(IfThenElse.thenBranch(expression), leaves) 
+					&& collectNumericLeaves(IfThenElse.elseBranch(expression), leaves);
+		}
+		else if (isNumber(expression)) {
+			leaves.add(expression.rationalValue());
+			result = true;
+		}
+		else {
+			result = false;
+		}
+		return result;
+	}
+
+	private static Rational getNumberOfAssignmentsOrNull(MultiQuantifierEliminationProblem problem, Context context) {
+		Rational result = Rational.ONE;
+		for (Expression index : problem.getIndices()) {
+			Type type = GrinderUtil.getTypeOfExpression(index, context);
+			Expression cardinality = type == null? null : type.cardinality();
+			if (cardinality == null || ! isNumber(cardinality)) {
+				return null;
+			}
+			result = result.multiply(cardinality.rationalValue());
+		}
+		return result;
+	}
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2013, SRI International
+ * All rights reserved.
+ * Licensed under the The BSD 3-Clause License;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * 
+ * http://opensource.org/licenses/BSD-3-Clause
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the aic-expresso nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) 
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, 
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.sri.ai.grinder.core.solver;
+
+import static com.sri.ai.expresso.helper.Expressions.apply;
+import static com.sri.ai.expresso.helper.Expressions.isSubExpressionOf;
+import static com.sri.ai.util.Util.list;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.annotations.Beta;
+import com.sri.ai.expresso.api.Expression;
+import com.sri.ai.expresso.helper.SubExpressionsDepthFirstIterator;
+import com.sri.ai.grinder.api.Context;
+import com.sri.ai.grinder.api.MultiQuantifierEliminator;
+import com.sri.ai.grinder.group.AssociativeCommutativeSemiRing;
+import com.sri.ai.util.base.Pair;
+
+/**
+ * An incremental version of {@link AbstractSGVET} for problems of the form
+ * <pre>
+ * sum_{i1,...,i_n} prod_j f_j(args_j)
+ * </pre>
+ * (or the provided semiring's operations) whose factors are added or removed over time,
+ * as in anytime inference.
+ * <p>
+ * The elimination order (the elimination tree) is chosen with the min-width heuristic on the first call to {@link #solve()}
+ * and kept afterwards.
+ * Each elimination step sums an index out of the product of the factors (original or produced by earlier steps) containing it,
+ * and its solution is cached by index and product.
+ * Since original factors come before produced ones, in the order they were added,
+ * a step's product only changes if some factor in it involves the variables of an added or removed factor,
+ * so only those eliminations (and the ones depending on them) are recomputed by the next call to {@link #solve()}.
+ * <p>
+ * Constraints on the indices can be represented as factors of the form <code>if C then 1 else 0</code>
+ * (or the semiring's multiplicative identity and absorbing elements).
+ * The indices must be registered in the given context.
+ * 
+ * @author braz
+ *
+ */
+@Beta
+public class IncrementalSGVET {
+
+	private MultiQuantifierEliminator subSolver;
+	private AssociativeCommutativeSemiRing semiRing;
+	private List<Expression> indices;
+	private Context context;
+	
+	private List<Expression> factors;
+	private List<Expression> eliminationOrder;
+	private Map<Pair<Expression, Expression>, Expression> cachedEliminations;
+	
+	private int numberOfComputedEliminations;
+	private int numberOfReusedEliminations;
+	
+	public IncrementalSGVET(AssociativeCommutativeSemiRing semiRing, List<Expression> indices, Context context) {
+		this(new DefaultMultiQuantifierEliminator(), semiRing, indices, context);
+	}
+	
+	public IncrementalSGVET(MultiQuantifierEliminator subSolver, AssociativeCommutativeSemiRing semiRing, List<Expression> indices, Context context) {
+		this.subSolver = subSolver;
+		this.semiRing = semiRing;
+		this.indices = new ArrayList<>(indices);
+		this.context = context;
+		this.factors = new ArrayList<>();
+		this.eliminationOrder = null;
+		this.cachedEliminations = new HashMap<>();
+	}
+	
+	public void addFactor(Expression factor) {
+		factors.add(factor);
+	}
+	
+	/**
+	 * Removes one occurrence of a previously added factor.
+	 */
+	public void removeFactor(Expression factor) {
+		if ( ! factors.remove(factor)) {
+			throw new Error("Factor " + factor + " was not added to " + this);
+		}
+	}
+	
+	public List<Expression> getFactors() {
+		return factors;
+	}
+	
+	/**
+	 * The elimination order, or <code>null</code> if {@link #solve()} has not been invoked yet.
+	 */
+	public List<Expression> getEliminationOrder() {
+		return eliminationOrder;
+	}
+	
+	/**
+	 * Returns the result of summing (or the semiring's additive operation) the product of the current factors
+	 * over the indices.
+	 */
+	public Expression solve() {
+		if (eliminationOrder == null) {
+			eliminationOrder = pickEliminationOrder();
+		}
+		
+		numberOfComputedEliminations = 0;
+		numberOfReusedEliminations = 0;
+		Map<Pair<Expression, Expression>, Expression> usedEliminations = new HashMap<>();
+		
+		List<Expression> currentFactors = new ArrayList<>(factors);
+		for (Expression index : eliminationOrder) {
+			List<Expression> onIndex = new ArrayList<>();
+			List<Expression> notOnIndex = new ArrayList<>();
+			for (Expression factor : currentFactors) {
+				(isSubExpressionOf(index, factor)? onIndex : notOnIndex).add(factor);
+			}
+			Expression indexSubProblemExpression = product(onIndex);
+			Pair<Expression, Expression> key = Pair.make(index, indexSubProblemExpression);
+			Expression indexSubProblemSolution = cachedEliminations.get(key);
+			if (indexSubProblemSolution == null) {
+				indexSubProblemSolution = subSolver.extendContextAndSolve(semiRing, list(index), indexSubProblemExpression, context);
+				numberOfComputedEliminations++;
+			}
+			else {
+				numberOfReusedEliminations++;
+			}
+			usedEliminations.put(key, indexSubProblemSolution);
+			notOnIndex.add(indexSubProblemSolution);
+			currentFactors = notOnIndex;
+		}
+		cachedEliminations = usedEliminations; // entries not used any more are dropped
+		
+		Expression result = product(currentFactors);
+		return result;
+	}
+	
+	/**
+	 * The number of elimination steps computed by the last call to {@link #solve()}.
+	 */
+	public int getNumberOfComputedEliminations() {
+		return numberOfComputedEliminations;
+	}
+	
+	/**
+	 * The number of elimination steps reused from previous calls by the last call to {@link #solve()}.
+	 */
+	public int getNumberOfReusedEliminations() {
+		return numberOfReusedEliminations;
+	}
+
+	/**
+	 * Simulates the elimination on the variables of factors, each time picking the index
+	 * whose elimination involves the fewest variables.
+	 */
+	private List<Expression> pickEliminationOrder() {
+		List<Set<Expression>> scopes = new ArrayList<>();
+		for (Expression factor : factors) {
+			scopes.add(variables(factor));
+		}
+		List<Expression> remainingIndices = new ArrayList<>(indices);
+		List<Expression> result = new ArrayList<>(indices.size());
+		while ( ! remainingIndices.isEmpty()) {
+			Expression best = null;
+			Set<Expression> bestScope = null;
+			for (Expression index : remainingIndices) {
+				Set<Expression> scope = union(scopesContaining(index, scopes));
+				if (bestScope == null || scope.size() < bestScope.size()) {
+					best = index;
+					bestScope = scope;
+				}
+			}
+			scopes.removeAll(scopesContaining(best, scopes));
+			bestScope.remove(best);
+			scopes.add(bestScope);
+			remainingIndices.remove(best);
+			result.add(best);
+		}
+		return result;
+	}
+
+	private static List<Set<Expression>> scopesContaining(Expression index, List<Set<Expression>> scopes) {
+		List<Set<Expression>> result = new ArrayList<>();
+		for (Set<Expression> scope : scopes) {
+			if (scope.contains(index)) {
+				result.add(scope);
+			}
+		}
+		return result;
+	}
+
+	private static Set<Expression> union(Collection<Set<Expression>> sets) {
+		Set<Expression> result = new LinkedHashSet<>();
+		for (Set<Expression> set : sets) {
+			result.addAll(set);
+		}
+		return result;
+	}
+
+	private Set<Expression> variables(Expression expression) {
+		Set<Expression> result = new LinkedHashSet<Expression>();
+		Iterator<Expression> iterator = new SubExpressionsDepthFirstIterator(expression);
+		while (iterator.hasNext()) {
+			Expression subExpression = iterator.next();
+			if (context.getTheory().isVariable(subExpression, context)) {
+				result.add(subExpression);
+			}
+		}
+		return result;
+	}
+
+	private Expression product(Collection<Expression> factors) {
+		Expression multiplication = apply(semiRing.multiplicativeFunctor(), factors);
+		Expression result = semiRing.multiply(multiplication, context);
+		return result;
+	}
+	
+	@Override
+	public String toString() {
+		return "Incremental SGVE(T)";
+	}
+}
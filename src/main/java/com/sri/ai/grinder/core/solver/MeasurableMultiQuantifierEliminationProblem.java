@@ -61,6 +61,21 @@ public class MeasurableMultiQuantifierEliminationProblem extends MultiQuantifier
 		super(problem);
 	}
 
+	/**
+	 * Returns the given problem itself if it is already a {@link MeasurableMultiQuantifierEliminationProblem}
+	 * (thus keeping any measure it has already computed), or a new one wrapping it otherwise.
+	 */
+	public static MeasurableMultiQuantifierEliminationProblem makeMeasurable(MultiQuantifierEliminationProblem problem) {
+		MeasurableMultiQuantifierEliminationProblem result;
+		if (problem instanceof MeasurableMultiQuantifierEliminationProblem) {
+			result = (MeasurableMultiQuantifierEliminationProblem) problem;
+		}
+		else {
+			result = new MeasurableMultiQuantifierEliminationProblem(problem);
+		}
+		return result;
+	}
+
 	@Override
 	public MeasurableMultiQuantifierEliminationProblem copyWithNewProblem(MultiQuantifierEliminationProblem problem) {
 		return new MeasurableMultiQuantifierEliminationProblem(problem);
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2013, SRI International
+ * All rights reserved.
+ * Licensed under the The BSD 3-Clause License;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * 
+ * http://opensource.org/licenses/BSD-3-Clause
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the aic-expresso nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) 
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, 
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.sri.ai.grinder.core.solver;
+
+import static com.sri.ai.expresso.helper.Expressions.TRUE;
+import static com.sri.ai.expresso.helper.Expressions.apply;
+import static com.sri.ai.expresso.helper.Expressions.freeVariables;
+import static com.sri.ai.expresso.helper.Expressions.makeSymbol;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.annotations.Beta;
+import com.sri.ai.expresso.api.Expression;
+import com.sri.ai.expresso.api.Type;
+import com.sri.ai.expresso.helper.ExpressionBinaryWriter;
+import com.sri.ai.expresso.helper.PersistentExpressionStore;
+import com.sri.ai.expresso.type.Categorical;
+import com.sri.ai.grinder.api.Context;
+import com.sri.ai.grinder.api.MultiQuantifierEliminationProblem;
+import com.sri.ai.grinder.api.MultiQuantifierEliminator;
+
+/**
+ * A {@link MultiQuantifierEliminator} consulting a {@link PersistentExpressionStore}
+ * before delegating to a base eliminator, and storing the base eliminator's results in it,
+ * so that problems solved in previous runs (or by other processes sharing the file, one at a time)
+ * are not solved again.
+ * <p>
+ * Problems are keyed on a canonical fingerprint made of:
+ * <ul>
+ * <li> the theory and group;
+ * <li> the indices' types, constraint and body, with indices renamed to canonical names by position
+ * (so problems differing only in the names of their indices share the same entry);
+ * <li> the context's constraint;
+ * <li> the free variables of the above with their types;
+ * <li> the full definitions of the types involved and of the types embedded in them
+ * (their kind, name and cardinality, and, for categorical types, their known constants),
+ * so entries become unreachable, rather than wrong, when a type is redefined.
+ * </ul>
+ * Theories are identified by their string representation only,
+ * so a store must not be shared between theories with the same description but different configurations.
+ * 
+ * @author braz
+ *
+ */
+@Beta
+public class PersistentlyCachedMultiQuantifierEliminator extends AbstractMultiQuantifierEliminator {
+
+	private static final String CANONICAL_INDEX_PREFIX = "index#";
+	private static final Expression PROBLEM_FUNCTOR = makeSymbol("problem#");
+
+	private MultiQuantifierEliminator base;
+	private PersistentExpressionStore store;
+
+	public PersistentlyCachedMultiQuantifierEliminator(MultiQuantifierEliminator base, PersistentExpressionStore store) {
+		this.base = base;
+		this.store = store;
+	}
+
+	/**
+	 * Convenience constructor opening a store in the given file with the given maximum size in bytes.
+	 */
+	public PersistentlyCachedMultiQuantifierEliminator(MultiQuantifierEliminator base, Path file, long maximumSize) throws IOException {
+		this(base, new PersistentExpressionStore(file, maximumSize));
+	}
+
+	@Override
+	public Expression solve(MultiQuantifierEliminationProblem problem, Context context) {
+		ByteBuffer key = fingerprintOrNull(problem, context);
+		Expression result = key == null? null : store.get(key);
+		if (result == null) {
+			checkInterrupted();
+			result = base.solve(problem, context);
+			if (key != null) {
+				store.put(key, result);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void interrupt() {
+		super.interrupt();
+		base.interrupt();
+	}
+
+	public PersistentExpressionStore getStore() {
+		return store;
+	}
+
+	/**
+	 * Returns the canonical binary fingerprint of a problem in a context,
+	 * or <code>null</code> if one cannot be safely computed
+	 * (because the problem already uses one of the canonical index names).
+	 */
+	public static ByteBuffer fingerprintOrNull(MultiQuantifierEliminationProblem problem, Context context) {
+		List<Expression> indices = problem.getIndices();
+		Expression constraint = problem.getConstraint() == context? TRUE : problem.getConstraint();
+		Expression body = problem.getBody();
+		List<Expression> indicesTypes = problem.getIndicesTypes();
+
+		Set<Expression> variables = new LinkedHashSet<>();
+		variables.addAll(freeVariables(constraint, context));
+		variables.addAll(freeVariables(body, context));
+		for (Expression indexType : indicesTypes) {
+			variables.addAll(freeVariables(indexType, context));
+		}
+		for (Expression variable : variables) {
+			if (variable.getValue() instanceof String && ((String) variable.getValue()).startsWith(CANONICAL_INDEX_PREFIX)) {
+				return null;
+			}
+		}
+		variables.removeAll(indices);
+		variables.addAll(freeVariables(context, context));
+
+		for (int i = 0; i != indices.size(); i++) {
+			Expression canonicalIndex = makeSymbol(CANONICAL_INDEX_PREFIX + i);
+			constraint = constraint.replaceSymbol(indices.get(i), canonicalIndex, context);
+			body = body.replaceSymbol(indices.get(i), canonicalIndex, context);
+		}
+
+		List<Expression> sortedVariables = new ArrayList<>(variables);
+		sortedVariables.sort(Comparator.comparing(Expression::toString));
+		List<Expression> variablesAndTypes = new ArrayList<>();
+		Set<Expression> typeExpressions = new LinkedHashSet<>(indicesTypes);
+		for (Expression variable : sortedVariables) {
+			Expression typeExpression = context.getTypeExpressionOfRegisteredSymbol(variable);
+			variablesAndTypes.add(apply(":", variable, typeExpression == null? makeSymbol("unregistered#") : typeExpression));
+			if (typeExpression != null) {
+				typeExpressions.add(typeExpression);
+			}
+		}
+
+		Set<Type> types = new LinkedHashSet<>();
+		for (Expression typeExpression : typeExpressions) {
+			Type type = context.getTypeFromTypeExpression(typeExpression);
+			if (type != null) {
+				addTypeAndEmbeddedTypes(type, types);
+			}
+		}
+		List<Expression> typeDefinitions = new ArrayList<>();
+		for (Type type : types) {
+			typeDefinitions.add(makeTypeDefinition(type));
+		}
+		typeDefinitions.sort(Comparator.comparing(Expression::toString)); // embedded types come in no particular order
+
+		Expression fingerprint = apply(
+				PROBLEM_FUNCTOR,
+				makeSymbol(context.getTheory().toString()),
+				makeSymbol(problem.getGroup().getClass().getName()),
+				apply("indicesTypes#", indicesTypes.toArray()),
+				constraint,
+				body,
+				context,
+				apply("variables#", variablesAndTypes.toArray()),
+				apply("types#", typeDefinitions.toArray()));
+
+		ByteBuffer result = ExpressionBinaryWriter.encode(fingerprint);
+		return result;
+	}
+
+	private static void addTypeAndEmbeddedTypes(Type type, Set<Type> types) {
+		if (types.add(type)) {
+			for (Type embeddedType : type.getEmbeddedTypes()) {
+				addTypeAndEmbeddedTypes(embeddedType, types);
+			}
+		}
+	}
+
+	private static Expression makeTypeDefinition(Type type) {
+		Expression result;
+		if (type instanceof Categorical) {
+			Categorical categorical = (Categorical) type;
+			result = apply(
+					"categorical#", 
+					makeSymbol(categorical.getName()), 
+					categorical.cardinality(), 
+					apply("constants#", categorical.getKnownConstants().toArray()));
+		}
+		else {
+			result = apply("type#", makeSymbol(type.getClass().getName()), makeSymbol(type.toString()), type.cardinality());
+		}
+		return result;
+	}
+}
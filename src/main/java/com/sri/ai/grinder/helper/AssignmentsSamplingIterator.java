@@ -38,20 +38,33 @@
 package com.sri.ai.grinder.helper;
 
 import static com.sri.ai.expresso.helper.Expressions.FALSE;
+import static com.sri.ai.expresso.helper.Expressions.TRUE;
+import static com.sri.ai.expresso.helper.Expressions.makeSymbol;
+import static com.sri.ai.grinder.library.FunctorConstants.DISEQUALITY;
+import static com.sri.ai.grinder.library.FunctorConstants.EQUALITY;
+import static com.sri.ai.grinder.library.FunctorConstants.NOT;
 import static com.sri.ai.grinder.interpreter.DefaultAssignment.assignment;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.Set;
 
 import com.sri.ai.expresso.api.Expression;
 import com.sri.ai.expresso.api.Type;
 import com.sri.ai.expresso.type.FunctionType;
+import com.sri.ai.expresso.type.IndexedDomain;
 import com.sri.ai.expresso.type.IntegerExpressoType;
 import com.sri.ai.expresso.type.IntegerInterval;
 import com.sri.ai.expresso.type.RealExpressoType;
 import com.sri.ai.expresso.type.RealInterval;
 import com.sri.ai.grinder.api.Context;
 import com.sri.ai.grinder.interpreter.Assignment;
+import com.sri.ai.grinder.library.boole.And;
 import com.sri.ai.grinder.library.set.Sets;
 import com.sri.ai.grinder.library.set.extensional.ExtensionalSets;
 import com.sri.ai.grinder.rewriter.api.Rewriter;
@@ -69,28 +82,73 @@ import com.sri.ai.util.collect.NIterator;
  * An assignments iterator that samples over the space of possible assignments.
  * The iterator never ends unless the set to sample from is empty.
  * To limit to a number of samples, use the {@link NIterator} adaptor.
- * Currently, only a single variable is supported and an exception is thrown if more than one is received.
+ * <p>
+ * For a single index, the condition is first solved, as far as the corresponding theory allows, into the set of values to sample from
+ * (see {@link #getTypeToSampleFrom(Expression, Expression, Context)}).
+ * When that set is known exactly, namely for difference arithmetic conditions on integers
+ * (a range plus exceptions given by {@link ValuesOfSingleVariableDifferenceArithmeticConstraintStepSolver})
+ * and for conjunctions of equalities and disequalities between the index and uniquely named constants of a categorical type,
+ * the condition is never re-evaluated:
+ * values are drawn directly from the feasible set if rejection would be expected to discard most candidates,
+ * and otherwise candidates from the range are rejected by a simple membership test against the exceptions.
+ * In other cases, candidates violating the condition are rejected after evaluating it.
+ * <p>
+ * For multiple indices, each index is sampled independently from its whole type,
+ * and joint assignments violating the condition are rejected.
+ * In all cases, {@link #getNumberOfDraws()} counts all assignments drawn, including rejected ones,
+ * which allows estimating the measure of the set of assignments satisfying the condition.
  * 
  * @author oreilly
  *
  */
 public class AssignmentsSamplingIterator extends EZIterator<Assignment> {
-	private Expression index;
-	private Type typeToSampleFrom; 
+	private List<Expression> indices;
+	private SamplingDomain[] domainsToSampleFrom; 
 	private Expression condition;
 	private Rewriter conditionRewriter;
 	private Random random;
 	private Context context;
 	private boolean nothingToSampleFrom;
+	private long numberOfDraws;
+	
+	/**
+	 * The values to sample an index from, and what is known about how they relate to the condition.
+	 */
+	private static class SamplingDomain {
+		/** the type to sample from, or null if no value satisfies the condition */
+		Type type;
+		/** whether all values of the type not in the exceptions are known to satisfy the condition */
+		boolean exact;
+		/** if exact, sorted ordinals (in type, which is then an {@link IndexedDomain}) of values violating the condition */
+		int[] excludedOrdinals = EMPTY_ORDINALS;
+		/** if exact and not null, the only value satisfying the condition */
+		Expression singleValue;
+		/** if exact, whether to draw directly from the feasible values instead of rejecting excluded ones */
+		boolean sampleDirectly;
+	}
+	
+	private static final int[] EMPTY_ORDINALS = new int[0];
 	
 	public AssignmentsSamplingIterator(List<Expression> indices, Expression condition, Rewriter conditionRewriter, Random random, Context context) {
-		if (indices.size() != 1) {
-			throw new UnsupportedOperationException("Assignment sampling iterator only supports a single index currently, received: " + indices);
+		if (indices.isEmpty()) {
+			throw new IllegalArgumentException("Assignment sampling iterator requires at least one index");
 		}
-		this.index = indices.get(0);
+		this.indices = indices;
 		
-		this.typeToSampleFrom = getTypeToSampleFrom(index, condition, context);
-		this.nothingToSampleFrom = this.typeToSampleFrom == null;
+		this.domainsToSampleFrom = new SamplingDomain[indices.size()];
+		if (indices.size() == 1) {
+			this.domainsToSampleFrom[0] = getDomainToSampleFrom(indices.get(0), condition, context);
+			this.nothingToSampleFrom = this.domainsToSampleFrom[0].type == null;
+		}
+		else {
+			this.nothingToSampleFrom = condition.equals(false);
+			if ( ! nothingToSampleFrom) {
+				for (int i = 0; i != indices.size(); i++) {
+					this.domainsToSampleFrom[i] = getDomainToSampleFrom(indices.get(i), TRUE, context);
+					this.domainsToSampleFrom[i].exact = false; // joint condition must still be checked
+				}
+			}
+		}
 		
 		this.condition         = condition;
 		this.conditionRewriter = conditionRewriter;
@@ -98,44 +156,90 @@ public class AssignmentsSamplingIterator extends EZIterator<Assignment> {
 		this.context           = context;
 	}
 	
+	/**
+	 * The number of assignments drawn so far, including the ones rejected for not satisfying the condition.
+	 */
+	public long getNumberOfDraws() {
+		return numberOfDraws;
+	}
+	
 	@Override
 	protected Assignment calculateNext() {
 		if (nothingToSampleFrom) {
 			return null;
 		}
-		Expression sampledValue;
-		do {
-			sampledValue = sampleValue();
-		} while (conditionIsNotSatisfied(sampledValue));
-		Assignment result = assignment(index, sampledValue);
+		Assignment result;
+		if (indices.size() == 1 && domainsToSampleFrom[0].exact) {
+			result = assignment(indices.get(0), sampleFeasibleValue(domainsToSampleFrom[0]));
+		}
+		else {
+			do {
+				result = sampleAssignment();
+				numberOfDraws++;
+			} while (conditionIsNotSatisfied(result));
+		}
 		return result;
 	}
 
-	private Expression sampleValue() {
-		Expression result = typeToSampleFrom.sampleUniquelyNamedConstant(random);
+	private Expression sampleFeasibleValue(SamplingDomain domain) {
+		Expression result;
+		if (domain.singleValue != null) {
+			result = domain.singleValue;
+			numberOfDraws++;
+		}
+		else if (domain.sampleDirectly) {
+			IndexedDomain indexedDomain = (IndexedDomain) domain.type;
+			int ordinal = random.nextInt(indexedDomain.size() - domain.excludedOrdinals.length);
+			for (int excludedOrdinal : domain.excludedOrdinals) { // shift to the ordinal-th feasible value
+				if (excludedOrdinal <= ordinal) {
+					ordinal++;
+				}
+				else {
+					break;
+				}
+			}
+			result = indexedDomain.get(ordinal);
+			numberOfDraws++;
+		}
+		else {
+			do {
+				result = domain.type.sampleUniquelyNamedConstant(random);
+				numberOfDraws++;
+			} while (isExcluded(result, domain));
+		}
 		return result;
 	}
 
-	private boolean conditionIsNotSatisfied(Expression sampledValue) {
-		Expression conditionValue = evaluateCondition(sampledValue);
-		return conditionValue.equals(FALSE);
+	private static boolean isExcluded(Expression value, SamplingDomain domain) {
+		boolean result = 
+				domain.excludedOrdinals.length != 0 
+				&& Arrays.binarySearch(domain.excludedOrdinals, ((IndexedDomain) domain.type).indexOf(value)) >= 0;
+		return result;
 	}
 
-	private Expression evaluateCondition(Expression sampledValue) {
-		Context contextExtendedWithSampledAssignment = makeContextExtendedBySampledValue(sampledValue);
-		Expression conditionValue = evaluateConditionUnder(contextExtendedWithSampledAssignment);
-		return conditionValue;
+	private Assignment sampleAssignment() {
+		Assignment result;
+		if (indices.size() == 1) {
+			result = assignment(indices.get(0), sampleValue(0));
+		}
+		else {
+			Map<Expression, Expression> values = new LinkedHashMap<>();
+			for (int i = 0; i != indices.size(); i++) {
+				values.put(indices.get(i), sampleValue(i));
+			}
+			result = assignment(values);
+		}
+		return result;
 	}
 
-	private Context makeContextExtendedBySampledValue(Expression sampledValue) {
-		Assignment sampledAssignment = makeIndexAssignment(sampledValue);
-		Context contextExtendedWithSampledAssignment = sampledAssignment.extend(context);
-		return contextExtendedWithSampledAssignment;
+	private Expression sampleValue(int i) {
+		Expression result = domainsToSampleFrom[i].type.sampleUniquelyNamedConstant(random);
+		return result;
 	}
 
-	private Assignment makeIndexAssignment(Expression sampledValue) {
-		Assignment result = assignment(index, sampledValue);
-		return result;
+	private boolean conditionIsNotSatisfied(Assignment sampledAssignment) {
+		Expression conditionValue = evaluateConditionUnder(sampledAssignment.extend(context));
+		return conditionValue.equals(FALSE);
 	}
 
 	private Expression evaluateConditionUnder(Context contextWithSampledAssignment) {
@@ -143,11 +247,17 @@ public class AssignmentsSamplingIterator extends EZIterator<Assignment> {
 	}
 	
 	public static Type getTypeToSampleFrom(Expression variable, Expression condition, Context context) {
+		return getDomainToSampleFrom(variable, condition, context).type;
+	}
+	
+	private static SamplingDomain getDomainToSampleFrom(Expression variable, Expression condition, Context context) {
+		SamplingDomain domain = new SamplingDomain();
 		Type result = GrinderUtil.getTypeOfExpression(variable, context);
 		
 		if (result instanceof FunctionType) {
 			FunctionType functionType = (FunctionType) result;
 			result = new LazySampledFunctionType(functionType.getCodomain(), functionType.getArgumentTypes().toArray(new Type[functionType.getArity()]));
+			domain.exact = condition.equals(true);
 		}
 		else {
 			if (condition.equals(false)) {
@@ -155,6 +265,7 @@ public class AssignmentsSamplingIterator extends EZIterator<Assignment> {
 			}
 			else if (condition.equals(true)) {
 				// we leave as is.
+				domain.exact = true;
 			}
 			else if (result instanceof RealExpressoType || result instanceof RealInterval) {		
 
@@ -185,25 +296,114 @@ public class AssignmentsSamplingIterator extends EZIterator<Assignment> {
 				
 				ValuesOfSingleVariableDifferenceArithmeticConstraintStepSolver solver = new ValuesOfSingleVariableDifferenceArithmeticConstraintStepSolver(constraint);
 				
-				// NOTE: the exceptions set returned here is implicit in the condition so no need to use it here.
 				RangeAndExceptionsSet rangeAndExceptionsSet = (RangeAndExceptionsSet) solver.solve(context);
 				
 				if (rangeAndExceptionsSet.isEmpty()) {
 					result = null; // used to indicate an empty set.
 				}
 				else if (rangeAndExceptionsSet.isSingleton()) {
-					result = new IntegerInterval(rangeAndExceptionsSet.getSingleValue().intValueExact(), rangeAndExceptionsSet.getSingleValue().intValueExact());
+					result = new IntegerInterval(rangeAndExceptionsSet.getSingleValue(), rangeAndExceptionsSet.getSingleValue());
+					domain.exact = constraint.getExternalLiterals().isEmpty();
 				}
 				else {
-					result = new IntegerInterval(rangeAndExceptionsSet.getStrictLowerBound().intValueExact()+1, rangeAndExceptionsSet.getNonStrictUpperBound().intValueExact());
+					// bounds are kept as expressions, since they may not fit in an int (in which case the interval is not indexed)
+					IntegerInterval interval = new IntegerInterval(makeSymbol(rangeAndExceptionsSet.getStrictLowerBound().rationalValue().add(1)), rangeAndExceptionsSet.getNonStrictUpperBound());
+					result = interval;
+					// the range and exceptions are exactly the values satisfying the condition, unless it has literals on other variables
+					domain.exact = constraint.getExternalLiterals().isEmpty() && interval.isIndexed();
+					if (domain.exact) {
+						setExcludedOrdinals(domain, interval, rangeAndExceptionsSet.getExceptions());
+					}
 				}
 			}
+			else if (result instanceof IndexedDomain && ((IndexedDomain) result).isIndexed()) {
+				result = restrictByEqualitiesAndDisequalitiesOnConstants((IndexedDomain) result, variable, condition, domain, context);
+			}
 		}
 		
-		if (result != null && !result.isSampleUniquelyNamedConstantSupported()) {
+		if (result != null && domain.singleValue == null && !result.isSampleUniquelyNamedConstantSupported()) {
 			throw new IllegalArgumentException("Unable to sample " + variable + " from " + result);
 		}
 		
+		domain.type = result;
+		return domain;
+	}
+
+	/**
+	 * If condition is a conjunction of equalities and disequalities between variable and uniquely named constants,
+	 * records the values it excludes (or the single value it allows) in given sampling domain and marks it exact;
+	 * returns the type to sample from (null if no value satisfies the condition).
+	 */
+	private static Type restrictByEqualitiesAndDisequalitiesOnConstants(IndexedDomain type, Expression variable, Expression condition, SamplingDomain domain, Context context) {
+		Expression equal = null;
+		Set<Expression> disequals = new LinkedHashSet<>();
+		for (Expression literal : And.getConjuncts(condition)) {
+			boolean sign = true;
+			if (literal.hasFunctor(NOT) && literal.numberOfArguments() == 1) {
+				sign = false;
+				literal = literal.get(0);
+			}
+			if (literal.hasFunctor(DISEQUALITY)) {
+				sign = ! sign;
+			}
+			else if ( ! literal.hasFunctor(EQUALITY)) {
+				return (Type) type; // not a literal we can solve directly; leave it to rejection by condition evaluation
+			}
+			Expression constant = getConstantComparedTo(variable, literal, context);
+			if (constant == null) {
+				return (Type) type;
+			}
+			if (sign) {
+				if (equal != null && ! equal.equals(constant)) {
+					return null; // equal to two distinct constants
+				}
+				equal = constant;
+			}
+			else {
+				disequals.add(constant);
+			}
+		}
+		
+		Type result = (Type) type;
+		domain.exact = true;
+		if (equal != null) {
+			if (disequals.contains(equal) || type.indexOf(equal) == -1) {
+				result = null;
+			}
+			else {
+				domain.singleValue = equal;
+			}
+		}
+		else {
+			setExcludedOrdinals(domain, type, disequals);
+			if (domain.excludedOrdinals.length == type.size()) {
+				result = null;
+			}
+		}
 		return result;
 	}
+
+	private static Expression getConstantComparedTo(Expression variable, Expression equalityOrDisequality, Context context) {
+		Expression result = null;
+		if (equalityOrDisequality.numberOfArguments() == 2) {
+			Expression first = equalityOrDisequality.get(0);
+			Expression second = equalityOrDisequality.get(1);
+			if (first.equals(variable) && context.isUniquelyNamedConstant(second)) {
+				result = second;
+			}
+			else if (second.equals(variable) && context.isUniquelyNamedConstant(first)) {
+				result = first;
+			}
+		}
+		return result;
+	}
+
+	private static void setExcludedOrdinals(SamplingDomain domain, IndexedDomain type, Collection<Expression> excludedValues) {
+		int[] ordinals = excludedValues.stream().mapToInt(type::indexOf).filter(o -> o != -1).distinct().sorted().toArray();
+		domain.excludedOrdinals = ordinals;
+		int numberOfFeasibleValues = type.size() - ordinals.length;
+		// rejecting from the whole type costs size/numberOfFeasibleValues draws per sample, each a cheap membership test;
+		// drawing directly costs a pass over the exclusions, worth it if most candidates would be rejected
+		domain.sampleDirectly = ordinals.length != 0 && 2*numberOfFeasibleValues < type.size();
+	}
 }
\ No newline at end of file
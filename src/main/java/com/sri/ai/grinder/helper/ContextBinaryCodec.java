@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2013, SRI International
+ * All rights reserved.
+ * Licensed under the The BSD 3-Clause License;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * 
+ * http://opensource.org/licenses/BSD-3-Clause
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the aic-expresso nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) 
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, 
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.sri.ai.grinder.helper;
+
+import static com.sri.ai.expresso.helper.Expressions.TRUE;
+import static com.sri.ai.expresso.helper.Expressions.parse;
+import static com.sri.ai.grinder.helper.GrinderUtil.fromTypeExpressionToItsIntrinsicMeaning;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.google.common.annotations.Beta;
+import com.sri.ai.expresso.api.Expression;
+import com.sri.ai.expresso.api.Type;
+import com.sri.ai.expresso.helper.ExpressionBinaryReader;
+import com.sri.ai.expresso.helper.ExpressionBinaryWriter;
+import com.sri.ai.expresso.type.Categorical;
+import com.sri.ai.grinder.api.Context;
+
+/**
+ * Writes and reads {@link Context}s on the binary expression format of {@link ExpressionBinaryWriter}
+ * and {@link ExpressionBinaryReader}, so that contexts can be stored and shipped along with expressions
+ * on the same stream (sharing its symbol dictionary).
+ * <p>
+ * A context is written as its registered types, its symbols and their types, and its constraint formula.
+ * {@link Categorical} types are written in full; other types are written by name and
+ * re-created from their intrinsic meaning when read (types without one are skipped).
+ * The theory, the uniquely named constant predicate and global objects are not written;
+ * they are taken from the base context given when reading.
+ * 
+ * @author braz
+ *
+ */
+@Beta
+public class ContextBinaryCodec {
+
+	private static final byte CATEGORICAL_TYPE = 0;
+	private static final byte NAMED_TYPE = 1;
+	
+	public static void write(Context context, ExpressionBinaryWriter writer) throws IOException {
+		Collection<Type> types = context.getTypes();
+		writer.writeVarInt(types.size());
+		for (Type type : types) {
+			writeType(type, writer);
+		}
+		
+		Map<Expression, Expression> symbolsAndTypes = context.getSymbolsAndTypes();
+		writer.writeVarInt(symbolsAndTypes.size());
+		for (Map.Entry<Expression, Expression> symbolAndType : symbolsAndTypes.entrySet()) {
+			writer.write(symbolAndType.getKey());
+			writer.write(symbolAndType.getValue());
+		}
+		
+		writer.write(context); // the expression of a context is its constraint formula
+	}
+
+	private static void writeType(Type type, ExpressionBinaryWriter writer) throws IOException {
+		if (type instanceof Categorical) {
+			Categorical categorical = (Categorical) type;
+			writer.writeByte(CATEGORICAL_TYPE);
+			writer.writeString(categorical.getName());
+			writer.writeSignedVarInt(categorical.getCardinality());
+			writer.writeVarInt(categorical.getKnownConstants().size());
+			for (Expression constant : categorical.getKnownConstants()) {
+				writer.write(constant);
+			}
+		}
+		else {
+			writer.writeByte(NAMED_TYPE);
+			writer.writeString(type.getName());
+		}
+	}
+
+	/**
+	 * Reads a context written by {@link #write(Context, ExpressionBinaryWriter)}, extending a given base context
+	 * (which provides the theory).
+	 */
+	public static Context read(ExpressionBinaryReader reader, Context baseContext) throws IOException {
+		Context result = baseContext;
+		
+		int numberOfTypes = reader.readVarInt();
+		for (int i = 0; i != numberOfTypes; i++) {
+			Type type = readType(reader, result);
+			if (type != null) {
+				result = result.makeNewContextWithAddedType(type);
+			}
+		}
+		
+		int numberOfSymbols = reader.readVarInt();
+		Map<Expression, Expression> symbolsAndTypes = new LinkedHashMap<>();
+		for (int i = 0; i != numberOfSymbols; i++) {
+			Expression symbol = reader.read();
+			Expression type = reader.read();
+			symbolsAndTypes.put(symbol, type);
+		}
+		result = result.makeCloneWithAdditionalRegisteredSymbolsAndTypes(symbolsAndTypes);
+		
+		Expression constraint = reader.read();
+		if ( ! constraint.equals(TRUE)) {
+			result = result.conjoin(constraint);
+		}
+		return result;
+	}
+
+	private static Type readType(ExpressionBinaryReader reader, Context context) throws IOException {
+		Type result;
+		byte kind = reader.readByte();
+		if (kind == CATEGORICAL_TYPE) {
+			String name = reader.readString();
+			int cardinality = reader.readSignedVarInt();
+			int numberOfKnownConstants = reader.readVarInt();
+			ArrayList<Expression> knownConstants = new ArrayList<>(numberOfKnownConstants);
+			for (int i = 0; i != numberOfKnownConstants; i++) {
+				knownConstants.add(reader.read());
+			}
+			result = new Categorical(name, cardinality, knownConstants);
+		}
+		else if (kind == NAMED_TYPE) {
+			result = fromTypeExpressionToItsIntrinsicMeaning(parse(reader.readString()), context);
+		}
+		else {
+			throw new IOException("Unknown type kind " + kind);
+		}
+		return result;
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2013, SRI International
+ * All rights reserved.
+ * Licensed under the The BSD 3-Clause License;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * 
+ * http://opensource.org/licenses/BSD-3-Clause
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the aic-expresso nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) 
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, 
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.sri.ai.grinder.helper;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * A {@link Random} drawing its values from a {@link SplittableRandom},
+ * for use with APIs expecting a {@link Random} (such as {@link com.sri.ai.expresso.api.Type#sampleUniquelyNamedConstant(Random)}).
+ * <p>
+ * Unlike {@link Random}, it does not synchronize on a shared seed, and independent streams are obtained with {@link #split()},
+ * which makes it suitable for per-worker streams in parallel sampling that must be reproducible from a single seed.
+ * Like {@link SplittableRandom}, instances are not thread-safe and each should be used by a single thread.
+ * 
+ * @author braz
+ *
+ */
+@Beta
+public class SplittableRandomAdapter extends Random {
+
+	private static final long serialVersionUID = 1L;
+
+	private final SplittableRandom splittableRandom;
+	
+	public SplittableRandomAdapter(long seed) {
+		this(new SplittableRandom(seed));
+	}
+	
+	public SplittableRandomAdapter(SplittableRandom splittableRandom) {
+		this.splittableRandom = splittableRandom;
+	}
+	
+	/**
+	 * Returns a new adapter with a stream independent from this one's,
+	 * determined by the state of this one only.
+	 */
+	public SplittableRandomAdapter split() {
+		return new SplittableRandomAdapter(splittableRandom.split());
+	}
+
+	@Override
+	protected int next(int bits) {
+		return splittableRandom.nextInt() >>> (32 - bits);
+	}
+
+	@Override
+	public int nextInt() {
+		return splittableRandom.nextInt();
+	}
+
+	@Override
+	public int nextInt(int bound) {
+		return splittableRandom.nextInt(bound);
+	}
+
+	@Override
+	public long nextLong() {
+		return splittableRandom.nextLong();
+	}
+
+	@Override
+	public double nextDouble() {
+		return splittableRandom.nextDouble();
+	}
+
+	@Override
+	public boolean nextBoolean() {
+		return splittableRandom.nextBoolean();
+	}
+	
+	@Override
+	public void setSeed(long seed) {
+		// the seed is given at construction; called by Random's constructor before splittableRandom is set
+		if (splittableRandom != null) {
+			throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support re-seeding");
+		}
+	}
+}
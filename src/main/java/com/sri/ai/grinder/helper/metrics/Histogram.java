@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2013, SRI International
+ * All rights reserved.
+ * Licensed under the The BSD 3-Clause License;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * 
+ * http://opensource.org/licenses/BSD-3-Clause
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the aic-expresso nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) 
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, 
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.sri.ai.grinder.helper.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * A thread-safe distribution of non-negative long values
+ * (widths, sizes, durations in nanoseconds),
+ * keeping their count, sum, minimum, maximum,
+ * and counts per power-of-two bucket (bucket <code>i</code> holds values <code>v</code> with <code>2^(i-1) <= v < 2^i</code>,
+ * and bucket 0 holds 0).
+ * 
+ * @author braz
+ *
+ */
+@Beta
+public class Histogram {
+	
+	public static final int NUMBER_OF_BUCKETS = 64;
+	
+	private LongAdder count = new LongAdder();
+	private LongAdder sum = new LongAdder();
+	private AtomicLong minimum = new AtomicLong(Long.MAX_VALUE);
+	private AtomicLong maximum = new AtomicLong(Long.MIN_VALUE);
+	private AtomicLongArray buckets = new AtomicLongArray(NUMBER_OF_BUCKETS);
+	
+	public void record(long value) {
+		count.increment();
+		sum.add(value);
+		minimum.accumulateAndGet(value, Math::min);
+		maximum.accumulateAndGet(value, Math::max);
+		buckets.incrementAndGet(bucketOf(value));
+	}
+	
+	public static int bucketOf(long value) {
+		int result = value <= 0? 0 : NUMBER_OF_BUCKETS - Long.numberOfLeadingZeros(value);
+		return Math.min(result, NUMBER_OF_BUCKETS - 1);
+	}
+	
+	public Snapshot getSnapshot() {
+		long[] bucketCounts = new long[NUMBER_OF_BUCKETS];
+		for (int i = 0; i != NUMBER_OF_BUCKETS; i++) {
+			bucketCounts[i] = buckets.get(i);
+		}
+		long count = this.count.sum();
+		return new Snapshot(count, sum.sum(), count == 0? 0 : minimum.get(), count == 0? 0 : maximum.get(), bucketCounts);
+	}
+	
+	/**
+	 * An immutable view of a {@link Histogram} at some point in time
+	 * (values being recorded concurrently may be partially reflected).
+	 */
+	public static class Snapshot {
+		private final long count;
+		private final long sum;
+		private final long minimum;
+		private final long maximum;
+		private final long[] bucketCounts;
+		
+		public Snapshot(long count, long sum, long minimum, long maximum, long[] bucketCounts) {
+			this.count = count;
+			this.sum = sum;
+			this.minimum = minimum;
+			this.maximum = maximum;
+			this.bucketCounts = bucketCounts;
+		}
+		
+		public long getCount() {
+			return count;
+		}
+		
+		public long getSum() {
+			return sum;
+		}
+		
+		public long getMinimum() {
+			return minimum;
+		}
+		
+		public long getMaximum() {
+			return maximum;
+		}
+		
+		public double getMean() {
+			return count == 0? 0 : ((double) sum)/count;
+		}
+		
+		/**
+		 * Returns an upper bound for the given quantile (in [0, 1]), at power-of-two resolution.
+		 */
+		public long getQuantileUpperBound(double quantile) {
+			long target = (long) Math.ceil(quantile*count);
+			long accumulated = 0;
+			for (int i = 0; i != bucketCounts.length; i++) {
+				accumulated += bucketCounts[i];
+				if (accumulated >= target && accumulated != 0) {
+					return Math.min(maximum, i == 0? 0 : i == NUMBER_OF_BUCKETS - 1? Long.MAX_VALUE : (1L << i) - 1);
+				}
+			}
+			return maximum;
+		}
+		
+		public long[] getBucketCounts() {
+			return bucketCounts.clone();
+		}
+		
+		@Override
+		public String toString() {
+			return "count=" + count + ", mean=" + getMean() + ", min=" + minimum + ", max=" + maximum;
+		}
+	}
+}
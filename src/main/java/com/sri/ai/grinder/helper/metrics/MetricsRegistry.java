@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2013, SRI International
+ * All rights reserved.
+ * Licensed under the The BSD 3-Clause License;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * 
+ * http://opensource.org/licenses/BSD-3-Clause
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the aic-expresso nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) 
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, 
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.sri.ai.grinder.helper.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * A thread-safe collection of named counters, timers and histograms.
+ * Metrics are created on first use; {@link #getSnapshot()} returns their values at some point in time.
+ * <p>
+ * Solvers do not use a registry directly, but through the static hooks in {@link SolverMetrics},
+ * which do nothing unless a registry has been installed there.
+ * 
+ * @author braz
+ *
+ */
+@Beta
+public class MetricsRegistry {
+	
+	private ConcurrentHashMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+	private ConcurrentHashMap<String, Histogram> timers = new ConcurrentHashMap<>();
+	private ConcurrentHashMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+	
+	public void increment(String counterName) {
+		add(counterName, 1);
+	}
+	
+	public void add(String counterName, long amount) {
+		counters.computeIfAbsent(counterName, n -> new LongAdder()).add(amount);
+	}
+	
+	/**
+	 * Records the duration, in nanoseconds, of an execution of the timed operation with the given name.
+	 */
+	public void recordTime(String timerName, long nanoseconds) {
+		timers.computeIfAbsent(timerName, n -> new Histogram()).record(nanoseconds);
+	}
+	
+	public void record(String histogramName, long value) {
+		histograms.computeIfAbsent(histogramName, n -> new Histogram()).record(value);
+	}
+	
+	public long getCount(String counterName) {
+		LongAdder counter = counters.get(counterName);
+		return counter == null? 0 : counter.sum();
+	}
+	
+	public MetricsSnapshot getSnapshot() {
+		Map<String, Long> counterValues = new TreeMap<>();
+		counters.forEach((name, counter) -> counterValues.put(name, counter.sum()));
+		return new MetricsSnapshot(
+				Collections.unmodifiableMap(counterValues), 
+				snapshotsOf(timers),
+				snapshotsOf(histograms));
+	}
+
+	private static Map<String, Histogram.Snapshot> snapshotsOf(Map<String, Histogram> histograms) {
+		Map<String, Histogram.Snapshot> result = new TreeMap<>();
+		histograms.forEach((name, histogram) -> result.put(name, histogram.getSnapshot()));
+		return Collections.unmodifiableMap(result);
+	}
+	
+	public void reset() {
+		counters.clear();
+		timers.clear();
+		histograms.clear();
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2013, SRI International
+ * All rights reserved.
+ * Licensed under the The BSD 3-Clause License;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * 
+ * http://opensource.org/licenses/BSD-3-Clause
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the aic-expresso nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) 
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, 
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.sri.ai.grinder.helper.metrics;
+
+import java.util.Map;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * The values of the metrics in a {@link MetricsRegistry} at some point in time, sorted by name.
+ * 
+ * @author braz
+ *
+ */
+@Beta
+public class MetricsSnapshot {
+	
+	private final Map<String, Long> counters;
+	private final Map<String, Histogram.Snapshot> timers;
+	private final Map<String, Histogram.Snapshot> histograms;
+	
+	public MetricsSnapshot(Map<String, Long> counters, Map<String, Histogram.Snapshot> timers, Map<String, Histogram.Snapshot> histograms) {
+		this.counters = counters;
+		this.timers = timers;
+		this.histograms = histograms;
+	}
+	
+	public Map<String, Long> getCounters() {
+		return counters;
+	}
+	
+	public long getCount(String counterName) {
+		Long value = counters.get(counterName);
+		return value == null? 0 : value.longValue();
+	}
+	
+	/** Durations in nanoseconds. */
+	public Map<String, Histogram.Snapshot> getTimers() {
+		return timers;
+	}
+	
+	public Map<String, Histogram.Snapshot> getHistograms() {
+		return histograms;
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder();
+		counters.forEach((name, value) -> result.append(name).append(": ").append(value).append("\n"));
+		timers.forEach((name, value) -> result.append(name).append(" (ns): ").append(value).append("\n"));
+		histograms.forEach((name, value) -> result.append(name).append(": ").append(value).append("\n"));
+		return result.toString();
+	}
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2013, SRI International
+ * All rights reserved.
+ * Licensed under the The BSD 3-Clause License;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * 
+ * http://opensource.org/licenses/BSD-3-Clause
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the aic-expresso nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) 
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, 
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.sri.ai.grinder.helper.metrics;
+
+import com.google.common.annotations.Beta;
+import com.sri.ai.expresso.api.Expression;
+
+/**
+ * The operations behind the hooks of {@link SolverEvents}.
+ * <p>
+ * The Flight Recorder implementation lives in a separate source folder (<code>src/main/jfr</code>)
+ * compiled only by the <code>flight-recorder</code> Maven profile,
+ * so that the library itself still builds and runs on Java 8.
+ * <code>begin</code> methods return <code>null</code> when the corresponding event is not enabled.
+ * 
+ * @author braz
+ *
+ */
+@Beta
+interface SolverEventRecorder {
+	
+	Object beginTheoryEvaluation();
+	
+	void endTheoryEvaluation(Object event, Object theory);
+	
+	Object beginContextCheck();
+	
+	void endContextCheck(Object event, Object conjoined, boolean contradiction);
+	
+	Object beginStep();
+	
+	void endStep(Object event, Object stepSolver, Expression splitter);
+	
+	Object beginTopRewriting();
+	
+	void endTopRewriting(Object event, Object key, Object rewriter);
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2013, SRI International
+ * All rights reserved.
+ * Licensed under the The BSD 3-Clause License;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * 
+ * http://opensource.org/licenses/BSD-3-Clause
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the aic-expresso nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) 
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, 
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.sri.ai.grinder.helper.metrics;
+
+import com.google.common.annotations.Beta;
+import com.sri.ai.expresso.api.Expression;
+
+/**
+ * Static hooks emitting JDK Flight Recorder events at solver boundaries:
+ * theory evaluations, context contradiction checks, quantifier elimination steps, and top rewritings.
+ * <p>
+ * Events are disabled by default and must be enabled in the recording settings
+ * (for example, <code>jcmd &lt;pid&gt; JFR.start settings=my.jfc</code> with
+ * <code>com.sri.ai.grinder.StepSolverStep#enabled=true</code>, or <code>jdk.jfr.Recording.enable(String)</code>).
+ * Each event records its duration, the nesting depth of instrumented boundaries in the current thread,
+ * and, depending on the event, the class of the theory, step solver or rewriter involved and the splitter literal.
+ * <p>
+ * Hooks are used in pairs:
+ * <pre>
+ * Object event = SolverEvents.beginStep();
+ * try {
+ *     ...
+ * }
+ * finally {
+ *     SolverEvents.endStep(event, stepSolver, splitter);
+ * }
+ * </pre>
+ * When events are disabled, <code>begin</code> methods return <code>null</code> and <code>end</code> methods do nothing.
+ * <p>
+ * The events themselves are defined in a {@link SolverEventRecorder} implementation
+ * compiled only by the <code>flight-recorder</code> Maven profile (JDK 11 and later),
+ * since this library targets Java 8.
+ * It is loaded reflectively, and if it was not compiled or the virtual machine has no Flight Recorder,
+ * {@link #AVAILABLE} is false and all hooks do nothing.
+ * 
+ * @author braz
+ *
+ */
+@Beta
+public class SolverEvents {
+	
+	private static final String FLIGHT_RECORDER_IMPLEMENTATION = "com.sri.ai.grinder.helper.metrics.FlightRecorderEvents";
+	
+	private static final SolverEventRecorder recorder = makeFlightRecorderOrNull();
+	
+	public static final boolean AVAILABLE = recorder != null;
+	
+	private static SolverEventRecorder makeFlightRecorderOrNull() {
+		try {
+			return (SolverEventRecorder) Class.forName(FLIGHT_RECORDER_IMPLEMENTATION).getDeclaredConstructor().newInstance();
+		}
+		catch (ReflectiveOperationException | LinkageError error) {
+			return null; // not compiled in, or no Flight Recorder in this virtual machine
+		}
+	}
+	
+	public static Object beginTheoryEvaluation() {
+		return AVAILABLE? recorder.beginTheoryEvaluation() : null;
+	}
+	
+	public static void endTheoryEvaluation(Object event, Object theory) {
+		if (event != null) {
+			recorder.endTheoryEvaluation(event, theory);
+		}
+	}
+	
+	public static Object beginContextCheck() {
+		return AVAILABLE? recorder.beginContextCheck() : null;
+	}
+	
+	/**
+	 * Ends a context check event, recording the literal or constraint being conjoined and whether it led to a contradiction.
+	 */
+	public static void endContextCheck(Object event, Object conjoined, boolean contradiction) {
+		if (event != null) {
+			recorder.endContextCheck(event, conjoined, contradiction);
+		}
+	}
+	
+	public static Object beginStep() {
+		return AVAILABLE? recorder.beginStep() : null;
+	}
+	
+	/**
+	 * Ends a step event, recording the step solver and the splitter of the step (<code>null</code> if the step is a solution).
+	 */
+	public static void endStep(Object event, Object stepSolver, Expression splitter) {
+		if (event != null) {
+			recorder.endStep(event, stepSolver, splitter);
+		}
+	}
+	
+	public static Object beginTopRewriting() {
+		return AVAILABLE? recorder.beginTopRewriting() : null;
+	}
+	
+	/**
+	 * Ends a top rewriting event, recording the switch key selecting the rewriter and the rewriter itself.
+	 */
+	public static void endTopRewriting(Object event, Object key, Object rewriter) {
+		if (event != null) {
+			recorder.endTopRewriting(event, key, rewriter);
+		}
+	}
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2013, SRI International
+ * All rights reserved.
+ * Licensed under the The BSD 3-Clause License;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * 
+ * http://opensource.org/licenses/BSD-3-Clause
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the aic-expresso nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) 
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, 
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.sri.ai.grinder.helper.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * Static hooks through which solvers report metrics to an installed {@link MetricsRegistry}.
+ * <p>
+ * Metrics are disabled by default, in which case each hook costs a single volatile read.
+ * They can be enabled programmatically ({@link #enable()}, {@link #getSnapshot()}),
+ * or through JMX after {@link #registerMBean()}, under {@link #OBJECT_NAME}.
+ * <p>
+ * Metrics collected by the solvers are named by the constants below;
+ * per-key counters (such as rewriter applications per {@link com.sri.ai.grinder.rewriter.core.Switch} key)
+ * are named <code>name[key]</code>.
+ * 
+ * @author braz
+ *
+ */
+@Beta
+public class SolverMetrics {
+	
+	public static final String OBJECT_NAME = "com.sri.ai.grinder:type=SolverMetrics";
+	
+	/** Splittings of a context by a literal. */
+	public static final String CONTEXT_SPLITS = "context.splits";
+	/** Invocations of {@link com.sri.ai.grinder.core.constraint.ConjoinedContext#conjoin(com.sri.ai.expresso.api.Expression, com.sri.ai.grinder.api.Context)}. */
+	public static final String CONJOIN_CALLS = "context.conjoin";
+	/** Checks of whether a newly conjoined context is a contradiction (counter and timer). */
+	public static final String CONTRADICTION_CHECKS = "context.contradictionChecks";
+	/** Checks finding a contradiction. */
+	public static final String CONTRADICTIONS = "context.contradictions";
+	/** Applications of rewriters under a switch, per key. */
+	public static final String SWITCH_APPLICATIONS = "rewriter.switch";
+	/** Steps taken by top-level step solvers, per step solver class. */
+	public static final String STEPS = "stepSolver.steps";
+	/** Widths of the sub-problems eliminated by SGVE(T). */
+	public static final String SGVET_WIDTH = "sgvet.width";
+	/** Integrations performed by quantifier eliminators, per group. */
+	public static final String INTEGRATIONS = "integrations";
+	
+	private static final long NOT_TIMING = Long.MIN_VALUE;
+	
+	private static volatile MetricsRegistry registry = null;
+	
+	/**
+	 * Installs a new registry if none is installed, and returns the installed one.
+	 */
+	public static synchronized MetricsRegistry enable() {
+		if (registry == null) {
+			registry = new MetricsRegistry();
+		}
+		return registry;
+	}
+	
+	/**
+	 * Installs a given registry (or disables metrics if <code>null</code>).
+	 */
+	public static void install(MetricsRegistry newRegistry) {
+		registry = newRegistry;
+	}
+	
+	public static void disable() {
+		registry = null;
+	}
+	
+	public static boolean isEnabled() {
+		return registry != null;
+	}
+	
+	/**
+	 * The installed registry, or <code>null</code> if metrics are disabled.
+	 */
+	public static MetricsRegistry getRegistry() {
+		return registry;
+	}
+	
+	/**
+	 * A snapshot of the installed registry, or an empty snapshot if metrics are disabled.
+	 */
+	public static MetricsSnapshot getSnapshot() {
+		MetricsRegistry current = registry;
+		MetricsSnapshot result;
+		if (current == null) {
+			result = new MetricsSnapshot(Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap());
+		}
+		else {
+			result = current.getSnapshot();
+		}
+		return result;
+	}
+	
+	public static void increment(String counterName) {
+		MetricsRegistry current = registry;
+		if (current != null) {
+			current.increment(counterName);
+		}
+	}
+	
+	/**
+	 * Increments the counter <code>counterName[key]</code>; the key is converted to a string only if metrics are enabled.
+	 */
+	public static void incrementPerKey(String counterName, Object key) {
+		MetricsRegistry current = registry;
+		if (current != null) {
+			current.increment(counterName + "[" + key + "]");
+		}
+	}
+	
+	public static void record(String histogramName, long value) {
+		MetricsRegistry current = registry;
+		if (current != null) {
+			current.record(histogramName, value);
+		}
+	}
+	
+	/**
+	 * Returns a start time to be given to {@link #stopTimer(String, long)}, reading the clock only if metrics are enabled.
+	 */
+	public static long startTimer() {
+		return registry == null? NOT_TIMING : System.nanoTime();
+	}
+	
+	public static void stopTimer(String timerName, long startTime) {
+		MetricsRegistry current = registry;
+		if (current != null && startTime != NOT_TIMING) {
+			current.recordTime(timerName, System.nanoTime() - startTime);
+		}
+	}
+	
+	/**
+	 * Registers the JMX bean for solver metrics in the platform MBean server, if not already registered.
+	 */
+	public static void registerMBean() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			server.registerMBean(new MXBean(), new ObjectName(OBJECT_NAME));
+		}
+		catch (InstanceAlreadyExistsException exception) {
+			// already registered
+		}
+		catch (JMException exception) {
+			throw new Error("Could not register solver metrics bean", exception);
+		}
+	}
+	
+	private static class MXBean implements SolverMetricsMXBean {
+
+		@Override
+		public boolean isEnabled() {
+			return SolverMetrics.isEnabled();
+		}
+
+		@Override
+		public void setEnabled(boolean enabled) {
+			if (enabled) {
+				enable();
+			}
+			else {
+				disable();
+			}
+		}
+
+		@Override
+		public Map<String, Long> getCounters() {
+			return getSnapshot().getCounters();
+		}
+
+		@Override
+		public Map<String, String> getTimers() {
+			return summaries(getSnapshot().getTimers());
+		}
+
+		@Override
+		public Map<String, String> getHistograms() {
+			return summaries(getSnapshot().getHistograms());
+		}
+
+		private static Map<String, String> summaries(Map<String, Histogram.Snapshot> snapshots) {
+			Map<String, String> result = new TreeMap<>();
+			snapshots.forEach((name, snapshot) -> result.put(name, snapshot.toString()));
+			return result;
+		}
+
+		@Override
+		public void reset() {
+			MetricsRegistry current = registry;
+			if (current != null) {
+				current.reset();
+			}
+		}
+	}
+}
@@ -114,7 +114,7 @@ public abstract class AbstractFiniteIterationsMultiQuantifierEliminator extends
 		return result;
 	}
 
-	private Expression normalizeIfThereIsATheoryAvailable(Expression currentValue, Context context) {
+	protected Expression normalizeIfThereIsATheoryAvailable(Expression currentValue, Context context) {
 		Expression result = context.getTheory() == null? currentValue : context.getTheory().evaluate(currentValue, context);
 		return result;
 	}
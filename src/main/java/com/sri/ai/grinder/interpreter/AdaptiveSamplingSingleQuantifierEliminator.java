@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2013, SRI International
+ * All rights reserved.
+ * Licensed under the The BSD 3-Clause License;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * 
+ * http://opensource.org/licenses/BSD-3-Clause
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the aic-expresso nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) 
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, 
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.sri.ai.grinder.interpreter;
+
+import static com.sri.ai.expresso.helper.Expressions.isNumber;
+import static com.sri.ai.expresso.helper.Expressions.makeSymbol;
+import static com.sri.ai.grinder.core.solver.MeasurableMultiQuantifierEliminationProblem.makeMeasurable;
+import static com.sri.ai.util.Util.myAssert;
+
+import java.util.Random;
+
+import com.google.common.annotations.Beta;
+import com.sri.ai.expresso.api.Expression;
+import com.sri.ai.grinder.api.Context;
+import com.sri.ai.grinder.api.MultiQuantifierEliminationProblem;
+import com.sri.ai.grinder.core.solver.Deadline;
+import com.sri.ai.grinder.core.solver.MeasurableMultiQuantifierEliminationProblem;
+import com.sri.ai.grinder.group.AssociativeCommutativeGroup;
+import com.sri.ai.grinder.group.Sum;
+import com.sri.ai.grinder.helper.AssignmentsSamplingIterator;
+import com.sri.ai.grinder.rewriter.api.Rewriter;
+import com.sri.ai.grinder.rewriter.core.Exhaustive;
+import com.sri.ai.grinder.rewriter.core.Recursive;
+import com.sri.ai.util.math.Rational;
+
+/**
+ * A sampling quantifier eliminator for problems with a single index that,
+ * instead of always drawing a fixed number of samples,
+ * stops as soon as the estimate is precise enough.
+ * <p>
+ * Alongside the symbolic sum of samples, a running mean and variance of their <code>double</code> values
+ * are kept (with Welford's algorithm), and sampling stops once at least a minimum number of samples has been drawn and
+ * the half-width of the normal-approximation confidence interval, relative to the estimate, is at most a given tolerance,
+ * or once a maximum number of samples has been drawn, or once a {@link Deadline} (if set) has passed.
+ * The absolute half-width achieved in the last solved problem is available from {@link #getLastErrorBound()}.
+ * <p>
+ * Early stopping only applies to {@link Sum} problems with numeric sampled values;
+ * other problems are estimated with the maximum number of samples.
+ * Instances keep information about their last problem and are therefore not thread-safe.
+ * 
+ * @author braz
+ *
+ */
+@Beta
+public class AdaptiveSamplingSingleQuantifierEliminator extends AbstractContextAssignmentMultiQuantifierEliminator {
+
+	/** Normal quantile for a 95% confidence interval. */
+	public static final double DEFAULT_CONFIDENCE_QUANTILE = 1.96;
+
+	private int minimumSampleSize;
+	private int maximumSampleSize;
+	private double relativeErrorTolerance;
+	private double confidenceQuantile;
+	private Random random;
+	private Deadline deadline;
+	
+	private int lastNumberOfSamples;
+	private double lastErrorBound;
+	
+	public AdaptiveSamplingSingleQuantifierEliminator(
+			TopRewriterUsingContextAssignments topRewriterUsingContextAssignments,
+			int minimumSampleSize,
+			int maximumSampleSize,
+			double relativeErrorTolerance,
+			Random random) {
+		
+		this(topRewriterUsingContextAssignments, minimumSampleSize, maximumSampleSize, relativeErrorTolerance, DEFAULT_CONFIDENCE_QUANTILE, random);
+	}
+	
+	/**
+	 * @param topRewriterUsingContextAssignments
+	 * @param minimumSampleSize number of samples always drawn (at least 2)
+	 * @param maximumSampleSize number of samples after which sampling stops regardless of precision
+	 * @param relativeErrorTolerance maximum confidence interval half-width, as a fraction of the absolute value of the estimate
+	 * @param confidenceQuantile normal quantile of the desired confidence (for example, 1.96 for 95%)
+	 * @param random
+	 */
+	public AdaptiveSamplingSingleQuantifierEliminator(
+			TopRewriterUsingContextAssignments topRewriterUsingContextAssignments,
+			int minimumSampleSize,
+			int maximumSampleSize,
+			double relativeErrorTolerance,
+			double confidenceQuantile,
+			Random random) {
+		
+		super(topRewriterUsingContextAssignments);
+		myAssert(minimumSampleSize >= 2 && minimumSampleSize <= maximumSampleSize, () -> "Adaptive sampling requires 2 <= minimum sample size <= maximum sample size, but got " + minimumSampleSize + " and " + maximumSampleSize);
+		this.minimumSampleSize = minimumSampleSize;
+		this.maximumSampleSize = maximumSampleSize;
+		this.relativeErrorTolerance = relativeErrorTolerance;
+		this.confidenceQuantile = confidenceQuantile;
+		this.random = random;
+	}
+
+	/**
+	 * Sets a deadline after which sampling stops (once at least one sample has been drawn),
+	 * or <code>null</code> for no deadline.
+	 */
+	public void setDeadline(Deadline deadline) {
+		this.deadline = deadline;
+	}
+
+	/**
+	 * The number of samples used in the last solved problem.
+	 */
+	public int getLastNumberOfSamples() {
+		return lastNumberOfSamples;
+	}
+
+	/**
+	 * The half-width of the confidence interval of the last solved problem's estimate,
+	 * or {@link Double#NaN} if it could not be computed (non-numeric samples, or groups other than {@link Sum}).
+	 */
+	public double getLastErrorBound() {
+		return lastErrorBound;
+	}
+
+	@Override
+	public Expression solve(MultiQuantifierEliminationProblem originalProblem, Context context) {
+		myAssert(originalProblem.getIndices().size() == 1, () -> this.getClass() + " requires single-index problems but got " + originalProblem);
+		MeasurableMultiQuantifierEliminationProblem problem = makeMeasurable(originalProblem); // computes measure only once
+
+		AssociativeCommutativeGroup group = problem.getGroup();
+		boolean canStopEarly = group instanceof Sum;
+		Rewriter rewriter = new Recursive(new Exhaustive(topRewriterUsingContextAssignments));
+		AssignmentsSamplingIterator assignments = 
+				new AssignmentsSamplingIterator(problem.getIndices(), problem.getConstraint(), rewriter, random, context);
+		
+		Expression sum = group.additiveIdentityElement();
+		int n = 0;
+		double mean = 0;
+		double sumOfSquaredDeviations = 0;
+		boolean allValuesAreNumeric = true;
+		double measure = Double.NaN;
+		
+		boolean done = false;
+		while ( ! done && assignments.hasNext()) {
+			if (n != 0 && deadline != null && deadline.hasPassed()) {
+				break;
+			}
+			checkInterrupted();
+			Context extendedContext = assignments.next().extend(context);
+			Expression value = rewriter.apply(problem.getBody(), extendedContext);
+			sum = group.addAndPossiblySolveItDeprecated(sum, value, extendedContext);
+			n++;
+			
+			if (allValuesAreNumeric && isNumber(value)) {
+				double x = value.doubleValue();
+				double delta = x - mean;
+				mean += delta/n;
+				sumOfSquaredDeviations += delta*(x - mean);
+			}
+			else {
+				allValuesAreNumeric = false;
+			}
+
+			if (n == maximumSampleSize) {
+				done = true;
+			}
+			else if (canStopEarly && allValuesAreNumeric && n >= minimumSampleSize) {
+				if (Double.isNaN(measure)) {
+					measure = problem.getMeasure(context).doubleValue();
+				}
+				double halfWidth = measure*halfWidthOfMeanConfidenceInterval(n, sumOfSquaredDeviations);
+				done = halfWidth <= relativeErrorTolerance*Math.abs(measure*mean);
+			}
+		}
+		
+		lastNumberOfSamples = n;
+		if (canStopEarly && allValuesAreNumeric && n >= 2) {
+			lastErrorBound = problem.getMeasure(context).doubleValue()*halfWidthOfMeanConfidenceInterval(n, sumOfSquaredDeviations);
+		}
+		else {
+			lastErrorBound = Double.NaN;
+		}
+		
+		Expression result;
+		if (n == 0) {
+			result = group.additiveIdentityElement(); // nothing satisfies the constraint
+		}
+		else {
+			Rational factor = problem.getMeasure(context).divide(new Rational(n));
+			result = group.addNTimes(sum, makeSymbol(factor), context);
+		}
+		
+		if (context.getTheory() != null) {
+			result = context.getTheory().evaluate(result, context);
+		}
+		return result;
+	}
+
+	private double halfWidthOfMeanConfidenceInterval(int n, double sumOfSquaredDeviations) {
+		double sampleVariance = sumOfSquaredDeviations/(n - 1);
+		double result = confidenceQuantile*Math.sqrt(sampleVariance/n);
+		return result;
+	}
+}
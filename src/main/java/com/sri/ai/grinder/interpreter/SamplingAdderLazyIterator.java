@@ -39,6 +39,7 @@ package com.sri.ai.grinder.interpreter;
 
 import static com.sri.ai.expresso.helper.Expressions.ONE;
 import static com.sri.ai.expresso.helper.Expressions.makeSymbol;
+import static com.sri.ai.grinder.core.solver.MeasurableMultiQuantifierEliminationProblem.makeMeasurable;
 import static com.sri.ai.util.Util.myAssert;
 import static com.sri.ai.util.collect.FunctionIterator.functionIterator;
 
@@ -48,7 +49,6 @@ import com.sri.ai.expresso.api.Expression;
 import com.sri.ai.expresso.api.Symbol;
 import com.sri.ai.grinder.api.Context;
 import com.sri.ai.grinder.api.MultiQuantifierEliminationProblem;
-import com.sri.ai.grinder.core.solver.MeasurableMultiQuantifierEliminationProblem;
 import com.sri.ai.grinder.core.solver.MeasurableSingleQuantifierEliminationProblem;
 import com.sri.ai.grinder.helper.AssignmentsSamplingIterator;
 import com.sri.ai.grinder.library.number.Division;
@@ -82,21 +82,10 @@ public class SamplingAdderLazyIterator implements LazyIterator<Expression> {
 
 		makeSumEstimateIterator(problem, topRewriterUsingContextAssignments, random, context);
 
-		this.problem = getMeasurableProblem(problem).getFirstIndexVersion();
+		this.problem = makeMeasurable(problem).getFirstIndexVersion();
 		this.numberOfSamplesSoFar = Rational.ZERO;
 	}
 
-	private MeasurableMultiQuantifierEliminationProblem getMeasurableProblem(MultiQuantifierEliminationProblem problem) {
-		MeasurableMultiQuantifierEliminationProblem measurableProblem;
-		if (problem instanceof MeasurableMultiQuantifierEliminationProblem) {
-			measurableProblem = (MeasurableMultiQuantifierEliminationProblem) problem;
-		}
-		else {
-			measurableProblem = new MeasurableMultiQuantifierEliminationProblem(problem);
-		}
-		return measurableProblem;
-	}
-
 	private void makeSumEstimateIterator(MultiQuantifierEliminationProblem problem, TopRewriterUsingContextAssignments topRewriterUsingContextAssignments, Random random, Context context) {
 		sumOfSamplesIterator = makeSumOfSamplesIterator(problem, topRewriterUsingContextAssignments, random, context);
 		sumEstimateIterator = functionIterator(sumOfSamplesIterator, this::computeSumEstimateFromSumOfSamples);
@@ -37,21 +37,73 @@
  */
 package com.sri.ai.grinder.interpreter;
 
+import static com.sri.ai.expresso.api.IntensionalSet.intensionalMultiSet;
+import static com.sri.ai.expresso.helper.Expressions.TRUE;
+import static com.sri.ai.expresso.helper.Expressions.makeSymbol;
+import static com.sri.ai.grinder.core.solver.MeasurableMultiQuantifierEliminationProblem.makeMeasurable;
+
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import com.sri.ai.expresso.api.Expression;
+import com.sri.ai.expresso.api.Type;
+import com.sri.ai.expresso.core.ExtensionalIndexExpressionsSet;
+import com.sri.ai.expresso.type.RealExpressoType;
+import com.sri.ai.expresso.type.RealInterval;
 import com.sri.ai.grinder.api.Context;
 import com.sri.ai.grinder.api.MultiQuantifierEliminationProblem;
+import com.sri.ai.grinder.group.AssociativeCommutativeGroup;
+import com.sri.ai.grinder.helper.AssignmentsSamplingIterator;
+import com.sri.ai.grinder.helper.GrinderUtil;
+import com.sri.ai.grinder.helper.SplittableRandomAdapter;
+import com.sri.ai.grinder.library.indexexpression.IndexExpressions;
+import com.sri.ai.grinder.library.set.Measure;
+import com.sri.ai.grinder.rewriter.api.Rewriter;
+import com.sri.ai.grinder.rewriter.core.Exhaustive;
+import com.sri.ai.grinder.rewriter.core.Recursive;
+import com.sri.ai.grinder.theory.linearrealarithmetic.SingleVariableLinearRealArithmeticConstraint;
+import com.sri.ai.util.base.NullaryFunction;
 import com.sri.ai.util.collect.LazyIterator;
 import com.sri.ai.util.collect.NLazyIterator;
+import com.sri.ai.util.math.Rational;
 
 /**
- * A sampling quantifier elimination for problems with a single index.
+ * A sampling quantifier elimination with a fixed sample size.
+ * <p>
+ * When constructed with a {@link Random}, samples are drawn and accumulated sequentially,
+ * and only problems with a single index are supported.
+ * <p>
+ * When constructed with a seed and a number of threads, the samples are split into batches of {@link #BATCH_SIZE} samples,
+ * each drawn from its own {@link SplittableRandomAdapter} stream split from the seed in batch order,
+ * and the batches are evaluated in parallel and combined in batch order.
+ * The result therefore depends only on the seed, and not on the number of threads or on scheduling.
+ * This mode also supports multiple indices, sampled jointly from the product of their types
+ * with assignments violating the constraint rejected.
+ * <p>
+ * Since rewriters are not thread-safe, each batch uses its own top rewriter, made by a given maker,
+ * its own random stream and its own clone of the context.
+ * Batches run either in a pool provided by the caller, who is then responsible for shutting it down,
+ * or in a pool shared by all eliminators using the same number of threads.
+ * Shared pools are created once and live as long as the JVM,
+ * but their worker threads are daemons and terminate when idle,
+ * so they hold no resources between solutions.
  */
 public class SamplingWithFixedSampleSizeSingleQuantifierEliminator extends AbstractFiniteIterationsMultiQuantifierEliminator {
 
+	/** Number of samples drawn by each parallel task. */
+	public static final int BATCH_SIZE = 256;
+	
+	private static final ConcurrentHashMap<Integer, ForkJoinPool> sharedPools = new ConcurrentHashMap<>();
+	
 	private int sampleSize;
 	private Random random;
+	private long seed;
+	private NullaryFunction<TopRewriterUsingContextAssignments> topRewriterMaker;
+	private ForkJoinPool pool;
 	
 	public SamplingWithFixedSampleSizeSingleQuantifierEliminator(
 			TopRewriterUsingContextAssignments topRewriterWithBaseAssignment, 
@@ -63,6 +115,49 @@ public class SamplingWithFixedSampleSizeSingleQuantifierEliminator extends Abstr
 		this.random = random;
 	}
 	
+	/**
+	 * Makes a sampling eliminator drawing samples in parallel batches, reproducibly from a given seed,
+	 * in the pool shared by eliminators with the same number of threads.
+	 * @param topRewriterMaker makes a new top rewriter for each batch
+	 * @param sampleSize
+	 * @param seed
+	 * @param numberOfThreads
+	 */
+	public SamplingWithFixedSampleSizeSingleQuantifierEliminator(
+			NullaryFunction<TopRewriterUsingContextAssignments> topRewriterMaker, 
+			int sampleSize, 
+			long seed,
+			int numberOfThreads) {
+		
+		this(topRewriterMaker, sampleSize, seed, getSharedPool(numberOfThreads));
+	}
+	
+	/**
+	 * Makes a sampling eliminator drawing samples in parallel batches, reproducibly from a given seed,
+	 * in a pool owned by the caller.
+	 * @param topRewriterMaker makes a new top rewriter for each batch
+	 * @param sampleSize
+	 * @param seed
+	 * @param pool
+	 */
+	public SamplingWithFixedSampleSizeSingleQuantifierEliminator(
+			NullaryFunction<TopRewriterUsingContextAssignments> topRewriterMaker, 
+			int sampleSize, 
+			long seed,
+			ForkJoinPool pool) {
+		
+		super(topRewriterMaker.apply());
+		this.sampleSize = sampleSize;
+		this.seed = seed;
+		this.topRewriterMaker = topRewriterMaker;
+		this.pool = pool;
+	}
+	
+	private static ForkJoinPool getSharedPool(int numberOfThreads) {
+		ForkJoinPool result = sharedPools.computeIfAbsent(numberOfThreads, n -> new ForkJoinPool(n));
+		return result;
+	}
+	
 	@Override
 	public LazyIterator<Expression> makeAdderLazyIterator(MultiQuantifierEliminationProblem problem, TopRewriterUsingContextAssignments topRewriterUsingContextAssignments, Context context) {
 		return 
@@ -71,4 +166,100 @@ public class SamplingWithFixedSampleSizeSingleQuantifierEliminator extends Abstr
 						new SamplingAdderLazyIterator(
 								problem, topRewriterUsingContextAssignments, random, context));
 	}
-}
\ No newline at end of file
+
+	@Override
+	public Expression solve(MultiQuantifierEliminationProblem problem, Context context) {
+		Expression result;
+		if (pool == null) {
+			result = super.solve(problem, context);
+		}
+		else {
+			result = solveWithParallelBatches(problem, context);
+		}
+		return result;
+	}
+
+	private static class BatchResult {
+		Expression sum;
+		long numberOfSamples;
+		long numberOfDraws;
+	}
+
+	private Expression solveWithParallelBatches(MultiQuantifierEliminationProblem problem, Context context) {
+		SplittableRandomAdapter root = new SplittableRandomAdapter(seed);
+		List<ForkJoinTask<BatchResult>> batches = new ArrayList<>();
+		for (int start = 0; start < sampleSize; start += BATCH_SIZE) {
+			int batchSize = Math.min(BATCH_SIZE, sampleSize - start);
+			SplittableRandomAdapter batchRandom = root.split(); // split here, in batch order, for reproducibility
+			Context batchContext = context.clone(); // each batch has its own context, memoized splittings included
+			batches.add(ForkJoinTask.adapt(() -> sampleBatch(problem, batchSize, batchRandom, batchContext)));
+		}
+		pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(batches)));
+
+		AssociativeCommutativeGroup group = problem.getGroup();
+		Expression sum = group.additiveIdentityElement();
+		long numberOfSamples = 0;
+		long numberOfDraws = 0;
+		for (ForkJoinTask<BatchResult> batch : batches) {
+			BatchResult batchResult = batch.join();
+			sum = group.addAndPossiblySolveItDeprecated(sum, batchResult.sum, context);
+			numberOfSamples += batchResult.numberOfSamples;
+			numberOfDraws += batchResult.numberOfDraws;
+		}
+		
+		Expression result;
+		if (numberOfSamples == 0) {
+			result = group.additiveIdentityElement(); // nothing satisfies the constraint
+		}
+		else {
+			Rational factor;
+			if (problem.getIndices().size() == 1) {
+				// average over samples times measure of the constraint's satisfying set
+				factor = makeMeasurable(problem).getMeasure(context).divide(new Rational(numberOfSamples));
+			}
+			else {
+				// the measure of the constraint's satisfying set is estimated from the rate of accepted draws
+				factor = getMeasureOfProductOfIndicesTypes(problem, context).divide(new Rational(numberOfDraws));
+			}
+			result = group.addNTimes(sum, makeSymbol(factor), context);
+		}
+		
+		result = normalizeIfThereIsATheoryAvailable(result, context);
+		return result;
+	}
+
+	private BatchResult sampleBatch(MultiQuantifierEliminationProblem problem, int batchSize, Random batchRandom, Context context) {
+		Rewriter rewriter = new Recursive(new Exhaustive(topRewriterMaker.apply()));
+		AssignmentsSamplingIterator assignments = 
+				new AssignmentsSamplingIterator(problem.getIndices(), problem.getConstraint(), rewriter, batchRandom, context);
+		AssociativeCommutativeGroup group = problem.getGroup();
+		BatchResult result = new BatchResult();
+		result.sum = group.additiveIdentityElement();
+		while (result.numberOfSamples != batchSize && assignments.hasNext()) {
+			Context extendedContext = assignments.next().extend(context);
+			Expression bodyValue = rewriter.apply(problem.getBody(), extendedContext);
+			result.sum = group.addAndPossiblySolveItDeprecated(result.sum, bodyValue, extendedContext);
+			result.numberOfSamples++;
+		}
+		result.numberOfDraws = assignments.getNumberOfDraws();
+		return result;
+	}
+
+	private static Rational getMeasureOfProductOfIndicesTypes(MultiQuantifierEliminationProblem problem, Context context) {
+		Rational result = Rational.ONE;
+		for (int i = 0; i != problem.getIndices().size(); i++) {
+			Expression index = problem.getIndices().get(i);
+			Type type = GrinderUtil.getTypeOfExpression(index, context);
+			Expression condition;
+			if (type instanceof RealExpressoType || type instanceof RealInterval) {
+				condition = new SingleVariableLinearRealArithmeticConstraint(index, true, context.getTheory()); // Measure requires this form for reals
+			}
+			else {
+				condition = TRUE;
+			}
+			ExtensionalIndexExpressionsSet indexExpressions = new ExtensionalIndexExpressionsSet(IndexExpressions.makeIndexExpression(index, problem.getIndicesTypes().get(i)));
+			result = result.multiply(Measure.get(intensionalMultiSet(indexExpressions, index, condition), context));
+		}
+		return result;
+	}
+}
@@ -38,6 +38,7 @@
 package com.sri.ai.grinder.library;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
@@ -47,14 +48,12 @@ import java.util.Set;
 
 import com.google.common.annotations.Beta;
 import com.google.common.base.Predicate;
-import com.google.common.base.Predicates;
 import com.sri.ai.expresso.api.Expression;
 import com.sri.ai.expresso.helper.Expressions;
 import com.sri.ai.grinder.api.Context;
 import com.sri.ai.grinder.library.set.Sets;
 import com.sri.ai.grinder.rewriter.api.Simplifier;
 import com.sri.ai.util.Util;
-import com.sri.ai.util.base.Equals;
 
 /**
  * Implements the basics for commutative, associative operators with a neutral
@@ -87,14 +86,7 @@ public abstract class CommutativeAssociative implements Simplifier {
 	}
 
 	public Predicate<Expression> getIsOperableArgumentExpressionPredicate() {
-		Predicate<Expression> result = new Predicate<Expression>() {
-			@Override
-			public boolean apply(Expression expression) {
-				boolean result = getIsOperableArgumentSyntaxTreePredicate().apply(expression);
-				return result;
-			}
-		};
-		return result;
+		return getIsOperableArgumentSyntaxTreePredicate();
 	}
 	
 	@Override
@@ -109,41 +101,50 @@ public abstract class CommutativeAssociative implements Simplifier {
 		}
 		
 		List<Expression> arguments = expression.getArguments();
+		int numberOfArguments = arguments.size();
 		
-		if (arguments.isEmpty()) {
+		if (numberOfArguments == 0) {
 			return getNeutralElementExpression();
 		}
 		
-		if (arguments.size() == 1) {
+		if (numberOfArguments == 1) {
 			return expression.get(0);
 		}
 		
-		LinkedList<Expression> operableArguments = new LinkedList<Expression>();
-		LinkedList<Expression> nonOperableArguments = new LinkedList<Expression>();
-		int indexOfFirstOperable =
-			Util.collect(
-					arguments,
-					getIsOperableArgumentExpressionPredicate(), operableArguments,
-					nonOperableArguments);
+		// a first pass only counts operable arguments, so that the common cases of no or a single operable argument allocate nothing
+		Predicate<Expression> isOperable = getIsOperableArgumentSyntaxTreePredicate();
+		Expression absorbingElement = getAbsorbingElement();
+		int numberOfOperableArguments = 0;
+		int indexOfFirstOperable = -1;
+		for (int i = 0; i != numberOfArguments; i++) {
+			Expression argument = arguments.get(i);
+			if (isOperable.apply(argument)) {
+				if (argument.equals(absorbingElement)) {
+					return absorbingElement;
+				}
+				if (numberOfOperableArguments++ == 0) {
+					indexOfFirstOperable = i;
+				}
+			}
+		}
 	
-		if (operableArguments.size() == 0) {
+		if (numberOfOperableArguments == 0) {
 			return expression; // everything is an non-operable argument, nothing that can be done.
 		}
 		
-		if (operableArguments.contains(getAbsorbingElement())) {
-			return getAbsorbingElement();
-		}
-		
-		// get result on operable arguments
-		Expression resultOnOperableArgumentsExpression = operationOnOperableArguments(operableArguments);
-
 		// this next if then else is both an optimization for the case in which there is a single operable,
 		// and a way to make sure
 		// we return the same expression instance when it doesn't change (like x + 2), lest we generate
 		// a distinct but equal instance that would keep being re-evaluated by the same manipulator.
-		if (operableArguments.size() == 1) {
-			if (operableArguments.getFirst().equals(getNeutralElementExpression())) {
+		if (numberOfOperableArguments == 1) {
+			if (arguments.get(indexOfFirstOperable).equals(getNeutralElementExpression())) {
 				// we don't need to include the neutral element, and are left with non-operable arguments only, done.
+				ArrayList<Expression> nonOperableArguments = new ArrayList<Expression>(numberOfArguments - 1);
+				for (int i = 0; i != numberOfArguments; i++) {
+					if (i != indexOfFirstOperable) {
+						nonOperableArguments.add(arguments.get(i));
+					}
+				}
 				Expression result = makeExpressionWithSameFunctorAsThis(nonOperableArguments);
 				return result;
 			}
@@ -155,13 +156,28 @@ public abstract class CommutativeAssociative implements Simplifier {
 
 		// now we deal with the case of more than one operable argument
 		
+		LinkedList<Expression> operableArguments = new LinkedList<Expression>();
+		ArrayList<Expression> nonOperableArguments = new ArrayList<Expression>(numberOfArguments - numberOfOperableArguments + 1);
+		for (int i = 0; i != numberOfArguments; i++) {
+			Expression argument = arguments.get(i);
+			if (isOperable.apply(argument)) {
+				operableArguments.add(argument);
+			}
+			else {
+				nonOperableArguments.add(argument);
+			}
+		}
+
+		// get result on operable arguments
+		Expression resultOnOperableArgumentsExpression = operationOnOperableArguments(operableArguments);
+
 		// if there are no non-operable arguments, that's it.
-		if (nonOperableArguments.size() == 0) {
+		if (nonOperableArguments.isEmpty()) {
 			return resultOnOperableArgumentsExpression;
 		}
 
 		// if there are non-operable arguments, put them together with operables's result, unless this is the neutral element.
-		LinkedList<Expression> argumentsOfResultingExpression = nonOperableArguments; // changing semantics, and therefore, for clarity, the name. It's ok to modify it since it's been created locally.
+		ArrayList<Expression> argumentsOfResultingExpression = nonOperableArguments; // changing semantics, and therefore, for clarity, the name. It's ok to modify it since it's been created locally.
 		if ( ! resultOnOperableArgumentsExpression.equals(getNeutralElement())) {
 			argumentsOfResultingExpression.add(indexOfFirstOperable, resultOnOperableArgumentsExpression);
 		}
@@ -171,6 +187,142 @@ public abstract class CommutativeAssociative implements Simplifier {
 		return result;
 	}
 	
+	/**
+	 * Returns a normal form of an application of this operator, computed in a single pass over an array of its arguments:
+	 * nested applications of the operator are flattened,
+	 * operable arguments are folded into a single one placed first (and dropped if it is the neutral element),
+	 * neutral elements are dropped,
+	 * an absorbing element makes it the whole result,
+	 * repeated arguments are removed if the operator is idempotent,
+	 * and the remaining arguments are sorted according to {@link Expression#compareTo(Object)},
+	 * so that equal terms end up next to each other and equal applications have the same normal form.
+	 * For example, the normal form of <code>Y + (2 + X) + 0 + 3</code> is <code>5 + X + Y</code>.
+	 * <p>
+	 * Returns the same instance if it is already normalized (and expressions that are not extensional applications of this operator).
+	 */
+	public Expression normalize(Expression expression) {
+		
+		if ( ! isExtensional(expression)) {
+			return expression;
+		}
+		
+		Expression[] arguments = new Expression[numberOfFlattenedArguments(expression)];
+		int numberOfArguments = flattenArgumentsInto(expression, arguments, 0);
+		
+		Predicate<Expression> isOperable = getIsOperableArgumentSyntaxTreePredicate();
+		Expression neutralElement = getNeutralElementExpression();
+		Expression absorbingElement = getAbsorbingElement();
+		Expression firstOperableArgument = null;
+		LinkedList<Expression> operableArguments = null; // only created if there is more than one
+		int numberOfNonOperableArguments = 0;
+		for (int i = 0; i != numberOfArguments; i++) {
+			Expression argument = arguments[i];
+			if (argument.equals(absorbingElement)) {
+				return absorbingElement;
+			}
+			if (argument.equals(neutralElement)) {
+				continue;
+			}
+			if (isOperable.apply(argument)) {
+				if (firstOperableArgument == null) {
+					firstOperableArgument = argument;
+				}
+				else {
+					if (operableArguments == null) {
+						operableArguments = new LinkedList<Expression>();
+						operableArguments.add(firstOperableArgument);
+					}
+					operableArguments.add(argument);
+				}
+			}
+			else {
+				arguments[numberOfNonOperableArguments++] = argument; // compacting non-operable arguments in place
+			}
+		}
+		
+		Arrays.sort(arguments, 0, numberOfNonOperableArguments);
+		if (isIdempotent()) {
+			int numberOfDistinctArguments = 0;
+			for (int i = 0; i != numberOfNonOperableArguments; i++) {
+				if (numberOfDistinctArguments == 0 || ! arguments[i].equals(arguments[numberOfDistinctArguments - 1])) {
+					arguments[numberOfDistinctArguments++] = arguments[i];
+				}
+			}
+			numberOfNonOperableArguments = numberOfDistinctArguments;
+		}
+		
+		Expression resultOnOperableArguments = operableArguments == null? firstOperableArgument : operationOnOperableArguments(operableArguments);
+		if (resultOnOperableArguments != null) {
+			if (resultOnOperableArguments.equals(absorbingElement)) {
+				return absorbingElement;
+			}
+			if (resultOnOperableArguments.equals(neutralElement)) {
+				resultOnOperableArguments = null;
+			}
+		}
+		
+		int numberOfResultingArguments = numberOfNonOperableArguments + (resultOnOperableArguments == null? 0 : 1);
+		
+		if (numberOfResultingArguments > 1 && numberOfResultingArguments == expression.numberOfArguments()) {
+			boolean changed = false;
+			int offset = 0;
+			if (resultOnOperableArguments != null) {
+				changed = resultOnOperableArguments != expression.get(0);
+				offset = 1;
+			}
+			for (int i = 0; ! changed && i != numberOfNonOperableArguments; i++) {
+				changed = arguments[i] != expression.get(i + offset);
+			}
+			if ( ! changed) {
+				return expression;
+			}
+		}
+		
+		Expression result;
+		if (numberOfResultingArguments == 0) {
+			result = neutralElement;
+		}
+		else if (numberOfResultingArguments == 1) {
+			result = resultOnOperableArguments == null? arguments[0] : resultOnOperableArguments;
+		}
+		else {
+			ArrayList<Expression> resultingArguments = new ArrayList<Expression>(numberOfResultingArguments);
+			if (resultOnOperableArguments != null) {
+				resultingArguments.add(resultOnOperableArguments);
+			}
+			for (int i = 0; i != numberOfNonOperableArguments; i++) {
+				resultingArguments.add(arguments[i]);
+			}
+			result = Expressions.apply(expression.getFunctor(), resultingArguments);
+		}
+		return result;
+	}
+
+	private int numberOfFlattenedArguments(Expression expression) {
+		int result = 0;
+		for (Expression argument : expression.getArguments()) {
+			if (isExtensional(argument)) {
+				result += numberOfFlattenedArguments(argument);
+			}
+			else {
+				result++;
+			}
+		}
+		return result;
+	}
+
+	private int flattenArgumentsInto(Expression expression, Expression[] flattenedArguments, int position) {
+		for (Expression argument : expression.getArguments()) {
+			if (isExtensional(argument)) {
+				position = flattenArgumentsInto(argument, flattenedArguments, position);
+			}
+			else {
+				flattenedArguments[position++] = argument;
+			}
+		}
+		return position;
+	}
+	
 	/**
 	 * Tests whether this is extensional version of the function, that is, it is NOT applied to an intensional set
 	 * (commutative associative functions usually have both an extensional and intensional
@@ -208,8 +360,13 @@ public abstract class CommutativeAssociative implements Simplifier {
 	 * @param isIdempotent TODO
 	 */
 	public static Expression make(Object functor, List<Expression> arguments, Expression neutralElement, boolean isIdempotent) {
-		Predicate<Expression> notEqualToNeutralElement = Predicates.not(new Equals<Expression>(neutralElement));
-		arguments = Util.collectToList(arguments, notEqualToNeutralElement);
+		ArrayList<Expression> nonNeutralArguments = new ArrayList<Expression>(arguments.size());
+		for (Expression argument : arguments) {
+			if ( ! argument.equals(neutralElement)) {
+				nonNeutralArguments.add(argument);
+			}
+		}
+		arguments = nonNeutralArguments;
 		if (isIdempotent) {
 			Set<Expression> argumentsSet = new LinkedHashSet<Expression>(arguments);
 			arguments = new ArrayList<Expression>(argumentsSet);
@@ -238,7 +395,7 @@ public abstract class CommutativeAssociative implements Simplifier {
 	 */
 	public static Expression make(Object functor, Iterator<? extends Expression> argumentsIterator, Expression absorbingElement, Expression neutralElement, boolean isIdempotent) {
 		absorbingElement = Expressions.wrap(absorbingElement);
-		List<Expression> arguments = new LinkedList<Expression>();
+		List<Expression> arguments = new ArrayList<Expression>();
 		while (argumentsIterator.hasNext()) {
 			Expression argument = argumentsIterator.next();
 			if (argument.equals(absorbingElement)) {
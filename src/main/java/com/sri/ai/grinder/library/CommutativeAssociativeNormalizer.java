@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2013, SRI International
+ * All rights reserved.
+ * Licensed under the The BSD 3-Clause License;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * 
+ * http://opensource.org/licenses/BSD-3-Clause
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the aic-expresso nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) 
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, 
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.sri.ai.grinder.library;
+
+import static com.sri.ai.grinder.library.FunctorConstants.AND;
+import static com.sri.ai.grinder.library.FunctorConstants.MAX;
+import static com.sri.ai.grinder.library.FunctorConstants.OR;
+import static com.sri.ai.grinder.library.FunctorConstants.PLUS;
+import static com.sri.ai.grinder.library.FunctorConstants.TIMES;
+import static com.sri.ai.util.Util.map;
+
+import java.util.Map;
+
+import com.google.common.annotations.Beta;
+import com.sri.ai.grinder.library.boole.And;
+import com.sri.ai.grinder.library.boole.Or;
+import com.sri.ai.grinder.library.number.Max;
+import com.sri.ai.grinder.library.number.Plus;
+import com.sri.ai.grinder.library.number.Times;
+import com.sri.ai.grinder.rewriter.api.Rewriter;
+import com.sri.ai.grinder.rewriter.api.Simplifier;
+import com.sri.ai.grinder.rewriter.core.Switch;
+
+/**
+ * A {@link Rewriter} putting applications of <code>+, *, and, or</code> and <code>max</code>
+ * in the normal form computed by {@link CommutativeAssociative#normalize(com.sri.ai.expresso.api.Expression)},
+ * after the usual simplification by each operator.
+ * <p>
+ * Normal forms order arguments canonically, so that equal terms are merged (for idempotent operators) or end up next to each other,
+ * but this also changes the argument order of expressions that the default simplifiers leave as they are.
+ * For this reason, it is not part of the default simplifiers, and must be explicitly merged into a top rewriter
+ * (for example, with {@link com.sri.ai.grinder.rewriter.api.TopRewriter#merge(com.sri.ai.grinder.rewriter.api.TopRewriter...)})
+ * by code wanting normalized outputs.
+ * 
+ * @author braz
+ *
+ */
+@Beta
+public class CommutativeAssociativeNormalizer extends Switch<String> {
+	
+	public CommutativeAssociativeNormalizer() {
+		super(Switch.FUNCTOR, makeFunctionApplicationSimplifiers());
+	}
+	
+	public static Map<String, Rewriter> makeFunctionApplicationSimplifiers() {
+		return map(
+				PLUS,   makeNormalizer(new Plus()),
+
+				TIMES,  makeNormalizer(new Times()),
+
+				AND,    makeNormalizer(new And()),
+
+				OR,     makeNormalizer(new Or()),
+
+				MAX,    makeNormalizer(new Max())
+				);
+	}
+
+	private static Simplifier makeNormalizer(CommutativeAssociative operator) {
+		return (e, context) -> operator.normalize(operator.applySimplifier(e, context));
+	}
+}
@@ -37,8 +37,12 @@
  */
 package com.sri.ai.grinder.library;
 
+import static com.sri.ai.util.Util.forAll;
 import static com.sri.ai.util.Util.mapIntoList;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -46,6 +50,8 @@ import java.util.Set;
 import com.google.common.annotations.Beta;
 import com.google.common.base.Function;
 import com.sri.ai.expresso.api.Expression;
+import com.sri.ai.expresso.api.ExpressionAndSyntacticContext;
+import com.sri.ai.expresso.api.Symbol;
 import com.sri.ai.expresso.helper.Expressions;
 import com.sri.ai.expresso.helper.GetFunctorOrSymbol;
 import com.sri.ai.expresso.helper.MapReplacementFunction;
@@ -105,7 +111,13 @@ public class SyntacticSubstitute {
 	}
 
 	public static Expression replaceAll(Expression expression, Map<Expression, Expression> fromReplacedToReplacements, Context context) {
-		Expression result = expression.replaceAllOccurrences(new MapReplacementFunction(fromReplacedToReplacements), context);
+		Expression result;
+		if (forAll(fromReplacedToReplacements.keySet(), Expressions::isSymbol)) {
+			result = replaceSymbolsSimultaneously(expression, fromReplacedToReplacements, context);
+		}
+		else {
+			result = expression.replaceAllOccurrences(new MapReplacementFunction(fromReplacedToReplacements), context);
+		}
 		return result;
 
 //		// Used to be as below but that is incorrect as one of the new variables may be replaced by another new variable coming later.
@@ -115,6 +127,92 @@ public class SyntacticSubstitute {
 //		return expression;
 	}
 
+	/**
+	 * Simultaneously replaces free occurrences of symbols by their replacements in a single traversal of the expression,
+	 * in the manner of <code>(lambda X, Y : f(X, Y))(Y, X)</code> reducing to <code>f(Y, X)</code>
+	 * (replacements are not themselves subject to the substitution).
+	 * <p>
+	 * Symbols quantified inside the expression shadow the replaced ones in their scope,
+	 * and quantified symbols that would capture free symbols of a replacement are renamed.
+	 * Sub-expressions without replaced symbols are kept as the same instances.
+	 */
+	public static Expression replaceSymbolsSimultaneously(Expression expression, Map<Expression, Expression> fromSymbolsToReplacements, Registry registry) {
+		if (fromSymbolsToReplacements.isEmpty()) {
+			return expression;
+		}
+		Set<Expression> freeSymbolsInReplacements = new HashSet<Expression>();
+		for (Expression replacement : fromSymbolsToReplacements.values()) {
+			freeSymbolsInReplacements.addAll(Expressions.freeSymbols(replacement, registry));
+		}
+		Expression result = replaceSymbolsSimultaneously(expression, fromSymbolsToReplacements, freeSymbolsInReplacements, registry);
+		return result;
+	}
+
+	private static Expression replaceSymbolsSimultaneously(Expression expression, Map<Expression, Expression> fromSymbolsToReplacements, Set<Expression> freeSymbolsInReplacements, Registry registry) {
+		
+		if (expression.getSyntacticFormType().equals(Symbol.SYNTACTIC_FORM_TYPE)) {
+			Expression replacement = fromSymbolsToReplacements.get(expression);
+			return replacement == null? expression : replacement;
+		}
+		
+		Expression result = replaceInImmediateSubExpressions(expression, fromSymbolsToReplacements, freeSymbolsInReplacements, registry);
+		
+		if (result != expression) {
+			// only if something was replaced do we need to worry about capture by symbols quantified here
+			Expression renamed = expression;
+			for (Expression scoped : expression.getScopedExpressions(registry)) {
+				Expression scopedSymbol = scoped.getFunctorOrSymbol();
+				if (freeSymbolsInReplacements.contains(scopedSymbol)) {
+					Expression expressionSoFar = renamed;
+					Expression newSymbol = 
+							Expressions.primedUntilUnique(
+									scopedSymbol, 
+									s -> ! freeSymbolsInReplacements.contains(s) && ! fromSymbolsToReplacements.containsKey(s) && ! Expressions.contains(expressionSoFar, s));
+					renamed = renamed.replaceSymbol(scopedSymbol, newSymbol, registry);
+				}
+			}
+			if (renamed != expression) {
+				result = replaceInImmediateSubExpressions(renamed, fromSymbolsToReplacements, freeSymbolsInReplacements, registry);
+			}
+		}
+		
+		return result;
+	}
+
+	private static Expression replaceInImmediateSubExpressions(Expression expression, Map<Expression, Expression> fromSymbolsToReplacements, Set<Expression> freeSymbolsInReplacements, Registry registry) {
+		Expression result = expression;
+		Iterator<ExpressionAndSyntacticContext> subExpressionsAndContextsIterator = expression.getImmediateSubExpressionsAndContextsIterator();
+		while (subExpressionsAndContextsIterator.hasNext()) {
+			ExpressionAndSyntacticContext subExpressionAndSyntacticContext = subExpressionsAndContextsIterator.next();
+			Expression originalSubExpression = subExpressionAndSyntacticContext.getExpression();
+			if (originalSubExpression == null) {
+				continue;
+			}
+			Map<Expression, Expression> fromSymbolsToReplacementsInScope = withoutShadowedSymbols(fromSymbolsToReplacements, subExpressionAndSyntacticContext.getIndices());
+			if (fromSymbolsToReplacementsInScope.isEmpty()) {
+				continue;
+			}
+			Expression replacementSubExpression = replaceSymbolsSimultaneously(originalSubExpression, fromSymbolsToReplacementsInScope, freeSymbolsInReplacements, registry);
+			if (replacementSubExpression != originalSubExpression) {
+				result = result.replace(subExpressionAndSyntacticContext.setExpression(replacementSubExpression));
+			}
+		}
+		return result;
+	}
+
+	private static Map<Expression, Expression> withoutShadowedSymbols(Map<Expression, Expression> fromSymbolsToReplacements, List<Expression> indices) {
+		Map<Expression, Expression> result = fromSymbolsToReplacements;
+		for (Expression index : indices) {
+			if (result.containsKey(index)) {
+				if (result == fromSymbolsToReplacements) {
+					result = new HashMap<Expression, Expression>(fromSymbolsToReplacements); // only copy when needed
+				}
+				result.remove(index);
+			}
+		}
+		return result;
+	}
+
 	private static class SubstitutePruningPredicate implements PruningPredicate {
 		List<Expression> allSymbolsInReplacedAndReplacement;
 		
@@ -38,6 +38,7 @@
 package com.sri.ai.grinder.library.commonrewriters;
 
 import com.google.common.annotations.Beta;
+import com.sri.ai.grinder.api.MultiQuantifierEliminator;
 import com.sri.ai.grinder.core.solver.DefaultMultiQuantifierEliminator;
 import com.sri.ai.grinder.core.solver.SGVET;
 import com.sri.ai.grinder.library.boole.ForAllRewriter;
@@ -48,10 +49,13 @@ import com.sri.ai.grinder.library.number.SummationRewriter;
 import com.sri.ai.grinder.library.set.CardinalityTopRewriter;
 import com.sri.ai.grinder.rewriter.api.TopRewriter;
 import com.sri.ai.grinder.rewriter.core.CombiningTopRewriter;
+import com.sri.ai.grinder.theory.propositional.PropositionalModelCountingMultiQuantifierEliminator;
 
 /**
  * A {@link TopRewriter} aggregating symbolic quantifier eliminators for +, *, max, cardinality, for all and there exists
  * using {@link DefaultMultiQuantifierEliminator} ({@link SGVET} for summations).
+ * Problems over Boolean indices only are first tried with
+ * {@link PropositionalModelCountingMultiQuantifierEliminator}.
  * 
  * @author braz
  *
@@ -61,17 +65,21 @@ public class SymbolicQuantifierEliminatorRewritersTopRewriter extends CombiningT
 	
 	public SymbolicQuantifierEliminatorRewritersTopRewriter() {
 		super(
-				new SummationRewriter(new SGVET())
+				new SummationRewriter(propositionalOr(new SGVET()))
 				,
-				new ProductRewriter(new DefaultMultiQuantifierEliminator())
+				new ProductRewriter(propositionalOr(new DefaultMultiQuantifierEliminator()))
 				,
 				new MaxRewriter(new DefaultMultiQuantifierEliminator())
 				,
-				new CardinalityTopRewriter(new DefaultMultiQuantifierEliminator())
+				new CardinalityTopRewriter(propositionalOr(new DefaultMultiQuantifierEliminator()))
 				,
-				new ForAllRewriter(new DefaultMultiQuantifierEliminator())
+				new ForAllRewriter(propositionalOr(new DefaultMultiQuantifierEliminator()))
 				,
-				new ThereExistsRewriter(new DefaultMultiQuantifierEliminator())
+				new ThereExistsRewriter(propositionalOr(new DefaultMultiQuantifierEliminator()))
 				);
 	}
+
+	private static MultiQuantifierEliminator propositionalOr(MultiQuantifierEliminator base) {
+		return new PropositionalModelCountingMultiQuantifierEliminator(base);
+	}
 }
\ No newline at end of file
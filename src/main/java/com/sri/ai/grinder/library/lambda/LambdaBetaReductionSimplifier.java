@@ -48,6 +48,7 @@ import com.sri.ai.expresso.api.Expression;
 import com.sri.ai.expresso.api.FunctionApplication;
 import com.sri.ai.expresso.api.LambdaExpression;
 import com.sri.ai.grinder.api.Context;
+import com.sri.ai.grinder.library.SyntacticSubstitute;
 import com.sri.ai.grinder.library.indexexpression.IndexExpressions;
 import com.sri.ai.grinder.rewriter.api.Rewriter;
 import com.sri.ai.grinder.rewriter.api.Simplifier;
@@ -86,12 +87,14 @@ public class LambdaBetaReductionSimplifier extends Switch<Object> {
 			List<Expression> lambdaIndexExpressionsList = IndexExpressions.getIndexExpressionsWithType(lambdaExpression.getIndexExpressions());
 			List<Expression> lambdaArguments            = expression.getArguments();
 			if (lambdaArguments.size() == lambdaIndexExpressionsList.size()) {
-				result = lambdaExpression.getBody();
+				Map<Expression, Expression> fromIndicesToArguments = new HashMap<Expression, Expression>();
 				for (int i = 0; i < lambdaIndexExpressionsList.size(); i++) {
 					Expression indexExpression    = IndexExpressions.getIndex(lambdaIndexExpressionsList.get(i));
 					Expression argumentExpression = lambdaArguments.get(i);
-					result = result.replaceAllOccurrences(indexExpression, argumentExpression, context);
-				}				
+					fromIndicesToArguments.put(indexExpression, argumentExpression);
+				}
+				// all indices are replaced in a single pass, so arguments are not themselves subject to replacement
+				result = SyntacticSubstitute.replaceSymbolsSimultaneously(lambdaExpression.getBody(), fromIndicesToArguments, context);
 			}
 		}
 		
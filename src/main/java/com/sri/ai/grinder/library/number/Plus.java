@@ -109,7 +109,7 @@ public class Plus extends CommutativeAssociativeWithOperationOnJavaConstantsOnly
 	@Override
 	@SuppressWarnings("unchecked")
 	protected Object operationOnOperableValues(List listOfConstants) {
-		return Util.sumArbitraryPrecision(listOfConstants);
+		return SmallRational.sum(listOfConstants);
 	}
 
 	/**
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2013, SRI International
+ * All rights reserved.
+ * Licensed under the The BSD 3-Clause License;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * 
+ * http://opensource.org/licenses/BSD-3-Clause
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the aic-expresso nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) 
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, 
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.sri.ai.grinder.library.number;
+
+import java.util.List;
+
+import com.google.common.annotations.Beta;
+import com.sri.ai.util.Util;
+import com.sri.ai.util.math.Rational;
+
+/**
+ * An accumulator of sums or products of {@link Rational}s that keeps its value
+ * as a <code>long</code> numerator/denominator pair while it is small enough,
+ * so that the accumulation itself involves no arbitrary-precision arithmetic.
+ * Operands are read once, when accumulated, and a {@link Rational} is made only when the result is requested.
+ * <p>
+ * Once an operation would overflow a <code>long</code>, the accumulator switches to an arbitrary-precision {@link Rational}
+ * for the rest of the accumulation, so results are always exact.
+ * <p>
+ * Single operations on two {@link Rational}s gain nothing from this, since both the conversion of operands
+ * and the making of the result would have to be paid for each one,
+ * so this class is only meant for accumulations, such as {@link #sum(List)}, {@link #product(List)},
+ * or the numeric factors and powers gathered while making a monomial.
+ * 
+ * @author braz
+ *
+ */
+@Beta
+public class SmallRational {
+
+	/**
+	 * Maximum bit length of numerators and denominators kept as <code>long</code>s;
+	 * one bit below that of a <code>long</code>'s magnitude so that negation and absolute value never overflow.
+	 */
+	private static final int MAXIMUM_BIT_LENGTH = 62;
+	
+	private long numerator;
+	private long denominator;
+	private Rational arbitraryPrecisionValue; // null while the value is kept as longs
+	
+	/**
+	 * Makes an accumulator with the value of a given integer.
+	 */
+	public SmallRational(long value) {
+		if (bitLength(value) <= MAXIMUM_BIT_LENGTH) {
+			this.numerator = value;
+			this.denominator = 1;
+		}
+		else {
+			this.arbitraryPrecisionValue = new Rational(value);
+		}
+	}
+	
+	/**
+	 * Indicates whether the numerator and denominator of a rational are small enough to be kept as <code>long</code>s.
+	 */
+	public static boolean isSmall(Rational rational) {
+		boolean result =
+				rational.getNumerator().bitLength() <= MAXIMUM_BIT_LENGTH
+				&& rational.getDenominator().bitLength() <= MAXIMUM_BIT_LENGTH;
+		return result;
+	}
+	
+	/**
+	 * Adds a number to this accumulator and returns it.
+	 */
+	public SmallRational add(Rational other) {
+		if (arbitraryPrecisionValue == null && isSmall(other)) {
+			try {
+				addSmall(other.getNumerator().longValue(), other.getDenominator().longValue());
+				return this;
+			}
+			catch (ArithmeticException overflow) {
+				// switches to arbitrary precision below
+			}
+		}
+		arbitraryPrecisionValue = toRational().add(other);
+		return this;
+	}
+	
+	/**
+	 * Multiplies this accumulator by a number and returns it.
+	 */
+	public SmallRational multiply(Rational other) {
+		if (arbitraryPrecisionValue == null && isSmall(other)) {
+			try {
+				multiplySmall(other.getNumerator().longValue(), other.getDenominator().longValue());
+				return this;
+			}
+			catch (ArithmeticException overflow) {
+				// switches to arbitrary precision below
+			}
+		}
+		arbitraryPrecisionValue = toRational().multiply(other);
+		return this;
+	}
+	
+	/**
+	 * Negates this accumulator and returns it.
+	 */
+	public SmallRational negate() {
+		if (arbitraryPrecisionValue == null) {
+			numerator = - numerator; // cannot overflow, given the maximum bit length
+		}
+		else {
+			arbitraryPrecisionValue = arbitraryPrecisionValue.negate();
+		}
+		return this;
+	}
+	
+	public boolean isZero() {
+		boolean result = arbitraryPrecisionValue == null? numerator == 0 : arbitraryPrecisionValue.isZero();
+		return result;
+	}
+	
+	/**
+	 * Sums a list of numbers, with the same result as {@link Util#sumArbitraryPrecision(List)}.
+	 */
+	public static Rational sum(List<? extends Number> numbers) {
+		SmallRational accumulator = new SmallRational(0);
+		int i = 0;
+		for ( ; i != numbers.size() && numbers.get(i) instanceof Rational; i++) {
+			accumulator.add((Rational) numbers.get(i));
+		}
+		Rational result = accumulator.toRational();
+		if (i != numbers.size()) { // other kinds of numbers are left to the general method
+			result = result.add(Util.sumArbitraryPrecision(numbers.subList(i, numbers.size())));
+		}
+		return result;
+	}
+	
+	/**
+	 * Multiplies a list of numbers, with the same result as {@link Util#productArbitraryPrecision(List)}.
+	 */
+	public static Rational product(List<? extends Number> numbers) {
+		SmallRational accumulator = new SmallRational(1);
+		int i = 0;
+		for ( ; i != numbers.size() && numbers.get(i) instanceof Rational; i++) {
+			accumulator.multiply((Rational) numbers.get(i));
+		}
+		Rational result = accumulator.toRational();
+		if (i != numbers.size()) { // other kinds of numbers are left to the general method
+			result = result.multiply(Util.productArbitraryPrecision(numbers.subList(i, numbers.size())));
+		}
+		return result;
+	}
+	
+	/**
+	 * Adds a normalized fraction to this one, leaving it unchanged in case of overflow.
+	 */
+	private void addSmall(long otherNumerator, long otherDenominator) {
+		long newNumerator;
+		long newDenominator;
+		if (denominator == 1 && otherDenominator == 1) {
+			newNumerator = Math.addExact(numerator, otherNumerator);
+			newDenominator = 1;
+		}
+		else {
+			long gcd = gcd(denominator, otherDenominator);
+			newNumerator = Math.addExact(Math.multiplyExact(numerator, otherDenominator / gcd), Math.multiplyExact(otherNumerator, denominator / gcd));
+			newDenominator = Math.multiplyExact(denominator / gcd, otherDenominator);
+			long common = gcd(Math.abs(newNumerator), newDenominator);
+			newNumerator /= common;
+			newDenominator /= common;
+		}
+		checkMagnitude(newNumerator, newDenominator);
+		numerator = newNumerator;
+		denominator = newDenominator;
+	}
+	
+	/**
+	 * Multiplies this fraction by a normalized one, leaving it unchanged in case of overflow.
+	 */
+	private void multiplySmall(long otherNumerator, long otherDenominator) {
+		// cross-cancelling keeps the result normalized
+		long gcd1 = gcd(Math.abs(numerator), otherDenominator);
+		long gcd2 = gcd(Math.abs(otherNumerator), denominator);
+		long newNumerator = Math.multiplyExact(numerator / gcd1, otherNumerator / gcd2);
+		long newDenominator = Math.multiplyExact(denominator / gcd2, otherDenominator / gcd1);
+		checkMagnitude(newNumerator, newDenominator);
+		numerator = newNumerator;
+		denominator = newDenominator;
+	}
+	
+	private static void checkMagnitude(long numerator, long denominator) {
+		if (bitLength(numerator) > MAXIMUM_BIT_LENGTH || bitLength(denominator) > MAXIMUM_BIT_LENGTH) {
+			throw new ArithmeticException("long overflow");
+		}
+	}
+	
+	private static int bitLength(long value) {
+		return 64 - Long.numberOfLeadingZeros(value < 0? ~value : value);
+	}
+	
+	/** Greatest common divisor of two non-negative numbers, with gcd(0, n) = n. */
+	private static long gcd(long a, long b) {
+		while (b != 0) {
+			long remainder = a % b;
+			a = b;
+			b = remainder;
+		}
+		return a;
+	}
+	
+	/**
+	 * Returns the accumulated value.
+	 */
+	public Rational toRational() {
+		Rational result;
+		if (arbitraryPrecisionValue != null) {
+			result = arbitraryPrecisionValue;
+		}
+		else if (numerator == 0) {
+			result = Rational.ZERO;
+		}
+		else if (denominator == 1) {
+			result = numerator == 1? Rational.ONE : new Rational(numerator);
+		}
+		else {
+			result = new Rational(numerator, denominator);
+		}
+		return result;
+	}
+	
+	@Override
+	public String toString() {
+		return toRational().toString();
+	}
+}
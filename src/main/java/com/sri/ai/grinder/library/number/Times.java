@@ -102,7 +102,7 @@ public class Times extends CommutativeAssociativeWithOperationOnJavaConstantsOnl
 	@Override
 	@SuppressWarnings("unchecked")
 	protected Object operationOnOperableValues(List listOfConstants) {
-		return Util.productArbitraryPrecision(listOfConstants);
+		return SmallRational.product(listOfConstants);
 	}
 	
 	/**
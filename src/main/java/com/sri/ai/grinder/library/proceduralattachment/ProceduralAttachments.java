@@ -37,22 +37,35 @@
  */
 package com.sri.ai.grinder.library.proceduralattachment;
 
+import static com.sri.ai.util.Util.map;
+
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.google.common.annotations.Beta;
-import com.google.common.base.Function;
 import com.sri.ai.expresso.api.Expression;
 import com.sri.ai.grinder.api.Context;
+import com.sri.ai.grinder.api.ExpressionLiteralSplitterStepSolver;
+import com.sri.ai.grinder.rewriter.api.Rewriter;
 import com.sri.ai.grinder.rewriter.api.TopRewriter;
 import com.sri.ai.grinder.rewriter.core.CombiningTopRewriter;
 import com.sri.ai.grinder.rewriter.core.FirstOf;
-import com.sri.ai.grinder.rewriter.core.FunctorSwitch;
-import com.sri.ai.grinder.rewriter.core.SymbolSwitch;
-import com.sri.ai.util.base.NullaryFunction;
+import com.sri.ai.grinder.rewriter.core.Switch;
+import com.sri.ai.grinder.theory.base.ConstantExpressionStepSolver;
 
 /**
- * A class with a method for registering procedural attachments in a context
+ * A class with methods for registering procedural attachments in a context
  * and another for obtaining a {@link TopRewriter} with all procedural attachments.
+ * <p>
+ * Registered attachments are kept in a table indexed by functor and arity (or by symbol name),
+ * and the top rewriter is built from it only when requested after a change,
+ * as a {@link Switch} on functors dispatching on arity by direct lookup
+ * (and a {@link Switch} on symbols dispatching on their names).
+ * Registering attachments only records them on top of the current table, and they are indexed when the top rewriter is requested.
+ * Registering many attachments at once through a {@link Batch} updates the context a single time.
+ * 
  * @author braz
  *
  */
@@ -60,22 +73,216 @@ import com.sri.ai.util.base.NullaryFunction;
 public class ProceduralAttachments {
 	
 	private static final String PROCEDURAL_ATTACHEMENTS_KEY = "Procedural attachment rewriter key";
-	private static NullaryFunction<TopRewriter> EMPTY_REWRITER_MAKER = () -> new FirstOf();
 	
+	/**
+	 * A set of procedural attachments to be registered at once with {@link ProceduralAttachments#registerProceduralAttachments(Batch, Context)}.
+	 */
+	public static class Batch {
+		
+		private List<Expression> functorsOrSymbols = new ArrayList<>();
+		private List<Integer> aritiesOrMinusOneForSymbols = new ArrayList<>();
+		private List<TopRewriter> topRewriters = new ArrayList<>();
+		
+		/**
+		 * Adds a procedural attachment top rewriter to a function with a given arity;
+		 * the check of functor and arity is done by the procedural attachments, so the top rewriter does not need to do that.
+		 */
+		public Batch add(Expression functor, int arity, TopRewriter topRewriter) {
+			functorsOrSymbols.add(functor);
+			aritiesOrMinusOneForSymbols.add(arity);
+			topRewriters.add(topRewriter);
+			return this;
+		}
+		
+		/**
+		 * Same as {@link #add(Expression, int, TopRewriter)}, but for a symbol.
+		 */
+		public Batch add(Expression symbol, TopRewriter topRewriter) {
+			return add(symbol, -1, topRewriter);
+		}
+		
+		public int size() {
+			return topRewriters.size();
+		}
+		
+		private Batch copy() {
+			Batch result = new Batch();
+			result.functorsOrSymbols.addAll(functorsOrSymbols);
+			result.aritiesOrMinusOneForSymbols.addAll(aritiesOrMinusOneForSymbols);
+			result.topRewriters.addAll(topRewriters);
+			return result;
+		}
+	}
+	
+	/**
+	 * The immutable table of registered procedural attachments kept in the context,
+	 * with the top rewriter built from it on demand.
+	 * <p>
+	 * Extending a table only records the new batch on top of the previous table,
+	 * so registering attachments one at a time does not copy the table at every registration.
+	 * The maps indexing attachments are built when the top rewriter is first requested,
+	 * by copying those of the nearest table already built and adding the batches registered since.
+	 */
+	private static class Table {
+		
+		private Table previous; // null once built
+		private Batch batch; // null once built
+		private Map<String, Map<Integer, Rewriter>> fromFunctorToArityToRewriter; // null until built
+		private Map<String, Rewriter> fromSymbolToRewriter; // null until built
+		private volatile TopRewriter topRewriter;
+		
+		private Table() {
+			this.fromFunctorToArityToRewriter = new HashMap<>();
+			this.fromSymbolToRewriter = new HashMap<>();
+		}
+		
+		private Table(Table previous, Batch batch) {
+			this.previous = previous;
+			this.batch = batch;
+		}
+		
+		public Table extendWith(Batch batch) {
+			return new Table(this, batch.copy());
+		}
+		
+		public TopRewriter getTopRewriter() {
+			TopRewriter result = topRewriter;
+			if (result == null) {
+				synchronized (this) {
+					result = topRewriter;
+					if (result == null) {
+						buildIfNeeded();
+						result = makeTopRewriter();
+						topRewriter = result;
+					}
+				}
+			}
+			return result;
+		}
+		
+		private synchronized boolean isBuilt() {
+			return fromFunctorToArityToRewriter != null;
+		}
+		
+		private synchronized void buildIfNeeded() {
+			if (isBuilt()) {
+				return;
+			}
+			
+			List<Batch> batchesSinceBuiltTable = new ArrayList<>();
+			Table builtTable = this;
+			while ( ! builtTable.isBuilt()) {
+				synchronized (builtTable) {
+					// checked again, since it may have been built by another thread in the meantime
+					if ( ! builtTable.isBuilt()) {
+						batchesSinceBuiltTable.add(builtTable.batch);
+						builtTable = builtTable.previous;
+					}
+				}
+			}
+			
+			Map<String, Map<Integer, Rewriter>> newFromFunctorToArityToRewriter;
+			Map<String, Rewriter> newFromSymbolToRewriter;
+			synchronized (builtTable) {
+				newFromFunctorToArityToRewriter = new HashMap<>(builtTable.fromFunctorToArityToRewriter);
+				newFromSymbolToRewriter = new HashMap<>(builtTable.fromSymbolToRewriter);
+			}
+			Map<String, Map<Integer, Rewriter>> alreadyCopiedArityMaps = new HashMap<>();
+			for (int b = batchesSinceBuiltTable.size() - 1; b != -1; b--) {
+				Batch batchSinceBuiltTable = batchesSinceBuiltTable.get(b);
+				for (int i = 0; i != batchSinceBuiltTable.size(); i++) {
+					String name = batchSinceBuiltTable.functorsOrSymbols.get(i).toString();
+					int arity = batchSinceBuiltTable.aritiesOrMinusOneForSymbols.get(i);
+					TopRewriter topRewriter = batchSinceBuiltTable.topRewriters.get(i);
+					if (arity == -1) {
+						newFromSymbolToRewriter.merge(name, topRewriter, Table::firstOf);
+					}
+					else {
+						Map<Integer, Rewriter> fromArityToRewriter = alreadyCopiedArityMaps.get(name);
+						if (fromArityToRewriter == null) {
+							Map<Integer, Rewriter> existing = newFromFunctorToArityToRewriter.get(name);
+							fromArityToRewriter = existing == null? new HashMap<>() : new HashMap<>(existing);
+							alreadyCopiedArityMaps.put(name, fromArityToRewriter);
+							newFromFunctorToArityToRewriter.put(name, fromArityToRewriter);
+						}
+						fromArityToRewriter.merge(arity, topRewriter, Table::firstOf);
+					}
+				}
+			}
+			
+			fromFunctorToArityToRewriter = newFromFunctorToArityToRewriter;
+			fromSymbolToRewriter = newFromSymbolToRewriter;
+			previous = null;
+			batch = null;
+		}
+		
+		/** Attachments registered for the same key are tried in order of registration. */
+		private static Rewriter firstOf(Rewriter first, Rewriter second) {
+			return new FirstOf(first, second);
+		}
+		
+		private TopRewriter makeTopRewriter() {
+			List<TopRewriter> switches = new ArrayList<>(2);
+			if ( ! fromFunctorToArityToRewriter.isEmpty()) {
+				Map<String, Rewriter> fromFunctorToArityDispatcher = new HashMap<>();
+				for (Map.Entry<String, Map<Integer, Rewriter>> entry : fromFunctorToArityToRewriter.entrySet()) {
+					fromFunctorToArityDispatcher.put(entry.getKey(), makeArityDispatcher(entry.getValue()));
+				}
+				switches.add(new Switch<String>(Switch.FUNCTOR, fromFunctorToArityDispatcher));
+			}
+			if ( ! fromSymbolToRewriter.isEmpty()) {
+				switches.add(new Switch<Object>(Switch.SYNTACTIC_FORM_TYPE, map("Symbol", makeSymbolDispatcher(fromSymbolToRewriter))));
+			}
+			TopRewriter result = switches.size() == 1? switches.get(0) : new CombiningTopRewriter("Procedural attachments", switches);
+			return result;
+		}
+		
+		/**
+		 * Dispatches on arity to the step solver of the attachment's rewriter,
+		 * so attachments take part in splitting like any other rewriter.
+		 */
+		private static Rewriter makeArityDispatcher(Map<Integer, Rewriter> fromArityToRewriter) {
+			return e -> {
+				Rewriter rewriter = fromArityToRewriter.get(e.numberOfArguments());
+				ExpressionLiteralSplitterStepSolver result = rewriter == null? new ConstantExpressionStepSolver(e) : rewriter.makeStepSolver(e);
+				return result;
+			};
+		}
+		
+		private static Rewriter makeSymbolDispatcher(Map<String, Rewriter> fromSymbolToRewriter) {
+			return e -> {
+				Rewriter rewriter = fromSymbolToRewriter.get(e.toString());
+				ExpressionLiteralSplitterStepSolver result = rewriter == null? new ConstantExpressionStepSolver(e) : rewriter.makeStepSolver(e);
+				return result;
+			};
+		}
+	}
+	
+	private static final Table EMPTY_TABLE = new Table();
+	
+	/**
+	 * Returns a top rewriter applying all procedural attachments registered in the context,
+	 * or null if none have been registered.
+	 */
 	public static TopRewriter getProceduralAttachmentsTopRewriter(Context context) {
-		TopRewriter result = (TopRewriter) context.getInplaceGlobalObject(PROCEDURAL_ATTACHEMENTS_KEY);
+		Table table = (Table) context.getInplaceGlobalObject(PROCEDURAL_ATTACHEMENTS_KEY);
+		TopRewriter result = table == null? null : table.getTopRewriter();
 		return result;
 	}
 	
-	private static Function<TopRewriter, TopRewriter> combine(TopRewriter proceduralAttachment) {
-		return 
-				proceduralAttachments 
-				-> new CombiningTopRewriter(proceduralAttachments, proceduralAttachment);
+	/**
+	 * Registers all procedural attachments in a batch with a single update of the context's attachments.
+	 * @param batch
+	 * @param context
+	 */
+	public static void registerProceduralAttachments(Batch batch, Context context) {
+		context.<Table>updateInplaceGlobalObject(PROCEDURAL_ATTACHEMENTS_KEY, () -> EMPTY_TABLE, table -> table.extendWith(batch));
 	}
 
 	/**
 	 * This method registers a procedural attachment top rewriter to a function with a given arity;
 	 * the check of functor and arity will be added to the given top rewriter, so it does not need to do that.
+	 * To register many attachments, {@link #registerProceduralAttachments(Batch, Context)} is more efficient.
 	 * @param functor
 	 * @param proceduralAttachmentParameters
 	 * @param topRewriter
@@ -85,9 +292,7 @@ public class ProceduralAttachments {
 	public static void registerProceduralAttachment(
 			Expression functor, int arity, TopRewriter topRewriter, Context context) {
 
-		TopRewriter proceduralAttachment = new FunctorSwitch(functor.toString(), arity, topRewriter);
-
-		context.updateInplaceGlobalObject(PROCEDURAL_ATTACHEMENTS_KEY, EMPTY_REWRITER_MAKER, combine(proceduralAttachment));
+		registerProceduralAttachments(new Batch().add(functor, arity, topRewriter), context);
 	}
 
 	/**
@@ -101,8 +306,6 @@ public class ProceduralAttachments {
 	public static void registerProceduralAttachment(
 			Expression symbol, TopRewriter topRewriter, Context context) {
 
-		TopRewriter proceduralAttachment = new SymbolSwitch(symbol.toString(), topRewriter);
-
-		context.updateInplaceGlobalObject(PROCEDURAL_ATTACHEMENTS_KEY, EMPTY_REWRITER_MAKER, combine(proceduralAttachment));
+		registerProceduralAttachments(new Batch().add(symbol, topRewriter), context);
 	}
-}
\ No newline at end of file
+}
@@ -175,7 +175,7 @@ public class Measure {
 	
 	private static Expression constructComponentIntensionalSet(Type indexType, IntensionalSet intensionalSet, Expression additiveIdentityElement, Context intensionalSetContext) {
 		Expression conditionedBody = IfThenElse.make(intensionalSet.getCondition(), intensionalSet.getHead(), additiveIdentityElement);
-		Expression componentIndex  = Expressions.makeUniqueVariable("C", conditionedBody, intensionalSetContext);
+		Expression componentIndex  = intensionalSetContext.getFreshSymbolGenerator().newSymbol(Expressions.makeSymbol("C"), s -> intensionalSetContext.containsSymbol(s) || Expressions.contains(intensionalSet, s));
 		Expression indexExpression = IndexExpressions.makeIndexExpression(componentIndex, Expressions.parse(indexType.getName()));
 		
 		Expression intensionalCondition = Expressions.TRUE;
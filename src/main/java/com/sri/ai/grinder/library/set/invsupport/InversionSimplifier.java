@@ -67,19 +67,41 @@ import com.sri.ai.util.Util;
 import com.sri.ai.util.base.Pair;
 
 public class InversionSimplifier implements Simplifier {
-// TODO - 1. Add support for summations and products with more than 1 index.
 	
 	@Override
 	public Expression applySimplifier(Expression expression, Context context) {
 		return simplify(expression, context);
 	}
 
+	/**
+	 * Inverts a summation indexed by a function with the products nested under it, when possible.
+	 * Sums and products over several indices are handled by considering them as nested
+	 * sums and products over one index each (the condition being kept by the innermost one),
+	 * with the function-typed indices of a summation being the innermost ones.
+	 * The original expression is returned if no inversion is possible.
+	 */
 	public static Expression simplify(Expression expression, Context context) {
+		Expression result = simplifySummationWithSingleIndex(expression, context);
+		if (result == expression && isFunctionOnIntensionalMultiSet(FunctorConstants.SUM, expression)) {
+			result = simplifySummationWithSeveralIndices(expression, context);
+		}
+		return result;
+	}
+	
+	private static Expression simplifySummationWithSingleIndex(Expression expression, Context context) {
 		Expression result = expression;
 		
-		if (isSummationIndexedByFunctionOfQuantifiers(expression, context)) {
+		Expression summation = expression;
+		if (isFunctionOnIntensionalSetWithSingleIndex(FunctorConstants.SUM, expression)) {
+			Expression nestedHead = nestIndices(getHead(expression));
+			if (nestedHead != getHead(expression)) {
+				summation = Expressions.apply(FunctorConstants.SUM, getIntensionalSet(expression).setHead(nestedHead));
+			}
+		}
+		
+		if (isSummationIndexedByFunctionOfQuantifiers(summation, context)) {
 			// NOTE: at this point we know we have a summation indexed by a function
-			Expression summationIndexedByFunction = expression;
+			Expression summationIndexedByFunction = summation;
 			
 			Pair<Expression, FunctionType> indexAndFunctionType = getIndexAndFunctionType(summationIndexedByFunction, context);
 			Expression summationIndexFunctionName               = indexAndFunctionType.first;
@@ -96,6 +118,89 @@ public class InversionSimplifier implements Simplifier {
 		return result;
 	}
 	
+	private static Expression simplifySummationWithSeveralIndices(Expression summation, Context context) {
+		IntensionalSet intensionalSet   = getIntensionalSet(summation);
+		List<Expression> indexExpressions = IndexExpressions.getIndexExpressionsWithType(intensionalSet.getIndexExpressions());
+		if (indexExpressions.size() < 2) {
+			return summation;
+		}
+		
+		// Function-typed indices are moved innermost, so that each of them can be inverted with the products in its head.
+		// Since this changes the order of indices, we require that no index domain depends on another index.
+		List<Expression> indices = IndexExpressions.getIndices(intensionalSet.getIndexExpressions());
+		Context contextWithIndices = context.extendWith(intensionalSet.getIndexExpressions());
+		List<Expression> orderedIndexExpressions  = new ArrayList<>();
+		List<Expression> functionIndexExpressions = new ArrayList<>();
+		for (Expression indexExpression : indexExpressions) {
+			Expression domain = IndexExpressions.getIndexAndDomain(indexExpression).second;
+			if (domain != null && Expressions.containsAnyOfGivenCollectionAsSubExpression(domain, indices)) {
+				return summation;
+			}
+			Type type = GrinderUtil.getTypeOfExpression(IndexExpressions.getIndex(indexExpression), contextWithIndices);
+			if (type instanceof FunctionType) {
+				functionIndexExpressions.add(indexExpression);
+			}
+			else {
+				orderedIndexExpressions.add(indexExpression);
+			}
+		}
+		if (functionIndexExpressions.isEmpty()) {
+			return summation;
+		}
+		orderedIndexExpressions.addAll(functionIndexExpressions);
+
+		// Build the nested summations from the innermost one out, inverting each summation indexed by a function.
+		boolean inverted = false;
+		Expression result = nestIndices(intensionalSet.getHead());
+		for (int i = orderedIndexExpressions.size() - 1; i >= 0; i--) {
+			Expression condition = i == orderedIndexExpressions.size() - 1? intensionalSet.getCondition() : Expressions.TRUE;
+			Expression singleIndexSet = IntensionalSet.intensionalMultiSet(new ExtensionalIndexExpressionsSet(orderedIndexExpressions.get(i)), result, condition);
+			result = Expressions.apply(FunctorConstants.SUM, singleIndexSet);
+			if (i >= orderedIndexExpressions.size() - functionIndexExpressions.size()) {
+				Context outerIndicesContext = context.extendWith(new ExtensionalIndexExpressionsSet(new ArrayList<>(orderedIndexExpressions.subList(0, i))));
+				Expression inversion = simplifySummationWithSingleIndex(result, outerIndicesContext);
+				if (inversion != result) {
+					inverted = true;
+					result = inversion;
+				}
+			}
+		}
+		
+		if ( ! inverted) {
+			result = summation;
+		}
+		return result;
+	}
+	
+	/**
+	 * Rewrites a sum or product over an intensional multiset with several indices into nested sums or products
+	 * over a single index each (with the condition in the innermost one), recursively on the head.
+	 * Other expressions are returned as they are.
+	 */
+	private static Expression nestIndices(Expression expression) {
+		Expression result = expression;
+		if (isFunctionOnIntensionalMultiSet(FunctorConstants.SUM, expression) || isFunctionOnIntensionalMultiSet(FunctorConstants.PRODUCT, expression)) {
+			IntensionalSet intensionalSet     = getIntensionalSet(expression);
+			List<Expression> indexExpressions = IndexExpressions.getIndexExpressionsWithType(intensionalSet.getIndexExpressions());
+			Expression head                   = intensionalSet.getHead();
+			Expression nestedHead             = nestIndices(head);
+			if (indexExpressions.size() > 1 || nestedHead != head) {
+				result = nestedHead;
+				for (int i = indexExpressions.size() - 1; i >= 0; i--) {
+					Expression condition = i == indexExpressions.size() - 1? intensionalSet.getCondition() : Expressions.TRUE;
+					Expression singleIndexSet = IntensionalSet.intensionalMultiSet(new ExtensionalIndexExpressionsSet(indexExpressions.get(i)), result, condition);
+					result = Expressions.apply(expression.getFunctor(), singleIndexSet);
+				}
+			}
+		}
+		return result;
+	}
+	
+	private static boolean isFunctionOnIntensionalMultiSet(Object functor, Expression expression) {
+		boolean result = expression.hasFunctor(functor) && expression.numberOfArguments() == 1 && Sets.isIntensionalMultiSet(expression.get(0));
+		return result;
+	}
+	
 	private static boolean isInversionPossible(Expression summationIndexedByFunction, Expression summationIndexFunctionName, FunctionType summationIndexFunctionType, 
 			List<Expression> originalQuantifierOrder, List<Expression> inversionQuantifierOrder, Context context) {		
 		boolean result = false;
@@ -60,6 +60,7 @@ import com.sri.ai.expresso.helper.AbstractExpressionWrapper;
 import com.sri.ai.expresso.helper.ExpressionComparator;
 import com.sri.ai.expresso.helper.Expressions;
 import com.sri.ai.grinder.library.number.Exponentiation;
+import com.sri.ai.grinder.library.number.SmallRational;
 import com.sri.ai.grinder.library.number.Times;
 import com.sri.ai.grinder.library.number.UnaryMinus;
 import com.sri.ai.grinder.polynomial.api.Monomial;
@@ -452,16 +453,17 @@ public class DefaultMonomial extends AbstractExpressionWrapper implements Monomi
 		
 		this.factorToPower = Collections.unmodifiableMap(this.factorToPower);
 		
-		this.degree = this.orderedNonNumericFactorPowers.stream().reduce(Rational.ZERO, (r1, r2) -> r1.add(r2)).intValue();
+		this.degree = SmallRational.sum(this.orderedNonNumericFactorPowers).intValue();
 	}
 	
 	private static Monomial make(List<Expression> numericConstantsAndTerms) {
-		Rational numericFactor = Rational.ONE;
+		// numeric factor and powers are accumulated as small rationals and made into Rationals only at the end
+		SmallRational numericFactor = new SmallRational(1);
 		
-		Map<Expression, Rational> factorToPower = new LinkedHashMap<>();
+		Map<Expression, SmallRational> factorToPower = new LinkedHashMap<>();
 		for (Expression numericConstantOrTerm : numericConstantsAndTerms) {
 			if (Expressions.isNumber(numericConstantOrTerm)) {
-				numericFactor = numericFactor.multiply(numericConstantOrTerm.rationalValue());
+				numericFactor.multiply(numericConstantOrTerm.rationalValue());
 			}
 			else { // Is a term				
 				Expression factor            = numericConstantOrTerm;
@@ -472,7 +474,7 @@ public class DefaultMonomial extends AbstractExpressionWrapper implements Monomi
 				if (factor.hasFunctor(MINUS) && factor.numberOfArguments() == 1) {
 					factor = factor.get(0);
 					// i.e. same as having an explicit constant '-1' multiplicand in the expression
-					numericFactor = numericFactor.negate();
+					numericFactor.negate();
 					attemptFlattening = true;
 				}
 				
@@ -506,7 +508,7 @@ public class DefaultMonomial extends AbstractExpressionWrapper implements Monomi
 					Monomial factorAsMonomial = make(Times.getMultiplicands(factor));
 					// Need to raise to the current power
 					factorAsMonomial      = factorAsMonomial.exponentiate(power.intValue());
-					numericFactor = numericFactor.multiply(factorAsMonomial.getNumericFactor());
+					numericFactor.multiply(factorAsMonomial.getNumericFactor());
 					List<Expression> factors = factorAsMonomial.getOrderedNonNumericFactors();
 					List<Rational>   powers  = factorAsMonomial.getPowersOfNonNumericFactors();
 					int factorSize = factors.size();
@@ -521,7 +523,7 @@ public class DefaultMonomial extends AbstractExpressionWrapper implements Monomi
 		}
 		
 		Monomial result = null;
-		if (numericFactor.equals(Rational.ZERO)) {
+		if (numericFactor.isZero()) {
 			result = ZERO;
 		}
 		else {
@@ -529,22 +531,16 @@ public class DefaultMonomial extends AbstractExpressionWrapper implements Monomi
 			Collections.sort(orderedFactors, _factorComparator);
 			
 			List<Rational> orderedPowers = new ArrayList<>(orderedFactors.size());
-			orderedFactors.forEach(factor -> orderedPowers.add(factorToPower.get(factor)));
+			orderedFactors.forEach(factor -> orderedPowers.add(factorToPower.get(factor).toRational()));
 			
-			result = make(numericFactor, orderedFactors, orderedPowers);
+			result = make(numericFactor.toRational(), orderedFactors, orderedPowers);
 		}
 		
 		return result;
 	}
 		
-	private static void updateFactorToPowerMap(Map<Expression, Rational> factorToPower, Expression factor, Rational power) {
+	private static void updateFactorToPowerMap(Map<Expression, SmallRational> factorToPower, Expression factor, Rational power) {
 		// Ensure duplicate variables in the monomial are handled correctly
-		Rational existingPower = factorToPower.get(factor);
-		if (existingPower == null) {
-			factorToPower.put(factor, power);
-		}
-		else {
-			factorToPower.put(factor, existingPower.add(power));
-		}
+		factorToPower.computeIfAbsent(factor, f -> new SmallRational(0)).add(power);
 	}
 }
\ No newline at end of file
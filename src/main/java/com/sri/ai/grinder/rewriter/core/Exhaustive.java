@@ -51,12 +51,10 @@ import com.sri.ai.grinder.rewriter.api.Rewriter;
 public class Exhaustive implements Rewriter {
 
 	private Rewriter baseRewriter;
-	private String name;
 	
 	public Exhaustive(Rewriter baseRewriter) {
 		super();
 		this.baseRewriter = baseRewriter;
-		this.name = "Exhaustive for " + baseRewriter;
 	}
 
 	@Override
@@ -68,7 +66,7 @@ public class Exhaustive implements Rewriter {
 
 	@Override
 	public String toString() {
-		return name;
+		return "Exhaustive for " + baseRewriter;
 	}
 	
 	/**
@@ -85,7 +83,8 @@ public class Exhaustive implements Rewriter {
 	 * 
 	 * If the base rewriter's sequel step solver does find a solution,
 	 * checks to see if there has been a change.
-	 * If so, re-applies given exhaustive rewriter to that solution, ensuring exhaustivity.
+	 * If so, re-applies the base rewriter to that solution (in a loop, without creating new {@link ExhaustiveStepSolver}s),
+	 * ensuring exhaustivity.
 	 * If not, returns this final solution as the solution of the {@link Exhaustive} rewriter.
 	 * 
 	 * @author braz
@@ -95,14 +94,12 @@ public class Exhaustive implements Rewriter {
 		
 		private ExpressionLiteralSplitterStepSolver baseStepSolver;
 		private Expression currentExpression;
-		private Rewriter exhaustiveRewriter;
-		private String name;
+		private Exhaustive exhaustiveRewriter;
 		
-		public ExhaustiveStepSolver(ExpressionLiteralSplitterStepSolver baseStepSolver, Expression currentExpression, Rewriter exhaustiveRewriter) {
+		public ExhaustiveStepSolver(ExpressionLiteralSplitterStepSolver baseStepSolver, Expression currentExpression, Exhaustive exhaustiveRewriter) {
 			this.exhaustiveRewriter = exhaustiveRewriter;
 			this.currentExpression = currentExpression;
 			this.baseStepSolver = baseStepSolver;
-			this.name = "Exhaustive step solver for " + baseStepSolver;
 		}
 		
 		@Override
@@ -116,40 +113,44 @@ public class Exhaustive implements Rewriter {
 			return result;
 		}
 		
+		private ExhaustiveStepSolver makeSequel(ExpressionLiteralSplitterStepSolver baseStepSolver, Expression currentExpression) {
+			ExhaustiveStepSolver result = clone();
+			result.baseStepSolver = baseStepSolver;
+			result.currentExpression = currentExpression;
+			return result;
+		}
+		
 		public Step step(Context context) {
-			Step result; 
-			Step baseStep = baseStepSolver.step(context);
-			if (baseStep.itDepends()) {
-				
-				ExhaustiveStepSolver ifTrue = clone();
-				ifTrue.baseStepSolver = baseStep.getStepSolverForWhenSplitterIs(true);
-				
-				ExhaustiveStepSolver ifFalse = clone();
-				ifFalse.baseStepSolver = baseStep.getStepSolverForWhenSplitterIs(false);
-				
-				result = 
-						new ItDependsOn(
-								baseStep.getSplitter(),
-								baseStep.getContextSplittingWhenSplitterIsLiteral(),
-								ifTrue,
-								ifFalse);
+			Expression expression = currentExpression;
+			ExpressionLiteralSplitterStepSolver stepSolver = baseStepSolver;
+			while (true) {
+				Step baseStep = stepSolver.step(context);
+				if (baseStep.itDepends()) {
+					ExhaustiveStepSolver ifTrue  = makeSequel(baseStep.getStepSolverForWhenSplitterIs(true),  expression);
+					ExhaustiveStepSolver ifFalse = makeSequel(baseStep.getStepSolverForWhenSplitterIs(false), expression);
+					return
+							new ItDependsOn(
+									baseStep.getSplitter(),
+									baseStep.getContextSplittingWhenSplitterIsLiteral(),
+									ifTrue,
+									ifFalse);
+				}
+				else if (baseStep.getValue() != expression) {
+					// found a solution for the current application of base rewriter, but it has not converged yet,
+					// so we apply the base rewriter again.
+					expression = baseStep.getValue();
+					stepSolver = exhaustiveRewriter.baseRewriter.makeStepSolver(expression);
+				}
+				else {
+					// current expression has converged to final, exhaustive solution.
+					return new Solution(expression);
+				}
 			}
-			else if (baseStep.getValue() != currentExpression) {
-				// found a solution for the current application of base rewriter, but it has not converged yet,
-				// so we apply the {@link Exhaustive} rewriter again.
-				result = exhaustiveRewriter.step(baseStep.getValue(), context);
-			}
-			else {
-				// current expression has converged to final, exhaustive solution.
-				result = new Solution(currentExpression);
-			}
-			
-			return result;
 		}
 		
 		@Override
 		public String toString() {
-			return name;
+			return "Exhaustive step solver for " + baseStepSolver;
 		}
 	}
 }
\ No newline at end of file
@@ -69,14 +69,15 @@ public class FirstOf implements TopRewriter {
 	private List<? extends Rewriter> baseRewriters;
 	
 	/**
-	 * Constructor taking a name and base rewriters. If name is empty string, a general description will be provided.
+	 * Constructor taking a name and base rewriters. If name is empty string, a general description will be provided
+	 * (computed only when it is printed).
 	 * @param name
 	 * @param baseRewriters
 	 */
 	public FirstOf(String name, List<? extends Rewriter> baseRewriters) {
 		super();
 		this.baseRewriters = baseRewriters;
-		this.name = name.equals("")? "FirstOf rewriter on " + join(baseRewriters) : name;
+		this.name = name;
 	}
 	
 	public FirstOf(String name, Rewriter... baseRewriters) {
@@ -93,7 +94,7 @@ public class FirstOf implements TopRewriter {
 
 	@Override
 	public FirstOfStepSolver makeStepSolver(Expression expression) {
-		FirstOfStepSolver stepSolver = new FirstOfStepSolver(name + " step solver for " + expression, expression, baseRewriters);
+		FirstOfStepSolver stepSolver = new FirstOfStepSolver(this, expression);
 		return stepSolver;
 	}
 	
@@ -127,7 +128,7 @@ public class FirstOf implements TopRewriter {
 
 	@Override
 	public String toString() {
-		return name;
+		return name.equals("")? "FirstOf rewriter on " + join(baseRewriters) : name;
 	}
 	
 	/**
@@ -147,33 +148,34 @@ public class FirstOf implements TopRewriter {
 	 * If so, we return this solution as the overall solution.
 	 * If not, we proceed with the evaluation by the next base rewriter.
 	 * 
+	 * Trying successive base rewriters happens in a loop over local variables;
+	 * new {@link FirstOfStepSolver}s are only created as sequels of {@link ItDependsOn} steps.
+	 * 
 	 * @author braz
 	 *
 	 */
 	private static class FirstOfStepSolver implements ExpressionLiteralSplitterStepSolver {
 		
-		private String name;
+		private FirstOf firstOf;
 		private Expression expression;
 		private List<? extends Rewriter> baseRewriters;
 		private int currentBaseRewriterIndex;
-		private ExpressionLiteralSplitterStepSolver currentBaseStepSolver;
+		private ExpressionLiteralSplitterStepSolver currentBaseStepSolver; // null if it is to be made from current base rewriter
 		
-		public FirstOfStepSolver(String name, Expression expression, List<? extends Rewriter> baseRewriters) {
+		public FirstOfStepSolver(FirstOf firstOf, Expression expression) {
 			super();
-			this.name = name.equals("")? "Step solver for FirstOf rewriter based on " + Util.join(baseRewriters) + " for " + expression : name;
+			this.firstOf = firstOf;
 			this.expression = expression;
-			this.baseRewriters = baseRewriters;
-			setCurrentBaseRewriterIndex(0);
-		}
-
-		private void setCurrentBaseRewriterIndex(int currentBaseRewriterIndex) {
-			this.currentBaseRewriterIndex = currentBaseRewriterIndex;
-			makeCurrentStepSolver(expression, baseRewriters);
+			this.baseRewriters = firstOf.baseRewriters;
+			this.currentBaseRewriterIndex = 0;
+			this.currentBaseStepSolver = null;
 		}
 
-		private void makeCurrentStepSolver(Expression expression, List<? extends Rewriter> baseRewriters) {
-			Rewriter currentBaseRewriter = baseRewriters.get(currentBaseRewriterIndex);
-			this.currentBaseStepSolver = currentBaseRewriter.makeStepSolver(expression);
+		private FirstOfStepSolver makeSequel(int currentBaseRewriterIndex, ExpressionLiteralSplitterStepSolver currentBaseStepSolver) {
+			FirstOfStepSolver result = clone();
+			result.currentBaseRewriterIndex = currentBaseRewriterIndex;
+			result.currentBaseStepSolver = currentBaseStepSolver;
+			return result;
 		}
 
 		@Override
@@ -188,48 +190,42 @@ public class FirstOf implements TopRewriter {
 		}
 		
 		public Step step(Context context) {
-			Step result; 
-			Step baseStep = currentBaseStepSolver.step(context);
-			if (baseStep.itDepends()) {
-				
-				FirstOfStepSolver ifTrue = clone();
-				ifTrue.currentBaseStepSolver = baseStep.getStepSolverForWhenSplitterIs(true);
-				
-				FirstOfStepSolver ifFalse = clone();
-				ifFalse.currentBaseStepSolver = baseStep.getStepSolverForWhenSplitterIs(false);
-				
-				result = 
-						new ItDependsOn(
-								baseStep.getSplitter(),
-								baseStep.getContextSplittingWhenSplitterIsLiteral(),
-								ifTrue,
-								ifFalse);
-			}
-			else if (baseStep.getValue() != expression) {
-				// found a solution for the current application of base rewriter, and it is a modified one,
-				// so return it as the overall solution for the {@link FirstOf} rewriter.
-				result = new Solution(baseStep.getValue());
-			}
-			else {
-				// current expression has not been modified by base rewriter,
-				// so move on to next one if available,
-				// or stop otherwise
-				if (currentBaseRewriterIndex + 1 != baseRewriters.size()) {
-					FirstOfStepSolver next = clone();
-					next.setCurrentBaseRewriterIndex(currentBaseRewriterIndex + 1);
-					result = next.step(context);
+			int index = currentBaseRewriterIndex;
+			ExpressionLiteralSplitterStepSolver baseStepSolver = currentBaseStepSolver;
+			while (true) {
+				if (baseStepSolver == null) {
+					baseStepSolver = baseRewriters.get(index).makeStepSolver(expression);
+				}
+				Step baseStep = baseStepSolver.step(context);
+				if (baseStep.itDepends()) {
+					FirstOfStepSolver ifTrue  = makeSequel(index, baseStep.getStepSolverForWhenSplitterIs(true));
+					FirstOfStepSolver ifFalse = makeSequel(index, baseStep.getStepSolverForWhenSplitterIs(false));
+					return
+							new ItDependsOn(
+									baseStep.getSplitter(),
+									baseStep.getContextSplittingWhenSplitterIsLiteral(),
+									ifTrue,
+									ifFalse);
+				}
+				else if (baseStep.getValue() != expression) {
+					// found a solution for the current application of base rewriter, and it is a modified one,
+					// so return it as the overall solution for the {@link FirstOf} rewriter.
+					return new Solution(baseStep.getValue());
+				}
+				else if (index + 1 != baseRewriters.size()) {
+					// current expression has not been modified by base rewriter, so move on to next one
+					index++;
+					baseStepSolver = null;
 				}
 				else { // ran out of base rewriters, so returns original expression
-					result = new Solution(expression);
+					return new Solution(expression);
 				}
 			}
-			
-			return result;
 		}
 		
 		@Override
 		public String toString() {
-			return name;
+			return firstOf + " step solver for " + expression;
 		}
 	}
 	
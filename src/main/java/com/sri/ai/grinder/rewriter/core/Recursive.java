@@ -82,12 +82,10 @@ import com.sri.ai.grinder.rewriter.api.Rewriter;
 public class Recursive implements Rewriter {
 	
 	private Rewriter baseRewriter;
-	private String name;
 	
 	public Recursive(Rewriter baseRewriter) {
 		super();
 		this.baseRewriter = baseRewriter;
-		this.name = "Recursive for " + baseRewriter;
 	}
 
 	private final static List<String> syntacticFormTypesToRecurse = list("Function application", "Tuple");
@@ -110,7 +108,7 @@ public class Recursive implements Rewriter {
 
 	@Override
 	public String toString() {
-		return name;
+		return "Recursive for " + baseRewriter;
 	}
 
 	/**
@@ -132,12 +130,14 @@ public class Recursive implements Rewriter {
 	 * If it applied the recursive rewriter to the current sub-expression and there was no change, moves on to the next one.
 	 * If there was a change, moves on to the top one.
 	 * 
+	 * All of the above happens in a loop over local variables;
+	 * new step solvers are only created as sequels of {@link ItDependsOn} steps.
+	 * 
 	 * @author braz
 	 *
 	 */
 	private static class RecursiveStepSolver implements ExpressionLiteralSplitterStepSolver {
 		
-		private String name;
 		private Rewriter baseRewriter;
 		private Expression currentExpression;
 		private ArrayList<ExpressionAndSyntacticContext> subExpressions;
@@ -148,46 +148,36 @@ public class Recursive implements Rewriter {
 		// Invariants:
 		// baseRewriter is the base rewriter of the {@link Recursive} rewriter which this step solver implements 
 		// currentExpression contains the top expression being evaluated
-		// subExpressions contains the sub-expressions of currentExpression in an array
+		// subExpressions contains the sub-expressions of currentExpression in an array, or null if they have not been needed yet
 		// currentSubExpressionIndex contains the index of the current sub-expression
 		// topExpressionIsNextForUsToTakeAStepOn indicates whether the next step is to be takes on the top expression (or instead on the current sub-expression)
-		// currentStepSolver is the step solver to be used on the next expression for us to take a step on
+		// initialCurrentStepSolver is the step solver to be used on the next expression for us to take a step on, or null if it is to be made from scratch
 
 		public RecursiveStepSolver(Rewriter baseRewriter, Expression currentExpression) {
-			this(baseRewriter, currentExpression, true);
-		}
-
-		public RecursiveStepSolver(Rewriter baseRewriter, Expression currentExpression, boolean topExpressionIsNextForUsToTakeAStepOn) {
-			this.name = "Recursive step solver based on " + baseRewriter + " for " + currentExpression;
 			this.baseRewriter = baseRewriter;
-			this.topExpressionIsNextForUsToTakeAStepOn = topExpressionIsNextForUsToTakeAStepOn;
+			this.topExpressionIsNextForUsToTakeAStepOn = true;
 			this.currentExpression = currentExpression;
-			this.subExpressions = addAllToArrayList(currentExpression.getImmediateSubExpressionsAndContextsIterator());
+			this.subExpressions = null;
 			this.currentSubExpressionIndex = 0;
 			this.initialCurrentStepSolver = null;
 		}
 
-		private RecursiveStepSolver makeRecursiveStepSolverForSameExpressionButSkippingTopExpression() {
-			RecursiveStepSolver next = clone();
-			next.topExpressionIsNextForUsToTakeAStepOn = false;
-			next.initialCurrentStepSolver = null;
-			return next;
-		}
-
-		private RecursiveStepSolver makeRecursiveStepSolverForSameExpressionButTargettingNextSubExpression() {
+		private RecursiveStepSolver makeSequel(
+				Expression currentExpression,
+				ArrayList<ExpressionAndSyntacticContext> subExpressions,
+				int currentSubExpressionIndex,
+				boolean topExpressionIsNextForUsToTakeAStepOn,
+				ExpressionLiteralSplitterStepSolver initialCurrentStepSolver) {
+			
 			RecursiveStepSolver result = clone();
-			result.topExpressionIsNextForUsToTakeAStepOn = false;
-			result.initialCurrentStepSolver = null;
-			result.currentSubExpressionIndex++;
+			result.currentExpression = currentExpression;
+			result.subExpressions = subExpressions;
+			result.currentSubExpressionIndex = currentSubExpressionIndex;
+			result.topExpressionIsNextForUsToTakeAStepOn = topExpressionIsNextForUsToTakeAStepOn;
+			result.initialCurrentStepSolver = initialCurrentStepSolver;
 			return result;
 		}
 
-		private RecursiveStepSolver makeRecursiveStepSolverForSameTopExpressionButTargettingNextSubExpression(Expression newCurrentExpression) {
-			RecursiveStepSolver next = new RecursiveStepSolver(baseRewriter, newCurrentExpression); // using constructor ensure proper resetting of 'subExpressions'
-			next.currentSubExpressionIndex = currentSubExpressionIndex + 1; // we know that the top structure did not change, and we want to evaluate from next sub-expression on.
-			return next;
-		}
-
 		@Override
 		public RecursiveStepSolver clone() {
 			RecursiveStepSolver result = null;
@@ -199,78 +189,89 @@ public class Recursive implements Rewriter {
 			return result;
 		}
 
+		private static boolean isRecursedInto(Expression expression) {
+			Object syntacticFormType = expression.getSyntacticFormType();
+			boolean result = syntacticFormTypesToRecurse.contains(syntacticFormType) || syntacticFormType.equals("Symbol");
+			return result;
+		}
+
+		private static ArrayList<ExpressionAndSyntacticContext> getSubExpressions(Expression expression) {
+			return addAllToArrayList(expression.getImmediateSubExpressionsAndContextsIterator());
+		}
+
 		public Step step(Context context) {
-			Step result;
 			
-			if ( ! (syntacticFormTypesToRecurse.contains(currentExpression.getSyntacticFormType())
-					|| currentExpression.getSyntacticFormType().equals("Symbol"))) {
+			if ( ! isRecursedInto(currentExpression)) {
 				// For expressions other than function applications, tuples, and symbols, this step solver behaves like the step solver of its base rewriter.
 				// Note that here we assume that topExpressionIsNextForUsToTakeAStepOn must be true, as it would not make sense for it for be false
 				// for non-function applications and non-tuples.
 				return baseRewriter.step(currentExpression, context);
 			}
 
-			if (!topExpressionIsNextForUsToTakeAStepOn && currentSubExpressionIndex >= subExpressions.size()) {
-				result = new Solution(currentExpression);
-			}
-			else {
-				Step step;
-				ExpressionLiteralSplitterStepSolver currentStepSolver;
-
-				if (initialCurrentStepSolver != null) {
-					currentStepSolver = initialCurrentStepSolver;
+			Expression expression = currentExpression;
+			ArrayList<ExpressionAndSyntacticContext> subExpressions = this.subExpressions;
+			int index = currentSubExpressionIndex;
+			boolean topIsNext = topExpressionIsNextForUsToTakeAStepOn;
+			ExpressionLiteralSplitterStepSolver currentStepSolver = initialCurrentStepSolver;
+			
+			while (true) {
+				
+				if (subExpressions == null) {
+					subExpressions = getSubExpressions(expression);
 				}
-				else if (topExpressionIsNextForUsToTakeAStepOn) {
-					currentStepSolver = baseRewriter.makeStepSolver(currentExpression);
+				
+				if ( ! topIsNext && index >= subExpressions.size()) {
+					return new Solution(expression);
 				}
-				else {
-					Expression subExpression = subExpressions.get(currentSubExpressionIndex).getExpression();
-					currentStepSolver = new RecursiveStepSolver(baseRewriter, subExpression);
+				
+				if (currentStepSolver == null) {
+					if (topIsNext) {
+						currentStepSolver = baseRewriter.makeStepSolver(expression);
+					}
+					else {
+						currentStepSolver = new RecursiveStepSolver(baseRewriter, subExpressions.get(index).getExpression());
+					}
 				}
 
-				step = currentStepSolver.step(context);
+				Step step = currentStepSolver.step(context);
+				currentStepSolver = null;
 
 				if (step.itDepends()) {
-					RecursiveStepSolver ifTrue = clone();
-					ifTrue.initialCurrentStepSolver = step.getStepSolverForWhenSplitterIs(true);
-					RecursiveStepSolver ifFalse = clone();
-					ifFalse.initialCurrentStepSolver = step.getStepSolverForWhenSplitterIs(false);
-					result = new ItDependsOn(step, ifTrue, ifFalse);
+					RecursiveStepSolver ifTrue  = makeSequel(expression, subExpressions, index, topIsNext, step.getStepSolverForWhenSplitterIs(true));
+					RecursiveStepSolver ifFalse = makeSequel(expression, subExpressions, index, topIsNext, step.getStepSolverForWhenSplitterIs(false));
+					return new ItDependsOn(step, ifTrue, ifFalse);
 				}
-				else if (topExpressionIsNextForUsToTakeAStepOn) {
-					if (step.getValue() == currentExpression) { // no change, move on to current sub-expression (or finish if there is none)
-						RecursiveStepSolver next = makeRecursiveStepSolverForSameExpressionButSkippingTopExpression();
-						result = next.step(context);
-					}
-					else { // top expression change, start over on new expression, but no need to apply base rewriter to its top again (we just did it).
-						RecursiveStepSolver next = 
-								new RecursiveStepSolver(
-										baseRewriter, 
-										step.getValue(),
-										false /* do not evaluate top first */);
-						result = next.step(context);
+				
+				if (topIsNext) {
+					topIsNext = false;
+					if (step.getValue() != expression) { 
+						// top expression change, start over on new expression, but no need to apply base rewriter to its top again (we just did it).
+						expression = step.getValue();
+						if ( ! isRecursedInto(expression)) {
+							return baseRewriter.step(expression, context);
+						}
+						subExpressions = null;
+						index = 0;
 					}
+					// otherwise, no change, move on to current sub-expression (or finish if there is none)
 				}
 				else { // sub-expression has been evaluated
-					ExpressionAndSyntacticContext subExpressionJustEvaluated = subExpressions.get(currentSubExpressionIndex);
-					if (step.getValue() == subExpressionJustEvaluated.getExpression()) { // no change, move on to next sub-expression or finish
-						RecursiveStepSolver next = makeRecursiveStepSolverForSameExpressionButTargettingNextSubExpression();
-						result = next.step(context);
-					}
-					else { // it changed, so plug evaluated version back into current expression, and evaluate that
-						Expression newCurrentExpression = subExpressionJustEvaluated.replaceSubExpressionIn(currentExpression, step.getValue());
-						RecursiveStepSolver next = makeRecursiveStepSolverForSameTopExpressionButTargettingNextSubExpression(newCurrentExpression);
-						result = next.step(context);
+					ExpressionAndSyntacticContext subExpressionJustEvaluated = subExpressions.get(index);
+					if (step.getValue() != subExpressionJustEvaluated.getExpression()) {
+						// it changed, so plug evaluated version back into current expression, and evaluate that
+						// (we know that the top structure did not change, so if the top expression does not change, we continue from next sub-expression on).
+						expression = subExpressionJustEvaluated.replaceSubExpressionIn(expression, step.getValue());
+						subExpressions = null;
+						topIsNext = true;
 					}
+					index++;
 				}
 			}
-
-			return result;
 		}
 		
 		@Override
 		public String toString() {
-			return name;
+			return "Recursive step solver based on " + baseRewriter + " for " + currentExpression;
 		}
 	}
-}
\ No newline at end of file
+}
@@ -53,6 +53,8 @@ import java.util.Map;
 import com.google.common.base.Function;
 import com.sri.ai.expresso.api.Expression;
 import com.sri.ai.grinder.api.ExpressionLiteralSplitterStepSolver;
+import com.sri.ai.grinder.helper.metrics.SolverEvents;
+import com.sri.ai.grinder.helper.metrics.SolverMetrics;
 import com.sri.ai.grinder.rewriter.api.Rewriter;
 import com.sri.ai.grinder.rewriter.api.TopRewriter;
 import com.sri.ai.grinder.theory.base.ConstantExpressionStepSolver;
@@ -110,7 +112,11 @@ public class Switch<T> implements TopRewriter {
 		T key = keyMaker.apply(expression);
 		Rewriter baseRewriter = fromKeyValueToRewriter.get(key);
 		if (baseRewriter != null) {
+			SolverMetrics.incrementPerKey(SolverMetrics.SWITCH_APPLICATIONS, key);
 			result = baseRewriter.makeStepSolver(expression);
+			if (SolverEvents.AVAILABLE) {
+				result = new TopRewritingEventStepSolver(result, key, baseRewriter);
+			}
 		}
 		else {
 			result = new ConstantExpressionStepSolver(expression);
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2013, SRI International
+ * All rights reserved.
+ * Licensed under the The BSD 3-Clause License;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * 
+ * http://opensource.org/licenses/BSD-3-Clause
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the aic-expresso nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) 
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, 
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.sri.ai.grinder.rewriter.core;
+
+import com.google.common.annotations.Beta;
+import com.sri.ai.grinder.api.Context;
+import com.sri.ai.grinder.api.ExpressionLiteralSplitterStepSolver;
+import com.sri.ai.grinder.helper.metrics.SolverEvents;
+import com.sri.ai.grinder.rewriter.api.Rewriter;
+
+/**
+ * A step solver wrapping the step solver made by a base rewriter selected by a {@link Switch},
+ * emitting a top rewriting event (see {@link SolverEvents#beginTopRewriting()}) around each of its steps,
+ * so that events measure the rewriting itself rather than the making of the step solver.
+ * Sub-step solvers of conditional steps are wrapped in turn.
+ * 
+ * @author braz
+ *
+ */
+@Beta
+class TopRewritingEventStepSolver implements ExpressionLiteralSplitterStepSolver {
+
+	private ExpressionLiteralSplitterStepSolver base;
+	private Object key;
+	private Rewriter rewriter;
+	
+	public TopRewritingEventStepSolver(ExpressionLiteralSplitterStepSolver base, Object key, Rewriter rewriter) {
+		super();
+		this.base = base;
+		this.key = key;
+		this.rewriter = rewriter;
+	}
+
+	@Override
+	public TopRewritingEventStepSolver clone() {
+		try {
+			return (TopRewritingEventStepSolver) super.clone();
+		} catch (CloneNotSupportedException e) {
+			throw new Error("Trying to clone " + getClass() + " but cloning is not supported for this class.");
+		}
+	}
+
+	@Override
+	public Step step(Context context) {
+		Step step;
+		Object event = SolverEvents.beginTopRewriting();
+		try {
+			step = base.step(context);
+		}
+		finally {
+			SolverEvents.endTopRewriting(event, key, rewriter);
+		}
+		
+		Step result;
+		if (step.itDepends()) {
+			TopRewritingEventStepSolver subIfTrue = clone();
+			subIfTrue.base = step.getStepSolverForWhenSplitterIs(true);
+			
+			TopRewritingEventStepSolver subIfFalse = clone();
+			subIfFalse.base = step.getStepSolverForWhenSplitterIs(false);
+			
+			result = new ItDependsOn(step, subIfTrue, subIfFalse);
+		}
+		else {
+			result = step;
+		}
+		return result;
+	}
+}
@@ -46,12 +46,14 @@ import com.sri.ai.expresso.api.Expression;
 import com.sri.ai.grinder.api.Context;
 import com.sri.ai.grinder.api.ExpressionLiteralSplitterStepSolver.Solution;
 import com.sri.ai.grinder.api.ExpressionLiteralSplitterStepSolver.Step;
+import com.sri.ai.grinder.core.constraint.ImpliedLiterals;
 import com.sri.ai.grinder.rewriter.api.Rewriter;
 import com.sri.ai.grinder.rewriter.api.RewriterFromStepMaker;
 
 /**
  * A rewriter that replaces literals by their values according to the context or,
  * if not defined by the context, splits on them (after a simplification according to a given simplifier).
+ * Literals found to be defined by the context are recorded in its {@link ImpliedLiterals}.
  * 
  * @author braz
  *
@@ -67,12 +69,21 @@ public class LiteralRewriter implements RewriterFromStepMaker {
 	
 	@Override
 	public Step make(Expression expression, Context context) {
-		if (context.isLiteral(expression)) {
-			Expression completelySimplifiedLiteral = simplifier.apply(expression, context);
-			return stepDependingOnLiteral(completelySimplifiedLiteral, TRUE, FALSE, context);
+		if ( ! context.isLiteral(expression)) {
+			return new Solution(expression);
+		}
+		Boolean knownValue = ImpliedLiterals.getKnownValue(expression, context);
+		if (knownValue != null) {
+			return new Solution(knownValue? TRUE : FALSE);
 		}
 		else {
-			return new Solution(expression);
+			Expression completelySimplifiedLiteral = simplifier.apply(expression, context);
+			Step result = stepDependingOnLiteral(completelySimplifiedLiteral, TRUE, FALSE, context);
+			if ( ! result.itDepends() && ! context.isContradiction()) {
+				// recorded in its original form so that later occurrences skip simplification as well
+				context.getImpliedLiterals().recordValue(expression, result.getValue().equals(TRUE));
+			}
+			return result;
 		}
 	}
 }
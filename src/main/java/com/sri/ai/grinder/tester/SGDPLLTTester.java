@@ -48,8 +48,10 @@ import static com.sri.ai.util.Util.list;
 import static com.sri.ai.util.Util.pickKElementsWithoutReplacement;
 import static com.sri.ai.util.Util.removeFromSetNonDestructively;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
@@ -79,6 +81,7 @@ import com.sri.ai.grinder.rewriter.api.Simplifier;
 import com.sri.ai.util.Util;
 import com.sri.ai.util.base.BinaryFunction;
 import com.sri.ai.util.base.NullaryFunction;
+import com.sri.ai.util.base.Pair;
 
 /**
  * A class for testing SGDPLL(T) main components.
@@ -589,6 +592,53 @@ public class SGDPLLTTester {
 		runGroupProblemSolvingTesterOnEmptyConstraint(problemName, tester, testAgainstBruteForce, group, theoryTestingSupport, numberOfTests, outputCount);
 	}
 
+	/**
+	 * Generates random group problems with given number of indices,
+	 * in the same way as {@link #testGroupProblemSolvingForMultipleIndices(int, boolean, AssociativeCommutativeGroup, TheoryTestingSupport, long, int, int, boolean)},
+	 * and returns each of them paired with its symbolic solution.
+	 * Since generation depends only on the random generator of the theory testing support,
+	 * this is useful for comparing solutions obtained in different settings (for example, sequentially and concurrently).
+	 * @param numberOfIndices
+	 * @param group
+	 * @param theoryTestingSupport
+	 * @param numberOfProblems
+	 * @param maxNumberOfLiterals
+	 * @param bodyDepth
+	 * @return a list of pairs of problems and their symbolic solutions
+	 */
+	public static List<Pair<Expression, Expression>> solveRandomGroupProblemsForMultipleIndices(
+			int numberOfIndices,
+			AssociativeCommutativeGroup group,
+			TheoryTestingSupport theoryTestingSupport,
+			int numberOfProblems,
+			int maxNumberOfLiterals,
+			int bodyDepth) {
+		
+		Theory theory = theoryTestingSupport.getTheory();
+		Context context = theoryTestingSupport.makeContextWithTestingInformation();
+		List<Pair<Expression, Expression>> result = new ArrayList<>(numberOfProblems);
+		for (int i = 0; i != numberOfProblems; i++) {
+			Constraint constraint = theory.makeSingleVariableConstraint(parse(theoryTestingSupport.pickTestingVariableAtRandom()), context);
+			for (int j = 0; !constraint.isContradiction() && j != maxNumberOfLiterals; j++) {
+				Expression literal = theoryTestingSupport.makeRandomLiteralOn(((SingleVariableConstraint)constraint).getVariable().toString(), context);
+				constraint = constraint.conjoin(literal, context);
+			}
+			if (constraint.isContradiction()) {
+				constraint = theory.makeSingleVariableConstraint(parse(theoryTestingSupport.pickTestingVariableAtRandom()), context);
+			}
+			Collection<Expression> indices = 
+					pickKElementsWithoutReplacement(
+							theoryTestingSupport.getVariablesForTesting(),
+							numberOfIndices,
+							theoryTestingSupport.getRandom());
+			Expression body = makeBody(group, theoryTestingSupport, bodyDepth, context);
+			Expression problem = makeProblem(indices, constraint, body, group, context);
+			Expression symbolicSolution = theory.evaluate(problem, context);
+			result.add(new Pair<>(problem, symbolicSolution));
+		}
+		return result;
+	}
+
 	private static void runGroupProblemSolvingTestForMultipleIndicesGivenConstraint(
 			int numberOfIndices,
 			Constraint constraint,
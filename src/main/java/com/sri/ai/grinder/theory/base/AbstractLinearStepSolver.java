@@ -121,7 +121,7 @@ public abstract class AbstractLinearStepSolver<T> implements StepSolver<T> {
 		if (current != n) {
 			Expression unsimplifiedLiteral = makeLiteral();
 			Expression literal = context.getTheory().simplify(unsimplifiedLiteral, context);
-			ContextSplitting split = new ContextSplitting(literal, context);
+			ContextSplitting split = ContextSplitting.make(literal, context);
 			switch (split.getResult()) {
 			case CONSTRAINT_IS_CONTRADICTORY:
 				result = null;
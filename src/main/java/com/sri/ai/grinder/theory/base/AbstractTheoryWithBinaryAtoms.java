@@ -48,6 +48,11 @@ public abstract class AbstractTheoryWithBinaryAtoms extends AbstractTheory {
 		return result;
 	}
 
+	@Override
+	public boolean mayBeAtom(Expression expression) {
+		return isApplicationOfAtomFunctor(expression);
+	}
+
 	@Override
 	public boolean isInterpretedInThisTheoryBesidesBooleanConnectives(Expression expression) {
 		boolean result = isApplicationOfAtomFunctor(expression) || atomFunctors.contains(expression.toString()); 
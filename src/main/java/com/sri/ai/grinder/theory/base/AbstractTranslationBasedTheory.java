@@ -69,6 +69,11 @@ public abstract class AbstractTranslationBasedTheory extends AbstractTheory {
 		return false;
 	}
 	
+	@Override
+	public boolean mayBeAtom(Expression expression) {
+		return false;
+	}
+	
 	@Override
 	public Expression getAtomNegation(Expression atom, Context context) {
 		return not(atom);
@@ -46,6 +46,7 @@ import com.sri.ai.expresso.api.Expression;
 import com.sri.ai.grinder.api.Context;
 import com.sri.ai.grinder.api.StepSolver;
 import com.sri.ai.grinder.core.constraint.ContextSplitting;
+import com.sri.ai.grinder.core.constraint.ImpliedLiterals;
 
 /**
  * A context-dependent problem step solver
@@ -79,7 +80,11 @@ public class LiteralExpressionStepSolver implements StepSolver<Expression> {
 
 	@Override
 	public StepSolver.Step<Expression> step(Context context) {
-		ContextSplitting split = new ContextSplitting(literal, context);
+		Boolean knownValue = ImpliedLiterals.getKnownValue(literal, context);
+		if (knownValue != null) {
+			return new Solution<>(knownValue? TRUE : FALSE);
+		}
+		ContextSplitting split = ContextSplitting.make(literal, context);
 		switch (split.getResult()) {
 		case CONSTRAINT_IS_CONTRADICTORY:
 			return null;
@@ -44,6 +44,7 @@ import com.sri.ai.expresso.api.Expression;
 import com.sri.ai.grinder.api.Context;
 import com.sri.ai.grinder.api.StepSolver;
 import com.sri.ai.grinder.core.constraint.ContextSplitting;
+import com.sri.ai.grinder.core.constraint.ImpliedLiterals;
 
 /**
  * A context-dependent problem step solver
@@ -77,7 +78,11 @@ public class LiteralStepSolver implements StepSolver<Boolean> {
 
 	@Override
 	public StepSolver.Step<Boolean> step(Context context) {
-		ContextSplitting split = new ContextSplitting(literal, context);
+		Boolean knownValue = ImpliedLiterals.getKnownValue(literal, context);
+		if (knownValue != null) {
+			return new Solution<Boolean>(knownValue);
+		}
+		ContextSplitting split = ContextSplitting.make(literal, context);
 		switch (split.getResult()) {
 		case CONSTRAINT_IS_CONTRADICTORY:
 			return null;
@@ -153,7 +153,7 @@ public class UnificationStepSolver implements StepSolver<Boolean> {
 					// If the splitter is a literal then we want to include the context splitting
 					// information for the literal.
 					if (context.getTheory().isLiteralOrBooleanConstant(unknownUnificationEqualityToSplitOn, context)) {
-						contextSplitting = new ContextSplitting(unknownUnificationEqualityToSplitOn, context);
+						contextSplitting = ContextSplitting.make(unknownUnificationEqualityToSplitOn, context);
 					}
 					result = new StepSolver.ItDependsOn<>(unknownUnificationEqualityToSplitOn, 
 									contextSplitting, 
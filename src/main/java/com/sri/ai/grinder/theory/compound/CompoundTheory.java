@@ -44,12 +44,17 @@ import static com.sri.ai.util.Util.list;
 import static com.sri.ai.util.Util.mapIntoList;
 import static com.sri.ai.util.Util.thereExists;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.List;
 
 import com.google.common.annotations.Beta;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.sri.ai.expresso.api.Expression;
+import com.sri.ai.expresso.api.FunctionApplication;
+import com.sri.ai.expresso.api.Symbol;
 import com.sri.ai.expresso.api.Type;
 import com.sri.ai.grinder.api.Context;
 import com.sri.ai.grinder.api.ExpressionLiteralSplitterStepSolver;
@@ -64,12 +69,29 @@ import com.sri.ai.util.Util;
 
 /** 
  * A {@link Theory} formed by the union of other constraint theories.
+ * <p>
+ * The sub-theory responsible for each type, and the sub-theory owning each atom, are found once and kept in routing tables.
+ * Expressions that no sub-theory {@link Theory#mayBeAtom(Expression) may consider an atom} are rejected before any lookup,
+ * and only function applications found to be atoms are kept.
+ * Because which sub-theory owns an atom depends on the types of its symbols,
+ * atoms are routed by the atom together with the registered types of the symbols in it,
+ * so registries giving the same types to the atom's symbols share entries,
+ * and registries giving them different types do not.
+ * Both tables are bounded, evicting the least recently used entries.
  */
 @Beta
 public class CompoundTheory extends AbstractTheory {
 
 	private List<Theory> subTheories;
 	
+	public static final int MAXIMUM_NUMBER_OF_ROUTED_TYPES = 1000;
+	public static final int MAXIMUM_NUMBER_OF_ROUTED_ATOMS = 10000;
+	
+	private Cache<Type, Theory> theoryForType = CacheBuilder.newBuilder().maximumSize(MAXIMUM_NUMBER_OF_ROUTED_TYPES).build();
+	
+	/** Keyed by an atom followed by the registered types of its symbols (see {@link #makeAtomKeyOrNull(Expression, Context)}). */
+	private Cache<List<Expression>, Theory> ownerOfAtom = CacheBuilder.newBuilder().maximumSize(MAXIMUM_NUMBER_OF_ROUTED_ATOMS).build();
+	
 	public CompoundTheory(Theory... subTheoriesArray) {
 		super();
 		this.subTheories = list(subTheoriesArray);
@@ -114,7 +136,12 @@ public class CompoundTheory extends AbstractTheory {
 			throw new IllegalArgumentException("Cannot decide which theory to use for variable " + variable + " because it does not have a registered type.");
 		}
 		
-		Theory result =
+		Theory result = theoryForType.getIfPresent(variableType);
+		if (result != null) {
+			return result;
+		}
+		
+		result =
 				getFirstSatisfyingPredicateOrNull(
 						getSubTheories(),
 						t -> t.isSuitableFor(variableType));
@@ -133,15 +160,94 @@ public class CompoundTheory extends AbstractTheory {
 			throw new IllegalArgumentException("No theory for " + variable + " of type " + variableType);
 		}
 		
+		theoryForType.put(variableType, result);
 		return result;
 	}
 	
 	@Override
 	public boolean isAtom(Expression expression, Context context) {
-		boolean result = thereExists(getSubTheories(), t -> t.isAtom(expression, context));
+		boolean result = getOwnerOfAtomOrNull(expression, context) != null;
 		return result;
 	}
 
+	@Override
+	public boolean mayBeAtom(Expression expression) {
+		for (Theory subTheory : subTheories) {
+			if (subTheory.mayBeAtom(expression)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the first sub-theory for which the given expression is an atom, or <code>null</code> if there is none.
+	 */
+	private Theory getOwnerOfAtomOrNull(Expression expression, Context context) {
+		if ( ! mayBeAtom(expression)) {
+			return null;
+		}
+		List<Expression> key = makeAtomKeyOrNull(expression, context);
+		if (key == null) {
+			return findOwnerOfAtomOrNull(expression, context);
+		}
+		Theory result = ownerOfAtom.getIfPresent(key);
+		if (result == null) {
+			result = findOwnerOfAtomOrNull(expression, context);
+			if (result != null) {
+				ownerOfAtom.put(key, result);
+			}
+		}
+		return result;
+	}
+
+	private Theory findOwnerOfAtomOrNull(Expression expression, Context context) {
+		for (Theory subTheory : subTheories) {
+			if (subTheory.mayBeAtom(expression) && subTheory.isAtom(expression, context)) {
+				return subTheory;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns a list with a function application followed by the registered types of the symbols in it
+	 * (<code>null</code> for constants), in depth-first order,
+	 * or <code>null</code> if the expression is not a function application on symbols and function applications only
+	 * (symbols themselves are decided by a type lookup in their sub-theory, which is not worth caching).
+	 */
+	private static List<Expression> makeAtomKeyOrNull(Expression expression, Context context) {
+		if ( ! expression.getSyntacticFormType().equals(FunctionApplication.SYNTACTIC_FORM_TYPE)) {
+			return null;
+		}
+		List<Expression> result = new ArrayList<>(4);
+		result.add(expression);
+		if ( ! addTypesOfSymbols(expression, context, result)) {
+			result = null;
+		}
+		return result;
+	}
+
+	private static boolean addTypesOfSymbols(Expression expression, Context context, List<Expression> typesOfSymbols) {
+		Object syntacticFormType = expression.getSyntacticFormType();
+		if (syntacticFormType.equals(Symbol.SYNTACTIC_FORM_TYPE)) {
+			typesOfSymbols.add(context.getTypeExpressionOfRegisteredSymbol(expression));
+			return true;
+		}
+		if (syntacticFormType.equals(FunctionApplication.SYNTACTIC_FORM_TYPE)) {
+			if ( ! addTypesOfSymbols(expression.getFunctor(), context, typesOfSymbols)) {
+				return false;
+			}
+			for (Expression argument : expression.getArguments()) {
+				if ( ! addTypesOfSymbols(argument, context, typesOfSymbols)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		return false;
+	}
+
 	@Override
 	public SingleVariableConstraint makeSingleVariableConstraintAfterBookkeeping(Expression variable, Context context) {
 		Theory theoryForVariable = getTheory(variable, context);
@@ -212,8 +318,10 @@ public class CompoundTheory extends AbstractTheory {
 
 	@Override
 	public Expression getAtomNegation(Expression atom, Context context) {
-		Theory theory =
-				getFirstSatisfyingPredicateOrNull(getSubTheories(), t -> t.isLiteralOrBooleanConstant(atom, context));
+		Theory theory = getOwnerOfAtomOrNull(atom, context);
+		if (theory == null) {
+			theory = getFirstSatisfyingPredicateOrNull(getSubTheories(), t -> t.isLiteralOrBooleanConstant(atom, context));
+		}
 		Expression result;
 		if (theory == null) {
 			result = Not.make(atom);
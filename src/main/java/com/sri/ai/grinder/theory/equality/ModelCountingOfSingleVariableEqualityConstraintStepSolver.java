@@ -61,11 +61,11 @@ import com.sri.ai.grinder.library.number.BinaryMinus;
 @Beta
 public class ModelCountingOfSingleVariableEqualityConstraintStepSolver extends AbstractModelCountingWithPropagatedLiteralsImportedFromSatisfiabilityStepSolver {
 
-	private NumberOfDistinctExpressionsStepSolver numberOfDistinctExpressionsStepSolver;
+	private NumberOfDistinctExpressionsByEquivalenceClassesStepSolver numberOfDistinctExpressionsStepSolver;
 	
 	public ModelCountingOfSingleVariableEqualityConstraintStepSolver(SingleVariableEqualityConstraint constraint) {
 		super(constraint);
-		numberOfDistinctExpressionsStepSolver = new NumberOfDistinctExpressionsStepSolver(getConstraint().getDisequals());
+		numberOfDistinctExpressionsStepSolver = new NumberOfDistinctExpressionsByEquivalenceClassesStepSolver(getConstraint().getDisequals());
 	}
 
 	@Override
@@ -89,9 +89,9 @@ public class ModelCountingOfSingleVariableEqualityConstraintStepSolver extends A
 			Step step = numberOfDistinctExpressionsStepSolver.step(context);
 			if (step.itDepends()) {
 				ModelCountingOfSingleVariableEqualityConstraintStepSolver ifTrue = clone();
-				ifTrue.numberOfDistinctExpressionsStepSolver = (NumberOfDistinctExpressionsStepSolver) step.getStepSolverForWhenSplitterIs(true);
+				ifTrue.numberOfDistinctExpressionsStepSolver = (NumberOfDistinctExpressionsByEquivalenceClassesStepSolver) step.getStepSolverForWhenSplitterIs(true);
 				ModelCountingOfSingleVariableEqualityConstraintStepSolver ifFalse = clone();
-				ifFalse.numberOfDistinctExpressionsStepSolver = (NumberOfDistinctExpressionsStepSolver) step.getStepSolverForWhenSplitterIs(false);
+				ifFalse.numberOfDistinctExpressionsStepSolver = (NumberOfDistinctExpressionsByEquivalenceClassesStepSolver) step.getStepSolverForWhenSplitterIs(false);
 				Step result = new ItDependsOn(step.getSplitterLiteral(), step.getContextSplittingWhenSplitterIsLiteral(), ifTrue, ifFalse);
 				return result;
 			}
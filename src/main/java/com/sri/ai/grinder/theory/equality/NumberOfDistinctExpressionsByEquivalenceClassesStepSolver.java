@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2013, SRI International
+ * All rights reserved.
+ * Licensed under the The BSD 3-Clause License;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * 
+ * http://opensource.org/licenses/BSD-3-Clause
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the aic-expresso nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) 
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, 
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.sri.ai.grinder.theory.equality;
+
+import static com.sri.ai.expresso.helper.Expressions.FALSE;
+import static com.sri.ai.expresso.helper.Expressions.TRUE;
+import static com.sri.ai.expresso.helper.Expressions.apply;
+import static com.sri.ai.expresso.helper.Expressions.makeSymbol;
+import static com.sri.ai.grinder.library.FunctorConstants.EQUALITY;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.annotations.Beta;
+import com.sri.ai.expresso.api.Expression;
+import com.sri.ai.grinder.api.Context;
+import com.sri.ai.grinder.api.ExpressionLiteralSplitterStepSolver;
+import com.sri.ai.grinder.core.constraint.ContextSplitting;
+import com.sri.ai.util.collect.ImmutableStackedLinkedList;
+
+/**
+ * A context-dependent problem step solver deciding the number of unique values among a set of expressions,
+ * like {@link NumberOfDistinctExpressionsStepSolver}, but by refining a partition of the expressions into equivalence classes
+ * instead of deciding equality for all ordered pairs of expressions.
+ * <p>
+ * Expressions are taken in order, and each one is compared to the representatives of the classes formed so far only.
+ * All comparisons already decided by the context are used first:
+ * if the expression is implied equal to some representative, it joins its class without any splitting;
+ * if it is implied distinct from all of them, it forms a new class.
+ * Only when neither is the case does the step solver split, on the equality between the expression and
+ * the first representative it is not known to be equal or distinct from.
+ * This way, splits only happen between representatives of classes that are truly undetermined by the context,
+ * instead of for every undetermined ordered pair of expressions.
+ * <p>
+ * The solution is the number of classes.
+ *
+ * @author braz
+ *
+ */
+@Beta
+public class NumberOfDistinctExpressionsByEquivalenceClassesStepSolver implements ExpressionLiteralSplitterStepSolver {
+
+	private List<Expression> expressions;
+	private int current;
+	private List<Expression> representatives;
+	private List<Expression> representativesKnownToBeDistinctFromCurrent;
+	
+	// Invariants:
+	// expressions before the one indexed by 'current' have been placed in classes, whose representatives are in 'representatives'
+	// the expression indexed by 'current' has been decided (by splitting) to be distinct from 'representativesKnownToBeDistinctFromCurrent'
+	// (this is kept in the step solver, as opposed to only in the context, so that sequel step solvers do not repeat splits)
+
+	public NumberOfDistinctExpressionsByEquivalenceClassesStepSolver(List<Expression> expressions) {
+		this.expressions = expressions;
+		this.current = 0;
+		this.representatives = Collections.emptyList();
+		this.representativesKnownToBeDistinctFromCurrent = Collections.emptyList();
+	}
+
+	@Override
+	public NumberOfDistinctExpressionsByEquivalenceClassesStepSolver clone() {
+		try {
+			return (NumberOfDistinctExpressionsByEquivalenceClassesStepSolver) super.clone();
+		} catch (CloneNotSupportedException e) {
+			throw new Error(e);
+		}
+	}
+	
+	/**
+	 * Returns the list of expressions.
+	 * @return
+	 */
+	public List<Expression> getExpressions() {
+		return Collections.unmodifiableList(expressions);
+	}
+
+	/**
+	 * Returns the representatives of the classes formed so far (in the reverse order of their formation).
+	 * @return
+	 */
+	public List<Expression> getRepresentatives() {
+		return Collections.unmodifiableList(representatives);
+	}
+
+	private NumberOfDistinctExpressionsByEquivalenceClassesStepSolver makeSequel(int current, List<Expression> representatives, List<Expression> representativesKnownToBeDistinctFromCurrent) {
+		NumberOfDistinctExpressionsByEquivalenceClassesStepSolver result = clone();
+		result.current = current;
+		result.representatives = representatives;
+		result.representativesKnownToBeDistinctFromCurrent = representativesKnownToBeDistinctFromCurrent;
+		return result;
+	}
+
+	@Override
+	public Step step(Context context) {
+		
+		int current = this.current;
+		List<Expression> representatives = this.representatives;
+		List<Expression> representativesKnownToBeDistinctFromCurrent = this.representativesKnownToBeDistinctFromCurrent;
+		
+		while (current != expressions.size()) {
+			
+			Expression expression = expressions.get(current);
+			boolean isInExistingClass = false;
+			Expression undeterminedRepresentative = null;
+			Expression undeterminedLiteral = null;
+			ContextSplitting undeterminedSplitting = null;
+			
+			for (Expression representative : representatives) {
+				if (representativesKnownToBeDistinctFromCurrent.contains(representative)) {
+					continue;
+				}
+				if (representative.equals(expression)) {
+					isInExistingClass = true;
+					break;
+				}
+				Expression literal = context.getTheory().simplify(apply(EQUALITY, expression, representative), context);
+				if (literal.equals(TRUE)) {
+					isInExistingClass = true;
+					break;
+				}
+				if (literal.equals(FALSE)) {
+					continue;
+				}
+				ContextSplitting splitting = ContextSplitting.make(literal, context);
+				switch (splitting.getResult()) {
+				case CONSTRAINT_IS_CONTRADICTORY:
+					return null;
+				case LITERAL_IS_TRUE:
+					isInExistingClass = true;
+					break;
+				case LITERAL_IS_FALSE:
+					break;
+				default:
+					if (undeterminedRepresentative == null) { // keep looking, as another representative may be implied equal
+						undeterminedRepresentative = representative;
+						undeterminedLiteral = literal;
+						undeterminedSplitting = splitting;
+					}
+				}
+				if (isInExistingClass) {
+					break;
+				}
+			}
+			
+			if (isInExistingClass) {
+				current++;
+				representativesKnownToBeDistinctFromCurrent = Collections.emptyList();
+			}
+			else if (undeterminedRepresentative == null) {
+				representatives = new ImmutableStackedLinkedList<Expression>(expression, representatives);
+				current++;
+				representativesKnownToBeDistinctFromCurrent = Collections.emptyList();
+			}
+			else {
+				NumberOfDistinctExpressionsByEquivalenceClassesStepSolver ifEqual = 
+						makeSequel(current + 1, representatives, Collections.emptyList());
+				NumberOfDistinctExpressionsByEquivalenceClassesStepSolver ifDistinct = 
+						makeSequel(current, representatives, new ImmutableStackedLinkedList<Expression>(undeterminedRepresentative, representativesKnownToBeDistinctFromCurrent));
+				return new ItDependsOn(undeterminedLiteral, undeterminedSplitting, ifEqual, ifDistinct);
+			}
+		}
+		
+		return new Solution(makeSymbol(representatives.size()));
+	}
+}
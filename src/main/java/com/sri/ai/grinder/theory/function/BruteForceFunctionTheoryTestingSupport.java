@@ -81,7 +81,7 @@ public class BruteForceFunctionTheoryTestingSupport extends AbstractTheoryTestin
 	
 	private static Categorical _someType;
 
-	static public Categorical getSmallCategoricalTestingType() {
+	static synchronized public Categorical getSmallCategoricalTestingType() {
 		if (_someType == null) {
 			ArrayList<Expression> knownConstants = mapIntoArrayList(list("a", "b", "c"), s -> makeSymbol(s));
 			_someType = new Categorical("SmallSomeType", 3, knownConstants);
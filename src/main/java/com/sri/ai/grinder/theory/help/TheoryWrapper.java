@@ -91,6 +91,11 @@ public class TheoryWrapper implements Theory {
 		return base.isAtom(expression, context);
 	}
 
+	@Override
+	public boolean mayBeAtom(Expression expression) {
+		return base.mayBeAtom(expression);
+	}
+
 	@Override
 	public Expression getAtomNegation(Expression atom, Context context) {
 		return base.getAtomNegation(atom, context);
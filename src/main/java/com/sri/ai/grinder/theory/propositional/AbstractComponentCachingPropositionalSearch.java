@@ -0,0 +1,501 @@
+/*
+ * Copyright (c) 2013, SRI International
+ * All rights reserved.
+ * Licensed under the The BSD 3-Clause License;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * 
+ * http://opensource.org/licenses/BSD-3-Clause
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the aic-expresso nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) 
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, 
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.sri.ai.grinder.theory.propositional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * A DPLL-style exhaustive search over the models of a {@link PropositionalCNF}
+ * using watched-literal unit propagation, decomposition into independent components,
+ * and caching of component results.
+ * <p>
+ * What is computed from the search is determined by extensions through four operations
+ * (an "algebra" of results): the result of an unsatisfiable component,
+ * the result of a set of variables without clauses,
+ * the result of a conjunction of implied literals and independent components,
+ * and the result of a decision on a variable.
+ * For example, {@link PropositionalModelCounter} computes model counts
+ * and {@link DecisionDNNFCompiler} records the trace of the search as a {@link DecisionDNNF}.
+ * <p>
+ * Instances are not thread-safe and are meant to be used for a single {@link #run()}.
+ * 
+ * @author braz
+ *
+ * @param <R> the type of result
+ */
+@Beta
+public abstract class AbstractComponentCachingPropositionalSearch<R> {
+
+	/**
+	 * The default maximum number of component results kept in the cache.
+	 */
+	public static final int DEFAULT_MAXIMUM_CACHE_SIZE = 1000000;
+	
+	private int numberOfVariables;
+	private int[][] clauses;
+	private boolean containsEmptyClause;
+	private int[][] occurrences; // clauses in which each variable occurs
+
+	private byte[] values; // 0 if unassigned, 1 if true, -1 if false
+	private int[] trail;
+	private int trailSize;
+	private int propagationHead;
+
+	private int[][] watchers; // indexed by literal code, clauses watching that literal
+	private int[] numberOfWatchers;
+	
+	private int[] clauseScopeStamps;
+	private int[] clauseVisitedStamps;
+	private int[] variableVisitedStamps;
+	private int[] variableScores;
+	private int stamp;
+	
+	private Map<Component, R> cache = new HashMap<>();
+	private int maximumCacheSize = DEFAULT_MAXIMUM_CACHE_SIZE;
+	
+	public AbstractComponentCachingPropositionalSearch(PropositionalCNF cnf) {
+		this.numberOfVariables = cnf.getNumberOfVariables();
+		this.clauses = cnf.getClauses().stream().map(int[]::clone).toArray(int[][]::new);
+		this.values = new byte[numberOfVariables + 1];
+		this.trail = new int[numberOfVariables + 1];
+		this.watchers = new int[2*numberOfVariables + 2][];
+		this.numberOfWatchers = new int[2*numberOfVariables + 2];
+		this.clauseScopeStamps = new int[clauses.length];
+		this.clauseVisitedStamps = new int[clauses.length];
+		this.variableVisitedStamps = new int[numberOfVariables + 1];
+		this.variableScores = new int[numberOfVariables + 1];
+		makeOccurrencesAndWatchers();
+	}
+
+	//////////// ALGEBRA OF RESULTS
+	
+	/**
+	 * The result for an unsatisfiable component.
+	 */
+	protected abstract R falseResult();
+
+	/**
+	 * Indicates whether a result is the one for unsatisfiable components.
+	 */
+	protected abstract boolean isFalse(R result);
+
+	/**
+	 * The result for given variables not constrained by any clause.
+	 */
+	protected abstract R freeVariablesResult(int[] variables);
+	
+	/**
+	 * The result for the conjunction of given literals (implied by unit propagation)
+	 * and given results of independent, satisfiable components.
+	 */
+	protected abstract R conjunctionResult(int[] impliedLiterals, List<R> componentResults);
+
+	/**
+	 * The result for a component, given the results for the two values of the variable it was split on.
+	 */
+	protected abstract R decisionResult(int variable, R positiveResult, R negativeResult);
+
+	//////////// SEARCH
+	
+	public void setMaximumCacheSize(int maximumCacheSize) {
+		this.maximumCacheSize = maximumCacheSize;
+	}
+	
+	public int getCacheSize() {
+		return cache.size();
+	}
+	
+	/**
+	 * Runs the search on the whole CNF and returns its result.
+	 */
+	public R run() {
+		if (containsEmptyClause) {
+			return falseResult();
+		}
+		for (int[] clause : clauses) {
+			if (clause.length == 1 && ! assign(clause[0])) {
+				return falseResult();
+			}
+		}
+		if ( ! propagate()) {
+			return falseResult();
+		}
+		int[] allVariables = new int[numberOfVariables];
+		for (int v = 1; v <= numberOfVariables; v++) {
+			allVariables[v - 1] = v;
+		}
+		int[] allClauses = new int[clauses.length];
+		for (int c = 0; c != clauses.length; c++) {
+			allClauses[c] = c;
+		}
+		R result = conjunctionOfComponents(0, unassigned(allVariables), allClauses);
+		return result;
+	}
+
+	private R solveComponent(Component component) {
+		R result = cache.get(component);
+		if (result == null) {
+			if (component.clauses.length == 0) {
+				result = freeVariablesResult(component.variables);
+			}
+			else {
+				int variable = pickBranchingVariable(component.clauses);
+				R positiveResult = branch(variable, component);
+				R negativeResult = branch(-variable, component);
+				result = decisionResult(variable, positiveResult, negativeResult);
+			}
+			if (cache.size() < maximumCacheSize) {
+				cache.put(component, result);
+			}
+		}
+		return result;
+	}
+
+	private R branch(int literal, Component component) {
+		int level = trailSize;
+		R result;
+		if (assign(literal) && propagate()) {
+			result = conjunctionOfComponents(level + 1, unassigned(component.variables), component.clauses);
+		}
+		else {
+			result = falseResult();
+		}
+		backtrackTo(level);
+		return result;
+	}
+
+	/**
+	 * Computes the result for the conjunction of literals implied since given trail position
+	 * and the components formed by given unassigned variables and the unsatisfied clauses among the given ones.
+	 */
+	private R conjunctionOfComponents(int firstImpliedLiteralPosition, int[] unassignedVariables, int[] scopeClauses) {
+		int[] impliedLiterals = Arrays.copyOfRange(trail, firstImpliedLiteralPosition, trailSize);
+		List<Component> components = decompose(unassignedVariables, scopeClauses);
+		List<R> componentResults = new ArrayList<>(components.size());
+		for (Component component : components) {
+			R componentResult = solveComponent(component);
+			if (isFalse(componentResult)) {
+				return falseResult();
+			}
+			componentResults.add(componentResult);
+		}
+		R result = conjunctionResult(impliedLiterals, componentResults);
+		return result;
+	}
+
+	private int[] unassigned(int[] variables) {
+		int[] result = new int[variables.length];
+		int size = 0;
+		for (int variable : variables) {
+			if (values[variable] == 0) {
+				result[size++] = variable;
+			}
+		}
+		return Arrays.copyOf(result, size);
+	}
+
+	/**
+	 * Splits given unassigned variables into connected components according to
+	 * the unsatisfied clauses among given ones.
+	 * Variables not occurring in any of those clauses are collected in a single component without clauses.
+	 */
+	private List<Component> decompose(int[] unassignedVariables, int[] scopeClauses) {
+		int scopeStamp = ++stamp;
+		for (int c : scopeClauses) {
+			clauseScopeStamps[c] = scopeStamp;
+		}
+		int visitStamp = ++stamp;
+		List<Component> result = new ArrayList<>();
+		int[] freeVariables = new int[unassignedVariables.length];
+		int numberOfFreeVariables = 0;
+		int[] componentVariables = new int[unassignedVariables.length];
+		int[] componentClauses = new int[scopeClauses.length];
+		for (int root : unassignedVariables) {
+			if (variableVisitedStamps[root] == visitStamp) {
+				continue;
+			}
+			variableVisitedStamps[root] = visitStamp;
+			int numberOfComponentVariables = 0;
+			int numberOfComponentClauses = 0;
+			componentVariables[numberOfComponentVariables++] = root;
+			for (int next = 0; next != numberOfComponentVariables; next++) {
+				for (int c : occurrences[componentVariables[next]]) {
+					if (clauseScopeStamps[c] == scopeStamp && clauseVisitedStamps[c] != visitStamp && ! isSatisfied(c)) {
+						clauseVisitedStamps[c] = visitStamp;
+						componentClauses[numberOfComponentClauses++] = c;
+						for (int literal : clauses[c]) {
+							int variable = Math.abs(literal);
+							if (values[variable] == 0 && variableVisitedStamps[variable] != visitStamp) {
+								variableVisitedStamps[variable] = visitStamp;
+								componentVariables[numberOfComponentVariables++] = variable;
+							}
+						}
+					}
+				}
+			}
+			if (numberOfComponentClauses == 0) {
+				freeVariables[numberOfFreeVariables++] = root;
+			}
+			else {
+				result.add(new Component(
+						Arrays.copyOf(componentVariables, numberOfComponentVariables), 
+						Arrays.copyOf(componentClauses, numberOfComponentClauses)));
+			}
+		}
+		if (numberOfFreeVariables != 0) {
+			result.add(new Component(Arrays.copyOf(freeVariables, numberOfFreeVariables), new int[0]));
+		}
+		return result;
+	}
+
+	/**
+	 * Picks the unassigned variable with the most occurrences in given (unsatisfied) clauses.
+	 */
+	private int pickBranchingVariable(int[] componentClauses) {
+		int result = 0;
+		int bestScore = -1;
+		for (int c : componentClauses) {
+			for (int literal : clauses[c]) {
+				int variable = Math.abs(literal);
+				if (values[variable] == 0) {
+					variableScores[variable]++;
+				}
+			}
+		}
+		for (int c : componentClauses) {
+			for (int literal : clauses[c]) {
+				int variable = Math.abs(literal);
+				if (values[variable] == 0 && variableScores[variable] > bestScore) {
+					bestScore = variableScores[variable];
+					result = variable;
+				}
+			}
+		}
+		for (int c : componentClauses) {
+			for (int literal : clauses[c]) {
+				variableScores[Math.abs(literal)] = 0;
+			}
+		}
+		return result;
+	}
+
+	//////////// UNIT PROPAGATION
+	
+	private void makeOccurrencesAndWatchers() {
+		int[] numberOfOccurrences = new int[numberOfVariables + 1];
+		for (int[] clause : clauses) {
+			if (clause.length == 0) {
+				containsEmptyClause = true;
+			}
+			for (int literal : clause) {
+				numberOfOccurrences[Math.abs(literal)]++;
+			}
+		}
+		occurrences = new int[numberOfVariables + 1][];
+		for (int v = 0; v <= numberOfVariables; v++) {
+			occurrences[v] = new int[numberOfOccurrences[v]];
+			numberOfOccurrences[v] = 0;
+		}
+		for (int c = 0; c != clauses.length; c++) {
+			for (int literal : clauses[c]) {
+				int variable = Math.abs(literal);
+				occurrences[variable][numberOfOccurrences[variable]++] = c;
+			}
+			if (clauses[c].length >= 2) {
+				addWatcher(clauses[c][0], c);
+				addWatcher(clauses[c][1], c);
+			}
+		}
+	}
+
+	private static int code(int literal) {
+		return literal > 0? 2*literal : -2*literal + 1;
+	}
+	
+	private void addWatcher(int literal, int clause) {
+		int code = code(literal);
+		int[] list = watchers[code];
+		if (list == null) {
+			list = watchers[code] = new int[4];
+		}
+		else if (numberOfWatchers[code] == list.length) {
+			list = watchers[code] = Arrays.copyOf(list, 2*list.length);
+		}
+		list[numberOfWatchers[code]++] = clause;
+	}
+
+	private boolean literalIsTrue(int literal) {
+		return values[Math.abs(literal)] == (literal > 0? 1 : -1);
+	}
+	
+	private boolean literalIsFalse(int literal) {
+		return values[Math.abs(literal)] == (literal > 0? -1 : 1);
+	}
+
+	private boolean isSatisfied(int clause) {
+		for (int literal : clauses[clause]) {
+			if (literalIsTrue(literal)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Makes a literal true, returning false if it was already false.
+	 */
+	private boolean assign(int literal) {
+		int variable = Math.abs(literal);
+		if (values[variable] != 0) {
+			return literalIsTrue(literal);
+		}
+		values[variable] = (byte) (literal > 0? 1 : -1);
+		trail[trailSize++] = literal;
+		return true;
+	}
+
+	private void backtrackTo(int level) {
+		while (trailSize > level) {
+			values[Math.abs(trail[--trailSize])] = 0;
+		}
+		propagationHead = level;
+	}
+
+	/**
+	 * Propagates all literals in the trail not yet propagated, returning false if a conflict is found.
+	 */
+	private boolean propagate() {
+		while (propagationHead < trailSize) {
+			int literal = trail[propagationHead++];
+			if ( ! propagateFalsified(-literal)) {
+				propagationHead = trailSize;
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean propagateFalsified(int falseLiteral) {
+		int code = code(falseLiteral);
+		int[] list = watchers[code];
+		int size = numberOfWatchers[code];
+		boolean result = true;
+		int i = 0;
+		int j = 0;
+		while (i != size) {
+			int c = list[i++];
+			int[] clause = clauses[c];
+			if (clause[0] == falseLiteral) {
+				clause[0] = clause[1];
+				clause[1] = falseLiteral;
+			}
+			int otherWatched = clause[0];
+			if (literalIsTrue(otherWatched)) {
+				list[j++] = c;
+				continue;
+			}
+			boolean foundNewWatch = false;
+			for (int k = 2; k != clause.length; k++) {
+				if ( ! literalIsFalse(clause[k])) {
+					clause[1] = clause[k];
+					clause[k] = falseLiteral;
+					addWatcher(clause[1], c);
+					foundNewWatch = true;
+					break;
+				}
+			}
+			if ( ! foundNewWatch) {
+				list[j++] = c;
+				if (literalIsFalse(otherWatched)) {
+					result = false;
+					while (i != size) {
+						list[j++] = list[i++];
+					}
+				}
+				else {
+					assign(otherWatched);
+				}
+			}
+		}
+		numberOfWatchers[code] = j;
+		return result;
+	}
+
+	//////////// COMPONENTS
+	
+	/**
+	 * A component identified by its variables and clauses;
+	 * since all other variables occurring in its clauses are assigned to false,
+	 * these determine its residual formula, making this a valid cache key.
+	 */
+	private static class Component {
+		private final int[] variables;
+		private final int[] clauses;
+		private final int hashCode;
+		
+		public Component(int[] variables, int[] clauses) {
+			Arrays.sort(variables);
+			Arrays.sort(clauses);
+			this.variables = variables;
+			this.clauses = clauses;
+			this.hashCode = 31*Arrays.hashCode(variables) + Arrays.hashCode(clauses);
+		}
+		
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+		
+		@Override
+		public boolean equals(Object another) {
+			if ( ! (another instanceof Component)) {
+				return false;
+			}
+			Component anotherComponent = (Component) another;
+			return hashCode == anotherComponent.hashCode 
+					&& Arrays.equals(variables, anotherComponent.variables) 
+					&& Arrays.equals(clauses, anotherComponent.clauses);
+		}
+	}
+}
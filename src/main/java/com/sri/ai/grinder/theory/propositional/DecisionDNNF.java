@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2013, SRI International
+ * All rights reserved.
+ * Licensed under the The BSD 3-Clause License;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * 
+ * http://opensource.org/licenses/BSD-3-Clause
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the aic-expresso nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) 
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, 
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.sri.ai.grinder.theory.propositional;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.annotations.Beta;
+import com.sri.ai.util.math.Rational;
+
+/**
+ * A node of a decision-DNNF circuit, as compiled by {@link DecisionDNNFCompiler}.
+ * <p>
+ * Nodes are either false, a set of unconstrained variables (true if the set is empty),
+ * a conjunction of literals and sub-circuits on disjoint sets of variables,
+ * or a decision on a variable between two sub-circuits.
+ * Circuits are smooth, that is, every decision covers the same variables on both branches,
+ * so model counting is linear in the size of the circuit (which is a DAG, since sub-circuits are shared
+ * whenever the compiler finds a cached component).
+ * 
+ * @author braz
+ *
+ */
+@Beta
+public class DecisionDNNF {
+	
+	public static enum Kind { FALSE, FREE, AND, DECISION };
+	
+	public static final DecisionDNNF FALSE = new DecisionDNNF(Kind.FALSE, 0, new int[0], new DecisionDNNF[0]);
+	
+	private static final Rational TWO = new Rational(2);
+	
+	private Kind kind;
+	private int variable;
+	private int[] literals;
+	private DecisionDNNF[] children;
+
+	private DecisionDNNF(Kind kind, int variable, int[] literals, DecisionDNNF[] children) {
+		this.kind = kind;
+		this.variable = variable;
+		this.literals = literals;
+		this.children = children;
+	}
+	
+	public static DecisionDNNF free(int[] variables) {
+		return new DecisionDNNF(Kind.FREE, 0, variables, new DecisionDNNF[0]);
+	}
+
+	public static DecisionDNNF and(int[] literals, List<DecisionDNNF> children) {
+		if (literals.length == 0 && children.size() == 1) {
+			return children.get(0);
+		}
+		return new DecisionDNNF(Kind.AND, 0, literals, children.toArray(new DecisionDNNF[children.size()]));
+	}
+
+	public static DecisionDNNF decision(int variable, DecisionDNNF positive, DecisionDNNF negative) {
+		if (positive == FALSE && negative == FALSE) {
+			return FALSE;
+		}
+		return new DecisionDNNF(Kind.DECISION, variable, new int[0], new DecisionDNNF[] { positive, negative });
+	}
+
+	public Kind getKind() {
+		return kind;
+	}
+	
+	/**
+	 * The decision variable, for decision nodes.
+	 */
+	public int getVariable() {
+		return variable;
+	}
+	
+	/**
+	 * The unconstrained variables, for free nodes, or the conjoined literals, for conjunctions.
+	 */
+	public int[] getLiterals() {
+		return Arrays.copyOf(literals, literals.length);
+	}
+	
+	/**
+	 * The sub-circuits (positive branch first for decisions).
+	 */
+	public List<DecisionDNNF> getChildren() {
+		return Arrays.asList(children);
+	}
+
+	/**
+	 * The number of models of the circuit, computed in time linear in its (DAG) size.
+	 */
+	public Rational modelCount() {
+		return modelCount(new IdentityHashMap<>());
+	}
+
+	private Rational modelCount(Map<DecisionDNNF, Rational> counts) {
+		Rational result = counts.get(this);
+		if (result == null) {
+			switch (kind) {
+			case FALSE:
+				result = Rational.ZERO;
+				break;
+			case FREE:
+				result = TWO.pow(literals.length);
+				break;
+			case AND:
+				result = Rational.ONE;
+				for (DecisionDNNF child : children) {
+					result = result.multiply(child.modelCount(counts));
+				}
+				break;
+			default:
+				result = children[0].modelCount(counts).add(children[1].modelCount(counts));
+			}
+			counts.put(this, result);
+		}
+		return result;
+	}
+
+	/**
+	 * The number of distinct nodes in the circuit.
+	 */
+	public int size() {
+		Map<DecisionDNNF, Rational> visited = new IdentityHashMap<>();
+		countNodes(visited);
+		return visited.size();
+	}
+
+	private void countNodes(Map<DecisionDNNF, Rational> visited) {
+		if ( ! visited.containsKey(this)) {
+			visited.put(this, null);
+			for (DecisionDNNF child : children) {
+				child.countNodes(visited);
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		switch (kind) {
+		case FALSE:
+			return "false";
+		case FREE:
+			return literals.length == 0? "true" : "free" + Arrays.toString(literals);
+		case AND:
+			return "and(" + Arrays.toString(literals) + ", " + Arrays.toString(children) + ")";
+		default:
+			return "if " + variable + " then " + children[0] + " else " + children[1];
+		}
+	}
+}
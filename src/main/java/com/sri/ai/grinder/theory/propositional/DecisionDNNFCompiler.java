@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2013, SRI International
+ * All rights reserved.
+ * Licensed under the The BSD 3-Clause License;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * 
+ * http://opensource.org/licenses/BSD-3-Clause
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the aic-expresso nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) 
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, 
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.sri.ai.grinder.theory.propositional;
+
+import java.util.List;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * A {@link AbstractComponentCachingPropositionalSearch} compiling a {@link PropositionalCNF}
+ * into a {@link DecisionDNNF} by recording the trace of the search.
+ * Components found in the cache are shared in the resulting circuit.
+ * 
+ * @author braz
+ *
+ */
+@Beta
+public class DecisionDNNFCompiler extends AbstractComponentCachingPropositionalSearch<DecisionDNNF> {
+
+	public DecisionDNNFCompiler(PropositionalCNF cnf) {
+		super(cnf);
+	}
+
+	/**
+	 * Convenience method returning the compilation of a CNF.
+	 */
+	public static DecisionDNNF compile(PropositionalCNF cnf) {
+		DecisionDNNF result = new DecisionDNNFCompiler(cnf).run();
+		return result;
+	}
+	
+	@Override
+	protected DecisionDNNF falseResult() {
+		return DecisionDNNF.FALSE;
+	}
+
+	@Override
+	protected boolean isFalse(DecisionDNNF result) {
+		return result == DecisionDNNF.FALSE;
+	}
+
+	@Override
+	protected DecisionDNNF freeVariablesResult(int[] variables) {
+		return DecisionDNNF.free(variables);
+	}
+
+	@Override
+	protected DecisionDNNF conjunctionResult(int[] impliedLiterals, List<DecisionDNNF> componentResults) {
+		return DecisionDNNF.and(impliedLiterals, componentResults);
+	}
+
+	@Override
+	protected DecisionDNNF decisionResult(int variable, DecisionDNNF positiveResult, DecisionDNNF negativeResult) {
+		return DecisionDNNF.decision(variable, positiveResult, negativeResult);
+	}
+}
@@ -0,0 +1,333 @@
+/*
+ * Copyright (c) 2013, SRI International
+ * All rights reserved.
+ * Licensed under the The BSD 3-Clause License;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * 
+ * http://opensource.org/licenses/BSD-3-Clause
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the aic-expresso nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) 
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, 
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.sri.ai.grinder.theory.propositional;
+
+import static com.sri.ai.expresso.helper.Expressions.FALSE;
+import static com.sri.ai.expresso.helper.Expressions.TRUE;
+import static com.sri.ai.grinder.library.FunctorConstants.AND;
+import static com.sri.ai.grinder.library.FunctorConstants.DISEQUALITY;
+import static com.sri.ai.grinder.library.FunctorConstants.EQUALITY;
+import static com.sri.ai.grinder.library.FunctorConstants.EQUIVALENCE;
+import static com.sri.ai.grinder.library.FunctorConstants.IF_THEN_ELSE;
+import static com.sri.ai.grinder.library.FunctorConstants.IMPLICATION;
+import static com.sri.ai.grinder.library.FunctorConstants.NOT;
+import static com.sri.ai.grinder.library.FunctorConstants.OR;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.annotations.Beta;
+import com.sri.ai.expresso.api.Expression;
+import com.sri.ai.expresso.api.FunctionApplication;
+import com.sri.ai.expresso.api.Symbol;
+
+/**
+ * An integer-encoded conjunctive normal form of a propositional formula over a given list of Boolean symbols.
+ * <p>
+ * Variables are numbered from 1 and literals are non-zero integers, negative for negated variables
+ * (as in the DIMACS format).
+ * The given symbols receive variables <code>1</code> to <code>n</code>, in the order they are given,
+ * and auxiliary variables are introduced after those for sub-formulas (Tseitin encoding).
+ * Because each auxiliary variable is defined by an <i>equivalence</i> to its sub-formula,
+ * every model of the original formula extends to exactly one model of the CNF,
+ * so model counts are preserved.
+ * <p>
+ * Formulas may use <code>and</code>, <code>or</code>, <code>not</code>, <code>=></code>, <code><=></code>,
+ * <code>=</code> and <code>!=</code> on Boolean arguments, <code>if then else</code> with Boolean branches,
+ * the constants <code>true</code> and <code>false</code>, and the given symbols.
+ * Any other sub-expression (including Boolean symbols not in the given list) makes the formula
+ * non-encodable, in which case {@link #makeOrNull(Collection, List)} returns <code>null</code>.
+ * 
+ * @author braz
+ *
+ */
+@Beta
+public class PropositionalCNF {
+
+	private int numberOfVariables;
+	private List<int[]> clauses;
+	private Map<Expression, Integer> variablesOfSymbols;
+
+	private PropositionalCNF(int numberOfVariables, List<int[]> clauses, Map<Expression, Integer> variablesOfSymbols) {
+		this.numberOfVariables = numberOfVariables;
+		this.clauses = clauses;
+		this.variablesOfSymbols = variablesOfSymbols;
+	}
+	
+	/**
+	 * The total number of variables, including auxiliary ones.
+	 */
+	public int getNumberOfVariables() {
+		return numberOfVariables;
+	}
+
+	/**
+	 * The clauses, each an array of distinct non-complementary literals.
+	 */
+	public List<int[]> getClauses() {
+		return Collections.unmodifiableList(clauses);
+	}
+
+	/**
+	 * A map from each given symbol to its variable.
+	 */
+	public Map<Expression, Integer> getVariablesOfSymbols() {
+		return Collections.unmodifiableMap(variablesOfSymbols);
+	}
+
+	/**
+	 * Returns the CNF of the conjunction of given formulas over the given symbols,
+	 * or <code>null</code> if some formula is not a propositional formula on them.
+	 */
+	public static PropositionalCNF makeOrNull(Collection<? extends Expression> formulas, List<? extends Expression> symbols) {
+		Encoder encoder = new Encoder(symbols);
+		try {
+			for (Expression formula : formulas) {
+				int literal = encoder.encode(formula);
+				encoder.addClause(literal);
+			}
+		}
+		catch (NotPropositionalException exception) {
+			return null;
+		}
+		PropositionalCNF result = new PropositionalCNF(encoder.numberOfVariables, encoder.clauses, encoder.variablesOfSymbols);
+		return result;
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder("p cnf " + numberOfVariables + " " + clauses.size());
+		for (int[] clause : clauses) {
+			result.append("\n");
+			for (int literal : clause) {
+				result.append(literal + " ");
+			}
+			result.append("0");
+		}
+		return result.toString();
+	}
+
+	private static class NotPropositionalException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+	}
+	
+	private static class Encoder {
+		
+		private int numberOfVariables;
+		private List<int[]> clauses = new ArrayList<>();
+		private Map<Expression, Integer> variablesOfSymbols = new LinkedHashMap<>();
+		private Map<Expression, Integer> literalsOfSubFormulas = new LinkedHashMap<>();
+		private int trueVariable = 0;
+		
+		public Encoder(List<? extends Expression> symbols) {
+			for (Expression symbol : symbols) {
+				if ( ! variablesOfSymbols.containsKey(symbol)) {
+					variablesOfSymbols.put(symbol, ++numberOfVariables);
+				}
+			}
+		}
+		
+		public int encode(Expression formula) {
+			Integer result = literalsOfSubFormulas.get(formula);
+			if (result == null) {
+				result = encodeWithoutCache(formula);
+				literalsOfSubFormulas.put(formula, result);
+			}
+			return result;
+		}
+		
+		private int encodeWithoutCache(Expression formula) {
+			int result;
+			if (formula.getSyntacticFormType().equals(Symbol.SYNTACTIC_FORM_TYPE)) {
+				result = encodeSymbol(formula);
+			}
+			else if (formula.getSyntacticFormType().equals(FunctionApplication.SYNTACTIC_FORM_TYPE)) {
+				result = encodeApplication(formula);
+			}
+			else {
+				throw new NotPropositionalException();
+			}
+			return result;
+		}
+
+		private int encodeSymbol(Expression symbol) {
+			int result;
+			Integer variable = variablesOfSymbols.get(symbol);
+			if (variable != null) {
+				result = variable;
+			}
+			else if (symbol.equals(TRUE)) {
+				result = trueLiteral();
+			}
+			else if (symbol.equals(FALSE)) {
+				result = -trueLiteral();
+			}
+			else {
+				throw new NotPropositionalException();
+			}
+			return result;
+		}
+
+		private int encodeApplication(Expression application) {
+			int result;
+			int n = application.numberOfArguments();
+			if (application.hasFunctor(NOT) && n == 1) {
+				result = -encode(application.get(0));
+			}
+			else if (application.hasFunctor(AND)) {
+				result = encodeConjunction(encodeArguments(application));
+			}
+			else if (application.hasFunctor(OR)) {
+				result = -encodeConjunction(negated(encodeArguments(application)));
+			}
+			else if (application.hasFunctor(IMPLICATION) && n == 2) {
+				result = -encodeConjunction(new int[] { encode(application.get(0)), -encode(application.get(1)) });
+			}
+			else if ((application.hasFunctor(EQUIVALENCE) || application.hasFunctor(EQUALITY)) && n >= 2) {
+				result = encodeAllEquivalent(encodeArguments(application));
+			}
+			else if (application.hasFunctor(DISEQUALITY) && n == 2) {
+				result = -encodeEquivalence(encode(application.get(0)), encode(application.get(1)));
+			}
+			else if (application.hasFunctor(IF_THEN_ELSE) && n == 3) {
+				result = encodeIfThenElse(encode(application.get(0)), encode(application.get(1)), encode(application.get(2)));
+			}
+			else {
+				throw new NotPropositionalException();
+			}
+			return result;
+		}
+
+		private int[] encodeArguments(Expression application) {
+			int[] result = new int[application.numberOfArguments()];
+			for (int i = 0; i != result.length; i++) {
+				result[i] = encode(application.get(i));
+			}
+			return result;
+		}
+
+		private static int[] negated(int[] literals) {
+			int[] result = new int[literals.length];
+			for (int i = 0; i != literals.length; i++) {
+				result[i] = -literals[i];
+			}
+			return result;
+		}
+
+		private int encodeConjunction(int[] conjuncts) {
+			if (conjuncts.length == 0) {
+				return trueLiteral();
+			}
+			if (conjuncts.length == 1) {
+				return conjuncts[0];
+			}
+			int gate = newVariable();
+			int[] gateImpliedByConjuncts = new int[conjuncts.length + 1];
+			gateImpliedByConjuncts[0] = gate;
+			for (int i = 0; i != conjuncts.length; i++) {
+				addClause(-gate, conjuncts[i]);
+				gateImpliedByConjuncts[i + 1] = -conjuncts[i];
+			}
+			addClause(gateImpliedByConjuncts);
+			return gate;
+		}
+
+		private int encodeEquivalence(int a, int b) {
+			int gate = newVariable();
+			addClause(-gate, -a, b);
+			addClause(-gate, a, -b);
+			addClause(gate, a, b);
+			addClause(gate, -a, -b);
+			return gate;
+		}
+
+		private int encodeAllEquivalent(int[] arguments) {
+			int[] equivalences = new int[arguments.length - 1];
+			for (int i = 0; i != equivalences.length; i++) {
+				equivalences[i] = encodeEquivalence(arguments[i], arguments[i + 1]);
+			}
+			return encodeConjunction(equivalences);
+		}
+
+		private int encodeIfThenElse(int condition, int thenBranch, int elseBranch) {
+			int gate = newVariable();
+			addClause(-gate, -condition, thenBranch);
+			addClause(-gate, condition, elseBranch);
+			addClause(gate, -condition, -thenBranch);
+			addClause(gate, condition, -elseBranch);
+			return gate;
+		}
+
+		private int trueLiteral() {
+			if (trueVariable == 0) {
+				trueVariable = newVariable();
+				addClause(trueVariable);
+			}
+			return trueVariable;
+		}
+
+		private int newVariable() {
+			return ++numberOfVariables;
+		}
+
+		/**
+		 * Adds a clause after removing repeated literals; tautologies are dropped.
+		 */
+		public void addClause(int... literals) {
+			int[] sorted = literals.clone();
+			Arrays.sort(sorted);
+			int[] clause = new int[sorted.length];
+			int size = 0;
+			for (int literal : sorted) {
+				if (size > 0 && clause[size - 1] == literal) {
+					continue;
+				}
+				if (Arrays.binarySearch(sorted, -literal) >= 0) {
+					return; // tautology
+				}
+				clause[size++] = literal;
+			}
+			clauses.add(Arrays.copyOf(clause, size));
+		}
+	}
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2013, SRI International
+ * All rights reserved.
+ * Licensed under the The BSD 3-Clause License;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * 
+ * http://opensource.org/licenses/BSD-3-Clause
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the aic-expresso nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) 
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, 
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.sri.ai.grinder.theory.propositional;
+
+import static com.sri.ai.expresso.helper.Expressions.FALSE;
+import static com.sri.ai.expresso.helper.Expressions.TRUE;
+import static com.sri.ai.expresso.helper.Expressions.isNumber;
+import static com.sri.ai.expresso.helper.Expressions.makeSymbol;
+import static com.sri.ai.grinder.helper.GrinderUtil.isBooleanTyped;
+import static com.sri.ai.grinder.library.boole.Not.not;
+import static com.sri.ai.grinder.library.controlflow.IfThenElse.condition;
+import static com.sri.ai.grinder.library.controlflow.IfThenElse.elseBranch;
+import static com.sri.ai.grinder.library.controlflow.IfThenElse.isIfThenElse;
+import static com.sri.ai.grinder.library.controlflow.IfThenElse.thenBranch;
+import static com.sri.ai.util.Util.list;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import com.google.common.annotations.Beta;
+import com.sri.ai.expresso.api.Expression;
+import com.sri.ai.grinder.api.Constraint;
+import com.sri.ai.grinder.api.Context;
+import com.sri.ai.grinder.api.MultiQuantifierEliminationProblem;
+import com.sri.ai.grinder.api.MultiQuantifierEliminator;
+import com.sri.ai.grinder.core.solver.AbstractMultiQuantifierEliminator;
+import com.sri.ai.grinder.group.AssociativeCommutativeGroup;
+import com.sri.ai.grinder.group.Conjunction;
+import com.sri.ai.grinder.group.Disjunction;
+import com.sri.ai.grinder.group.Product;
+import com.sri.ai.grinder.group.Sum;
+import com.sri.ai.util.base.Pair;
+import com.sri.ai.util.math.Rational;
+
+/**
+ * A {@link MultiQuantifierEliminator} solving sums, products, universal and existential quantifications
+ * over Boolean indices with a native propositional model counter
+ * ({@link PropositionalModelCounter}, or {@link DecisionDNNFCompiler} if compilation is turned on),
+ * and delegating all other problems to a base eliminator.
+ * <p>
+ * A problem is solved natively if all its indices are Boolean-typed,
+ * its constraint is a propositional formula on the indices only (see {@link PropositionalCNF}),
+ * and its body is either such a formula (for quantifications) or a tree of if-then-else expressions
+ * with such formulas as conditions and numeric constants as leaves (for sums and products).
+ * The latter are reduced to model counting by
+ * <pre>
+ * sum_{C} if F then c1 else c2 = c1 * #(C and F) + c2 * #(C and not F)
+ * prod_{C} if F then c1 else c2 = c1^#(C and F) * c2^#(C and not F)
+ * </pre>
+ * (generalized to any number of leaves).
+ * 
+ * @author braz
+ *
+ */
+@Beta
+public class PropositionalModelCountingMultiQuantifierEliminator extends AbstractMultiQuantifierEliminator {
+
+	private static final Rational MAXIMUM_EXPONENT = new Rational(Integer.MAX_VALUE);
+	
+	private MultiQuantifierEliminator base;
+	private boolean useCompilation;
+
+	public PropositionalModelCountingMultiQuantifierEliminator(MultiQuantifierEliminator base) {
+		this(base, false);
+	}
+
+	/**
+	 * Makes an eliminator with a given base eliminator for non-propositional problems,
+	 * counting models with a compiled {@link DecisionDNNF} if <code>useCompilation</code> is true,
+	 * and by direct search otherwise.
+	 */
+	public PropositionalModelCountingMultiQuantifierEliminator(MultiQuantifierEliminator base, boolean useCompilation) {
+		this.base = base;
+		this.useCompilation = useCompilation;
+	}
+
+	@Override
+	public Expression solve(MultiQuantifierEliminationProblem problem, Context context) {
+		Expression result = solvePropositionallyOrNull(problem, context);
+		if (result == null) {
+			result = base.solve(problem, context);
+		}
+		return result;
+	}
+
+	@Override
+	public void interrupt() {
+		super.interrupt();
+		base.interrupt();
+	}
+
+	private Expression solvePropositionallyOrNull(MultiQuantifierEliminationProblem problem, Context context) {
+		List<Expression> indices = problem.getIndices();
+		if (indices.isEmpty() || ! allBooleanTyped(indices, context)) {
+			return null;
+		}
+
+		Expression constraint = problem.getConstraint();
+		if (constraint == context) {
+			constraint = TRUE; // the context is sometimes passed as the constraint when it does not constrain the indices
+		}
+		else if (constraint instanceof Constraint) {
+			return null;
+		}
+
+		checkInterrupted();
+		
+		AssociativeCommutativeGroup group = problem.getGroup();
+		Expression body = problem.getBody();
+		Expression result;
+		if (group instanceof Conjunction) {
+			Rational numberOfCounterExamples = countOrNull(list(constraint, not(body)), indices);
+			result = numberOfCounterExamples == null? null : numberOfCounterExamples.isZero()? TRUE : FALSE;
+		}
+		else if (group instanceof Disjunction) {
+			Rational numberOfExamples = countOrNull(list(constraint, body), indices);
+			result = numberOfExamples == null? null : numberOfExamples.isZero()? FALSE : TRUE;
+		}
+		else if (group instanceof Sum || group instanceof Product) {
+			result = solveSumOrProductOrNull(group instanceof Sum, constraint, body, indices);
+		}
+		else {
+			result = null;
+		}
+		return result;
+	}
+
+	private Expression solveSumOrProductOrNull(boolean isSum, Expression constraint, Expression body, List<Expression> indices) {
+		List<Pair<LinkedList<Expression>, Rational>> leaves = new ArrayList<>();
+		if ( ! collectLeaves(body, new LinkedList<>(), leaves)) {
+			return null;
+		}
+		Rational result = isSum? Rational.ZERO : Rational.ONE;
+		for (Pair<LinkedList<Expression>, Rational> leaf : leaves) {
+			LinkedList<Expression> formulas = new LinkedList<>(leaf.first);
+			formulas.add(constraint);
+			Rational count = countOrNull(formulas, indices);
+			if (count == null) {
+				return null;
+			}
+			if (isSum) {
+				result = result.add(leaf.second.multiply(count));
+			}
+			else if ( ! count.isZero() && ! leaf.second.isOne()) {
+				if (count.compareTo(MAXIMUM_EXPONENT) > 0) {
+					return null;
+				}
+				result = result.multiply(leaf.second.pow(count.intValue()));
+			}
+			checkInterrupted();
+		}
+		return makeSymbol(result);
+	}
+
+	/**
+	 * Collects the numeric leaves of an if-then-else tree, each with the conditions leading to it,
+	 * returning false if a leaf is not a numeric constant.
+	 */
+	private static boolean collectLeaves(Expression expression, LinkedList<Expression> path, List<Pair<LinkedList<Expression>, Rational>> leaves) {
+		boolean result;
+		if (isIfThenElse(expression)) {
+			path.addLast(condition(expression));
+			result = collectLeaves(thenBranch(expression), path, leaves);
+			path.removeLast();
+			if (result) {
+				path.addLast(not(condition(expression)));
+				result = collectLeaves(elseBranch(expression), path, leaves);
+				path.removeLast();
+			}
+		}
+		else if (isNumber(expression)) {
+			leaves.add(Pair.make(new LinkedList<>(path), expression.rationalValue()));
+			result = true;
+		}
+		else {
+			result = false;
+		}
+		return result;
+	}
+
+	private Rational countOrNull(List<Expression> formulas, List<Expression> indices) {
+		PropositionalCNF cnf = PropositionalCNF.makeOrNull(formulas, indices);
+		Rational result;
+		if (cnf == null) {
+			result = null;
+		}
+		else if (useCompilation) {
+			result = DecisionDNNFCompiler.compile(cnf).modelCount();
+		}
+		else {
+			result = PropositionalModelCounter.count(cnf);
+		}
+		return result;
+	}
+
+	private static boolean allBooleanTyped(List<Expression> indices, Context context) {
+		for (Expression index : indices) {
+			if ( ! isBooleanTyped(index, context)) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	@Override
+	public String toString() {
+		return "Propositional model counting with fallback to " + base;
+	}
+}
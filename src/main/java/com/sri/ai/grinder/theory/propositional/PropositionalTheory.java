@@ -88,6 +88,11 @@ public class PropositionalTheory extends AbstractTheory {
 		return result;
 	}
 	
+	@Override
+	public boolean mayBeAtom(Expression expression) {
+		return expression.getSyntacticFormType().equals(Symbol.SYNTACTIC_FORM_TYPE);
+	}
+	
 	@Override
 	public Expression getAtomNegation(Expression atom, Context context) {
 		return not(atom);
@@ -39,11 +39,13 @@ package com.sri.ai.grinder.theory.tuple.rewriter;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import com.google.common.base.Predicate;
 import com.sri.ai.expresso.api.CountingFormula;
 import com.sri.ai.expresso.api.Expression;
 import com.sri.ai.expresso.api.IndexExpressionsSet;
@@ -54,15 +56,14 @@ import com.sri.ai.expresso.core.DefaultCountingFormula;
 import com.sri.ai.expresso.core.DefaultLambdaExpression;
 import com.sri.ai.expresso.core.ExtensionalIndexExpressionsSet;
 import com.sri.ai.expresso.helper.Expressions;
-import com.sri.ai.expresso.helper.SubExpressionsDepthFirstIterator;
 import com.sri.ai.expresso.type.TupleType;
 import com.sri.ai.grinder.api.Context;
+import com.sri.ai.grinder.core.FreshSymbolGenerator;
 import com.sri.ai.grinder.library.FunctorConstants;
 import com.sri.ai.grinder.library.boole.ForAll;
 import com.sri.ai.grinder.library.boole.ThereExists;
 import com.sri.ai.grinder.library.indexexpression.IndexExpressions;
 import com.sri.ai.grinder.rewriter.api.Simplifier;
-import com.sri.ai.util.Util;
 import com.sri.ai.util.base.Pair;
 
 /**
@@ -100,22 +101,26 @@ public class TupleQuantifierSimplifier implements Simplifier {
 					.collect(Collectors.toList());
 			
 			if (indexesOfTupleType.size() > 0) {
-				Map<Expression, Expression> indexToTupleOfVars = createTuplesOfVarsForTupleTypes(quantifiedExpression, indexesOfTupleType);
+				Map<Expression, Expression> indexToTupleOfVars = createTuplesOfVarsForTupleTypes(quantifiedExpression, indexesOfTupleType, context);
 				result = rewriteQuantifiedExpression(quantifiedExpression, indexToTypeMap, indexToTupleOfVars, context);
 			}
 		}
 		return result;
 	}
 
-	private static Map<Expression, Expression> createTuplesOfVarsForTupleTypes(QuantifiedExpression quantifiedExpression, List<Map.Entry<Expression, Expression>> indexesOfTupleType) {
+	private static Map<Expression, Expression> createTuplesOfVarsForTupleTypes(QuantifiedExpression quantifiedExpression, List<Map.Entry<Expression, Expression>> indexesOfTupleType, Context context) {
 		Map<Expression, Expression> result = new HashMap<>();
 		
-		Set<Expression> allSubExpressions = Util.addAllToSet(new SubExpressionsDepthFirstIterator(quantifiedExpression));
+		FreshSymbolGenerator freshSymbolGenerator = context.getFreshSymbolGenerator();
+		// free symbols are registered in the context, so only the indices and the variables introduced so far need to be checked
+		Set<Expression> indicesAndIntroducedVars = new HashSet<>(IndexExpressions.getIndices(quantifiedExpression.getIndexExpressions()));
+		Predicate<Expression> isTaken = s -> context.containsSymbol(s) || indicesAndIntroducedVars.contains(s);
 		for (Map.Entry<Expression, Expression> entry : indexesOfTupleType) {
 			List<Expression> tupleVars = new ArrayList<>();
 			for (int i = 1; i <= entry.getValue().numberOfArguments(); i++) {
 				Expression proposedVar = Expressions.makeSymbol(entry.getKey().toString()+"_"+i);
-				Expression actualVar   = Expressions.primedUntilUnique(proposedVar, expr -> !allSubExpressions.contains(expr));
+				Expression actualVar   = freshSymbolGenerator.proposedOrNewSymbol(proposedVar, isTaken);
+				indicesAndIntroducedVars.add(actualVar);
 				tupleVars.add(actualVar);
 			}
 			result.put(entry.getKey(), Expressions.makeTuple(tupleVars));
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2013, SRI International
+ * All rights reserved.
+ * Licensed under the The BSD 3-Clause License;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * 
+ * http://opensource.org/licenses/BSD-3-Clause
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the aic-expresso nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) 
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, 
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.sri.ai.grinder.helper.metrics;
+
+import com.sri.ai.expresso.api.Expression;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The JDK Flight Recorder implementation of {@link SolverEventRecorder}.
+ * <p>
+ * This class is in the <code>src/main/jfr</code> source folder, compiled only by the
+ * <code>flight-recorder</code> Maven profile (active on JDK 11 and later),
+ * and is loaded reflectively by {@link SolverEvents}, which falls back to no events when it is absent.
+ * <p>
+ * Each event type is looked up once, and <code>begin</code> methods consult whether it is enabled
+ * before allocating any event, so that disabled events cost a single check.
+ * Nesting depths are kept per thread.
+ * 
+ * @author braz
+ *
+ */
+class FlightRecorderEvents implements SolverEventRecorder {
+	
+	private static final ThreadLocal<int[]> depth = ThreadLocal.withInitial(() -> new int[1]);
+	
+	@Name("com.sri.ai.grinder.TheoryEvaluation")
+	@Label("Theory Evaluation")
+	@Description("Evaluation of an expression by a theory")
+	@Category({"Expresso", "Solver"})
+	@Enabled(false)
+	@StackTrace(false)
+	static class TheoryEvaluationEvent extends Event {
+		@Label("Theory")
+		String theory;
+		@Label("Depth")
+		int depth;
+	}
+	
+	@Name("com.sri.ai.grinder.ContextCheck")
+	@Label("Context Check")
+	@Description("Check of whether a context conjoined with a new constraint is a contradiction")
+	@Category({"Expresso", "Solver"})
+	@Enabled(false)
+	@StackTrace(false)
+	static class ContextCheckEvent extends Event {
+		@Label("Conjoined")
+		String conjoined;
+		@Label("Contradiction")
+		boolean contradiction;
+		@Label("Depth")
+		int depth;
+	}
+	
+	@Name("com.sri.ai.grinder.StepSolverStep")
+	@Label("Step Solver Step")
+	@Description("Step taken by a quantifier elimination step solver")
+	@Category({"Expresso", "Solver"})
+	@Enabled(false)
+	@StackTrace(false)
+	static class StepEvent extends Event {
+		@Label("Step Solver")
+		String stepSolver;
+		@Label("Splitter")
+		String splitter;
+		@Label("Depth")
+		int depth;
+	}
+	
+	@Name("com.sri.ai.grinder.TopRewriting")
+	@Label("Top Rewriting")
+	@Description("Step of the rewriter selected by a switch, that is, the rewriting itself")
+	@Category({"Expresso", "Rewriter"})
+	@Enabled(false)
+	@StackTrace(false)
+	static class TopRewritingEvent extends Event {
+		@Label("Key")
+		String key;
+		@Label("Rewriter")
+		String rewriter;
+		@Label("Depth")
+		int depth;
+	}
+	
+	private static final EventType theoryEvaluationEventType = EventType.getEventType(TheoryEvaluationEvent.class);
+	private static final EventType contextCheckEventType      = EventType.getEventType(ContextCheckEvent.class);
+	private static final EventType stepEventType              = EventType.getEventType(StepEvent.class);
+	private static final EventType topRewritingEventType      = EventType.getEventType(TopRewritingEvent.class);
+	
+	@Override
+	public Object beginTheoryEvaluation() {
+		if ( ! theoryEvaluationEventType.isEnabled()) {
+			return null;
+		}
+		TheoryEvaluationEvent event = new TheoryEvaluationEvent();
+		event.depth = enter();
+		event.begin();
+		return event;
+	}
+	
+	@Override
+	public void endTheoryEvaluation(Object untypedEvent, Object theory) {
+		TheoryEvaluationEvent event = (TheoryEvaluationEvent) untypedEvent;
+		exit();
+		event.end();
+		if (event.shouldCommit()) {
+			event.theory = theory.getClass().getName();
+			event.commit();
+		}
+	}
+	
+	@Override
+	public Object beginContextCheck() {
+		if ( ! contextCheckEventType.isEnabled()) {
+			return null;
+		}
+		ContextCheckEvent event = new ContextCheckEvent();
+		event.depth = enter();
+		event.begin();
+		return event;
+	}
+	
+	@Override
+	public void endContextCheck(Object untypedEvent, Object conjoined, boolean contradiction) {
+		ContextCheckEvent event = (ContextCheckEvent) untypedEvent;
+		exit();
+		event.end();
+		if (event.shouldCommit()) {
+			event.conjoined = String.valueOf(conjoined);
+			event.contradiction = contradiction;
+			event.commit();
+		}
+	}
+	
+	@Override
+	public Object beginStep() {
+		if ( ! stepEventType.isEnabled()) {
+			return null;
+		}
+		StepEvent event = new StepEvent();
+		event.depth = enter();
+		event.begin();
+		return event;
+	}
+	
+	@Override
+	public void endStep(Object untypedEvent, Object stepSolver, Expression splitter) {
+		StepEvent event = (StepEvent) untypedEvent;
+		exit();
+		event.end();
+		if (event.shouldCommit()) {
+			event.stepSolver = stepSolver.getClass().getName();
+			event.splitter = splitter == null? null : splitter.toString();
+			event.commit();
+		}
+	}
+	
+	@Override
+	public Object beginTopRewriting() {
+		if ( ! topRewritingEventType.isEnabled()) {
+			return null;
+		}
+		TopRewritingEvent event = new TopRewritingEvent();
+		event.depth = enter();
+		event.begin();
+		return event;
+	}
+	
+	@Override
+	public void endTopRewriting(Object untypedEvent, Object key, Object rewriter) {
+		TopRewritingEvent event = (TopRewritingEvent) untypedEvent;
+		exit();
+		event.end();
+		if (event.shouldCommit()) {
+			event.key = String.valueOf(key);
+			event.rewriter = rewriter.getClass().getName();
+			event.commit();
+		}
+	}
+	
+	private static int enter() {
+		return depth.get()[0]++;
+	}
+	
+	private static void exit() {
+		depth.get()[0]--;
+	}
+}
@@ -0,0 +1,91 @@
+package com.sri.ai.test.expresso;
+
+import static com.sri.ai.expresso.helper.Expressions.parse;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import com.sri.ai.expresso.api.Expression;
+import com.sri.ai.expresso.optimization.CompiledFunction;
+import com.sri.ai.util.Util;
+
+/**
+ * Class to test the {@link CompiledFunction}, comparing its gradients with finite differences.
+ * @author braz
+ *
+ */
+public class CompiledFunctionTest {
+
+	private static final List<Expression> XY = Util.list(parse("X"), parse("Y"));
+
+	@Test
+	public void testValue() {
+		assertEquals(5.0, compile("X^2 + Y^2").value(new double[] {1, 2}), 1e-12);
+		assertEquals(-2.0, compile("3*X^4 + X^3 - 6*X^2 + 2").value(new double[] {1, 0}), 1e-12);
+		assertEquals(Math.sqrt(2), compile("(1+X^2)^(1/2)").value(new double[] {1, 0}), 1e-12);
+		assertEquals(Math.log(1/(1 + Math.exp(-0.3))), compile("log(1 / (1 + exp(-X)))").value(new double[] {0.3, 0}), 1e-12);
+		assertEquals(2.0, compile("Y").value(new double[] {1, 2}), 1e-12);
+		assertEquals(7.0, compile("7").value(new double[] {1, 2}), 1e-12);
+	}
+
+	@Test
+	public void testGradient() {
+		String[] functions = {
+				"X^2 + Y^2",
+				"3*X^4 + X^3 - 6*X^2 + 2 + 3*Y^4 + Y^3 - 6*Y^2",
+				"(1+X^2+Y^2)^(1/2)",
+				"X*Y/(X + Y)",
+				"log(63000000630000000 * (1 / (1 + exp(-X)))) - Y",
+				"X^Y",
+				"(X*Y)*(X*Y) - X*Y",
+		};
+		double[][] points = { {0.5, 1.5}, {1.2, 0.7}, {2, 3} };
+		for (String function : functions) {
+			CompiledFunction compiled = compile(function);
+			for (double[] point : points) {
+				double[] gradient = compiled.gradient(point);
+				for (int i = 0; i != point.length; i++) {
+					assertEquals(function + " at variable " + i, finiteDifference(compiled, point, i), gradient[i], 1e-5);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testNotCompilable() {
+		assertNull(CompiledFunction.compileOrNull(parse("f(X) + Y"), XY));
+		assertNull(CompiledFunction.compileOrNull(parse("X + Z"), XY));
+		assertNull(CompiledFunction.compileOrNull(parse("if X > 0 then X else Y"), XY));
+	}
+
+	@Test
+	public void testConcurrentEvaluation() {
+		CompiledFunction compiled = compile("X^2*Y + exp(X - Y)");
+		IntStream.range(0, 10000).parallel().forEach(n -> {
+			double x = n % 7;
+			double y = n % 5;
+			double[] gradient = new double[2];
+			double value = compiled.valueAndGradient(new double[] {x, y}, gradient);
+			assertEquals(x*x*y + Math.exp(x - y), value, 1e-9*Math.abs(value));
+			assertEquals(2*x*y + Math.exp(x - y), gradient[0], 1e-9*Math.abs(value));
+			assertEquals(x*x - Math.exp(x - y), gradient[1], 1e-9*Math.abs(value));
+		});
+	}
+
+	private static CompiledFunction compile(String function) {
+		return CompiledFunction.compileOrNull(parse(function), XY);
+	}
+
+	private static double finiteDifference(CompiledFunction function, double[] point, int i) {
+		double h = 1e-6;
+		double[] plus = point.clone();
+		double[] minus = point.clone();
+		plus[i] += h;
+		minus[i] -= h;
+		return (function.value(plus) - function.value(minus))/(2*h);
+	}
+}
@@ -4,6 +4,8 @@ import static com.sri.ai.expresso.helper.Expressions.parse;
 import static com.sri.ai.util.Util.map;
 import static com.sri.ai.util.Util.println;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 import java.util.Map;
 
@@ -28,15 +30,15 @@ public class ContextTest {
 		
 		context = new TrueContext();
 		indexExpressions = new ExtensionalIndexExpressionsSet("X", "Integer", "Y", "X..10");
-		expectedNewIndexExpressionsSet = new ExtensionalIndexExpressionsSet("X'", "Integer", "Y'", "X'..10");
+		expectedNewIndexExpressionsSet = new ExtensionalIndexExpressionsSet("'X#1'", "Integer", "'Y#1'", "'X#1'..10");
 		expressionInScope = parse("X = 1 and Y = 2");
-		expectedNewExpressionInScope = parse("X' = 1 and Y' = 2");
+		expectedNewExpressionInScope = parse("'X#1' = 1 and 'Y#1' = 2");
 		symbolsAndTypes = 
 				map(
 						parse("X"), parse("Integer"),
 						parse("Y"), parse("X..10"),
-						parse("X'"), parse("Integer"),
-						parse("Y'"), parse("X'..10")
+						parse("'X#1'"), parse("Integer"),
+						parse("'Y#1'"), parse("'X#1'..10")
 				);
 		context = context.extendWith(indexExpressions);
 		triple = context.extendWith(indexExpressions, expressionInScope);
@@ -46,4 +48,65 @@ public class ContextTest {
 		assertEquals(expectedNewIndexExpressionsSet, triple.second);
 		assertEquals(expectedNewExpressionInScope, triple.third);
 	}
+	
+	@Test
+	public void testExtendWithOnlyRenamesCollidingIndices() {
+		Context context = new TrueContext().extendWithSymbolsAndTypes("X", "Integer");
+		ExtensionalIndexExpressionsSet indexExpressions = new ExtensionalIndexExpressionsSet("X", "Integer", "Z", "X..10");
+		Triple<Context, ExtensionalIndexExpressionsSet, Expression> triple = context.extendWith(indexExpressions, parse("X = Z"));
+		
+		assertEquals(new ExtensionalIndexExpressionsSet("'X#1'", "Integer", "Z", "'X#1'..10"), triple.second);
+		assertEquals(parse("'X#1' = Z"), triple.third);
+		
+		// a further collision on the same context family gets a new number
+		triple = triple.first.extendWith(new ExtensionalIndexExpressionsSet("X", "Boolean"), parse("X"));
+		assertEquals(parse("'X#2'"), triple.third);
+	}
+	
+	@Test
+	public void testExtendWithSkipsGeneratedNamesWrittenByUser() {
+		Context context = new TrueContext().extendWithSymbolsAndTypes("X", "Integer", "'X#1'", "Integer");
+		Triple<Context, ExtensionalIndexExpressionsSet, Expression> triple = context.extendWith(new ExtensionalIndexExpressionsSet("X", "Integer"), parse("X = 'X#1'"));
+		
+		assertEquals(new ExtensionalIndexExpressionsSet("'X#2'", "Integer"), triple.second);
+		assertEquals(parse("'X#2' = 'X#1'"), triple.third);
+	}
+	
+	@Test
+	public void testSiblingContextsShareFreshSymbolGenerator() {
+		Context root = new TrueContext();
+		Context sibling1 = root.putGlobalObject("some key", "value 1");
+		Context sibling2 = root.putGlobalObject("some key", "value 2");
+		assertSame(root.getFreshSymbolGenerator(), sibling1.getFreshSymbolGenerator());
+		assertSame(root.getFreshSymbolGenerator(), sibling2.getFreshSymbolGenerator());
+	}
+	
+	@Test
+	public void testInplaceGlobalObjectsAreScopedByGlobalObjectsLayer() {
+		Context root = new TrueContext();
+		Context child = root.putGlobalObject("some key", "some value");
+		Context sameLayerAsChild = child.extendWithSymbolsAndTypes("X", "Integer");
+		Context sibling = root.putGlobalObject("some key", "another value");
+		
+		// objects put in a layer are visible to contexts sharing or above that layer only
+		child.putInplaceGlobalObject("counter", 1);
+		assertEquals(1, sameLayerAsChild.getInplaceGlobalObject("counter"));
+		assertEquals(1, child.putGlobalObject("another key", "value").getInplaceGlobalObject("counter"));
+		assertNull(root.getInplaceGlobalObject("counter"));
+		assertNull(sibling.getInplaceGlobalObject("counter"));
+		
+		// objects from lower layers are updated in place
+		root.putInplaceGlobalObject("shared counter", 1);
+		assertEquals(2, (int) child.updateInplaceGlobalObject("shared counter", () -> 0, c -> c + 1));
+		assertEquals(2, root.getInplaceGlobalObject("shared counter"));
+		assertEquals(2, sibling.getInplaceGlobalObject("shared counter"));
+		
+		// default values are made in the top layer
+		assertEquals(1, (int) sibling.updateInplaceGlobalObject("new counter", () -> 0, c -> c + 1));
+		assertNull(root.getInplaceGlobalObject("new counter"));
+		
+		// inplace global objects are not kept among the global objects
+		assertEquals(0, root.getGlobalObjects().size());
+		assertEquals(1, child.getGlobalObjects().size());
+	}
 }
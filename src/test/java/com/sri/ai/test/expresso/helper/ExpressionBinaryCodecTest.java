@@ -0,0 +1,96 @@
+package com.sri.ai.test.expresso.helper;
+
+import static com.sri.ai.expresso.helper.Expressions.parse;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+import com.sri.ai.expresso.api.Expression;
+import com.sri.ai.expresso.helper.ExpressionBinaryReader;
+import com.sri.ai.expresso.helper.ExpressionBinaryWriter;
+import com.sri.ai.grinder.api.Context;
+import com.sri.ai.grinder.application.CommonTheory;
+import com.sri.ai.grinder.core.TrueContext;
+import com.sri.ai.grinder.helper.ContextBinaryCodec;
+
+public class ExpressionBinaryCodecTest {
+
+	private static final String[] EXPRESSIONS = {
+			"X",
+			"true",
+			"false",
+			"\"a string with spaces\"",
+			"0",
+			"-17",
+			"2/3",
+			"123456789012345678901234567890",
+			"f(X, g(Y), 'quoted name')",
+			"if X > 3 then Y + 1 else Z * 2",
+			"for all X in 1..10 : X > 0 or Y",
+			"sum({{ (on X in Integer, Y in Integer : X < Y) X + Y }})",
+			"lambda X in Boolean : not X",
+			"{ (on X in People) f(X) : X != bob }",
+			"(a, b, c)",
+			"[ X ]",
+			"f(g(h(X)), g(h(X)), g(h(X)))",
+	};
+
+	@Test
+	public void testRoundTrip() {
+		for (String string : EXPRESSIONS) {
+			Expression expression = parse(string);
+			Expression decoded = ExpressionBinaryReader.decode(ExpressionBinaryWriter.encode(expression));
+			assertEquals(expression, decoded);
+			assertEquals(expression.toString(), decoded.toString());
+		}
+	}
+
+	@Test
+	public void testSeveralRecordsInOneStream() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ExpressionBinaryWriter writer = new ExpressionBinaryWriter(bytes);
+		for (String string : EXPRESSIONS) {
+			writer.write(parse(string));
+		}
+		writer.close();
+
+		ExpressionBinaryReader reader = new ExpressionBinaryReader(new ByteArrayInputStream(bytes.toByteArray()));
+		for (String string : EXPRESSIONS) {
+			assertTrue(reader.hasNext());
+			assertEquals(parse(string), reader.read());
+		}
+		assertFalse(reader.hasNext());
+		reader.close();
+	}
+
+	@Test
+	public void testSharedSubExpressionsAreWrittenOnce() {
+		ByteBuffer once = ExpressionBinaryWriter.encode(parse("f(g(h(X, Y, Z)))"));
+		ByteBuffer thrice = ExpressionBinaryWriter.encode(parse("f(g(h(X, Y, Z)), g(h(X, Y, Z)), g(h(X, Y, Z)))"));
+		// the two repetitions cost one back-reference each, not a full re-encoding
+		assertTrue(thrice.remaining() < once.remaining() + 8);
+	}
+
+	@Test
+	public void testContextRoundTrip() throws IOException {
+		Context context = new TrueContext(new CommonTheory());
+		context = context.extendWithSymbolsAndTypes("X", "1..10", "Y", "Boolean");
+		context = context.conjoin(parse("X > 4 and Y"), context);
+
+		ExpressionBinaryWriter writer = new ExpressionBinaryWriter();
+		ContextBinaryCodec.write(context, writer);
+		ExpressionBinaryReader reader = new ExpressionBinaryReader(writer.toByteBuffer());
+		Context decoded = ContextBinaryCodec.read(reader, new TrueContext(new CommonTheory()));
+
+		assertEquals(context.getSymbolsAndTypes(), decoded.getSymbolsAndTypes());
+		assertEquals(parse("true"), decoded.getTheory().evaluate(parse("X > 4"), decoded));
+		assertEquals(parse("false"), decoded.getTheory().evaluate(parse("not Y"), decoded));
+	}
+}
@@ -0,0 +1,131 @@
+package com.sri.ai.test.expresso.helper;
+
+import static com.sri.ai.expresso.helper.Expressions.parse;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sri.ai.expresso.helper.PersistentExpressionStore;
+
+public class PersistentExpressionStoreTest {
+
+	private static final long MAXIMUM_SIZE = 1 << 20;
+	
+	private Path file;
+
+	@Before
+	public void setUp() throws IOException {
+		file = Files.createTempFile("persistent-expression-store", ".bin");
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		try (PersistentExpressionStore store = new PersistentExpressionStore(file, MAXIMUM_SIZE)) {
+			store.put(key("a"), parse("if X > 3 then Y + 1 else 2/3"));
+			store.put(key("b"), parse("sum({{ (on X in 1..10) X }})"));
+			store.put(key("a"), parse("ignored, since key is already present"));
+		}
+		try (PersistentExpressionStore store = new PersistentExpressionStore(file, MAXIMUM_SIZE)) {
+			assertEquals(2, store.size());
+			assertEquals(parse("if X > 3 then Y + 1 else 2/3"), store.get(key("a")));
+			assertEquals(parse("sum({{ (on X in 1..10) X }})"), store.get(key("b")));
+			assertNull(store.get(key("c")));
+			assertEquals(2, store.getNumberOfHits());
+			assertEquals(1, store.getNumberOfMisses());
+		}
+	}
+
+	@Test
+	public void testCorruptedRecordIsTruncatedWithEverythingAfterIt() throws IOException {
+		long sizeAfterFirstRecord;
+		try (PersistentExpressionStore store = new PersistentExpressionStore(file, MAXIMUM_SIZE)) {
+			store.put(key("a"), parse("f(X)"));
+			sizeAfterFirstRecord = store.getFileSize();
+			store.put(key("b"), parse("g(Y)"));
+			store.put(key("c"), parse("h(Z)"));
+		}
+		
+		flipLastByteOfFirstRecordAfter(sizeAfterFirstRecord);
+		
+		try (PersistentExpressionStore store = new PersistentExpressionStore(file, MAXIMUM_SIZE)) {
+			assertEquals(1, store.size());
+			assertEquals(parse("f(X)"), store.get(key("a")));
+			assertNull(store.get(key("b")));
+			assertNull(store.get(key("c")));
+			assertEquals(sizeAfterFirstRecord, store.getFileSize());
+			
+			// the store remains usable after truncation
+			store.put(key("b"), parse("g(W)"));
+			assertEquals(parse("g(W)"), store.get(key("b")));
+		}
+	}
+
+	@Test
+	public void testFileWithStaleFormatIsDiscarded() throws IOException {
+		try (PersistentExpressionStore store = new PersistentExpressionStore(file, MAXIMUM_SIZE)) {
+			store.put(key("a"), parse("f(X)"));
+		}
+		
+		// pretend the file was written by another version of the format
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.allocate(4).putInt(0, Integer.MAX_VALUE), 4);
+		}
+		
+		try (PersistentExpressionStore store = new PersistentExpressionStore(file, MAXIMUM_SIZE)) {
+			assertEquals(0, store.size());
+			assertNull(store.get(key("a")));
+		}
+	}
+
+	@Test
+	public void testCompactionKeepsMostRecentlyUsedEntries() throws IOException {
+		try (PersistentExpressionStore store = new PersistentExpressionStore(file, 4096)) {
+			for (int i = 0; i != 1000; i++) {
+				store.put(key("key " + i), parse("f(" + i + ")"));
+				assertEquals(parse("f(0)"), store.get(key("key 0"))); // keeps first entry recently used
+			}
+			assertTrue(store.getFileSize() <= 4096);
+			assertTrue(store.size() < 1000);
+			assertNull(store.get(key("key 1")));
+			assertEquals(parse("f(999)"), store.get(key("key 999")));
+		}
+		try (PersistentExpressionStore store = new PersistentExpressionStore(file, 4096)) {
+			assertEquals(parse("f(0)"), store.get(key("key 0")));
+		}
+	}
+
+	private void flipLastByteOfFirstRecordAfter(long position) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			ByteBuffer recordHeader = ByteBuffer.allocate(8);
+			channel.read(recordHeader, position);
+			int length = recordHeader.getInt(0);
+			long lastBytePosition = position + 8 + length - 1;
+			ByteBuffer lastByte = ByteBuffer.allocate(1);
+			channel.read(lastByte, lastBytePosition);
+			lastByte.put(0, (byte) ~lastByte.get(0));
+			lastByte.position(0);
+			channel.write(lastByte, lastBytePosition);
+		}
+	}
+
+	private static ByteBuffer key(String string) {
+		return ByteBuffer.wrap(string.getBytes(StandardCharsets.UTF_8));
+	}
+}
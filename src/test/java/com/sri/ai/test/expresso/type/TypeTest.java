@@ -9,6 +9,7 @@ import static com.sri.ai.grinder.library.FunctorConstants.FUNCTION_TYPE;
 import static com.sri.ai.grinder.library.FunctorConstants.TUPLE_TYPE;
 
 import java.util.Arrays;
+import java.util.Random;
 import java.util.StringJoiner;
 
 import com.sri.ai.expresso.api.Type;
@@ -285,5 +286,54 @@ public class TypeTest {
 		Assert.assertEquals(Arrays.asList(parse("Boolean")), FunctionType.getArgumentList(parse("'->'(x(Boolean), Boolean)")));
 		Assert.assertEquals(Arrays.asList(parse("Boolean"), parse("Boolean")), FunctionType.getArgumentList(parse("'->'(x(Boolean, Boolean), Boolean)")));
 	}
+	
+	@Test
+	public void testIndexedDomains() {
+		Categorical people = new Categorical("People", 5, parse("bob"), parse("mary"));
+		Assert.assertTrue(people.isIndexed());
+		Assert.assertEquals(5, people.size());
+		Assert.assertEquals(Arrays.asList(parse("bob"), parse("mary"), parse("people3"), parse("people4"), parse("people5")), people.asList());
+		for (int i = 0; i != people.size(); i++) {
+			Assert.assertEquals(i, people.indexOf(people.get(i)));
+		}
+		Assert.assertEquals(-1, people.indexOf(parse("people2"))); // named by a known constant
+		Assert.assertEquals(-1, people.indexOf(parse("people6")));
+		Assert.assertEquals(-1, people.indexOf(parse("people03")));
+		Assert.assertEquals(-1, people.indexOf(parse("john")));
+		Assert.assertFalse(people.contains(parse("people2")));
+		Assert.assertTrue(people.contains(parse("people4")));
+		
+		Categorical letters = new Categorical("Letters", 1000000, "a", 999990);
+		Assert.assertEquals(41, letters.indexOf(parse("a42")));
+		Assert.assertEquals(parse("a42"), letters.get(41));
+		Assert.assertEquals(999994, letters.indexOf(parse("letters999995")));
+		Assert.assertEquals(parse("letters999995"), letters.get(999994));
+		Assert.assertEquals(-1, letters.indexOf(parse("a999991")));
+		Assert.assertEquals(999990, letters.getKnownConstants().size());
+		
+		IntegerInterval interval = new IntegerInterval(-3, 4);
+		Assert.assertTrue(interval.isIndexed());
+		Assert.assertEquals(8, interval.size());
+		Assert.assertEquals(0, interval.indexOf(parse("-3")));
+		Assert.assertEquals(7, interval.indexOf(parse("4")));
+		Assert.assertEquals(-1, interval.indexOf(parse("5")));
+		Assert.assertEquals(-1, interval.indexOf(parse("1/2")));
+		Assert.assertEquals(parse("2"), interval.get(5));
+		Assert.assertFalse(new IntegerInterval("Integer").isIndexed());
+		
+		// intervals whose bounds or size do not fit in an int are not indexed, but can still be sampled
+		IntegerInterval large = new IntegerInterval("0..3000000000");
+		Assert.assertFalse(large.isIndexed());
+		Assert.assertEquals(-1, large.indexOf(parse("5")));
+		Assert.assertEquals(parse("3000000001"), large.cardinality());
+		Random random = new Random(1);
+		for (int i = 0; i != 100; i++) {
+			Assert.assertTrue(large.contains(large.sampleUniquelyNamedConstant(random)));
+		}
+		IntegerInterval farAway = new IntegerInterval("3000000000..3000000005");
+		Assert.assertFalse(farAway.isIndexed());
+		Assert.assertEquals(parse("6"), farAway.cardinality());
+		Assert.assertFalse(new IntegerInterval("-2147483648..2147483647").isIndexed());
+	}
 
 }
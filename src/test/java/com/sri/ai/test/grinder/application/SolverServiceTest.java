@@ -0,0 +1,88 @@
+package com.sri.ai.test.grinder.application;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sri.ai.grinder.application.CommonTheory;
+import com.sri.ai.grinder.application.SolverService;
+import com.sri.ai.grinder.core.TrueContext;
+
+public class SolverServiceTest {
+
+	private SolverService service;
+
+	@Before
+	public void setUp() {
+		service = new SolverService(2, 4, () -> new TrueContext(new CommonTheory()));
+	}
+
+	@After
+	public void tearDown() {
+		service.close();
+	}
+
+	@Test
+	public void testIdIsAlwaysFirstField() {
+		assertResponse("a", "OK", "7", service.process("a\t3 + 4", "1"));
+		assertResponse("1", "OK", "7", service.process("\t3 + 4", "1"));
+	}
+
+	@Test
+	public void testSingleFieldIsAnErrorRatherThanAGuess() {
+		String[] fields = service.process("3 + 4", "5").split("\t");
+		assertEquals("5", fields[0]);
+		assertEquals("ERROR", fields[1]);
+		assertTrue(fields[2].startsWith("Request must be <id> TAB <expression>"));
+	}
+
+	@Test
+	public void testDeclarations() {
+		assertResponse("b", "OK", "5", service.process("b\tsum({{ (on X in People) 1 }})\ttype(People, 5, ann, bob)", "1"));
+		assertResponse("c", "OK", "1", service.process("c\tif X > 5 then 1 else 0\tvar(X, 6..10)", "1"));
+		assertEquals("ERROR", service.process("d\t3 + 4\tunknown(X)", "1").split("\t")[1]);
+	}
+
+	@Test
+	public void testSyntaxErrorIsReportedWithRequestId() {
+		String[] fields = service.process("e\t3 +", "1").split("\t");
+		assertEquals("e", fields[0]);
+		assertEquals("ERROR", fields[1]);
+	}
+
+	@Test
+	public void testServeAnswersEveryRequest() throws Exception {
+		String requests = "x\t1 + 1\n\n\t2 + 2\ny\t3 +\n";
+		StringWriter output = new StringWriter();
+		service.serve(new BufferedReader(new StringReader(requests)), new PrintWriter(output));
+		
+		Set<String> responses = new HashSet<>();
+		for (String line : output.toString().split("\\r?\\n")) {
+			String[] fields = line.split("\t");
+			assertEquals(4, fields.length);
+			responses.add(fields[0] + " " + fields[1] + " " + fields[2].split(" ")[0]);
+		}
+		// blank lines are skipped, but still counted for default ids
+		assertEquals(new HashSet<>(Arrays.asList("x OK 2", "3 OK 4", "y ERROR Syntax")), responses);
+	}
+
+	private static void assertResponse(String expectedId, String expectedStatus, String expectedAnswer, String response) {
+		String[] fields = response.split("\t");
+		assertEquals(4, fields.length);
+		assertEquals(expectedId, fields[0]);
+		assertEquals(expectedStatus, fields[1]);
+		assertEquals(expectedAnswer, fields[2]);
+		Long.parseLong(fields[3]); // milliseconds
+	}
+}
@@ -0,0 +1,84 @@
+package com.sri.ai.test.grinder.core;
+
+import static com.sri.ai.expresso.helper.Expressions.parse;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.sri.ai.expresso.api.Expression;
+import com.sri.ai.expresso.helper.Expressions;
+import com.sri.ai.grinder.api.Context;
+import com.sri.ai.grinder.core.FreshSymbolGenerator;
+import com.sri.ai.grinder.core.TrueContext;
+import com.sri.ai.grinder.rewriter.api.Rewriter;
+import com.sri.ai.grinder.theory.base.ConstantExpressionStepSolver;
+
+public class FreshSymbolGeneratorTest {
+
+	@Test
+	public void testNewSymbols() {
+		FreshSymbolGenerator generator = new FreshSymbolGenerator();
+		
+		assertEquals(parse("'X#1'"), generator.newSymbol("X"));
+		assertEquals(parse("'X#2'"), generator.newSymbol(parse("X")));
+		assertEquals(parse("'Y#1'"), generator.newSymbol("Y"));
+		// fresh versions of fresh symbols do not accumulate suffixes
+		assertEquals(parse("'X#3'"), generator.newSymbol(parse("'X#2'")));
+		
+		assertTrue(FreshSymbolGenerator.isGenerated(parse("'X#1'")));
+		assertFalse(FreshSymbolGenerator.isGenerated(parse("X'")));
+		
+		// generated variables are still variables
+		Context context = new TrueContext();
+		assertFalse(context.isUniquelyNamedConstant(generator.newSymbol("X")));
+	}
+
+	@Test
+	public void testProposedOrNewSymbol() {
+		FreshSymbolGenerator generator = new FreshSymbolGenerator();
+		
+		assertEquals(parse("X_1"), generator.proposedOrNewSymbol(parse("X_1"), s -> false));
+		assertEquals(parse("'X_1#1'"), generator.proposedOrNewSymbol(parse("X_1"), s -> s.equals(parse("X_1"))));
+	}
+
+	@Test
+	public void testScopedToContextFamily() {
+		Context context = new TrueContext();
+		Context extended = context.extendWithSymbolsAndTypes("X", "Boolean");
+		
+		assertSame(context.getFreshSymbolGenerator(), extended.getFreshSymbolGenerator());
+		Expression first = context.getFreshSymbolGenerator().newSymbol("X");
+		Expression second = extended.getFreshSymbolGenerator().newSymbol("X");
+		assertNotEquals(first, second);
+		
+		assertEquals(parse("'X#1'"), new TrueContext().getFreshSymbolGenerator().newSymbol("X"));
+	}
+
+	@Test
+	public void testScopedToTopLevelSolve() {
+		Context context = new TrueContext();
+		context.getFreshSymbolGenerator().newSymbol("X"); // uses of the context's generator do not affect solves
+		
+		Rewriter generatingRewriter = e -> new ConstantExpressionStepSolver(e) {
+			@Override
+			public Step step(Context c) {
+				return new Solution(c.getFreshSymbolGenerator().newSymbol(e));
+			}
+		};
+		Rewriter rewriter = e -> new ConstantExpressionStepSolver(e) {
+			@Override
+			public Step step(Context c) {
+				Expression first = c.getFreshSymbolGenerator().newSymbol(e);
+				Expression second = generatingRewriter.apply(e, c); // nested solves share the generator of the top-level one
+				return new Solution(Expressions.makeTuple(first, second));
+			}
+		};
+		
+		assertEquals(parse("('X#1', 'X#2')"), rewriter.apply(parse("X"), context));
+		assertEquals(parse("('X#1', 'X#2')"), rewriter.apply(parse("X"), context));
+	}
+}
@@ -0,0 +1,82 @@
+package com.sri.ai.test.grinder.core.constraint;
+
+import static com.sri.ai.expresso.helper.Expressions.parse;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.lang.ref.WeakReference;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sri.ai.grinder.api.Context;
+import com.sri.ai.grinder.core.TrueContext;
+import com.sri.ai.grinder.core.constraint.ConstraintSplitting;
+import com.sri.ai.grinder.core.constraint.ContextSplitting;
+import com.sri.ai.grinder.theory.compound.CompoundTheory;
+import com.sri.ai.grinder.theory.differencearithmetic.DifferenceArithmeticTheory;
+import com.sri.ai.grinder.theory.equality.EqualityTheory;
+import com.sri.ai.grinder.theory.propositional.PropositionalTheory;
+
+public class ContextSplittingTest {
+
+	private Context context;
+
+	@Before
+	public void setUp() {
+		context = new TrueContext(
+				new CompoundTheory(
+						new DifferenceArithmeticTheory(false, false),
+						new EqualityTheory(false, false),
+						new PropositionalTheory()));
+		context = context.extendWithSymbolsAndTypes("X", "1..10", "Y", "1..10");
+		context = context.conjoin(parse("X > 4"));
+	}
+
+	@Test
+	public void testResults() {
+		assertEquals(ConstraintSplitting.Result.LITERAL_IS_TRUE,      ContextSplitting.make(parse("X > 2"), context).getResult());
+		assertEquals(ConstraintSplitting.Result.LITERAL_IS_FALSE,     ContextSplitting.make(parse("X < 3"), context).getResult());
+		assertEquals(ConstraintSplitting.Result.LITERAL_IS_UNDEFINED, ContextSplitting.make(parse("X < Y"), context).getResult());
+		assertEquals(ConstraintSplitting.Result.CONSTRAINT_IS_CONTRADICTORY, ContextSplitting.make(parse("X < Y"), context.makeContradiction()).getResult());
+	}
+
+	@Test
+	public void testBranchesAreEquivalentToConjoining() {
+		ContextSplitting split = ContextSplitting.make(parse("X < Y"), context);
+		assertEquals(parse("true"), split.getContextAndLiteral().evaluate(parse("Y > 5")));
+		assertEquals(parse("false"), split.getContextAndLiteralNegation().evaluate(parse("Y > X")));
+		assertSame(split.getContextAndLiteral(), split.getContextAndLiteralEqualTo(true));
+	}
+
+	@Test
+	public void testSplittingsAreMemoizedPerContextAndLiteral() {
+		ContextSplitting split = ContextSplitting.make(parse("X < Y"), context);
+		assertEquals(ConstraintSplitting.Result.LITERAL_IS_UNDEFINED, split.getResult());
+		assertEquals(ConstraintSplitting.Result.LITERAL_IS_UNDEFINED, context.getMemoizedSplittings().get(parse("X < Y")).getResult()); // kept by the context itself
+		ContextSplitting again = ContextSplitting.make(parse("X < Y"), context);
+		assertSame(split.getContextAndLiteral(), again.getContextAndLiteral()); // reused while still reachable from split
+		assertSame(split.getContextAndLiteralNegation(), again.getContextAndLiteralNegation());
+		assertNotSame(split.getContextAndLiteral(), ContextSplitting.make(parse("X < 7"), context).getContextAndLiteral());
+		assertNotSame(split.getContextAndLiteral(), ContextSplitting.make(parse("X < Y"), context.conjoin(parse("Y > 2"))).getContextAndLiteral());
+
+		// a constraint split under a different context is not reused
+		Context otherContext = context.conjoin(parse("Y < 3"));
+		ConstraintSplitting underContext = ConstraintSplitting.make(parse("X < Y"), context, context);
+		ConstraintSplitting underOtherContext = ConstraintSplitting.make(parse("X < Y"), context, otherContext);
+		assertNotSame(underContext.getConstraintAndLiteral(), underOtherContext.getConstraintAndLiteral());
+		assertSame(underOtherContext.getConstraintAndLiteral(), ConstraintSplitting.make(parse("X < Y"), context, otherContext).getConstraintAndLiteral());
+	}
+
+	@Test
+	public void testMemoizedSplittingsDoNotKeepBranchesAlive() {
+		WeakReference<Context> branch = new WeakReference<>(ContextSplitting.make(parse("X < Y"), context).getContextAndLiteral());
+		for (int i = 0; branch.get() != null && i != 100; i++) {
+			System.gc();
+		}
+		assertNull(branch.get());
+		assertEquals(ConstraintSplitting.Result.LITERAL_IS_UNDEFINED, ContextSplitting.make(parse("X < Y"), context).getResult());
+	}
+}
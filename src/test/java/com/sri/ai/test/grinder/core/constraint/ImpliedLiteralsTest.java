@@ -0,0 +1,94 @@
+package com.sri.ai.test.grinder.core.constraint;
+
+import static com.sri.ai.expresso.helper.Expressions.parse;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sri.ai.grinder.api.Context;
+import com.sri.ai.grinder.core.TrueContext;
+import com.sri.ai.grinder.core.constraint.ContextSplitting;
+import com.sri.ai.grinder.core.constraint.ImpliedLiterals;
+import com.sri.ai.grinder.theory.compound.CompoundTheory;
+import com.sri.ai.grinder.theory.differencearithmetic.DifferenceArithmeticTheory;
+import com.sri.ai.grinder.theory.equality.EqualityTheory;
+import com.sri.ai.grinder.theory.propositional.PropositionalTheory;
+
+public class ImpliedLiteralsTest {
+
+	private Context context;
+
+	@Before
+	public void setUp() {
+		context = new TrueContext(
+				new CompoundTheory(
+						new DifferenceArithmeticTheory(false, false),
+						new EqualityTheory(false, false),
+						new PropositionalTheory()));
+		context = context.extendWithSymbolsAndTypes("X", "1..10", "Y", "1..10", "Z", "1..10");
+		context = context.conjoin(parse("X > 4"));
+	}
+
+	@Test
+	public void testSplittingRecordsResults() {
+		ContextSplitting.make(parse("X > 2"), context).getResult();
+		ContextSplitting.make(parse("X < 3"), context).getResult();
+		ContextSplitting.make(parse("X < Y"), context).getResult();
+
+		assertEquals(Boolean.TRUE, ImpliedLiterals.getKnownValue(parse("X > 2"), context));
+		assertEquals(Boolean.FALSE, ImpliedLiterals.getKnownValue(parse("X < 3"), context));
+		assertNull(ImpliedLiterals.getKnownValue(parse("X < Y"), context));
+	}
+
+	@Test
+	public void testBranchesRecordSplitLiteral() {
+		ContextSplitting split = ContextSplitting.make(parse("X < Y"), context);
+		assertEquals(Boolean.TRUE, ImpliedLiterals.getKnownValue(parse("X < Y"), split.getContextAndLiteral()));
+		assertEquals(Boolean.FALSE, ImpliedLiterals.getKnownValue(parse("X < Y"), split.getContextAndLiteralNegation()));
+	}
+
+	@Test
+	public void testExtensionsInheritImpliedLiterals() {
+		ContextSplitting.make(parse("X > 2"), context).getResult();
+		ContextSplitting.make(parse("Y < Z"), context).getResult();
+
+		Context extension = context.conjoin(parse("Y < Z")).conjoin(parse("Z < 9"));
+		assertEquals(Boolean.TRUE, ImpliedLiterals.getKnownValue(parse("X > 2"), extension));
+
+		// the parent is not affected by what is learned in the extension
+		ContextSplitting.make(parse("Y < 9"), extension).getResult();
+		assertEquals(Boolean.TRUE, ImpliedLiterals.getKnownValue(parse("Y < 9"), extension));
+		assertNull(ImpliedLiterals.getKnownValue(parse("Y < 9"), context));
+	}
+
+	@Test
+	public void testContradictionsAndClonesDoNotShareCache() {
+		ContextSplitting.make(parse("X > 2"), context).getResult();
+		assertNull(ImpliedLiterals.getKnownValue(parse("X > 2"), context.makeContradiction()));
+		assertNull(context.clone().getImpliedLiterals().getValue(parse("X > 2")));
+	}
+
+	@Test
+	public void testEquivalentContextsDoNotFormCycles() {
+		Context equivalent = context.conjoin(parse("X > 3"));
+		equivalent.conjoin(parse("X > 2"));
+		context.conjoin(parse("X > 1"));
+		assertNull(ImpliedLiterals.getKnownValue(parse("X < Y"), equivalent));
+		assertNull(ImpliedLiterals.getKnownValue(parse("X < Y"), context));
+	}
+
+	@Test
+	public void testCachesOnlyInheritFromOlderCaches() {
+		ImpliedLiterals older = new ImpliedLiterals();
+		ImpliedLiterals newer = new ImpliedLiterals();
+		older.recordValue(parse("X > 2"), true);
+		newer.recordValue(parse("Y > 2"), true);
+		
+		older.inheritFrom(newer);
+		newer.inheritFrom(older);
+		assertNull(older.getValue(parse("Y > 2")));
+		assertEquals(Boolean.TRUE, newer.getValue(parse("X > 2")));
+	}
+}
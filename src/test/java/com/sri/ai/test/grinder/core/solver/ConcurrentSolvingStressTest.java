@@ -0,0 +1,116 @@
+package com.sri.ai.test.grinder.core.solver;
+
+import static com.sri.ai.expresso.helper.Expressions.parse;
+import static com.sri.ai.grinder.helper.GrinderUtil.BOOLEAN_TYPE;
+import static com.sri.ai.util.Util.arrayList;
+import static com.sri.ai.util.Util.map;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.google.common.annotations.Beta;
+import com.sri.ai.expresso.api.Expression;
+import com.sri.ai.expresso.api.Type;
+import com.sri.ai.expresso.type.Categorical;
+import com.sri.ai.expresso.type.IntegerInterval;
+import com.sri.ai.grinder.group.AssociativeCommutativeGroup;
+import com.sri.ai.grinder.group.Max;
+import com.sri.ai.grinder.group.Sum;
+import com.sri.ai.grinder.tester.SGDPLLTTester;
+import com.sri.ai.grinder.tester.TheoryTestingSupport;
+import com.sri.ai.grinder.theory.compound.CompoundTheory;
+import com.sri.ai.grinder.theory.differencearithmetic.DifferenceArithmeticTheory;
+import com.sri.ai.grinder.theory.equality.EqualityTheory;
+import com.sri.ai.grinder.theory.propositional.PropositionalTheory;
+import com.sri.ai.util.base.Pair;
+
+/**
+ * Solves the same random {@link SGDPLLTTester} problems sequentially and from several threads at once
+ * (each thread with its own theory and context) and checks that the solutions coincide.
+ */
+@Beta
+public class ConcurrentSolvingStressTest {
+
+	private static final int NUMBER_OF_THREADS = 4;
+	private static final int NUMBER_OF_SEEDS = 16;
+	private static final int NUMBER_OF_PROBLEMS_PER_SEED = 5;
+
+	@Test
+	public void testSumProblemsInParallelMatchSequentialSolutions() throws InterruptedException, ExecutionException {
+		runAndCompare(new Sum());
+	}
+
+	@Test
+	public void testMaxProblemsInParallelMatchSequentialSolutions() throws InterruptedException, ExecutionException {
+		runAndCompare(new Max());
+	}
+
+	private static void runAndCompare(AssociativeCommutativeGroup group) throws InterruptedException, ExecutionException {
+		List<List<Pair<Expression, Expression>>> sequential = new ArrayList<>();
+		for (int seed = 0; seed != NUMBER_OF_SEEDS; seed++) {
+			sequential.add(solve(group, seed));
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(NUMBER_OF_THREADS);
+		try {
+			List<Future<List<Pair<Expression, Expression>>>> futures = new ArrayList<>();
+			for (int seed = 0; seed != NUMBER_OF_SEEDS; seed++) {
+				int finalSeed = seed;
+				futures.add(executor.submit(() -> solve(group, finalSeed)));
+			}
+			for (int seed = 0; seed != NUMBER_OF_SEEDS; seed++) {
+				List<Pair<Expression, Expression>> concurrent = futures.get(seed).get();
+				for (int i = 0; i != NUMBER_OF_PROBLEMS_PER_SEED; i++) {
+					Pair<Expression, Expression> expected = sequential.get(seed).get(i);
+					Pair<Expression, Expression> actual = concurrent.get(i);
+					assertEquals("Problem generated for seed " + seed, expected.first, actual.first);
+					assertEquals("Solution of " + expected.first, expected.second, actual.second);
+				}
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static List<Pair<Expression, Expression>> solve(AssociativeCommutativeGroup group, int seed) {
+		return SGDPLLTTester.solveRandomGroupProblemsForMultipleIndices(
+				2 /* number of indices */,
+				group,
+				makeTheoryTestingSupport(seed),
+				NUMBER_OF_PROBLEMS_PER_SEED,
+				5 /* max number of literals */,
+				2 /* body depth */);
+	}
+
+	private static TheoryTestingSupport makeTheoryTestingSupport(int seed) {
+		TheoryTestingSupport result = TheoryTestingSupport.make(new Random(seed), new CompoundTheory(
+				new EqualityTheory(false, true),
+				new DifferenceArithmeticTheory(false, true),
+				new PropositionalTheory()));
+
+		Categorical dogsType = new Categorical("Dogs", 4, arrayList(parse("fido"), parse("rex")));
+		IntegerInterval oneTwoThree = new IntegerInterval(1, 3);
+		Map<String, Type> variablesAndTypes =
+				map(
+						"F", BOOLEAN_TYPE,
+						"G", BOOLEAN_TYPE,
+						"R", dogsType,
+						"S", dogsType,
+						"T", oneTwoThree,
+						"U", oneTwoThree
+						);
+		result.setVariableNamesAndTypesForTesting(variablesAndTypes);
+
+		return result;
+	}
+}
@@ -0,0 +1,144 @@
+package com.sri.ai.test.grinder.core.solver;
+
+import static com.sri.ai.expresso.helper.Expressions.parse;
+import static com.sri.ai.util.Util.list;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sri.ai.expresso.api.Expression;
+import com.sri.ai.grinder.api.Context;
+import com.sri.ai.grinder.api.MultiQuantifierEliminationProblem;
+import com.sri.ai.grinder.core.TrueContext;
+import com.sri.ai.grinder.core.solver.AbstractMultiQuantifierEliminator;
+import com.sri.ai.grinder.core.solver.BudgetedSolution;
+import com.sri.ai.grinder.core.solver.Deadline;
+import com.sri.ai.grinder.core.solver.DeadlineAwareSolver;
+import com.sri.ai.grinder.core.solver.DeadlineExceededException;
+import com.sri.ai.grinder.core.solver.DefaultMultiQuantifierEliminationProblem;
+import com.sri.ai.grinder.core.solver.DefaultMultiQuantifierEliminator;
+import com.sri.ai.grinder.group.Conjunction;
+import com.sri.ai.grinder.group.Max;
+import com.sri.ai.grinder.group.Sum;
+import com.sri.ai.grinder.theory.compound.CompoundTheory;
+import com.sri.ai.grinder.theory.differencearithmetic.DifferenceArithmeticTheory;
+import com.sri.ai.grinder.theory.equality.EqualityTheory;
+import com.sri.ai.grinder.theory.linearrealarithmetic.LinearRealArithmeticTheory;
+import com.sri.ai.grinder.theory.propositional.PropositionalTheory;
+
+public class DeadlineAwareSolverTest {
+
+	/** An eliminator that never finishes, but periodically checks whether it has been interrupted. */
+	private static class NeverEndingEliminator extends AbstractMultiQuantifierEliminator {
+		@Override
+		public Expression solve(MultiQuantifierEliminationProblem problem, Context context) {
+			while (true) {
+				checkInterrupted();
+			}
+		}
+	}
+
+	private Context context;
+
+	@Before
+	public void setUp() {
+		context = new TrueContext(
+				new CompoundTheory(
+						new DifferenceArithmeticTheory(false, false),
+						new LinearRealArithmeticTheory(false, false),
+						new EqualityTheory(false, false),
+						new PropositionalTheory()));
+		context = context.extendWithSymbolsAndTypes("I", "1..10", "J", "1..10", "K", "1..1000");
+	}
+
+	@Test
+	public void testExactWithinBudget() {
+		MultiQuantifierEliminationProblem problem =
+				new DefaultMultiQuantifierEliminationProblem(new Sum(), list(parse("I")), list(parse("1..10")), parse("true"), parse("I"));
+		BudgetedSolution solution = new DefaultMultiQuantifierEliminator().solve(problem, context, 60000);
+		assertEquals(BudgetedSolution.Kind.EXACT, solution.getKind());
+		assertEquals(parse("55"), solution.getValue());
+	}
+
+	@Test
+	public void testEstimateWhenExactSolverRunsOutOfTime() {
+		MultiQuantifierEliminationProblem problem =
+				new DefaultMultiQuantifierEliminationProblem(new Sum(), list(parse("K")), list(parse("1..1000")), parse("K > 500"), parse("3"));
+		DeadlineAwareSolver solver = new DeadlineAwareSolver(new NeverEndingEliminator(), 0.5, 0.01, new Random(1));
+		BudgetedSolution solution = solver.solve(problem, context, 200);
+		assertEquals(BudgetedSolution.Kind.ESTIMATE, solution.getKind());
+		assertEquals(parse("1500"), solution.getValue());
+		assertTrue(solution.getNumberOfSamples() > 0);
+	}
+
+	@Test
+	public void testBoundsWhenMultipleIndicesRunOutOfTime() {
+		MultiQuantifierEliminationProblem problem =
+				new DefaultMultiQuantifierEliminationProblem(
+						new Sum(), list(parse("I"), parse("J")), list(parse("1..10"), parse("1..10")), parse("true"), parse("if I > J then 2 else -1"));
+		BudgetedSolution solution = new DeadlineAwareSolver(new NeverEndingEliminator()).solve(problem, context, 100);
+		assertEquals(BudgetedSolution.Kind.BOUNDS, solution.getKind());
+		assertNull(solution.getValue());
+		assertEquals(parse("-100"), solution.getLowerBound());
+		assertEquals(parse("200"), solution.getUpperBound());
+	}
+
+	@Test
+	public void testBounds() {
+		BudgetedSolution bounds;
+
+		bounds = DeadlineAwareSolver.bounds(
+				new DefaultMultiQuantifierEliminationProblem(new Sum(), list(parse("I")), list(parse("1..10")), parse("I > 3"), parse("if I > 5 then 2 else 3")),
+				context);
+		assertEquals(parse("0"), bounds.getLowerBound());
+		assertEquals(parse("30"), bounds.getUpperBound());
+
+		bounds = DeadlineAwareSolver.bounds(
+				new DefaultMultiQuantifierEliminationProblem(new Max(), list(parse("I")), list(parse("1..10")), parse("true"), parse("if I > 5 then 2 else 3")),
+				context);
+		assertEquals(parse("2"), bounds.getLowerBound());
+		assertEquals(parse("3"), bounds.getUpperBound());
+
+		bounds = DeadlineAwareSolver.bounds(
+				new DefaultMultiQuantifierEliminationProblem(new Max(), list(parse("I")), list(parse("1..10")), parse("I > 3"), parse("if I > 5 then 2 else 3")),
+				context);
+		assertEquals(parse("-infinity"), bounds.getLowerBound());
+		assertEquals(parse("3"), bounds.getUpperBound());
+
+		bounds = DeadlineAwareSolver.bounds(
+				new DefaultMultiQuantifierEliminationProblem(new Sum(), list(parse("I")), list(parse("1..10")), parse("true"), parse("I")),
+				context);
+		assertEquals(parse("-infinity"), bounds.getLowerBound());
+		assertEquals(parse("infinity"), bounds.getUpperBound());
+
+		bounds = DeadlineAwareSolver.bounds(
+				new DefaultMultiQuantifierEliminationProblem(new Conjunction(), list(parse("I")), list(parse("1..10")), parse("true"), parse("I > 3")),
+				context);
+		assertEquals(parse("false"), bounds.getLowerBound());
+		assertEquals(parse("true"), bounds.getUpperBound());
+	}
+
+	@Test
+	public void testNestedDeadlinesUseTheEarliest() {
+		Deadline outer = Deadline.afterMilliseconds(10);
+		Deadline inner = Deadline.afterMilliseconds(60000);
+		try {
+			Deadline.runUnder(outer, () -> Deadline.runUnder(inner, () -> {
+				while (true) {
+					Deadline.checkCurrent();
+				}
+			}));
+			fail("Deadline should have been exceeded");
+		}
+		catch (DeadlineExceededException exception) {
+			// expected
+		}
+		assertNull(Deadline.getCurrent());
+	}
+}
@@ -0,0 +1,92 @@
+package com.sri.ai.test.grinder.core.solver;
+
+import static com.sri.ai.expresso.helper.Expressions.TRUE;
+import static com.sri.ai.expresso.helper.Expressions.apply;
+import static com.sri.ai.expresso.helper.Expressions.parse;
+import static com.sri.ai.util.Util.list;
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sri.ai.expresso.api.Expression;
+import com.sri.ai.grinder.api.Context;
+import com.sri.ai.grinder.core.TrueContext;
+import com.sri.ai.grinder.core.solver.IncrementalSGVET;
+import com.sri.ai.grinder.core.solver.SGVET;
+import com.sri.ai.grinder.group.SumProduct;
+import com.sri.ai.grinder.library.FunctorConstants;
+import com.sri.ai.grinder.theory.compound.CompoundTheory;
+import com.sri.ai.grinder.theory.differencearithmetic.DifferenceArithmeticTheory;
+import com.sri.ai.grinder.theory.equality.EqualityTheory;
+import com.sri.ai.grinder.theory.propositional.PropositionalTheory;
+
+public class IncrementalSGVETTest {
+
+	private Context context;
+	private List<Expression> indices;
+
+	@Before
+	public void setUp() {
+		context = new TrueContext(
+				new CompoundTheory(
+						new DifferenceArithmeticTheory(false, false),
+						new EqualityTheory(false, false),
+						new PropositionalTheory()));
+		context = context.extendWithSymbolsAndTypes("X", "1..3", "Y", "1..3", "Z", "1..3");
+		indices = list(parse("X"), parse("Y"), parse("Z"));
+	}
+
+	@Test
+	public void testOnlyEliminationsTouchingChangedFactorsAreRecomputed() {
+		IncrementalSGVET solver = new IncrementalSGVET(new SumProduct(), indices, context);
+		solver.addFactor(parse("if X < Y then 2 else 1"));
+		solver.addFactor(parse("if Y < Z then 3 else 1"));
+
+		assertEquals(solveFromScratch(solver.getFactors()), solver.solve());
+		assertEquals(list(parse("X"), parse("Y"), parse("Z")), solver.getEliminationOrder());
+		assertEquals(3, solver.getNumberOfComputedEliminations());
+
+		// a factor on Z only affects the last elimination
+		solver.addFactor(parse("if Z > 2 then 5 else 1"));
+		assertEquals(solveFromScratch(solver.getFactors()), solver.solve());
+		assertEquals(1, solver.getNumberOfComputedEliminations());
+		assertEquals(2, solver.getNumberOfReusedEliminations());
+
+		// a factor on X affects all eliminations
+		solver.addFactor(parse("if X = 1 then 7 else 1"));
+		assertEquals(solveFromScratch(solver.getFactors()), solver.solve());
+		assertEquals(3, solver.getNumberOfComputedEliminations());
+		assertEquals(0, solver.getNumberOfReusedEliminations());
+
+		solver.removeFactor(parse("if Z > 2 then 5 else 1"));
+		assertEquals(solveFromScratch(solver.getFactors()), solver.solve());
+		assertEquals(1, solver.getNumberOfComputedEliminations());
+		assertEquals(2, solver.getNumberOfReusedEliminations());
+
+		assertEquals(solveFromScratch(solver.getFactors()), solver.solve());
+		assertEquals(0, solver.getNumberOfComputedEliminations());
+		assertEquals(3, solver.getNumberOfReusedEliminations());
+	}
+
+	@Test
+	public void testIndicesWithoutFactors() {
+		IncrementalSGVET solver = new IncrementalSGVET(new SumProduct(), indices, context);
+		assertEquals(parse("27"), solver.solve());
+		solver.addFactor(parse("if X = Y then 1 else 0"));
+		assertEquals(parse("9"), solver.solve());
+	}
+
+	@Test(expected=Error.class)
+	public void testRemovingFactorNotAdded() {
+		IncrementalSGVET solver = new IncrementalSGVET(new SumProduct(), indices, context);
+		solver.removeFactor(parse("if X = Y then 1 else 0"));
+	}
+
+	private Expression solveFromScratch(List<Expression> factors) {
+		Expression product = apply(FunctorConstants.TIMES, factors);
+		return new SGVET().solve(new SumProduct(), indices, TRUE, product, context);
+	}
+}
@@ -0,0 +1,120 @@
+package com.sri.ai.test.grinder.core.solver;
+
+import static com.sri.ai.expresso.helper.Expressions.parse;
+import static com.sri.ai.util.Util.list;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sri.ai.expresso.api.Expression;
+import com.sri.ai.expresso.type.Categorical;
+import com.sri.ai.grinder.api.Context;
+import com.sri.ai.grinder.api.MultiQuantifierEliminationProblem;
+import com.sri.ai.grinder.core.TrueContext;
+import com.sri.ai.grinder.core.solver.AbstractMultiQuantifierEliminator;
+import com.sri.ai.grinder.core.solver.DefaultMultiQuantifierEliminationProblem;
+import com.sri.ai.grinder.core.solver.DefaultMultiQuantifierEliminator;
+import com.sri.ai.grinder.core.solver.PersistentlyCachedMultiQuantifierEliminator;
+import com.sri.ai.grinder.group.Sum;
+import com.sri.ai.grinder.theory.compound.CompoundTheory;
+import com.sri.ai.grinder.theory.differencearithmetic.DifferenceArithmeticTheory;
+import com.sri.ai.grinder.theory.equality.EqualityTheory;
+import com.sri.ai.grinder.theory.propositional.PropositionalTheory;
+
+public class PersistentlyCachedMultiQuantifierEliminatorTest {
+
+	private static final long MAXIMUM_SIZE = 1 << 20;
+	
+	/** An eliminator counting how many problems it was asked to solve. */
+	private static class CountingEliminator extends AbstractMultiQuantifierEliminator {
+		int numberOfSolvedProblems = 0;
+		@Override
+		public Expression solve(MultiQuantifierEliminationProblem problem, Context context) {
+			numberOfSolvedProblems++;
+			return new DefaultMultiQuantifierEliminator().solve(problem, context);
+		}
+	}
+
+	private Path file;
+	private CountingEliminator base;
+
+	@Before
+	public void setUp() throws IOException {
+		file = Files.createTempFile("persistently-cached-eliminator", ".bin");
+		base = new CountingEliminator();
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	@Test
+	public void testResultsSurviveReopening() throws IOException {
+		Context context = makeContext(new Categorical("People", 3, parse("ann"), parse("bob")));
+		Expression expected;
+		try (PersistentCachedEliminator eliminator = new PersistentCachedEliminator()) {
+			expected = eliminator.solve(makeProblem("X", "X != bob"), context);
+		}
+		try (PersistentCachedEliminator eliminator = new PersistentCachedEliminator()) {
+			assertEquals(expected, eliminator.solve(makeProblem("X", "X != bob"), context));
+			assertEquals(expected, eliminator.solve(makeProblem("W", "W != bob"), context)); // indices are renamed canonically
+		}
+		assertEquals(1, base.numberOfSolvedProblems);
+		assertEquals(parse("2"), expected);
+	}
+
+	@Test
+	public void testRedefinedCategoricalTypeDoesNotReuseStaleEntry() throws IOException {
+		Context withBob = makeContext(new Categorical("People", 3, parse("ann"), parse("bob")));
+		Context withoutBob = makeContext(new Categorical("People", 3, parse("ann"), parse("carl")));
+		Context larger = makeContext(new Categorical("People", 4, parse("ann"), parse("bob")));
+		
+		MultiQuantifierEliminationProblem problem = makeProblem("X", "X != bob");
+		assertNotEquals(
+				PersistentlyCachedMultiQuantifierEliminator.fingerprintOrNull(problem, withBob),
+				PersistentlyCachedMultiQuantifierEliminator.fingerprintOrNull(problem, withoutBob));
+		assertNotEquals(
+				PersistentlyCachedMultiQuantifierEliminator.fingerprintOrNull(problem, withBob),
+				PersistentlyCachedMultiQuantifierEliminator.fingerprintOrNull(problem, larger));
+		
+		try (PersistentCachedEliminator eliminator = new PersistentCachedEliminator()) {
+			assertEquals(parse("2"), eliminator.solve(problem, withBob));
+			assertEquals(parse("3"), eliminator.solve(problem, larger));
+			assertEquals(2, base.numberOfSolvedProblems);
+			assertEquals(2, eliminator.getStore().size());
+		}
+	}
+
+	/** A cached eliminator on the test's file and base eliminator that closes its store when done. */
+	private class PersistentCachedEliminator extends PersistentlyCachedMultiQuantifierEliminator implements AutoCloseable {
+		PersistentCachedEliminator() throws IOException {
+			super(base, file, MAXIMUM_SIZE);
+		}
+		@Override
+		public void close() throws IOException {
+			getStore().close();
+		}
+	}
+
+	private static Context makeContext(Categorical people) {
+		Context context = new TrueContext(
+				new CompoundTheory(
+						new DifferenceArithmeticTheory(false, false),
+						new EqualityTheory(false, false),
+						new PropositionalTheory()));
+		context = context.makeNewContextWithAddedType(people);
+		return context;
+	}
+
+	private static MultiQuantifierEliminationProblem makeProblem(String index, String condition) {
+		return new DefaultMultiQuantifierEliminationProblem(new Sum(), list(parse(index)), list(parse("People")), parse(condition), parse("1"));
+	}
+}
@@ -38,6 +38,7 @@ import com.sri.ai.grinder.theory.equality.EqualityTheory;
 import com.sri.ai.grinder.theory.linearrealarithmetic.LinearRealArithmeticTheory;
 import com.sri.ai.grinder.theory.linearrealarithmetic.SingleVariableLinearRealArithmeticConstraint;
 import com.sri.ai.grinder.theory.propositional.PropositionalTheory;
+import com.sri.ai.util.math.Rational;
 
 public class AssignmentsSamplingIteratorTest {
 
@@ -68,6 +69,16 @@ public class AssignmentsSamplingIteratorTest {
 		Assert.assertEquals("{N=p5}:{N=p5}:{N=p2}:{N=p4}", join(":", newSamplingIterator("N", 4, "N != p1")));
 	}
 	
+	@Test
+	public void testSampleOverCategoricalTypeWithSelectiveCondition() {
+		updateContextWithIndexAndType("N", 
+				new Categorical("People", 5, parse("p1"), parse("p2"), parse("p3"), parse("p4"), parse("p5")));		
+		
+		Assert.assertEquals("{N=p2}:{N=p2}:{N=p2}", join(":", newSamplingIterator("N", 3, "N = p2 and N != p4")));
+		Assert.assertEquals("", join(":", newSamplingIterator("N", 3, "N = p2 and N = p3")));
+		Assert.assertEquals("{N=p5}:{N=p3}:{N=p3}:{N=p3}", join(":", newSamplingIterator("N", 4, "N != p1 and N != p2 and p4 != N")));
+	}
+	
 	@Test
 	public void testSampleOverIntegerInterval() {
 		updateContextWithIndexAndType("I", new IntegerInterval(1,10));				
@@ -75,7 +86,21 @@ public class AssignmentsSamplingIteratorTest {
 		Assert.assertEquals("{I=3}:{I=6}:{I=5}", join(":", newSamplingIterator("I", 3, "I > 2 and I < 8"))); // Sub-Interval
 		Assert.assertEquals("{I=2}:{I=2}:{I=2}", join(":", newSamplingIterator("I", 3, "I = 2"))); // Singleton
 		Assert.assertEquals("", join(":", newSamplingIterator("I", 3, "I = 11"))); // Empty Set
-		Assert.assertEquals("{I=9}:{I=9}:{I=9}", join(":", newSamplingIterator("I", 3, "I != 1 and I != 3 and I !=4 and I != 5 and I != 6 and I !=7 and I != 8 and I != 10"))); // Broken Interval
+		Assert.assertEquals("{I=2}:{I=9}:{I=9}", join(":", newSamplingIterator("I", 3, "I != 1 and I != 3 and I !=4 and I != 5 and I != 6 and I !=7 and I != 8 and I != 10"))); // Broken Interval
+	}
+	
+	@Test
+	public void testSampleOverIntegerIntervalTooLargeToBeIndexed() {
+		updateContextWithIndexAndType("I", new IntegerInterval("0..3000000000"));
+		
+		Iterator<Assignment> samplingIterator = newSamplingIterator("I", 10, "I != 5");
+		while (samplingIterator.hasNext()) {
+			Expression value = samplingIterator.next().get(parse("I"));
+			Assert.assertTrue(value.rationalValue().isInteger());
+			Assert.assertTrue(value.rationalValue().compareTo(new Rational(0)) >= 0);
+			Assert.assertTrue(value.rationalValue().compareTo(new Rational(3000000000L)) <= 0);
+			Assert.assertFalse(value.equals(5));
+		}
 	}
 	
 	@Test
@@ -85,7 +110,7 @@ public class AssignmentsSamplingIteratorTest {
 		Assert.assertEquals("{I=3}:{I=6}:{I=5}", join(":", newSamplingIterator("I", 3, "I > 2 and I < 8"))); // Sub-Interval
 		Assert.assertEquals("{I=2}:{I=2}:{I=2}", join(":", newSamplingIterator("I", 3, "I = 2"))); // Singleton
 		Assert.assertEquals("", join(":", newSamplingIterator("I", 3, "I = 11 and I != 11"))); // Empty Set
-		Assert.assertEquals("{I=9}:{I=9}:{I=10}", join(":", newSamplingIterator("I", 3, "I >= 1 and I != 3 and I !=4 and I != 5 and I != 6 and I !=7 and I != 8 and I <= 10"))); // Broken Interval
+		Assert.assertEquals("{I=2}:{I=9}:{I=10}", join(":", newSamplingIterator("I", 3, "I >= 1 and I != 3 and I !=4 and I != 5 and I != 6 and I !=7 and I != 8 and I <= 10"))); // Broken Interval
 	}
 	
 	@Test
@@ -120,6 +145,24 @@ public class AssignmentsSamplingIteratorTest {
 		Assert.assertEquals("{T=(6, true)}:{T=(8, true)}:{T=(5, true)}", join(":", newSamplingIterator("T", 3, "true")));
 	}
 	
+	@Test
+	public void testSampleOverMultipleIndices() {
+		updateContextWithIndexAndType("I", new IntegerInterval(1,10));
+		updateContextWithIndexAndType("J", new IntegerInterval(1,10));
+		Expression i = parse("I");
+		Expression j = parse("J");
+		
+		AssignmentsSamplingIterator samplingIterator = new AssignmentsSamplingIterator(Arrays.asList(i, j), parse("I < J"), conditionRewriter, random, context);
+		for (int n = 0; n != 20; n++) {
+			Assignment assignment = samplingIterator.next();
+			Assert.assertEquals(2, assignment.size());
+			Assert.assertTrue(assignment.get(i).intValue() < assignment.get(j).intValue());
+		}
+		Assert.assertTrue(samplingIterator.getNumberOfDraws() >= 20);
+		
+		Assert.assertFalse(new AssignmentsSamplingIterator(Arrays.asList(i, j), parse("false"), conditionRewriter, random, context).hasNext());
+	}
+	
 	private void updateContextWithIndexAndType(String index, Type type) {
 		context = (Context) GrinderUtil.extendRegistryWith(map(index, type.toString()), Arrays.asList(type), context);
 	}
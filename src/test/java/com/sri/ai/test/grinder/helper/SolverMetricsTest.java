@@ -0,0 +1,89 @@
+package com.sri.ai.test.grinder.helper;
+
+import static com.sri.ai.expresso.helper.Expressions.parse;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.sri.ai.grinder.api.Context;
+import com.sri.ai.grinder.application.CommonTheory;
+import com.sri.ai.grinder.core.TrueContext;
+import com.sri.ai.grinder.helper.metrics.Histogram;
+import com.sri.ai.grinder.helper.metrics.MetricsSnapshot;
+import com.sri.ai.grinder.helper.metrics.SolverMetrics;
+
+public class SolverMetricsTest {
+
+	@After
+	public void tearDown() {
+		SolverMetrics.disable();
+	}
+
+	@Test
+	public void testDisabledByDefault() {
+		assertFalse(SolverMetrics.isEnabled());
+		SolverMetrics.increment(SolverMetrics.CONTEXT_SPLITS);
+		assertTrue(SolverMetrics.getSnapshot().getCounters().isEmpty());
+	}
+
+	@Test
+	public void testSolverMetricsAreCollected() {
+		SolverMetrics.enable();
+		
+		Context context = new TrueContext(new CommonTheory()).extendWithSymbolsAndTypes("X", "1..10", "Y", "1..10");
+		context.getTheory().evaluate(parse("if X > 3 then if Y < X then 1 else 2 else 3"), context);
+		context.getTheory().evaluate(parse("sum({{ (on X in 1..10) if X > Y then 1 else 0 }})"), context);
+		
+		MetricsSnapshot snapshot = SolverMetrics.getSnapshot();
+		assertTrue(snapshot.getCount(SolverMetrics.CONTEXT_SPLITS) > 0);
+		assertTrue(snapshot.getCount(SolverMetrics.CONJOIN_CALLS) > 0);
+		assertTrue(snapshot.getCount(SolverMetrics.CONTRADICTION_CHECKS) > 0);
+		assertTrue(snapshot.getTimers().containsKey(SolverMetrics.CONTRADICTION_CHECKS));
+		assertTrue(snapshot.getCounters().keySet().stream().anyMatch(name -> name.startsWith(SolverMetrics.STEPS + "[")));
+		assertTrue(snapshot.getCounters().keySet().stream().anyMatch(name -> name.startsWith(SolverMetrics.SWITCH_APPLICATIONS + "[")));
+		
+		SolverMetrics.getRegistry().reset();
+		assertTrue(SolverMetrics.getSnapshot().getCounters().isEmpty());
+	}
+
+	@Test
+	public void testHistogram() {
+		Histogram histogram = new Histogram();
+		for (long value = 0; value != 100; value++) {
+			histogram.record(value);
+		}
+		Histogram.Snapshot snapshot = histogram.getSnapshot();
+		assertEquals(100, snapshot.getCount());
+		assertEquals(4950, snapshot.getSum());
+		assertEquals(0, snapshot.getMinimum());
+		assertEquals(99, snapshot.getMaximum());
+		assertEquals(49.5, snapshot.getMean(), 0);
+		assertEquals(63, snapshot.getQuantileUpperBound(0.5));
+		assertEquals(99, snapshot.getQuantileUpperBound(1));
+	}
+
+	@Test
+	public void testMBean() throws Exception {
+		SolverMetrics.registerMBean();
+		SolverMetrics.registerMBean(); // registering twice is harmless
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName(SolverMetrics.OBJECT_NAME);
+		
+		server.setAttribute(name, new javax.management.Attribute("Enabled", true));
+		assertTrue(SolverMetrics.isEnabled());
+		SolverMetrics.increment(SolverMetrics.CONTEXT_SPLITS);
+		assertEquals(1L, SolverMetrics.getSnapshot().getCount(SolverMetrics.CONTEXT_SPLITS));
+		assertTrue(server.getAttribute(name, "Counters") != null);
+		
+		server.invoke(name, "reset", new Object[0], new String[0]);
+		assertEquals(0L, SolverMetrics.getSnapshot().getCount(SolverMetrics.CONTEXT_SPLITS));
+	}
+}
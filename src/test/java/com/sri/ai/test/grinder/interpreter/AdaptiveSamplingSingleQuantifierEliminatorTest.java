@@ -0,0 +1,64 @@
+package com.sri.ai.test.grinder.interpreter;
+
+import static com.sri.ai.expresso.helper.Expressions.parse;
+import static com.sri.ai.util.Util.list;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sri.ai.expresso.api.Expression;
+import com.sri.ai.grinder.api.Context;
+import com.sri.ai.grinder.core.TrueContext;
+import com.sri.ai.grinder.group.Sum;
+import com.sri.ai.grinder.interpreter.AdaptiveSamplingSingleQuantifierEliminator;
+import com.sri.ai.grinder.interpreter.TopRewriterUsingContextAssignmentsReceivingBaseTopRewriterAtConstruction;
+import com.sri.ai.grinder.library.commonrewriters.CommonSimplifier;
+import com.sri.ai.grinder.theory.compound.CompoundTheory;
+import com.sri.ai.grinder.theory.differencearithmetic.DifferenceArithmeticTheory;
+import com.sri.ai.grinder.theory.equality.EqualityTheory;
+import com.sri.ai.grinder.theory.linearrealarithmetic.LinearRealArithmeticTheory;
+import com.sri.ai.grinder.theory.propositional.PropositionalTheory;
+
+public class AdaptiveSamplingSingleQuantifierEliminatorTest {
+
+	private Context context;
+	private AdaptiveSamplingSingleQuantifierEliminator eliminator;
+	
+	@Before
+	public void setUp() {
+		context = new TrueContext(
+				new CompoundTheory(
+						new DifferenceArithmeticTheory(false, false),
+						new LinearRealArithmeticTheory(false, false),
+						new EqualityTheory(false, false),
+						new PropositionalTheory()));
+		context = context.extendWithSymbolsAndTypes("I", "1..1000");
+		eliminator = 
+				new AdaptiveSamplingSingleQuantifierEliminator(
+						new TopRewriterUsingContextAssignmentsReceivingBaseTopRewriterAtConstruction(new CommonSimplifier()),
+						10 /* minimum sample size */,
+						100000 /* maximum sample size */,
+						0.05 /* relative error tolerance */,
+						new Random(1));
+	}
+
+	@Test
+	public void testConstantBodyStopsAtMinimumSampleSize() {
+		Expression result = eliminator.solve(new Sum(), list(parse("I")), parse("I > 500"), parse("3"), context);
+		Assert.assertEquals(parse("1500"), result);
+		Assert.assertEquals(10, eliminator.getLastNumberOfSamples());
+		Assert.assertEquals(0, eliminator.getLastErrorBound(), 0);
+	}
+
+	@Test
+	public void testVaryingBodyStopsWhenPreciseEnough() {
+		// exact value is 500500
+		double estimate = eliminator.solve(new Sum(), list(parse("I")), parse("true"), parse("I"), context).doubleValue();
+		Assert.assertTrue(eliminator.getLastNumberOfSamples() < 100000);
+		Assert.assertTrue(eliminator.getLastErrorBound() <= 0.05*Math.abs(estimate));
+		Assert.assertEquals(500500, estimate, 0.15*500500);
+	}
+}
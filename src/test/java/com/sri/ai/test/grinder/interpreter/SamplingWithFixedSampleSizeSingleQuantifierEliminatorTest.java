@@ -0,0 +1,73 @@
+package com.sri.ai.test.grinder.interpreter;
+
+import static com.sri.ai.expresso.helper.Expressions.parse;
+import static com.sri.ai.util.Util.list;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sri.ai.expresso.api.Expression;
+import com.sri.ai.grinder.api.Context;
+import com.sri.ai.grinder.core.TrueContext;
+import com.sri.ai.grinder.group.Sum;
+import com.sri.ai.grinder.interpreter.SamplingWithFixedSampleSizeSingleQuantifierEliminator;
+import com.sri.ai.grinder.interpreter.TopRewriterUsingContextAssignments;
+import com.sri.ai.grinder.interpreter.TopRewriterUsingContextAssignmentsReceivingBaseTopRewriterAtConstruction;
+import com.sri.ai.grinder.library.commonrewriters.CommonSimplifier;
+import com.sri.ai.grinder.theory.compound.CompoundTheory;
+import com.sri.ai.grinder.theory.differencearithmetic.DifferenceArithmeticTheory;
+import com.sri.ai.grinder.theory.equality.EqualityTheory;
+import com.sri.ai.grinder.theory.linearrealarithmetic.LinearRealArithmeticTheory;
+import com.sri.ai.grinder.theory.propositional.PropositionalTheory;
+
+public class SamplingWithFixedSampleSizeSingleQuantifierEliminatorTest {
+
+	private Context context;
+	
+	@Before
+	public void setUp() {
+		context = new TrueContext(
+				new CompoundTheory(
+						new DifferenceArithmeticTheory(false, false),
+						new LinearRealArithmeticTheory(false, false),
+						new EqualityTheory(false, false),
+						new PropositionalTheory()));
+		context = context.extendWithSymbolsAndTypes("I", "1..5", "J", "1..5");
+	}
+
+	@Test
+	public void testMultipleIndicesWithConstantBody() {
+		Assert.assertEquals(parse("50"), solve(1000, 1L, 4, "true", "2"));
+	}
+
+	@Test
+	public void testResultDependsOnSeedOnly() {
+		Expression withOneThread   = solve(1000, 7L, 1, "I < J", "I + J");
+		Expression withFourThreads = solve(1000, 7L, 4, "I < J", "I + J");
+		Assert.assertEquals(withOneThread, withFourThreads);
+		Assert.assertEquals(withOneThread, solve(1000, 7L, 4, "I < J", "I + J"));
+	}
+
+	@Test
+	public void testEstimateIsCloseToExactValue() {
+		// exact value is 60 (each of the 10 pairs I < J contributes I + J, and each value appears in 4 pairs)
+		double estimate = solve(5000, 3L, 4, "I < J", "I + J").doubleValue();
+		Assert.assertEquals(60, estimate, 6);
+		
+		// single index, with measure computed exactly
+		estimate = new SamplingWithFixedSampleSizeSingleQuantifierEliminator(() -> makeTopRewriter(), 2000, 3L, 4)
+				.solve(new Sum(), list(parse("I")), parse("I != 3"), parse("I"), context).doubleValue();
+		Assert.assertEquals(12, estimate, 1.2);
+	}
+
+	private Expression solve(int sampleSize, long seed, int numberOfThreads, String condition, String body) {
+		SamplingWithFixedSampleSizeSingleQuantifierEliminator eliminator = 
+				new SamplingWithFixedSampleSizeSingleQuantifierEliminator(() -> makeTopRewriter(), sampleSize, seed, numberOfThreads);
+		return eliminator.solve(new Sum(), list(parse("I"), parse("J")), parse(condition), parse(body), context);
+	}
+
+	private static TopRewriterUsingContextAssignments makeTopRewriter() {
+		return new TopRewriterUsingContextAssignmentsReceivingBaseTopRewriterAtConstruction(new CommonSimplifier());
+	}
+}
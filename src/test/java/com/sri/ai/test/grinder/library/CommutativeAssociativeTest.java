@@ -0,0 +1,84 @@
+package com.sri.ai.test.grinder.library;
+
+import static com.sri.ai.expresso.helper.Expressions.parse;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import com.sri.ai.expresso.api.Expression;
+import com.sri.ai.grinder.api.Context;
+import com.sri.ai.grinder.core.TrueContext;
+import com.sri.ai.grinder.library.CommutativeAssociative;
+import com.sri.ai.grinder.library.CommutativeAssociativeNormalizer;
+import com.sri.ai.grinder.library.boole.And;
+import com.sri.ai.grinder.library.number.Max;
+import com.sri.ai.grinder.library.number.Plus;
+import com.sri.ai.grinder.library.number.Times;
+
+public class CommutativeAssociativeTest {
+
+	private Context context = new TrueContext();
+
+	@Test
+	public void testApply() {
+		runTest(new Plus(), "Y + 2 + X + 3", "Y + 5 + X");
+		runTest(new Plus(), "X + 0", "X");
+		runTest(new Plus(), "2 + 3", "5");
+		runTest(new Times(), "X * 0 * 2", "0");
+		runTest(new Times(), "2 * X * 3", "6 * X");
+		runTest(new And(), "Y and true and X", "Y and X");
+		runTest(new And(), "Y and X and false", "false");
+	}
+
+	@Test
+	public void testUnchangedExpressionsAreReturnedAsIs() {
+		CommutativeAssociative plus = new Plus();
+		Expression withoutOperables = parse("Y + X");
+		assertSame(withoutOperables, plus.apply(withoutOperables, context));
+		Expression withSingleOperable = parse("Y + 3 + X");
+		assertSame(withSingleOperable, plus.apply(withSingleOperable, context));
+	}
+
+	@Test
+	public void testNormalize() {
+		runNormalizeTest(new Plus(), "Y + (2 + X) + 0 + 3", "5 + X + Y");
+		runNormalizeTest(new Plus(), "X + 0", "X");
+		runNormalizeTest(new Plus(), "2 + 3", "5");
+		runNormalizeTest(new Plus(), "Y + X + Y", "X + Y + Y");
+		runNormalizeTest(new Times(), "X * (Y * 0) * 2", "0");
+		runNormalizeTest(new Times(), "Z * 1 * (Y * X)", "X * Y * Z");
+		runNormalizeTest(new And(), "Y and (X and Y) and true", "X and Y");
+		runNormalizeTest(new And(), "Y and X and false", "false");
+		runNormalizeTest(new Max(), "max(Y, max(2, X), 3)", "max(3, X, Y)");
+		runNormalizeTest(new Plus(), "X * Y", "X * Y");
+	}
+
+	@Test
+	public void testNormalizedExpressionsAreReturnedAsIs() {
+		CommutativeAssociative plus = new Plus();
+		Expression normalized = plus.normalize(parse("Y + 3 + X + 2"));
+		assertEquals(parse("5 + X + Y"), normalized);
+		assertSame(normalized, plus.normalize(normalized));
+		
+		Expression nonNormalized = parse("Y + X");
+		assertEquals(parse("X + Y"), plus.normalize(nonNormalized));
+	}
+
+	@Test
+	public void testNormalizer() {
+		CommutativeAssociativeNormalizer normalizer = new CommutativeAssociativeNormalizer();
+		assertEquals(parse("5 + X + Y"), normalizer.apply(parse("Y + (2 + X) + 3"), context));
+		assertEquals(parse("X and Y"), normalizer.apply(parse("Y and X and Y"), context));
+		assertEquals(parse("false"), normalizer.apply(parse("Y and false and X"), context));
+		assertEquals(parse("f(Y, X)"), normalizer.apply(parse("f(Y, X)"), context));
+	}
+
+	private void runTest(CommutativeAssociative operator, String expression, String expected) {
+		assertEquals(parse(expected), operator.apply(parse(expression), context));
+	}
+
+	private static void runNormalizeTest(CommutativeAssociative operator, String expression, String expected) {
+		assertEquals(parse(expected), operator.normalize(parse(expression)));
+	}
+}
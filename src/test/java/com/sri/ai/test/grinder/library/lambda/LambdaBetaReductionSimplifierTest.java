@@ -44,7 +44,10 @@ import static com.sri.ai.util.Util.arrayList;
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.sri.ai.expresso.api.Expression;
+import com.sri.ai.expresso.api.LambdaExpression;
 import com.sri.ai.expresso.api.Type;
+import com.sri.ai.expresso.helper.Expressions;
 import com.sri.ai.expresso.type.Categorical;
 import com.sri.ai.grinder.api.Context;
 import com.sri.ai.grinder.core.TrueContext;
@@ -92,4 +95,32 @@ public class LambdaBetaReductionSimplifierTest {
 			parse("(lambda X in People, Y in People : if X = ann then 0 else if Y = bob then 0 else 0)(ann, bob, tom)"), 
 			simplifier.apply(parse("(lambda X in People, Y in People : if X = ann then 0 else if Y = bob then 0 else 0)(ann, bob, tom)"), context));
 	}
+
+	@Test
+	public void testSimultaneousReplacement() {
+		Type peopleType = new Categorical("People", 4, arrayList(makeSymbol("ann"), makeSymbol("bob"), makeSymbol("tom")));
+		Context context = new TrueContext();
+		context = context.makeNewContextWithAddedType(peopleType);
+		
+		// arguments are not subject to replacement by later indices
+		Assert.assertEquals(
+			parse("if Y = ann then X else Y"), 
+			simplifier.apply(parse("(lambda X in People, Y in People : if X = ann then Y else X)(Y, X)"), context));
+		
+		// quantified symbols shadow indices
+		Assert.assertEquals(
+			parse("tom = ann and (for all X in People : X = bob)"), 
+			simplifier.apply(parse("(lambda X in People : X = ann and (for all X in People : X = bob))(tom)"), context));
+		
+		// quantified symbols are renamed to avoid capturing free symbols in arguments
+		Assert.assertEquals(
+			parse("for all Y' in People : Y = Y'"), 
+			simplifier.apply(parse("(lambda X in People : for all Y in People : X = Y)(Y)"), context));
+		
+		// unchanged sub-expressions are kept as the same instances
+		Expression application = Expressions.apply(parse("lambda X in People : X = ann and (for all Z in People : Z = bob)"), parse("tom"));
+		Expression reduced = simplifier.apply(application, context);
+		Assert.assertEquals(parse("tom = ann and (for all Z in People : Z = bob)"), reduced);
+		Assert.assertSame(((LambdaExpression) application.getFunctor()).getBody().get(1), reduced.get(1));
+	}
 }
@@ -0,0 +1,84 @@
+package com.sri.ai.test.grinder.library.number;
+
+import static com.sri.ai.expresso.helper.Expressions.parse;
+import static com.sri.ai.util.Util.list;
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.sri.ai.grinder.api.Context;
+import com.sri.ai.grinder.application.CommonTheory;
+import com.sri.ai.grinder.core.TrueContext;
+import com.sri.ai.grinder.library.number.SmallRational;
+import com.sri.ai.util.math.Rational;
+
+public class SmallRationalTest {
+
+	private static final List<Rational> VALUES = list(
+			Rational.ZERO,
+			Rational.ONE,
+			Rational.MINUS_ONE,
+			new Rational(7),
+			new Rational(-12),
+			new Rational(2, 3),
+			new Rational(-5, 6),
+			new Rational(1, Long.MAX_VALUE / 4),
+			new Rational(Long.MAX_VALUE / 3),
+			new Rational(-(Long.MAX_VALUE / 3)),
+			new Rational(Long.MAX_VALUE / 5, 7),
+			new Rational(Long.MAX_VALUE),
+			new Rational(Long.MIN_VALUE),
+			new Rational(new BigInteger("123456789012345678901234567890"), new BigInteger("7"))
+			);
+
+	@Test
+	public void testAccumulationAgreesWithArbitraryPrecision() {
+		for (Rational a : VALUES) {
+			for (Rational b : VALUES) {
+				assertEquals(a + " + " + b, a.add(b), new SmallRational(0).add(a).add(b).toRational());
+				assertEquals(a + " * " + b, a.multiply(b), new SmallRational(1).multiply(a).multiply(b).toRational());
+				assertEquals("-(" + a + " + " + b + ")", a.add(b).negate(), new SmallRational(0).add(a).add(b).negate().toRational());
+			}
+		}
+	}
+
+	@Test
+	public void testAccumulationContinuesAfterOverflow() {
+		SmallRational accumulator = new SmallRational(Long.MAX_VALUE);
+		accumulator.add(Rational.ONE).multiply(new Rational(1, 2)).add(new Rational(-(Long.MAX_VALUE/2)));
+		assertEquals(new Rational(Long.MAX_VALUE).add(Rational.ONE).divide(new Rational(2)).subtract(new Rational(Long.MAX_VALUE/2)), accumulator.toRational());
+		assertEquals(false, accumulator.isZero());
+	}
+
+	@Test
+	public void testSumAndProductAgreeWithArbitraryPrecision() {
+		List<Rational> numbers = new ArrayList<>();
+		Rational sum = Rational.ZERO;
+		Rational product = Rational.ONE;
+		for (Rational value : VALUES) {
+			if ( ! value.isZero()) {
+				numbers.add(value);
+				sum = sum.add(value);
+				product = product.multiply(value);
+				assertEquals(sum, SmallRational.sum(numbers));
+				assertEquals(product, SmallRational.product(numbers));
+			}
+		}
+		assertEquals(Rational.ZERO, SmallRational.sum(list()));
+		assertEquals(Rational.ONE, SmallRational.product(list()));
+	}
+
+	@Test
+	public void testSimplification() {
+		Context context = new TrueContext(new CommonTheory());
+		assertEquals(parse("1/6"), context.getTheory().evaluate(parse("1/2 + -1/3"), context));
+		assertEquals(parse("-4/3"), context.getTheory().evaluate(parse("(2/3) * -2"), context));
+		assertEquals(parse("3/4"), context.getTheory().evaluate(parse("(1/2) / (2/3)"), context));
+		assertEquals(parse("18446744073709551614"), context.getTheory().evaluate(parse("9223372036854775807 + 9223372036854775807"), context));
+		assertEquals(parse("85070591730234615847396907784232501249"), context.getTheory().evaluate(parse("9223372036854775807 * 9223372036854775807"), context));
+	}
+}
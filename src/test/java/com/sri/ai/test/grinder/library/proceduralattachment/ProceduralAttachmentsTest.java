@@ -42,6 +42,7 @@ import static com.sri.ai.expresso.helper.Expressions.makeSymbol;
 import static com.sri.ai.expresso.helper.Expressions.parse;
 import static com.sri.ai.grinder.library.proceduralattachment.ProceduralAttachments.getProceduralAttachmentsTopRewriter;
 import static com.sri.ai.grinder.library.proceduralattachment.ProceduralAttachments.registerProceduralAttachment;
+import static com.sri.ai.grinder.library.proceduralattachment.ProceduralAttachments.registerProceduralAttachments;
 import static com.sri.ai.util.Util.println;
 import static org.junit.Assert.assertEquals;
 
@@ -51,6 +52,7 @@ import com.sri.ai.expresso.api.Expression;
 import com.sri.ai.grinder.api.Context;
 import com.sri.ai.grinder.core.TrueContext;
 import com.sri.ai.grinder.library.commonrewriters.CommonSimplifier;
+import com.sri.ai.grinder.library.proceduralattachment.ProceduralAttachments.Batch;
 import com.sri.ai.grinder.rewriter.api.Rewriter;
 import com.sri.ai.grinder.rewriter.api.Simplifier;
 import com.sri.ai.grinder.rewriter.api.TopRewriter;
@@ -80,6 +82,51 @@ public class ProceduralAttachmentsTest {
 		runTest(input, expected, context);
 	}
 
+	@Test
+	public void testBatch() {
+		Context context;
+		Expression input;
+		Expression expected;
+		
+		context = new TrueContext();
+		
+		Batch batch = new Batch();
+		for (int i = 0; i != 100; i++) {
+			int value = i;
+			batch.add(makeSymbol("c" + i), (Simplifier) (e, c) -> makeSymbol(value));
+			batch.add(makeSymbol("f" + i), 1, (Simplifier) (e, c) -> apply("+", e.get(0), makeSymbol(value)));
+		}
+		batch.add(makeSymbol("f1"), 2, (Simplifier) (e, c) -> apply("*", e.getArguments()));
+		registerProceduralAttachments(batch, context);
+
+		// attachments registered later for the same functor and arity apply if earlier ones do not rewrite
+		Simplifier onlyOnZero = (e, c) -> e.get(0).equals(0)? makeSymbol("zero") : e;
+		registerProceduralAttachment(makeSymbol("g"), 1, onlyOnZero, context);
+		Simplifier otherwise = (e, c) -> makeSymbol("nonzero");
+		registerProceduralAttachment(makeSymbol("g"), 1, otherwise, context);
+
+		input = parse("c3 + f10(c2) + f1(2, 5) + f1(1, 2, 3) + g(0) + g(1)");
+		expected = parse("25 + f1(1, 2, 3) + zero + nonzero");
+		
+		runTest(input, expected, context);
+	}
+
+	@Test
+	public void testRegistrationsAfterTopRewriterIsRequested() {
+		Context context = new TrueContext();
+		
+		for (int i = 0; i != 10; i++) {
+			int value = i;
+			registerProceduralAttachment(makeSymbol("c" + i), (Simplifier) (e, c) -> makeSymbol(value), context);
+			if (i == 4) {
+				runTest(parse("c1 + c4 + c5"), parse("5 + c5"), context);
+			}
+		}
+		registerProceduralAttachment(makeSymbol("f"), 1, (Simplifier) (e, c) -> apply("+", e.get(0), makeSymbol(1)), context);
+		
+		runTest(parse("c1 + c4 + f(c9) + f(1, 2)"), parse("15 + f(1, 2)"), context);
+	}
+
 	private void runTest(Expression input, Expression expected, Context context) {
 		TopRewriter topRewriter;
 		Rewriter evaluator;
@@ -132,6 +132,36 @@ public class InversionSimplifierTest {
 				product, 
 				simplifier.apply(summation, context));
 	}
+	
+	@Test
+	public void testInversionOfProductWithSeveralIndices() {
+		Expression summation = parse("sum({{(on f in 1..10 x 1..10 -> 1..5) product({{(on X in 1..10, Y in 1..10) f(X, Y) : true }}) : true }})");
+	    Expression product   = parse("product({{(on X in 1..10) product({{(on Y in 1..10) sum({{(on f in 1..5) f : true }}) : true }}) : true}})");
+		
+	    Assert.assertEquals(
+				product, 
+				simplifier.apply(summation, context));
+	}
+	
+	@Test
+	public void testInversionOfSummationWithSeveralIndices() {
+		Expression summation = parse("sum({{(on Z in 1..3, f in 1..10 -> 1..5) product({{(on X in 1..10) f(X) : true }}) : true}})");
+	    Expression product   = parse("sum({{(on Z in 1..3) product({{(on X in 1..10) sum({{(on f in 1..5) f }}) : true}}) : true}})");
+		
+	    Assert.assertEquals(
+				product, 
+				simplifier.apply(summation, context));
+	}
+	
+	@Test
+	public void testNoInversionOfSummationWithSeveralIndicesCase1() {
+		Expression summation = parse("sum({{(on f in 1..10 x 1..10 -> 1..5, Z in 1..3) product({{(on X in 1..10, Y in 1..10) f(X, Y) + f(Y, X) : true }}) : true }})");
+	    Expression product   = summation;
+		
+	    Assert.assertEquals(
+				product, 
+				simplifier.apply(summation, context));
+	}
 		
 	
 	@Test
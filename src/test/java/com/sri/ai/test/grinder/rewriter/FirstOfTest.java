@@ -53,11 +53,14 @@ import com.sri.ai.expresso.helper.Expressions;
 import com.sri.ai.grinder.api.Context;
 import com.sri.ai.grinder.api.ExpressionLiteralSplitterStepSolver;
 import com.sri.ai.grinder.api.ExpressionLiteralSplitterStepSolver.Solution;
+import com.sri.ai.grinder.api.ExpressionLiteralSplitterStepSolver.Step;
 import com.sri.ai.grinder.core.TrueContext;
 import com.sri.ai.grinder.core.constraint.ContextSplitting;
 import com.sri.ai.grinder.rewriter.api.Rewriter;
 import com.sri.ai.grinder.rewriter.api.RewriterFromStepMaker;
+import com.sri.ai.grinder.rewriter.core.Exhaustive;
 import com.sri.ai.grinder.rewriter.core.FirstOf;
+import com.sri.ai.grinder.rewriter.core.Recursive;
 import com.sri.ai.grinder.theory.compound.CompoundTheory;
 import com.sri.ai.grinder.theory.differencearithmetic.DifferenceArithmeticTheory;
 import com.sri.ai.grinder.theory.propositional.PropositionalTheory;
@@ -186,6 +189,33 @@ public class FirstOfTest {
 		runTest(rewriters, initial, expected, map(parse("Jump5"), parse("Boolean")));
 	}
 
+	@Test
+	public void testDescriptionsAreOnlyComputedWhenPrinted() {
+		
+		class UnprintableRewriter implements RewriterFromStepMaker {
+			@Override
+			public Step make(Expression e, Context c) {
+				if (Expressions.isNumber(e) && e.intValue() == 2) {
+					return new Solution(DefaultSymbol.createSymbol(3));
+				}
+				return new Solution(e);
+			}
+			
+			@Override
+			public String toString() {
+				throw new Error("Description of base rewriter should not have been computed");
+			}
+		}
+		
+		List<Rewriter> rewriters = Util.<Rewriter>list(new UnprintableRewriter(), new UnprintableRewriter());
+
+		Context context = new TrueContext(new CompoundTheory(new PropositionalTheory(), new DifferenceArithmeticTheory(false, true)));
+		Rewriter rewriter = new Recursive(new Exhaustive(new FirstOf(rewriters)));
+		assertEquals(parse("f(1, 3)"), rewriter.apply(parse("f(1, 2)"), context));
+		
+		assertEquals("Named", new FirstOf("Named", rewriters).toString());
+	}
+
 	private void runTest(List<Rewriter> rewriters, Expression initial, Expression expected, Map<Expression, Expression> symbolsAndTypes) {
 		CompoundTheory theory = new CompoundTheory(new PropositionalTheory(), new DifferenceArithmeticTheory(false, true));
 		Context context = new TrueContext(theory);
@@ -0,0 +1,77 @@
+package com.sri.ai.test.grinder.theory.base;
+
+import static com.sri.ai.expresso.helper.Expressions.parse;
+import static com.sri.ai.util.Util.list;
+import static com.sri.ai.util.Util.mapIntoArrayList;
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import com.sri.ai.expresso.helper.Expressions;
+import com.sri.ai.grinder.api.Context;
+import com.sri.ai.grinder.api.ExpressionLiteralSplitterStepSolver;
+import com.sri.ai.grinder.api.ExpressionLiteralSplitterStepSolver.Step;
+import com.sri.ai.grinder.tester.TheoryTestingSupport;
+import com.sri.ai.grinder.theory.equality.EqualityTheory;
+import com.sri.ai.grinder.theory.equality.NumberOfDistinctExpressionsByEquivalenceClassesStepSolver;
+
+public class NumberOfDistinctExpressionsByEquivalenceClassesStepSolverTest  {
+	
+	private int numberOfSplits;
+	
+	@Test
+	public void test() {
+		runTest("X != Y and X != a and X != b and Y != b", list("X", "Y", "a", "b", "c"), list(3, 4, 5));
+		runTest("true", list("a", "b", "a", "c"), list(3));
+		runTest("X = Y and Y = Z", list("X", "Y", "Z"), list(1));
+		runTest("X = Y", list("X", "Y", "Z"), list(1, 2));
+		runTest("X = Y and X != Z", list("X", "Y", "Z"), list(2));
+		runTest("true", list(), list(0));
+	}
+	
+	@Test
+	public void testSplitsAreOnlyBetweenClassRepresentatives() {
+		// X and Y are known to be in the same class, so Z is only compared to one of them
+		runTest("X = Y", list("X", "Z", "Y"), list(1, 2));
+		assertEquals(1, numberOfSplits);
+
+		// a and b are known to be distinct, so only Z = a and Z = b need to be split on
+		runTest("true", list("a", "Z", "b", "a"), list(2, 3));
+		assertEquals(2, numberOfSplits);
+	}
+
+	private void runTest(String contextString, List<String> elementsStrings, List<Integer> expectedPossibleResults) {
+		TheoryTestingSupport theoryTestingSupport = TheoryTestingSupport.make(new Random(), new EqualityTheory(true, true));
+		Context context = theoryTestingSupport.makeContextWithTestingInformation();
+		context = context.conjoin(parse(contextString), context);
+		NumberOfDistinctExpressionsByEquivalenceClassesStepSolver stepSolver = 
+				new NumberOfDistinctExpressionsByEquivalenceClassesStepSolver(mapIntoArrayList(elementsStrings, Expressions::parse));
+		Set<Integer> possibleResults = new TreeSet<Integer>();
+		numberOfSplits = 0;
+		collectPossibleResults(stepSolver, context, possibleResults);
+		assertEquals(new TreeSet<Integer>(expectedPossibleResults), possibleResults);
+	}
+
+	private void collectPossibleResults(ExpressionLiteralSplitterStepSolver stepSolver, Context context, Set<Integer> possibleResults) {
+		Step step = stepSolver.step(context);
+		if (step.itDepends()) {
+			numberOfSplits++;
+			Context contextIfTrue  = step.getContextSplittingWhenSplitterIsLiteral().getConstraintAndLiteral();
+			Context contextIfFalse = step.getContextSplittingWhenSplitterIsLiteral().getConstraintAndLiteralNegation();
+			if ( ! contextIfTrue.isContradiction()) {
+				collectPossibleResults(step.getStepSolverForWhenSplitterIs(true), contextIfTrue, possibleResults);
+			}
+			if ( ! contextIfFalse.isContradiction()) {
+				collectPossibleResults(step.getStepSolverForWhenSplitterIs(false), contextIfFalse, possibleResults);
+			}
+		}
+		else {
+			possibleResults.add(step.getValue().intValue());
+		}
+	}
+}
@@ -71,6 +71,29 @@ public class BasicTest {
 		debug(problem, parse("P"));
 	}
 
+	@Test
+	public void testAtomsAreRoutedAccordingToRegistry() {
+		CompoundTheory theory = new CompoundTheory(
+				new EqualityTheory(false, true),
+				new DifferenceArithmeticTheory(false, false),
+				new PropositionalTheory());
+		
+		Context context = new TrueContext(theory);
+		Context contextWithBooleanX = context.extendWithSymbolsAndTypes("X", "Boolean");
+		Context contextWithIntegerX = context.extendWithSymbolsAndTypes("X", "1..10");
+		Context contextWithRealX = context.extendWithSymbolsAndTypes("X", "Real");
+		
+		for (int i = 0; i != 2; i++) { // second time uses routing tables
+			Assert.assertTrue(theory.isAtom(parse("X"), contextWithBooleanX));
+			Assert.assertFalse(theory.isAtom(parse("X"), contextWithIntegerX));
+			Assert.assertTrue(theory.isAtom(parse("X > 3"), contextWithIntegerX));
+			Assert.assertFalse(theory.isAtom(parse("X > 3"), contextWithRealX)); // same atom, but its symbol has another type
+			Assert.assertFalse(theory.isAtom(parse("X + 3"), contextWithIntegerX));
+			Assert.assertFalse(theory.mayBeAtom(parse("(X > 3) and (X < 5)")));
+			Assert.assertEquals(parse("not X"), theory.getAtomNegation(parse("X"), contextWithBooleanX));
+		}
+	}
+
 	public void debug(Expression problem, Expression expectedSolution) {
 		
 		CompoundTheory theory = new CompoundTheory(
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2013, SRI International
+ * All rights reserved.
+ * Licensed under the The BSD 3-Clause License;
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * 
+ * http://opensource.org/licenses/BSD-3-Clause
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the aic-expresso nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) 
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, 
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.sri.ai.test.grinder.theory.propositional;
+
+import static com.sri.ai.expresso.helper.Expressions.makeSymbol;
+import static com.sri.ai.expresso.helper.Expressions.parse;
+import static com.sri.ai.util.Util.list;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.sri.ai.expresso.api.Expression;
+import com.sri.ai.grinder.api.Context;
+import com.sri.ai.grinder.application.CommonTheory;
+import com.sri.ai.grinder.core.TrueContext;
+import com.sri.ai.grinder.theory.propositional.DecisionDNNFCompiler;
+import com.sri.ai.grinder.theory.propositional.PropositionalCNF;
+import com.sri.ai.grinder.theory.propositional.PropositionalModelCounter;
+import com.sri.ai.util.math.Rational;
+
+public class PropositionalModelCounterTest {
+
+	private static final List<Expression> XYZ = list(parse("X"), parse("Y"), parse("Z"));
+	
+	@Test
+	public void testCounting() {
+		runCountingTest("X or Y", XYZ, 6);
+		runCountingTest("X and not X", XYZ, 0);
+		runCountingTest("X => Y", list(parse("X"), parse("Y")), 3);
+		runCountingTest("X <=> Y", XYZ, 4);
+		runCountingTest("X != Y and (Y or Z)", XYZ, 3);
+		runCountingTest("if X then Y else Z", XYZ, 4);
+		runCountingTest("(X or Y) and (not X or Z) and (not Y or not Z)", XYZ, 2);
+		runCountingTest("true", XYZ, 8);
+		runCountingTest("false", XYZ, 0);
+	}
+	
+	@Test
+	public void testChain() {
+		// (X1 or X2) and ... and (X29 or X30) has no two consecutive false variables,
+		// so its number of models is Fibonacci(32).
+		List<Expression> symbols = new ArrayList<>();
+		List<Expression> clauses = new ArrayList<>();
+		for (int i = 1; i <= 30; i++) {
+			symbols.add(makeSymbol("X" + i));
+			if (i > 1) {
+				clauses.add(parse("X" + (i - 1) + " or X" + i));
+			}
+		}
+		PropositionalCNF cnf = PropositionalCNF.makeOrNull(clauses, symbols);
+		assertEquals(new Rational(2178309), PropositionalModelCounter.count(cnf));
+		assertEquals(new Rational(2178309), DecisionDNNFCompiler.compile(cnf).modelCount());
+	}
+	
+	@Test
+	public void testNonPropositional() {
+		assertNull(PropositionalCNF.makeOrNull(list(parse("X = 3")), XYZ));
+		assertNull(PropositionalCNF.makeOrNull(list(parse("X and W")), XYZ));
+		assertNull(PropositionalCNF.makeOrNull(list(parse("there exists W in Boolean : W")), XYZ));
+	}
+
+	@Test
+	public void testQuantifierElimination() {
+		Context context = new TrueContext(new CommonTheory());
+		runEvaluationTest("sum({{ (on X in Boolean, Y in Boolean) if X or Y then 2 else 1 }})", "7", context);
+		runEvaluationTest("sum({{ (on X in Boolean, Y in Boolean, Z in Boolean) if X != Y then 1 else 0 : Y or Z }})", "3", context);
+		runEvaluationTest("product({{ (on X in Boolean, Y in Boolean) if X and Y then 3 else 2 }})", "24", context);
+		runEvaluationTest("for all X in Boolean : for all Y in Boolean : X or not X or Y", "true", context);
+		runEvaluationTest("there exists X in Boolean : there exists Y in Boolean : X and not Y and Y", "false", context);
+	}
+
+	private static void runCountingTest(String formula, List<Expression> symbols, int expected) {
+		PropositionalCNF cnf = PropositionalCNF.makeOrNull(list(parse(formula)), symbols);
+		assertEquals(new Rational(expected), PropositionalModelCounter.count(cnf));
+		assertEquals(new Rational(expected), DecisionDNNFCompiler.compile(cnf).modelCount());
+	}
+
+	private static void runEvaluationTest(String input, String expected, Context context) {
+		Expression actual = context.getTheory().evaluate(parse(input), context);
+		assertEquals(parse(expected), actual);
+	}
+}
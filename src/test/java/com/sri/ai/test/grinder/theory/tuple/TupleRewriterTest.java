@@ -148,7 +148,7 @@ public class TupleRewriterTest {
 		//
 		// Ensure Introduced Variables are Unique
 		Assert.assertEquals(
-				parse("lambda X_1' in Boolean, X_2' in Integer, X_1 in Boolean, X_2 in Boolean : (X_1', X_2') = (true, 1) and X_1 = X_2"),
+				parse("lambda 'X_1#1' in Boolean, 'X_2#1' in Integer, X_1 in Boolean, X_2 in Boolean : ('X_1#1', 'X_2#1') = (true, 1) and X_1 = X_2"),
 				tupleQuantifierSimplifier.apply(parse("lambda X in (Boolean x Integer), X_1 in Boolean, X_2 in Boolean : X = (true, 1) and X_1 = X_2"), context));
 		
 		//
@@ -0,0 +1,82 @@
+package com.sri.ai.test.grinder.helper;
+
+import static com.sri.ai.expresso.helper.Expressions.parse;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import com.sri.ai.grinder.api.Context;
+import com.sri.ai.grinder.application.CommonTheory;
+import com.sri.ai.grinder.core.TrueContext;
+import com.sri.ai.grinder.helper.metrics.SolverEvents;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Tests for {@link SolverEvents}, checking that hooks do nothing by default
+ * and that enabled events are recorded by a Flight Recorder recording.
+ * <p>
+ * This class is in the <code>src/test/jfr</code> source folder, compiled only by the
+ * <code>flight-recorder</code> Maven profile (active on JDK 11 and later), since it uses <code>jdk.jfr</code> directly.
+ */
+public class SolverEventsTest {
+
+	private static final String[] EVENT_NAMES = {
+			"com.sri.ai.grinder.TheoryEvaluation",
+			"com.sri.ai.grinder.ContextCheck",
+			"com.sri.ai.grinder.StepSolverStep",
+			"com.sri.ai.grinder.TopRewriting",
+	};
+
+	@Test
+	public void testDisabledByDefault() {
+		assertNull(SolverEvents.beginStep());
+		SolverEvents.endStep(null, this, null); // no-op
+	}
+
+	@Test
+	public void testEventsAreRecorded() throws Exception {
+		assumeTrue(SolverEvents.AVAILABLE);
+		
+		Path file = Files.createTempFile("solver-events", ".jfr");
+		try {
+			try (Recording recording = new Recording()) {
+				for (String eventName : EVENT_NAMES) {
+					recording.enable(eventName);
+				}
+				recording.start();
+				Context context = new TrueContext(new CommonTheory()).extendWithSymbolsAndTypes("Y", "1..10");
+				context.getTheory().evaluate(parse("sum({{ (on X in 1..10) if X > Y then 1 else 0 }})"), context);
+				recording.stop();
+				recording.dump(file);
+			}
+			
+			List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+			Set<String> recordedNames = events.stream().map(e -> e.getEventType().getName()).collect(Collectors.toSet());
+			for (String eventName : EVENT_NAMES) {
+				assertTrue("Missing " + eventName, recordedNames.contains(eventName));
+			}
+			
+			RecordedEvent evaluation = 
+					events.stream()
+					.filter(e -> e.getEventType().getName().equals("com.sri.ai.grinder.TheoryEvaluation") && e.getInt("depth") == 0)
+					.findFirst().get();
+			assertEquals(CommonTheory.class.getName(), evaluation.getString("theory"));
+			assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("com.sri.ai.grinder.StepSolverStep") && e.getInt("depth") > 0));
+		}
+		finally {
+			Files.delete(file);
+		}
+	}
+}